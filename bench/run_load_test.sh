@@ -0,0 +1,76 @@
+#!/bin/bash
+# Offline load test: starts the Workspace/auth stand-in, a kb_ke_util server configured
+# against it, and the LoadGenerator. Run inside the module image (make all) or any
+# environment with the module's Python dependencies, a JDK 11+ and Maven.
+#
+# Environment: STANDIN_PORT (7777), SERVER_PORT (5000), SERVER_PROCESSES (nproc, uwsgi only),
+#              TERMS (2000), ROWS (200), COLS (20), RESULT_CACHE_BYTES (0, cache disabled)
+# Arguments are passed to the LoadGenerator, e.g. --concurrency 16 --requests 500 --json out.json
+
+set -e
+
+bench_dir=$(dirname "$(readlink -f "$0")")
+module_dir=$(dirname "$bench_dir")
+standin_port=${STANDIN_PORT:-7777}
+server_port=${SERVER_PORT:-5000}
+terms=${TERMS:-2000}
+work_dir=$(mktemp -d)
+pids=()
+
+cleanup() {
+    for pid in "${pids[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    rm -rf "$work_dir"
+}
+trap cleanup EXIT
+
+wait_for_port() {
+    for _ in $(seq 1 120); do
+        if (echo > "/dev/tcp/localhost/$1") 2>/dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "nothing listening on port $1" >&2
+    return 1
+}
+
+python "$bench_dir/standin/standin_server.py" --port "$standin_port" --terms "$terms" \
+    --rows "${ROWS:-200}" --cols "${COLS:-20}" &
+pids+=($!)
+wait_for_port "$standin_port"
+
+mkdir -p "$work_dir/scratch"
+cat > "$work_dir/deploy.cfg" <<EOF
+[kb_ke_util]
+kbase-endpoint = http://localhost:$standin_port
+job-service-url = http://localhost:$standin_port/njs
+workspace-url = http://localhost:$standin_port/ws
+shock-url = http://localhost:$standin_port/shock
+handle-service-url = http://localhost:$standin_port/handle
+srv-wiz-url = http://localhost:$standin_port/srv_wiz
+njsw-url = http://localhost:$standin_port/njs
+auth-service-url = http://localhost:$standin_port/auth
+auth-service-url-allow-insecure = true
+scratch = $work_dir/scratch
+result-cache-memory-bytes = ${RESULT_CACHE_BYTES:-0}
+result-cache-disk-bytes = ${RESULT_CACHE_BYTES:-0}
+preload-ontology = true
+EOF
+
+export KB_DEPLOYMENT_CONFIG=$work_dir/deploy.cfg
+export PYTHONPATH=$module_dir/lib:$PYTHONPATH
+server=$module_dir/lib/kb_ke_util/wsgi.py
+if command -v uwsgi > /dev/null; then
+    uwsgi --master --processes "${SERVER_PROCESSES:-$(nproc)}" --threads 5 \
+        --http ":$server_port" --wsgi-file "$server" --logto "$work_dir/server.log" &
+else
+    python "$server" --port "$server_port" > "$work_dir/server.log" 2>&1 &
+fi
+pids+=($!)
+wait_for_port "$server_port"
+
+mvn -q -f "$bench_dir/pom.xml" compile exec:java -Dexec.classpathScope=compile \
+    -Dexec.mainClass=us.kbase.kbkeutil.bench.LoadGenerator \
+    -Dexec.args="--url http://localhost:$server_port --terms $terms $*"
@@ -0,0 +1,102 @@
+package us.kbase.kbkeutil.bench;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.kbase.auth.AuthToken;
+import us.kbase.common.service.JsonClientException;
+import us.kbase.common.service.UnauthorizedException;
+import us.kbase.kbkeutil.FclusterOutput;
+import us.kbase.kbkeutil.FclusterParams;
+import us.kbase.kbkeutil.KbKeUtilClient;
+import us.kbase.kbkeutil.KbKeUtilClientCaller;
+import us.kbase.kbkeutil.LinkageOutput;
+import us.kbase.kbkeutil.LinkageParams;
+import us.kbase.kbkeutil.PdistOutput;
+import us.kbase.kbkeutil.PdistParams;
+
+
+/**
+ * <p>End-to-end KbKeUtilClient calls against an in-process StubServer.</p>
+ * <pre>
+ * transport "connection" is the default HttpURLConnection per call,
+ * "pooled" the keep-alive HttpClient of setPooledTransport.
+ * Run with -t to measure concurrent callers sharing one client.
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"connection", "pooled"})
+    public String transport;
+
+    private StubServer server;
+    private KbKeUtilClient client;
+    private PdistParams pdistParams;
+    private LinkageParams linkageParams;
+    private FclusterParams fclusterParams;
+
+    @Setup
+    public void setUp() throws IOException, UnauthorizedException {
+        server = new StubServer(Runtime.getRuntime().availableProcessors())
+            .withResult("kb_ke_util.run_pdist", Fixtures.pdistOutput(size))
+            .withResult("kb_ke_util.run_linkage", Fixtures.linkageOutput(size))
+            .withResult("kb_ke_util.run_fcluster", Fixtures.fclusterOutput(size));
+        // the stub server ignores the token, but the calls require one
+        client = new KbKeUtilClient(server.start(), new AuthToken("bench_token", "bench_user"));
+        client.setIsInsecureHttpConnectionAllowed(true);
+        client.setAuthAllowedForHttp(true);
+        if ("pooled".equals(transport)) {
+            client.setPooledTransport(true, KbKeUtilClientCaller.DEFAULT_MAX_CONNECTIONS,
+                KbKeUtilClientCaller.DEFAULT_IDLE_TIMEOUT);
+        }
+
+        pdistParams = new PdistParams().withDataMatrix("{}");
+        linkageParams = new LinkageParams().withDistMatrix(Arrays.asList(1.0, 2.0, 3.0));
+        fclusterParams = new FclusterParams().withLinkageMatrix(Fixtures.linkageOutput(3)
+            .getLinkageMatrix()).withDistThreshold(1.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public PdistOutput runPdist() throws IOException, JsonClientException {
+        return client.runPdist(pdistParams);
+    }
+
+    @Benchmark
+    public LinkageOutput runLinkage() throws IOException, JsonClientException {
+        return client.runLinkage(linkageParams);
+    }
+
+    @Benchmark
+    public FclusterOutput runFcluster() throws IOException, JsonClientException {
+        return client.runFcluster(fclusterParams);
+    }
+
+}
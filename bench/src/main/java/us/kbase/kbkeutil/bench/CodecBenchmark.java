@@ -0,0 +1,138 @@
+package us.kbase.kbkeutil.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import us.kbase.kbkeutil.EnrichOnthologyOutput;
+import us.kbase.kbkeutil.EnrichOnthologyParams;
+import us.kbase.kbkeutil.EnrichmentTable;
+import us.kbase.kbkeutil.EntityTermSets;
+import us.kbase.kbkeutil.FclusterOutput;
+import us.kbase.kbkeutil.KbKeUtilMappers;
+import us.kbase.kbkeutil.LinkageOutput;
+import us.kbase.kbkeutil.PdistOutput;
+
+
+/**
+ * <p>Jackson serialization and deserialization of the larger output POJOs.</p>
+ * <pre>
+ * mappers: plain - a new ObjectMapper
+ *          shared - KbKeUtilMappers.json(), with Afterburner from the bench classpath
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"plain", "shared"})
+    public String mappers;
+
+    private ObjectMapper mapper;
+    private PdistOutput pdistOutput;
+    private LinkageOutput linkageOutput;
+    private FclusterOutput fclusterOutput;
+    private EnrichOnthologyOutput enrichOnthologyOutput;
+    private EnrichOnthologyParams enrichOnthologyParams;
+    private EnrichOnthologyParams encodedEnrichOnthologyParams;
+    private byte[] pdistJson;
+    private byte[] linkageJson;
+    private byte[] fclusterJson;
+    private byte[] enrichOnthologyJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "shared".equals(mappers) ? KbKeUtilMappers.json() : new ObjectMapper();
+        pdistOutput = Fixtures.pdistOutput(size);
+        linkageOutput = Fixtures.linkageOutput(size);
+        fclusterOutput = Fixtures.fclusterOutput(size);
+        // GO enrichment profiles run to thousands of terms
+        enrichOnthologyOutput = Fixtures.enrichOnthologyOutput(size * 10);
+        pdistJson = mapper.writeValueAsBytes(pdistOutput);
+        linkageJson = mapper.writeValueAsBytes(linkageOutput);
+        fclusterJson = mapper.writeValueAsBytes(fclusterOutput);
+        enrichOnthologyJson = mapper.writeValueAsBytes(enrichOnthologyOutput);
+        // genomes run to tens of thousands of genes
+        enrichOnthologyParams = new EnrichOnthologyParams()
+            .withSampleSet(Fixtures.labels(size)).withEntityTermSet(Fixtures.entityTermSet(size * 30));
+        encodedEnrichOnthologyParams = new EnrichOnthologyParams()
+            .withSampleSet(enrichOnthologyParams.getSampleSet())
+            .withEncodedEntityTermSet(EntityTermSets.encode(enrichOnthologyParams.getEntityTermSet()));
+    }
+
+    @Benchmark
+    public byte[] serializePdistOutput() throws IOException {
+        return mapper.writeValueAsBytes(pdistOutput);
+    }
+
+    @Benchmark
+    public PdistOutput deserializePdistOutput() throws IOException {
+        return mapper.readValue(pdistJson, PdistOutput.class);
+    }
+
+    @Benchmark
+    public byte[] serializeLinkageOutput() throws IOException {
+        return mapper.writeValueAsBytes(linkageOutput);
+    }
+
+    @Benchmark
+    public LinkageOutput deserializeLinkageOutput() throws IOException {
+        return mapper.readValue(linkageJson, LinkageOutput.class);
+    }
+
+    @Benchmark
+    public byte[] serializeFclusterOutput() throws IOException {
+        return mapper.writeValueAsBytes(fclusterOutput);
+    }
+
+    @Benchmark
+    public FclusterOutput deserializeFclusterOutput() throws IOException {
+        return mapper.readValue(fclusterJson, FclusterOutput.class);
+    }
+
+    @Benchmark
+    public byte[] serializeEnrichOnthologyOutput() throws IOException {
+        return mapper.writeValueAsBytes(enrichOnthologyOutput);
+    }
+
+    @Benchmark
+    public EnrichOnthologyOutput deserializeEnrichOnthologyOutput() throws IOException {
+        return mapper.readValue(enrichOnthologyJson, EnrichOnthologyOutput.class);
+    }
+
+    @Benchmark
+    public byte[] serializeEnrichOnthologyParams() throws IOException {
+        return mapper.writeValueAsBytes(enrichOnthologyParams);
+    }
+
+    @Benchmark
+    public byte[] serializeEncodedEnrichOnthologyParams() throws IOException {
+        return mapper.writeValueAsBytes(encodedEnrichOnthologyParams);
+    }
+
+    @Benchmark
+    public EnrichmentTable deserializeEnrichmentTable() throws IOException {
+        return mapper.readValue(enrichOnthologyJson, EnrichmentTable.class);
+    }
+
+}
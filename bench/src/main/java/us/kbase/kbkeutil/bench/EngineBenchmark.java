@@ -0,0 +1,114 @@
+package us.kbase.kbkeutil.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import us.kbase.kbkeutil.FclusterOutput;
+import us.kbase.kbkeutil.FlatClusters;
+import us.kbase.kbkeutil.LinkageCodec;
+import us.kbase.kbkeutil.SemanticSimilarity;
+
+
+/**
+ * <p>Client side helpers that run locally: LinkageCodec, FlatClusters and
+ * SemanticSimilarity.</p>
+ * <pre>
+ * For SemanticSimilarity, size is the number of terms of the is_a DAG and
+ * scoring is measured over PAIRS random term pairs.
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    private static final int PAIRS = 1000;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<List<Double>> linkageMatrix;
+    private double[] packed;
+    private String packedLinkage;
+    private FclusterOutput compactFclusterOutput;
+    private List<String> labels;
+    private Map<String, List<String>> isAParents;
+    private Map<String, List<String>> entityTermSet;
+    private SemanticSimilarity similarity;
+    private int[] pairs;
+
+    @Setup
+    public void setUp() {
+        linkageMatrix = Fixtures.linkageOutput(size).getLinkageMatrix();
+        packed = LinkageCodec.pack(linkageMatrix);
+        packedLinkage = LinkageCodec.encode(packed);
+        compactFclusterOutput = Fixtures.compactFclusterOutput(size);
+        labels = Fixtures.labels(size);
+        isAParents = Fixtures.isAParents(size);
+        entityTermSet = Fixtures.entityTermSet(size);
+        similarity = SemanticSimilarity.of(isAParents, entityTermSet);
+        Random random = new Random(42L);
+        pairs = new int[2 * PAIRS];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = random.nextInt(similarity.size());
+        }
+    }
+
+    @Benchmark
+    public String encodeLinkage() {
+        return LinkageCodec.encode(LinkageCodec.pack(linkageMatrix));
+    }
+
+    @Benchmark
+    public List<List<Double>> decodeLinkage() {
+        return LinkageCodec.unpack(LinkageCodec.decode(packedLinkage));
+    }
+
+    @Benchmark
+    public double[] decodePackedLinkage() {
+        return LinkageCodec.decode(packedLinkage);
+    }
+
+    @Benchmark
+    public void iterateFlatClusters(Blackhole blackhole) {
+        for (Map.Entry<String, List<String>> cluster :
+                FlatClusters.asMap(compactFclusterOutput, labels).entrySet()) {
+            for (String label : cluster.getValue()) {
+                blackhole.consume(label);
+            }
+        }
+    }
+
+    @Benchmark
+    public SemanticSimilarity buildSemanticSimilarity() {
+        return SemanticSimilarity.of(isAParents, entityTermSet);
+    }
+
+    @Benchmark
+    public double linSimilarity() {
+        double sum = 0;
+        for (int i = 0; i < pairs.length; i += 2) {
+            sum += similarity.lin(pairs[i], pairs[i + 1]);
+        }
+        return sum;
+    }
+
+}
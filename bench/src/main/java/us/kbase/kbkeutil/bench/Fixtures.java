@@ -0,0 +1,168 @@
+package us.kbase.kbkeutil.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import us.kbase.kbkeutil.EnrichOnthologyOutput;
+import us.kbase.kbkeutil.FclusterOutput;
+import us.kbase.kbkeutil.LinkageOutput;
+import us.kbase.kbkeutil.PdistOutput;
+import us.kbase.kbkeutil.TermEnrichment;
+
+
+/**
+ * <p>Seeded outputs of realistic shape for the benchmarks.</p>
+ * <pre>
+ * size is the number of clustered elements (genes or conditions) for the
+ * pdist/linkage/fcluster outputs, the number of GO terms for the
+ * enrich_onthology output and of the is_a DAG, and the number of genes for
+ * the entity_term_set.
+ * </pre>
+ */
+final class Fixtures {
+
+    private static final long SEED = 42L;
+    private static final String[] ONTOLOGY_TYPES = {"P", "F", "C"};
+
+    private Fixtures() {
+    }
+
+    static List<String> labels(int size) {
+        List<String> labels = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            labels.add("gene_" + i);
+        }
+        return labels;
+    }
+
+    /** size * (size - 1) / 2 distances, as run_pdist returns them. */
+    static PdistOutput pdistOutput(int size) {
+        Random random = new Random(SEED);
+        List<Double> distMatrix = new ArrayList<Double>(size * (size - 1) / 2);
+        for (int i = 0; i < size * (size - 1) / 2; i++) {
+            distMatrix.add(random.nextDouble() * 10);
+        }
+        return new PdistOutput().withDistMatrix(distMatrix).withLabels(labels(size));
+    }
+
+    /** A valid linkage matrix of size - 1 merges of random clusters at increasing distance. */
+    static LinkageOutput linkageOutput(int size) {
+        Random random = new Random(SEED);
+        List<Integer> clusters = new ArrayList<Integer>(size);
+        List<Integer> counts = new ArrayList<Integer>(2 * size);
+        for (int i = 0; i < size; i++) {
+            clusters.add(i);
+            counts.add(1);
+        }
+        List<List<Double>> linkageMatrix = new ArrayList<List<Double>>(size - 1);
+        double distance = 0;
+        for (int merge = 0; merge < size - 1; merge++) {
+            int first = clusters.remove(random.nextInt(clusters.size()));
+            int second = clusters.remove(random.nextInt(clusters.size()));
+            int count = counts.get(first) + counts.get(second);
+            distance += random.nextDouble();
+            List<Double> row = new ArrayList<Double>(4);
+            row.add((double) Math.min(first, second));
+            row.add((double) Math.max(first, second));
+            row.add(distance);
+            row.add((double) count);
+            linkageMatrix.add(row);
+            clusters.add(size + merge);
+            counts.add(count);
+        }
+        return new LinkageOutput().withLinkageMatrix(linkageMatrix);
+    }
+
+    /** size labels spread over about sqrt(size) clusters. */
+    static FclusterOutput fclusterOutput(int size) {
+        int clusterCount = Math.max(1, (int) Math.sqrt(size));
+        Random random = new Random(SEED);
+        List<String> labels = labels(size);
+        Map<String, List<String>> flatCluster = new LinkedHashMap<String, List<String>>();
+        for (int cluster = 1; cluster <= clusterCount; cluster++) {
+            flatCluster.put(String.valueOf(cluster), new ArrayList<String>());
+        }
+        for (int i = 0; i < size; i++) {
+            int cluster = 1 + random.nextInt(clusterCount);
+            flatCluster.get(String.valueOf(cluster)).add(labels.get(i));
+        }
+        return new FclusterOutput().withFlatCluster(flatCluster);
+    }
+
+    /** The compact_output form of fclusterOutput(size). */
+    static FclusterOutput compactFclusterOutput(int size) {
+        FclusterOutput output = fclusterOutput(size);
+        List<Long> clusterOffsets = new ArrayList<Long>();
+        List<Long> clusterMembers = new ArrayList<Long>(size);
+        List<Long> clusterAssignment = new ArrayList<Long>(size);
+        for (int i = 0; i < size; i++) {
+            clusterAssignment.add(0L);
+        }
+        clusterOffsets.add(0L);
+        for (Map.Entry<String, List<String>> cluster : output.getFlatCluster().entrySet()) {
+            for (String label : cluster.getValue()) {
+                int member = Integer.parseInt(label.substring("gene_".length()));
+                clusterMembers.add((long) member);
+                clusterAssignment.set(member, Long.valueOf(cluster.getKey()));
+            }
+            clusterOffsets.add((long) clusterMembers.size());
+        }
+        return new FclusterOutput().withClusterAssignment(clusterAssignment)
+            .withClusterOffsets(clusterOffsets).withClusterMembers(clusterMembers);
+    }
+
+    /** size genes with 1 to 20 of 5000 GO terms each. */
+    static Map<String, List<String>> entityTermSet(int size) {
+        Random random = new Random(SEED);
+        Map<String, List<String>> entityTermSet = new LinkedHashMap<String, List<String>>();
+        for (String gene : labels(size)) {
+            List<String> terms = new ArrayList<String>();
+            for (int i = 0, count = 1 + random.nextInt(20); i < count; i++) {
+                terms.add(String.format("GO:%07d", random.nextInt(5000)));
+            }
+            entityTermSet.put(gene, terms);
+        }
+        return entityTermSet;
+    }
+
+    /** size GO terms with counts and p-values. */
+    /**
+     * Term -> is_a parents of a random DAG shaped like the stand-in server's term_hash:
+     * three roots, every other term has 1 to 3 parents among the terms before it.
+     */
+    static Map<String, List<String>> isAParents(int size) {
+        Random random = new Random(SEED);
+        Map<String, List<String>> isAParents = new LinkedHashMap<String, List<String>>();
+        for (int term = 4; term <= size; term++) {
+            List<String> parents = new ArrayList<String>();
+            for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+                String parent = String.format("GO:%07d", 1 + random.nextInt(term - 1));
+                if (!parents.contains(parent)) {
+                    parents.add(parent);
+                }
+            }
+            isAParents.put(String.format("GO:%07d", term), parents);
+        }
+        return isAParents;
+    }
+
+    static EnrichOnthologyOutput enrichOnthologyOutput(int size) {
+        Random random = new Random(SEED);
+        Map<String, TermEnrichment> enrichmentProfile = new LinkedHashMap<String, TermEnrichment>();
+        for (int i = 0; i < size; i++) {
+            long totalCount = 1 + random.nextInt(500);
+            long sampleCount = random.nextInt((int) totalCount + 1);
+            TermEnrichment enrichment = new TermEnrichment()
+                .withSampleCount(sampleCount).withTotalCount(totalCount)
+                .withExpectedCount(totalCount / 10).withPValue(random.nextDouble());
+            // appended by the server to every term, outside the spec
+            enrichment.setAdditionalProperties("ontology_type", ONTOLOGY_TYPES[i % ONTOLOGY_TYPES.length]);
+            enrichmentProfile.put(String.format("GO:%07d", i), enrichment);
+        }
+        return new EnrichOnthologyOutput().withEnrichmentProfile(enrichmentProfile);
+    }
+
+}
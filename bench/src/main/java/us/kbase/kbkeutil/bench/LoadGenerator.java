@@ -0,0 +1,302 @@
+package us.kbase.kbkeutil.bench;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import us.kbase.auth.AuthToken;
+import us.kbase.kbkeutil.BuildBiclustersParams;
+import us.kbase.kbkeutil.CalcOnthologyDistParams;
+import us.kbase.kbkeutil.DendrogramParams;
+import us.kbase.kbkeutil.EnrichOnthologyParams;
+import us.kbase.kbkeutil.EntityTermSets;
+import us.kbase.kbkeutil.FclusterParams;
+import us.kbase.kbkeutil.FclusterSweepParams;
+import us.kbase.kbkeutil.KbKeUtilClient;
+import us.kbase.kbkeutil.KbKeUtilClientCaller;
+import us.kbase.kbkeutil.KmeansParams;
+import us.kbase.kbkeutil.LinkageParams;
+import us.kbase.kbkeutil.NewickParams;
+import us.kbase.kbkeutil.PCAParams;
+import us.kbase.kbkeutil.PdistParams;
+import us.kbase.kbkeutil.RegisterEntityTermSetParams;
+
+
+/**
+ * <p>Load generator driving every KbKeUtilClient method against a kb_ke_util server.</p>
+ * <pre>
+ * Each method is called --requests times by --concurrency threads sharing
+ * one client, after --warmup unrecorded calls, and reported with p50/p99
+ * latency and throughput. Params are generated from --size (elements) and
+ * --terms (GO terms, must match the stand-in server), see
+ * bench/run_load_test.sh for a fully offline run against
+ * bench/standin/standin_server.py.
+ *
+ * Options: --url URL (default http://localhost:5000)
+ *          --token TOKEN (default standin)
+ *          --concurrency N (default 8)
+ *          --requests N (default 200)
+ *          --warmup N (default 10)
+ *          --size N (default 100)
+ *          --terms N (default 2000)
+ *          --methods m1,m2 (spec-file names, default all; enrich_onthology_encoded
+ *                           sends the entity_term_set dictionary encoded,
+ *                           enrich_onthology_handle registers it once and sends
+ *                           its handle)
+ *          --pooled (use the pooled keep-alive transport)
+ *          --json FILE (also write the report as JSON)
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private interface Call {
+        Object run(KbKeUtilClient client) throws Exception;
+    }
+
+    /** Latencies of one method. */
+    public static class Result {
+
+        public final String method;
+        public final int requests;
+        public final int errors;
+        public final String firstError;
+        public final double p50Millis;
+        public final double p99Millis;
+        public final double throughput;
+
+        Result(String method, long[] latencies, int errors, String firstError, long elapsedNanos) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            this.method = method;
+            this.requests = latencies.length;
+            this.errors = errors;
+            this.firstError = firstError;
+            this.p50Millis = percentile(sorted, 0.50) / 1e6;
+            this.p99Millis = percentile(sorted, 0.99) / 1e6;
+            this.throughput = latencies.length / (elapsedNanos / 1e9);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    private final Map<String, Call> calls = new LinkedHashMap<String, Call>();
+
+    LoadGenerator(int size, int terms) {
+        Random random = new Random(42L);
+        List<String> labels = Fixtures.labels(size);
+        List<List<Double>> linkageMatrix = Fixtures.linkageOutput(size).getLinkageMatrix();
+        List<Double> distMatrix = Fixtures.pdistOutput(size).getDistMatrix();
+        double distThreshold = linkageMatrix.get(linkageMatrix.size() / 2).get(2);
+        List<Double> distThresholds = new ArrayList<Double>();
+        for (int i = 1; i <= 10; i++) {
+            distThresholds.add(linkageMatrix.get((linkageMatrix.size() - 1) * i / 10).get(2));
+        }
+
+        StringBuilder dataMatrix = new StringBuilder("{");
+        for (int condition = 1; condition <= 10; condition++) {
+            dataMatrix.append(condition > 1 ? ",\"" : "\"").append("condition_").append(condition)
+                .append("\":{");
+            for (int gene = 0; gene < size; gene++) {
+                dataMatrix.append(gene > 0 ? ",\"" : "\"").append(labels.get(gene)).append("\":")
+                    .append(random.nextDouble());
+            }
+            dataMatrix.append('}');
+        }
+        final String data = dataMatrix.append('}').toString();
+
+        Map<String, List<String>> entityTermSet = new LinkedHashMap<String, List<String>>();
+        Map<String, List<String>> onthologySet = new LinkedHashMap<String, List<String>>();
+        for (String label : labels) {
+            List<String> assigned = new ArrayList<String>();
+            for (int i = 0, count = 1 + random.nextInt(5); i < count; i++) {
+                assigned.add(goTerm(random, terms));
+            }
+            entityTermSet.put(label, assigned);
+            onthologySet.put(label, Arrays.asList(goTerm(random, terms), goTerm(random, terms)));
+        }
+
+        final NewickParams newickParams = new NewickParams().withLinkageMatrix(linkageMatrix)
+            .withLabels(labels);
+        final PCAParams pcaParams = new PCAParams().withDataMatrix(data).withNComponents(2L);
+        final KmeansParams kmeansParams = new KmeansParams().withDistMatrix(distMatrix)
+            .withKNum(5L);
+        final PdistParams pdistParams = new PdistParams().withDataMatrix(data);
+        final LinkageParams linkageParams = new LinkageParams().withDistMatrix(distMatrix)
+            .withMethod("average");
+        final FclusterParams fclusterParams = new FclusterParams().withLinkageMatrix(linkageMatrix)
+            .withDistThreshold(distThreshold).withLabels(labels);
+        final FclusterSweepParams sweepParams = new FclusterSweepParams()
+            .withLinkageMatrix(linkageMatrix).withDistThresholds(distThresholds).withLabels(labels);
+        final DendrogramParams dendrogramParams = new DendrogramParams()
+            .withLinkageMatrix(linkageMatrix).withDistThreshold(distThreshold).withLabels(labels)
+            .withOutputFormat("svg");
+        final BuildBiclustersParams biclustersParams = new BuildBiclustersParams()
+            .withNdarrayRef("1/1/1").withDistThreshold(10.0);
+        final EnrichOnthologyParams enrichParams = new EnrichOnthologyParams()
+            .withSampleSet(labels.subList(0, Math.max(1, size / 4)))
+            .withEntityTermSet(entityTermSet).withPropagation(1L);
+        final EnrichOnthologyParams encodedEnrichParams = new EnrichOnthologyParams()
+            .withSampleSet(enrichParams.getSampleSet())
+            .withEncodedEntityTermSet(EntityTermSets.encode(entityTermSet)).withPropagation(1L);
+        final RegisterEntityTermSetParams registerParams = new RegisterEntityTermSetParams()
+            .withEncodedEntityTermSet(encodedEnrichParams.getEncodedEntityTermSet());
+        final AtomicReference<String> entityTermSetHandle = new AtomicReference<String>();
+        final CalcOnthologyDistParams distParams = new CalcOnthologyDistParams()
+            .withOnthologySet(onthologySet);
+
+        calls.put("linkage_2_newick", client -> client.linkage2Newick(newickParams));
+        calls.put("run_PCA", client -> client.runPCA(pcaParams));
+        calls.put("run_kmeans2", client -> client.runKmeans2(kmeansParams));
+        calls.put("run_pdist", client -> client.runPdist(pdistParams));
+        calls.put("run_linkage", client -> client.runLinkage(linkageParams));
+        calls.put("run_fcluster", client -> client.runFcluster(fclusterParams));
+        calls.put("run_fcluster_sweep", client -> client.runFclusterSweep(sweepParams));
+        calls.put("run_dendrogram", client -> client.runDendrogram(dendrogramParams));
+        calls.put("build_biclusters", client -> client.buildBiclusters(biclustersParams));
+        calls.put("enrich_onthology", client -> client.enrichOnthology(enrichParams));
+        calls.put("enrich_onthology_encoded", client -> client.enrichOnthology(encodedEnrichParams));
+        calls.put("register_entity_term_set", client -> client.registerEntityTermSet(registerParams));
+        calls.put("enrich_onthology_handle", client -> {
+            if (entityTermSetHandle.get() == null) {
+                entityTermSetHandle.compareAndSet(null,
+                    client.registerEntityTermSet(registerParams).getEntityTermSetHandle());
+            }
+            return client.enrichOnthology(new EnrichOnthologyParams()
+                .withSampleSet(enrichParams.getSampleSet())
+                .withEntityTermSetHandle(entityTermSetHandle.get()).withPropagation(1L));
+        });
+        calls.put("calc_onthology_dist", client -> client.calcOnthologyDist(distParams));
+        calls.put("calc_weighted_onthology_dist",
+            client -> client.calcWeightedOnthologyDist(distParams));
+        calls.put("calc_resnik_onthology_sim", client -> client.calcResnikOnthologySim(distParams));
+        calls.put("calc_lin_onthology_sim", client -> client.calcLinOnthologySim(distParams));
+        calls.put("calc_jiang_conrath_onthology_dist",
+            client -> client.calcJiangConrathOnthologyDist(distParams));
+    }
+
+    private static String goTerm(Random random, int terms) {
+        return String.format("GO:%07d", 1 + random.nextInt(terms));
+    }
+
+    Result run(final KbKeUtilClient client, String method, int concurrency, int requests,
+            int warmup) throws InterruptedException {
+        final Call call = calls.get(method);
+        if (call == null) {
+            throw new IllegalArgumentException("Unknown method " + method + ", expected one of " +
+                calls.keySet());
+        }
+        for (int i = 0; i < warmup; i++) {
+            try {
+                call.run(client);
+            } catch (Exception e) {
+                break;
+            }
+        }
+
+        final long[] latencies = new long[requests];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final String[] firstError = new String[1];
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int thread = 0; thread < concurrency; thread++) {
+            executor.execute(() -> {
+                for (int request = next.getAndIncrement(); request < requests;
+                        request = next.getAndIncrement()) {
+                    long callStart = System.nanoTime();
+                    try {
+                        call.run(client);
+                    } catch (Exception e) {
+                        if (errors.getAndIncrement() == 0) {
+                            firstError[0] = e.toString();
+                        }
+                    }
+                    latencies[request] = System.nanoTime() - callStart;
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+        return new Result(method, latencies, errors.get(), firstError[0], elapsed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<String, String>();
+        options.put("url", "http://localhost:5000");
+        options.put("token", "standin");
+        options.put("concurrency", "8");
+        options.put("requests", "200");
+        options.put("warmup", "10");
+        options.put("size", "100");
+        options.put("terms", "2000");
+        options.put("methods", "");
+        options.put("json", "");
+        boolean pooled = false;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i].replaceFirst("^--", "");
+            if (option.equals("pooled")) {
+                pooled = true;
+            } else if (options.containsKey(option) && i + 1 < args.length) {
+                options.put(option, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown or incomplete option " + args[i]);
+            }
+        }
+
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        LoadGenerator generator = new LoadGenerator(Integer.parseInt(options.get("size")),
+            Integer.parseInt(options.get("terms")));
+        KbKeUtilClient client = new KbKeUtilClient(new URL(options.get("url")),
+            new AuthToken(options.get("token"), "standin"));
+        client.setIsInsecureHttpConnectionAllowed(true);
+        client.setAuthAllowedForHttp(true);
+        if (pooled) {
+            client.setPooledTransport(true, Math.max(concurrency,
+                KbKeUtilClientCaller.DEFAULT_MAX_CONNECTIONS), KbKeUtilClientCaller.DEFAULT_IDLE_TIMEOUT);
+        }
+
+        List<String> methods = options.get("methods").isEmpty() ?
+            new ArrayList<String>(generator.calls.keySet()) :
+            Arrays.asList(options.get("methods").split(","));
+        List<Result> results = new ArrayList<Result>();
+        System.out.println(String.format("%-30s %8s %7s %10s %10s %10s", "method", "requests",
+            "errors", "p50 ms", "p99 ms", "req/s"));
+        for (String method : methods) {
+            Result result = generator.run(client, method, concurrency,
+                Integer.parseInt(options.get("requests")), Integer.parseInt(options.get("warmup")));
+            results.add(result);
+            System.out.println(String.format("%-30s %8d %7d %10.2f %10.2f %10.1f", result.method,
+                result.requests, result.errors, result.p50Millis, result.p99Millis,
+                result.throughput));
+            if (result.firstError != null) {
+                System.out.println("    first error: " + result.firstError);
+            }
+        }
+
+        if (!options.get("json").isEmpty()) {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File(options.get("json")), results);
+        }
+    }
+
+}
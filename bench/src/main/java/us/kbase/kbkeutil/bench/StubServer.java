@@ -0,0 +1,107 @@
+package us.kbase.kbkeutil.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * <p>In-process JSON RPC server answering kb_ke_util methods with canned results.</p>
+ * <pre>
+ * Each method returns the same result object regardless of its params, so a
+ * client call measures request serialization, the HTTP round trip and
+ * response deserialization only.
+ * </pre>
+ */
+class StubServer {
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, JsonNode> results = new HashMap<String, JsonNode>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    StubServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange);
+            }
+        });
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * <p>Sets the result of a method, e.g. "kb_ke_util.run_pdist".</p>
+     * @param   method   JSON RPC method name.
+     * @param   result   output POJO returned by the method.
+     */
+    StubServer withResult(String method, Object result) {
+        results.put(method, mapper.valueToTree(Collections.singletonList(result)));
+        return this;
+    }
+
+    URL start() throws IOException {
+        server.start();
+        return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "/");
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream is = exchange.getRequestBody()) {
+            request = mapper.readTree(readAll(is));
+        }
+        ObjectNode response = mapper.createObjectNode();
+        response.put("version", "1.1");
+        response.set("id", request.get("id"));
+        JsonNode result = results.get(request.path("method").asText());
+        if (result == null) {
+            ObjectNode error = response.putObject("error");
+            error.put("name", "JSONRPCError");
+            error.put("code", -32601);
+            error.put("message", "Method not found");
+        } else {
+            response.set("result", result);
+        }
+        byte[] body = mapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(result == null ? 500 : 200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int read = is.read(chunk); read >= 0; read = is.read(chunk)) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+}
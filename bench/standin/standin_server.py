@@ -0,0 +1,185 @@
+"""
+standin_server: offline stand-in for the KBase services kb_ke_util depends on
+
+Serves, on one port:
+    /ws   - Workspace JSON RPC get_objects and get_objects2
+            get_objects returns a synthetic GO-like DAG as KBaseOntology gene_ontology and
+            plant_ontology, get_objects2 returns a generated KBaseMatrices NDArray for any ref
+    /auth - auth service token lookup used by the kb_ke_util server (any token is valid)
+
+Term ids are GO:0000001 .. GO:<terms> (PO:... for plant_ontology), the first three terms are
+roots and every other term has 1 to 3 is_a parents among the terms before it, plus occasional
+part_of/regulates relationships. Row ids of the NDArray are gene_1 .. gene_<rows>.
+
+Usage: python standin_server.py [--port 7777] [--terms 2000] [--rows 200] [--cols 20]
+                                [--density 0.3] [--seed 42]
+"""
+import argparse
+import json
+import random
+import sys
+
+try:
+    from BaseHTTPServer import BaseHTTPRequestHandler, HTTPServer
+    from SocketServer import ThreadingMixIn
+    from urlparse import parse_qs
+except ImportError:
+    from http.server import BaseHTTPRequestHandler, HTTPServer
+    from socketserver import ThreadingMixIn
+    from urllib.parse import parse_qs
+
+
+ROOT_TERM_COUNT = 3
+PLANT_TERM_RATIO = 10  # plant_ontology gets one term per this many GO terms
+
+
+def term_id(prefix, index):
+    return '{}:{:07d}'.format(prefix, index)
+
+
+def generate_term_hash(prefix, term_count, rand):
+    """
+    generate_term_hash: KBaseOntology term_hash of a random DAG, parents precede children
+    """
+    term_hash = dict()
+    for index in range(1, term_count + 1):
+        go_id = term_id(prefix, index)
+        term = {'id': go_id,
+                'name': 'synthetic term {}'.format(index),
+                'namespace': 'synthetic'}
+        if index > ROOT_TERM_COUNT:
+            parents = set(rand.randint(1, index - 1) for _ in range(rand.randint(1, 3)))
+            term['is_a'] = ['{} ! synthetic term {}'.format(term_id(prefix, parent), parent)
+                            for parent in sorted(parents)]
+            if rand.random() < 0.2:
+                relation = rand.choice(['part_of', 'regulates'])
+                parent = rand.randint(1, index - 1)
+                term['relationship'] = ['{} {} ! synthetic term {}'.format(
+                                                relation, term_id(prefix, parent), parent)]
+        term_hash[go_id] = term
+
+    return term_hash
+
+
+def generate_ndarray(rows, cols, density, rand):
+    """
+    generate_ndarray: KBaseMatrices NDArray data with rows x cols float values
+    """
+    values = list()
+    for _ in range(rows * cols):
+        values.append(round(rand.random() * 10, 3) if rand.random() < density else 0.0)
+
+    def dimension(ids):
+        return {'typed_values': [{'values': {'scalar_type': 'string',
+                                             'string_values': ids}}]}
+
+    return {'dim_context': [dimension(['gene_{}'.format(i) for i in range(1, rows + 1)]),
+                            dimension(['condition_{}'.format(i) for i in range(1, cols + 1)])],
+            'typed_values': {'values': {'scalar_type': 'float',
+                                        'float_values': values}}}
+
+
+def object_info(name, obj_type):
+    return [1, name, obj_type, '2018-01-01T00:00:00+0000', 1, 'standin', 1, 'standin',
+            '0', 0, {}]
+
+
+class StandInData(object):
+
+    def __init__(self, args):
+        rand = random.Random(args.seed)
+        self.ontologies = {
+            'gene_ontology': generate_term_hash('GO', args.terms, rand),
+            'plant_ontology': generate_term_hash('PO',
+                                                 max(ROOT_TERM_COUNT + 1,
+                                                     args.terms // PLANT_TERM_RATIO), rand)}
+        self.ndarray = generate_ndarray(args.rows, args.cols, args.density, rand)
+
+    def get_objects(self, object_ids):
+        objects = list()
+        for object_id in object_ids:
+            name = object_id.get('name')
+            if name not in self.ontologies:
+                raise ValueError('No object with name {} exists in workspace {}'.format(
+                                                        name, object_id.get('workspace')))
+            objects.append({'data': {'ontology': name,
+                                     'term_hash': self.ontologies[name]},
+                            'info': object_info(name, 'KBaseOntology.OntologyDictionary-4.0')})
+        return objects
+
+    def get_objects2(self, params):
+        return {'data': [{'data': self.ndarray,
+                          'info': object_info(object_id.get('ref'), 'KBaseMatrices.NDArray-1.0')}
+                         for object_id in params['objects']]}
+
+
+class StandInHandler(BaseHTTPRequestHandler):
+
+    protocol_version = 'HTTP/1.1'
+    data = None
+
+    def log_message(self, format, *args):
+        pass
+
+    def _send(self, code, body):
+        body = json.dumps(body).encode('utf-8')
+        self.send_response(code)
+        self.send_header('Content-Type', 'application/json')
+        self.send_header('Content-Length', str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def do_POST(self):
+        body = self.rfile.read(int(self.headers.get('Content-Length', 0))).decode('utf-8')
+
+        if self.path.startswith('/auth'):
+            token = parse_qs(body).get('token', [''])[0]
+            self._send(200, {'user_id': 'standin_' + token[:8]})
+            return
+
+        request = json.loads(body)
+        method = request.get('method')
+        params = request.get('params', [])
+        try:
+            if method == 'Workspace.get_objects':
+                result = [self.data.get_objects(params[0])]
+            elif method == 'Workspace.get_objects2':
+                result = [self.data.get_objects2(params[0])]
+            else:
+                self._send(500, {'version': '1.1', 'id': request.get('id'),
+                                 'error': {'name': 'JSONRPCError', 'code': -32601,
+                                           'message': 'Method not found: {}'.format(method)}})
+                return
+        except Exception as e:
+            self._send(500, {'version': '1.1', 'id': request.get('id'),
+                             'error': {'name': 'JSONRPCError', 'code': -32500,
+                                       'message': str(e)}})
+            return
+
+        self._send(200, {'version': '1.1', 'id': request.get('id'), 'result': result})
+
+
+class ThreadedHTTPServer(ThreadingMixIn, HTTPServer):
+    daemon_threads = True
+
+
+def main(argv):
+    parser = argparse.ArgumentParser(description='Offline Workspace and auth stand-in')
+    parser.add_argument('--port', type=int, default=7777)
+    parser.add_argument('--terms', type=int, default=2000)
+    parser.add_argument('--rows', type=int, default=200)
+    parser.add_argument('--cols', type=int, default=20)
+    parser.add_argument('--density', type=float, default=0.3)
+    parser.add_argument('--seed', type=int, default=42)
+    args = parser.parse_args(argv)
+
+    StandInHandler.data = StandInData(args)
+    server = ThreadedHTTPServer(('localhost', args.port), StandInHandler)
+    print('stand-in listening on port {} ({} GO terms, {} x {} NDArray)'.format(
+                                            args.port, args.terms, args.rows, args.cols))
+    sys.stdout.flush()
+    server.serve_forever()
+
+
+if __name__ == '__main__':
+    main(sys.argv[1:])
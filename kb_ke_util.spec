@@ -12,6 +12,11 @@ module kb_ke_util {
   /* An X/Y/Z style reference*/
   typedef string obj_ref;
 
+  /* A linkage matrix packed as base64 encoded little-endian float64 values, row by row
+     (n - 1 rows of [cluster_1, cluster_2, distance, count] for n leaves)
+  */
+  typedef string packed_linkage;
+
   /***************
   math layer
   ***************/
@@ -20,23 +25,48 @@ module kb_ke_util {
     linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
     labels - items corresponding to each linkage_matrix element 
              (If labels are given, result flat_cluster will be mapped to element in labels.)
+
+    Optional arguments:
+    write_to_file - stream the newick tree into a file in scratch instead of returning it
+                    (default is 0)
+    packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                            (refer to run_linkage return with packed_output)
   */
   typedef structure {
     list<list<float>> linkage_matrix;
     list<string> labels;
+    boolean write_to_file;
+    packed_linkage packed_linkage_matrix;
   } NewickParams;
 
   /* Ouput of the linkage_2_newick function
     newick - newick representation of tree
              https://en.wikipedia.org/wiki/Newick_format
+    newick_file - path of the newick file if write_to_file is set (newick is then empty)
   */
   typedef structure {
     string newick;
+    string newick_file;
   } NewickOutput;
 
   /* linkage_2_newick: convert a linkage matrix to newick format*/
   funcdef linkage_2_newick(NewickParams params) returns(NewickOutput returnVal) authentication required;
 
+  /* Sparse data matrix in compressed sparse row (CSR) format
+    row_ids - item names of matrix rows (e.g. gene ids)
+    col_ids - names of matrix columns (e.g. conditions)
+    indptr - non-zero values of row i are values[indptr[i]:indptr[i+1]] (size len(row_ids) + 1)
+    indices - column position of each non-zero value
+    values - non-zero values
+  */
+  typedef structure {
+    list<string> row_ids;
+    list<string> col_ids;
+    list<int> indptr;
+    list<int> indices;
+    list<float> values;
+  } SparseMatrix;
+
   /* Input of the run_PCA function
     data_matrix - raw data matrix in json format
                   e.g.{u'condition_1': {u'gene_1': 0.1, u'gene_2': 0.3, u'gene_3': None},
@@ -44,10 +74,13 @@ module kb_ke_util {
                        u'condition_3': {u'gene_1': 0.3, u'gene_2': 0.5, u'gene_3': None},
                        u'condition_4': {u'gene_1': 0.4, u'gene_2': 0.6, u'gene_3': None}}
     n_components - number of components (default 2)
+    sparse_matrix - sparse data matrix used in place of data_matrix
+                    (randomized truncated SVD on scaled, uncentered values)
   */
   typedef structure {
     string data_matrix;
     int n_components;
+    SparseMatrix sparse_matrix;
   } PCAParams;
 
   /* Ouput of the run_PCA function
@@ -103,19 +136,35 @@ module kb_ke_util {
 
     Note: Advanced metric functions 'minkowski', 'seuclidean' and 'mahalanobis' included in 
           scipy.spatial.distance.pdist library are not implemented
+
+    out_of_core - write the condensed distance matrix into a memory-mapped file in scratch
+                  instead of returning it (default is 0)
+                  dist_matrix_file is returned and dist_matrix is left empty
+    precision - floating point precision of the distance matrix, 'float64' (default) or 'float32'
+                float32 halves memory and payload size; distances are computed in
+                float64 and rounded, so values agree with float64 ones to a relative
+                tolerance of 1e-6
+    sparse_matrix - sparse data matrix used in place of data_matrix
+                    "cosine", "euclidean", "jaccard" and "cityblock" are computed on the
+                    non-zero values only (jaccard on the non-zero pattern)
   */
   typedef structure {
     string data_matrix;
     string metric;
+    boolean out_of_core;
+    string precision;
+    SparseMatrix sparse_matrix;
   } PdistParams;
 
   /* Ouput of the run_pdist function
     dist_matrix - 1D distance matrix
     labels - item name corresponding to each dist_matrix element
+    dist_matrix_file - memory-mapped condensed distance matrix file (.npy) if out_of_core is set
   */
   typedef structure {
     list<float> dist_matrix;
     list<string> labels;
+    string dist_matrix_file;
   } PdistOutput;
 
   /* run_pdist: a wrapper method for scipy.spatial.distance.pdist
@@ -132,17 +181,27 @@ module kb_ke_util {
              ["single", "complete", "average", "weighted", "centroid", "median", "ward"]
              Details refer to: 
              https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.linkage.html
+    dist_matrix_file - memory-mapped condensed distance matrix file used in place of dist_matrix
+                       (refer to run_pdist return with out_of_core); linkage still copies
+                       it into a float64 array in memory (8 bytes per distance)
+    precision - floating point precision of the linkage distances, 'float64' (default) or 'float32'
+    packed_output - return packed_linkage_matrix instead of linkage_matrix
   */
   typedef structure {
     list<float> dist_matrix;
     string method;
+    string dist_matrix_file;
+    string precision;
+    boolean packed_output;
   } LinkageParams;
 
   /* Ouput of the run_linkage function
     linkage_matrix - The hierarchical clustering encoded as a linkage matrix
+    packed_linkage_matrix - the same linkage matrix packed as float64 values if packed_output is set
   */
   typedef structure {
     list<list<float>> linkage_matrix;
+    packed_linkage packed_linkage_matrix;
   } LinkageOutput;
 
   /* run_linkage: a wrapper method for scipy.cluster.hierarchy.linkage
@@ -165,21 +224,39 @@ module kb_ke_util {
                 scipy.cluster.hierarchy.fcluster library are not implemented
                 Details refer to: 
                 https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html
+    precision - floating point precision of linkage_matrix, 'float64' (default) or 'float32'
+                (with 'float32' dist_threshold is rounded the same way as the linkage distances)
+    compact_output - return cluster_assignment (plus cluster_offsets and cluster_members)
+                     instead of flat_cluster
+    packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                            (refer to run_linkage return with packed_output)
   */
   typedef structure {
     list<list<float>> linkage_matrix;
     float dist_threshold;
     list<string> labels;
     string criterion;
+    string precision;
+    boolean compact_output;
+    packed_linkage packed_linkage_matrix;
   } FclusterParams;
 
   /* Ouput of the run_fcluster function
      flat_cluster - A dictionary of flat clusters.
                     Each element of flat_cluster representing a cluster contains a label array. 
                     (If labels is none, element position array is returned to each cluster group)
+
+     with compact_output set, flat_cluster is omitted and the clusters are returned as:
+     cluster_assignment - cluster id (1 based) of each element, aligned with labels
+     cluster_offsets - cluster boundaries in cluster_members, starting with 0,
+                       cluster id i spans cluster_members[cluster_offsets[i - 1]:cluster_offsets[i]]
+     cluster_members - element positions grouped by cluster id
   */
   typedef structure {
     mapping<string, list<string>> flat_cluster;
+    list<int> cluster_assignment;
+    list<int> cluster_offsets;
+    list<int> cluster_members;
   } FclusterOutput;
 
   /* run_fcluster: a wrapper method for scipy.cluster.hierarchy.fcluster
@@ -187,6 +264,39 @@ module kb_ke_util {
      https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html*/
   funcdef run_fcluster(FclusterParams params) returns(FclusterOutput returnVal) authentication required;
 
+  /* Input of the run_fcluster_sweep function
+    linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+    dist_thresholds - thresholds to apply when forming flat clusters ('distance' criterion)
+    maxclust_values - maximum numbers of flat clusters to form ('maxclust' criterion)
+                      (exactly one of dist_thresholds and maxclust_values is required)
+
+    Optional arguments:
+    labels - items corresponding to each linkage_matrix element 
+             (If labels are given, result flat_clusters will be mapped to element in labels.)
+    packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                            (refer to run_linkage return with packed_output)
+  */
+  typedef structure {
+    list<list<float>> linkage_matrix;
+    list<float> dist_thresholds;
+    list<int> maxclust_values;
+    list<string> labels;
+    packed_linkage packed_linkage_matrix;
+  } FclusterSweepParams;
+
+  /* Ouput of the run_fcluster_sweep function
+     flat_clusters - flat clusters for each element of dist_thresholds or maxclust_values, 
+                     in the same order (refer to run_fcluster return)
+                     cluster ids are numbered by first appearance in labels order
+  */
+  typedef structure {
+    list<mapping<string, list<string>>> flat_clusters;
+  } FclusterSweepOutput;
+
+  /* run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+     over the merge heights (union-find), giving the same clusters as run_fcluster per threshold*/
+  funcdef run_fcluster_sweep(FclusterSweepParams params) returns(FclusterSweepOutput returnVal) authentication required;
+
   /* Input of the run_dendrogram function
     linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
 
@@ -195,12 +305,27 @@ module kb_ke_util {
     labels - items corresponding to each linkage_matrix element 
              (If labels are given, result dendrogram x-axis will be mapped to element in labels.)
     last_merges - show only last given value merged clusters
+    output_format - "png" (default, matplotlib), "svg" or "json"
+                    "svg" and "json" are laid out in a single pass over the linkage matrix and
+                    written to the output file as they are placed ("json" writes one node
+                    object per line, children before their parent)
+    width - output width in pixels for "svg" and "json". Default set to 2500.
+    height - output height in pixels for "svg" and "json". Default set to 1000.
+    min_pixels - subtrees narrower than min_pixels are drawn as one collapsed node
+                 for "svg" and "json". Default set to 1.0.
+    packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                            (refer to run_linkage return with packed_output)
   */
   typedef structure {
-    list<list<string>> linkage_matrix;
+    list<list<float>> linkage_matrix;
     float dist_threshold;
     list<string> labels;
     int last_merges;
+    string output_format;
+    int width;
+    int height;
+    float min_pixels;
+    packed_linkage packed_linkage_matrix;
   } DendrogramParams;
 
   /* Ouput of the run_dendrogram function
@@ -278,6 +403,26 @@ module kb_ke_util {
       float p_value;
   } TermEnrichment;
 
+  /* entity_term_set in dictionary encoded (CSR) form, each term sent once
+    entity_ids - entity guids (e.g. gene ids), each once
+    terms - term dictionary (e.g. GO term ids)
+    indptr - terms of entity i are at positions indices[indptr[i]:indptr[i+1]] of terms
+             (size len(entity_ids) + 1)
+    indices - position in terms of each assigned term
+    e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2": ["go_term_2"]} is
+         {"entity_ids": ["gene_id_1", "gene_id_2"], "terms": ["go_term_1", "go_term_2"],
+          "indptr": [0, 2, 3], "indices": [0, 1, 1]}
+  */
+  typedef structure {
+    list<entity_guid> entity_ids;
+    list<term_guid> terms;
+    list<int> indptr;
+    list<int> indices;
+  } EncodedEntityTermSet;
+
+  /* Handle of an entity_term_set registered with register_entity_term_set */
+  typedef string entity_term_set_handle;
+
   /* Input of the enrich_onthology function
     sample_set: list of gene_ids in clustering
                 e.g. ["gene_id_1", "gene_id_2", "gene_id_3"]
@@ -286,12 +431,18 @@ module kb_ke_util {
 
     Optional arguments:
     propagation: includes is_a relationship to all go terms (default is 0)
+    encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                             entity_term_set
+    entity_term_set_handle: handle returned by register_entity_term_set, used in place of
+                            entity_term_set
   */
   typedef structure{
       list<string> sample_set;
       mapping<entity_guid, assigned_term_guids> entity_term_set;
 
       boolean propagation;
+      EncodedEntityTermSet encoded_entity_term_set;
+      entity_term_set_handle entity_term_set_handle;
   } EnrichOnthologyParams;
 
   /* Ouput of the enrich_onthology function
@@ -310,15 +461,57 @@ module kb_ke_util {
   */
   funcdef enrich_onthology(EnrichOnthologyParams params) returns (EnrichOnthologyOutput returnVal) authentication required;
 
+  /* Input of the register_entity_term_set function
+    entity_term_set: entity terms dict structure (refer to enrich_onthology)
+
+    Optional arguments:
+    encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                             entity_term_set
+  */
+  typedef structure{
+      mapping<entity_guid, assigned_term_guids> entity_term_set;
+      EncodedEntityTermSet encoded_entity_term_set;
+  } RegisterEntityTermSetParams;
+
+  /* Ouput of the register_entity_term_set function
+    entity_term_set_handle: content hash of the entity_term_set, the same for every registration
+                            of the same entity_term_set
+    entity_count: number of entities
+    term_count: number of distinct terms
+  */
+  typedef structure {
+    entity_term_set_handle entity_term_set_handle;
+    int entity_count;
+    int term_count;
+  } RegisterEntityTermSetOutput;
+
+  /*
+  register_entity_term_set: keep an entity_term_set on the server as term to entities bitmaps,
+                            for enrich_onthology calls with entity_term_set_handle
+
+  Registered sets are kept in server memory and scratch, least recently used sets are dropped
+  when over budget. enrich_onthology fails with an error naming the handle if it is no longer
+  registered: register the entity_term_set again and retry.
+  A term assigned twice to the same entity counts once with a handle.
+  */
+  funcdef register_entity_term_set(RegisterEntityTermSetParams params) returns (RegisterEntityTermSetOutput returnVal) authentication required;
+
   typedef list<string> onthology_pair;
   typedef string gene_id;
 
   /* Input of the calc_onthology_dist function
     onthology_set: dict structure stores mapping of gene_id to paried onthology
                    e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
+
+    Optional arguments:
+    entity_term_set_handle: annotation corpus for the information content of
+                            calc_resnik_onthology_sim, calc_lin_onthology_sim and
+                            calc_jiang_conrath_onthology_dist
+                            (handle returned by register_entity_term_set)
   */
   typedef structure{
       mapping<gene_id, onthology_pair> onthology_set;
+      entity_term_set_handle entity_term_set_handle;
   } CalcOnthologyDistParams;
 
   /* Ouput of the calc_onthology_dist function
@@ -346,4 +539,42 @@ module kb_ke_util {
   */
   funcdef calc_weighted_onthology_dist(CalcOnthologyDistParams params) returns (CalcOnthologyDistOutput returnVal) authentication required;
 
+  /* Ouput of the information content based onthology functions
+    onthology_score_set: dict structure stores mapping of gene_id to score
+                         e.g. {"gene_id_1": 2.3}
+  */
+  typedef structure {
+    mapping<gene_id, float> onthology_score_set;
+  } CalcOnthologyScoreOutput;
+
+  /*
+  calc_resnik_onthology_sim: calculate Resnik similarity
+                             (information content of the most informative common ancestor)
+                             NOTE: return 0 if no common ancestor node found
+
+  Information content of a term is -log(p) with p the frequency of the term:
+  with entity_term_set_handle, the fraction of the registered entities annotated with the term
+  or one of its descendants, (count + 1) / (entities + 1); without it, the fraction of ontology
+  terms that are the term or one of its descendants.
+  It is computed once per corpus, ancestors follow is_a relationships.
+  */
+  funcdef calc_resnik_onthology_sim(CalcOnthologyDistParams params) returns (CalcOnthologyScoreOutput returnVal) authentication required;
+
+  /*
+  calc_lin_onthology_sim: calculate Lin similarity
+                          (2 * IC(most informative common ancestor) / (IC(term_1) + IC(term_2)),
+                           from 0 to 1, information content IC as in calc_resnik_onthology_sim)
+                          NOTE: return 0 if no common ancestor node found
+  */
+  funcdef calc_lin_onthology_sim(CalcOnthologyDistParams params) returns (CalcOnthologyScoreOutput returnVal) authentication required;
+
+  /*
+  calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath distance
+                                     (IC(term_1) + IC(term_2) -
+                                      2 * IC(most informative common ancestor),
+                                      information content IC as in calc_resnik_onthology_sim)
+                                     NOTE: return inf if no common ancestor node found
+  */
+  funcdef calc_jiang_conrath_onthology_dist(CalcOnthologyDistParams params) returns (CalcOnthologyScoreOutput returnVal) authentication required;
+
 };
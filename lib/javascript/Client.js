@@ -97,6 +97,19 @@ function kb_ke_util(url, auth, auth_cb, timeout, async_job_check_time_ms, servic
             [params], 1, _callback, _errorCallback);
     };
  
+     this.run_fcluster_sweep = function (params, _callback, _errorCallback) {
+        if (typeof params === 'function')
+            throw 'Argument params can not be a function';
+        if (_callback && typeof _callback !== 'function')
+            throw 'Argument _callback must be a function if defined';
+        if (_errorCallback && typeof _errorCallback !== 'function')
+            throw 'Argument _errorCallback must be a function if defined';
+        if (typeof arguments === 'function' && arguments.length > 1+2)
+            throw 'Too many arguments ('+arguments.length+' instead of '+(1+2)+')';
+        return json_call_ajax(_url, "kb_ke_util.run_fcluster_sweep",
+            [params], 1, _callback, _errorCallback);
+    };
+ 
      this.run_dendrogram = function (params, _callback, _errorCallback) {
         if (typeof params === 'function')
             throw 'Argument params can not be a function';
@@ -136,6 +149,19 @@ function kb_ke_util(url, auth, auth_cb, timeout, async_job_check_time_ms, servic
             [params], 1, _callback, _errorCallback);
     };
  
+     this.register_entity_term_set = function (params, _callback, _errorCallback) {
+        if (typeof params === 'function')
+            throw 'Argument params can not be a function';
+        if (_callback && typeof _callback !== 'function')
+            throw 'Argument _callback must be a function if defined';
+        if (_errorCallback && typeof _errorCallback !== 'function')
+            throw 'Argument _errorCallback must be a function if defined';
+        if (typeof arguments === 'function' && arguments.length > 1+2)
+            throw 'Too many arguments ('+arguments.length+' instead of '+(1+2)+')';
+        return json_call_ajax(_url, "kb_ke_util.register_entity_term_set",
+            [params], 1, _callback, _errorCallback);
+    };
+ 
      this.calc_onthology_dist = function (params, _callback, _errorCallback) {
         if (typeof params === 'function')
             throw 'Argument params can not be a function';
@@ -161,6 +187,45 @@ function kb_ke_util(url, auth, auth_cb, timeout, async_job_check_time_ms, servic
         return json_call_ajax(_url, "kb_ke_util.calc_weighted_onthology_dist",
             [params], 1, _callback, _errorCallback);
     };
+ 
+     this.calc_resnik_onthology_sim = function (params, _callback, _errorCallback) {
+        if (typeof params === 'function')
+            throw 'Argument params can not be a function';
+        if (_callback && typeof _callback !== 'function')
+            throw 'Argument _callback must be a function if defined';
+        if (_errorCallback && typeof _errorCallback !== 'function')
+            throw 'Argument _errorCallback must be a function if defined';
+        if (typeof arguments === 'function' && arguments.length > 1+2)
+            throw 'Too many arguments ('+arguments.length+' instead of '+(1+2)+')';
+        return json_call_ajax(_url, "kb_ke_util.calc_resnik_onthology_sim",
+            [params], 1, _callback, _errorCallback);
+    };
+ 
+     this.calc_lin_onthology_sim = function (params, _callback, _errorCallback) {
+        if (typeof params === 'function')
+            throw 'Argument params can not be a function';
+        if (_callback && typeof _callback !== 'function')
+            throw 'Argument _callback must be a function if defined';
+        if (_errorCallback && typeof _errorCallback !== 'function')
+            throw 'Argument _errorCallback must be a function if defined';
+        if (typeof arguments === 'function' && arguments.length > 1+2)
+            throw 'Too many arguments ('+arguments.length+' instead of '+(1+2)+')';
+        return json_call_ajax(_url, "kb_ke_util.calc_lin_onthology_sim",
+            [params], 1, _callback, _errorCallback);
+    };
+ 
+     this.calc_jiang_conrath_onthology_dist = function (params, _callback, _errorCallback) {
+        if (typeof params === 'function')
+            throw 'Argument params can not be a function';
+        if (_callback && typeof _callback !== 'function')
+            throw 'Argument _callback must be a function if defined';
+        if (_errorCallback && typeof _errorCallback !== 'function')
+            throw 'Argument _errorCallback must be a function if defined';
+        if (typeof arguments === 'function' && arguments.length > 1+2)
+            throw 'Too many arguments ('+arguments.length+' instead of '+(1+2)+')';
+        return json_call_ajax(_url, "kb_ke_util.calc_jiang_conrath_onthology_dist",
+            [params], 1, _callback, _errorCallback);
+    };
   
     this.status = function (_callback, _errorCallback) {
         if (_callback && typeof _callback !== 'function')
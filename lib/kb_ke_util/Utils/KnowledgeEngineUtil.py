@@ -1,20 +1,33 @@
 import time
+import re
 import numpy as np
 import os
+import io
 import errno
 import uuid
 import json
+import base64
+import itertools
+from xml.sax.saxutils import escape
 import fisher
 import sys
+import threading
+import multiprocessing
+from multiprocessing.pool import ThreadPool
 import scipy.spatial.distance as dist
 import scipy.cluster.hierarchy as hier
 import scipy.cluster.vq as vq
+from scipy import sparse
 from matplotlib import pyplot as plt
 import pandas as pd
 from sklearn.preprocessing import StandardScaler
-from sklearn.decomposition import PCA
+from sklearn.decomposition import PCA, TruncatedSVD
+from sklearn.metrics.pairwise import manhattan_distances
 
 from Workspace.WorkspaceClient import Workspace as Workspace
+from kb_ke_util.Utils.ResultCache import ResultCache
+from kb_ke_util.Utils.TermBitmapCache import TermBitmapCache
+from kb_ke_util.Utils.StageTimer import stage, annotate
 
 
 def log(message, prefix_newline=False):
@@ -33,8 +46,50 @@ class KnowledgeEngineUtil:
 
     CRITERION = ["inconsistent", "distance", "maxclust"]
 
+    PRECISION = ["float64", "float32"]
+    TO_WIRE_CHUNK_VALUES = 64 * 1024  # float32 values formatted at once by _to_wire
+
+    # metrics computed by _tiled_pdist as blocked matrix products plus row norms
+    TILED_METRIC = ["euclidean", "cosine", "correlation"]
+    TILED_PDIST_MIN_ROWS = 1000  # below this scipy pdist is already fast enough
+    # pairs whose squared distance is below this fraction of their squared norms lose their
+    # digits to cancellation in the matrix product and are recomputed from the row difference
+    TILED_RECOMPUTE_RATIO = 1e-6
+    L2_CACHE_BYTES = 256 * 1024
+    OUT_OF_CORE_BLOCK_BYTES = 64 * 1024 * 1024  # cdist block size used by out_of_core pdist
+
+    # metrics with sparse_matrix kernels, other metrics densify the input
+    SPARSE_METRIC = ["cosine", "euclidean", "jaccard", "cityblock"]
+
+    DENDROGRAM_FORMAT = ["png", "svg", "json"]
+    DENDROGRAM_WIDTH = 2500  # pixels, same as the matplotlib figsize=(25, 10) png
+    DENDROGRAM_HEIGHT = 1000
+    DENDROGRAM_MIN_PIXELS = 1.0  # subtrees narrower than this are collapsed
+    DENDROGRAM_LABEL_PIXELS = 8.0  # leaf labels are drawn only if each leaf gets this much room
+
+    # memory budgets are per server, divided among its uwsgi worker processes, which share the
+    # disk tier (refer to ResultCache)
+    RESULT_CACHE_MEMORY_BYTES = 256 * 1024 * 1024
+    RESULT_CACHE_DISK_BYTES = 2 * 1024 * 1024 * 1024
+    # results of these params are file paths in scratch, or depend on one
+    RESULT_CACHE_BYPASS = ["write_to_file", "out_of_core", "dist_matrix_file"]
+
+    # registered entity_term_sets, see register_entity_term_set
+    TERM_BITMAP_CACHE_MEMORY_BYTES = 512 * 1024 * 1024
+    TERM_BITMAP_CACHE_DISK_BYTES = 4 * 1024 * 1024 * 1024
+    ENTITY_TERM_SET_HANDLE = re.compile('^[0-9a-f]{64}$')
+    POPCOUNT = np.array([bin(i).count('1') for i in range(256)], dtype=np.uint8)
+
     ONTOLOGY_HASH = None
     WEIGHTED_EDGES = None
+    ANCESTOR_INDEX = None
+    RESULT_CACHE = None
+    TERM_BITMAP_CACHE = None
+
+    # held while loading, so concurrent requests wait for one loader instead of loading again
+    ONTOLOGY_LOCK = threading.Lock()
+    WEIGHTED_EDGES_LOCK = threading.Lock()
+    ANCESTOR_INDEX_LOCK = threading.Lock()
 
     @classmethod
     def update_ontology_hash(cls, ontology_hash):
@@ -44,6 +99,93 @@ class KnowledgeEngineUtil:
     def update_weighted_edges(cls, weighted_edges):
         cls.WEIGHTED_EDGES = weighted_edges
 
+    @classmethod
+    def update_ancestor_index(cls, ancestor_index):
+        cls.ANCESTOR_INDEX = ancestor_index
+
+    @classmethod
+    def update_result_cache(cls, result_cache):
+        cls.RESULT_CACHE = result_cache
+
+    @classmethod
+    def result_cache_stats(cls):
+        if cls.RESULT_CACHE is None:
+            return None
+        return cls.RESULT_CACHE.stats()
+
+    @classmethod
+    def update_term_bitmap_cache(cls, term_bitmap_cache):
+        cls.TERM_BITMAP_CACHE = term_bitmap_cache
+
+    @classmethod
+    def term_bitmap_cache_stats(cls):
+        if cls.TERM_BITMAP_CACHE is None:
+            return None
+        return cls.TERM_BITMAP_CACHE.stats()
+
+    def _get_server_processes(self):
+        """
+        _get_server_processes: number of uwsgi worker processes of the server, 1 outside uwsgi
+
+        every worker holds its own memory tiers, so the per server memory budgets are divided by it,
+        and runs its own thread pools, so they get an equal share of the cores
+        """
+        try:
+            import uwsgi
+            return max(int(uwsgi.numproc), 1)
+        except (ImportError, AttributeError):
+            return 1
+
+    def _get_result_cache(self, config):
+        """
+        _get_result_cache: result cache shared by all instances, created on first use
+        """
+        if KnowledgeEngineUtil.RESULT_CACHE is None:
+            processes = self._get_server_processes()
+            memory_bytes = int(config.get('result-cache-memory-bytes',
+                                          self.RESULT_CACHE_MEMORY_BYTES)) // processes
+            disk_bytes = int(config.get('result-cache-disk-bytes',
+                                        self.RESULT_CACHE_DISK_BYTES))
+            cache_directory = os.path.join(self.scratch, 'result_cache')
+            log('creating result cache with {} memory bytes and {} disk bytes in {}'.format(
+                                            memory_bytes, disk_bytes, cache_directory))
+            KnowledgeEngineUtil.update_result_cache(
+                                ResultCache(memory_bytes, disk_bytes, cache_directory,
+                                            config.get('module-version', '')))
+
+        return KnowledgeEngineUtil.RESULT_CACHE
+
+    def _get_term_bitmap_cache(self, config):
+        """
+        _get_term_bitmap_cache: registered entity_term_sets shared by all instances,
+                                created on first use
+        """
+        if KnowledgeEngineUtil.TERM_BITMAP_CACHE is None:
+            processes = self._get_server_processes()
+            memory_bytes = int(config.get('term-bitmap-cache-memory-bytes',
+                                          self.TERM_BITMAP_CACHE_MEMORY_BYTES)) // processes
+            disk_bytes = int(config.get('term-bitmap-cache-disk-bytes',
+                                        self.TERM_BITMAP_CACHE_DISK_BYTES))
+            cache_directory = os.path.join(self.scratch, 'term_bitmap_cache')
+            log('creating term bitmap cache with {} memory bytes and {} disk bytes in {}'.format(
+                                            memory_bytes, disk_bytes, cache_directory))
+            KnowledgeEngineUtil.update_term_bitmap_cache(
+                                TermBitmapCache(memory_bytes, disk_bytes, cache_directory,
+                                                config.get('module-version', '')))
+
+        return KnowledgeEngineUtil.TERM_BITMAP_CACHE
+
+    def _result_cache_key(self, method, params):
+        """
+        _result_cache_key: content hash of a deterministic method call, or None if the
+                           result must not be cached
+        """
+        for bypass in self.RESULT_CACHE_BYPASS:
+            if params.get(bypass):
+                return None
+
+        return self.result_cache.key(method, params)
+
     def _mkdir_p(self, path):
         """
         _mkdir_p: make directory for given path
@@ -66,9 +208,8 @@ class KnowledgeEngineUtil:
         log('start validating run_kmeans2 params')
 
         # check for required parameters
-        for p in ['data_matrix']:
-            if p not in params:
-                raise ValueError('"{}" parameter is required, but missing'.format(p))
+        if 'data_matrix' not in params and 'sparse_matrix' not in params:
+            raise ValueError('"data_matrix" parameter is required, but missing')
 
     def _validate_run_kmeans2_params(self, params):
         """
@@ -83,6 +224,23 @@ class KnowledgeEngineUtil:
             if p not in params:
                 raise ValueError('"{}" parameter is required, but missing'.format(p))
 
+        # k-means clusters the rows of the square matrix, which is n x n in memory
+        if params.get('dist_matrix_file'):
+            error_msg = 'INPUT ERROR:\nrun_kmeans2 does not support dist_matrix_file, '
+            error_msg += 'k-means needs the full square distance matrix in memory.\n'
+            raise ValueError(error_msg)
+
+    def _validate_precision(self, params):
+        """
+        _validate_precision:
+                validates the optional precision param of run_pdist, run_linkage and run_fcluster
+        """
+        precision = params.get('precision')
+        if precision and precision not in self.PRECISION:
+            error_msg = 'INPUT ERROR:\nInput precision [{}] is not valid.\n'.format(precision)
+            error_msg += 'Available precision: {}'.format(self.PRECISION)
+            raise ValueError(error_msg)
+
     def _validate_run_pdist_params(self, params):
         """
         _validate_run_pdist_params:
@@ -92,9 +250,8 @@ class KnowledgeEngineUtil:
         log('start validating run_pdist params')
 
         # check for required parameters
-        for p in ['data_matrix']:
-            if p not in params:
-                raise ValueError('"{}" parameter is required, but missing'.format(p))
+        if 'data_matrix' not in params and 'sparse_matrix' not in params:
+            raise ValueError('"data_matrix" parameter is required, but missing')
 
         # check metric validation
         metric = params.get('metric')
@@ -103,6 +260,9 @@ class KnowledgeEngineUtil:
             error_msg += 'Available metric: {}'.format(self.METRIC)
             raise ValueError(error_msg)
 
+        # check precision validation
+        self._validate_precision(params)
+
     def _validate_run_linkage_params(self, params):
         """
         _validate_run_linkage_params:
@@ -112,9 +272,8 @@ class KnowledgeEngineUtil:
         log('start validating run_linkage params')
 
         # check for required parameters
-        for p in ['dist_matrix']:
-            if p not in params:
-                raise ValueError('"{}" parameter is required, but missing'.format(p))
+        if 'dist_matrix' not in params and 'dist_matrix_file' not in params:
+            raise ValueError('"dist_matrix" parameter is required, but missing')
 
         # check method validation
         method = params.get('method')
@@ -124,6 +283,9 @@ class KnowledgeEngineUtil:
             error_msg += 'Available metric: {}'.format(self.METHOD)
             raise ValueError(error_msg)
 
+        # check precision validation
+        self._validate_precision(params)
+
     def _validate_run_fcluster_params(self, params):
         """
         _validate_run_fcluster_params:
@@ -133,7 +295,10 @@ class KnowledgeEngineUtil:
         log('start validating run_fcluster params')
 
         # check for required parameters
-        for p in ['linkage_matrix', 'dist_threshold']:
+        if 'linkage_matrix' not in params and 'packed_linkage_matrix' not in params:
+            raise ValueError('"linkage_matrix" parameter is required, but missing')
+
+        for p in ['dist_threshold']:
             if p not in params:
                 raise ValueError('"{}" parameter is required, but missing'.format(p))
 
@@ -144,6 +309,32 @@ class KnowledgeEngineUtil:
             error_msg += 'Available metric: {}'.format(self.CRITERION)
             raise ValueError(error_msg)
 
+        # check precision validation
+        self._validate_precision(params)
+
+    def _validate_run_fcluster_sweep_params(self, params):
+        """
+        _validate_run_fcluster_sweep_params:
+                validates params passed to run_fcluster_sweep method
+        """
+
+        log('start validating run_fcluster_sweep params')
+
+        # check for required parameters
+        if 'linkage_matrix' not in params and 'packed_linkage_matrix' not in params:
+            raise ValueError('"linkage_matrix" parameter is required, but missing')
+
+        dist_thresholds = params.get('dist_thresholds')
+        maxclust_values = params.get('maxclust_values')
+        if not dist_thresholds and not maxclust_values:
+            raise ValueError('"dist_thresholds" or "maxclust_values" parameter is required, '
+                             'but missing')
+
+        if dist_thresholds and maxclust_values:
+            error_msg = 'INPUT ERROR:\nInput dist_thresholds and maxclust_values are not valid.\n'
+            error_msg += 'Please provide only one of dist_thresholds or maxclust_values'
+            raise ValueError(error_msg)
+
     def _validate_run_dendrogram_params(self, params):
         """
         _validate_run_dendrogram_params:
@@ -153,9 +344,16 @@ class KnowledgeEngineUtil:
         log('start validating run_dendrogram params')
 
         # check for required parameters
-        for p in ['linkage_matrix']:
-            if p not in params:
-                raise ValueError('"{}" parameter is required, but missing'.format(p))
+        if 'linkage_matrix' not in params and 'packed_linkage_matrix' not in params:
+            raise ValueError('"linkage_matrix" parameter is required, but missing')
+
+        # check output_format validation
+        output_format = params.get('output_format')
+        if output_format and output_format not in self.DENDROGRAM_FORMAT:
+            error_msg = 'INPUT ERROR:\nInput output_format [{}] is not valid.\n'.format(
+                                                                                output_format)
+            error_msg += 'Available output_format: {}'.format(self.DENDROGRAM_FORMAT)
+            raise ValueError(error_msg)
 
     def _validate_build_biclusters_params(self, params):
         """
@@ -200,9 +398,23 @@ class KnowledgeEngineUtil:
         log('start validating enrich_onthology params')
 
         # check for required parameters
-        for p in ['sample_set', 'entity_term_set']:
-            if p not in params:
-                raise ValueError('"{}" parameter is required, but missing'.format(p))
+        if 'sample_set' not in params:
+            raise ValueError('"sample_set" parameter is required, but missing')
+
+        if ('entity_term_set' not in params and 'encoded_entity_term_set' not in params and
+                'entity_term_set_handle' not in params):
+            raise ValueError('"entity_term_set" parameter is required, but missing')
+
+    def _validate_register_entity_term_set_params(self, params):
+        """
+        _validate_register_entity_term_set_params:
+                validates params passed to register_entity_term_set method
+        """
+        log('start validating register_entity_term_set params')
+
+        # check for required parameters
+        if 'entity_term_set' not in params and 'encoded_entity_term_set' not in params:
+            raise ValueError('"entity_term_set" parameter is required, but missing')
 
     def _validate_calc_onthology_dist_params(self, params):
         """
@@ -260,6 +472,375 @@ class KnowledgeEngineUtil:
 
         return data
 
+    def _get_sparse_data(self, sparse_matrix):
+        """
+        _get_sparse_data: get sparse_matrix into a scipy CSR matrix
+        """
+        for p in ['row_ids', 'col_ids', 'indptr', 'indices', 'values']:
+            if p not in sparse_matrix:
+                raise ValueError('"sparse_matrix.{}" parameter is required, but missing'.format(p))
+
+        try:
+            values = np.nan_to_num(np.asarray(sparse_matrix['values'], dtype=float))
+            data = sparse.csr_matrix((values, sparse_matrix['indices'], sparse_matrix['indptr']),
+                                     shape=(len(sparse_matrix['row_ids']),
+                                            len(sparse_matrix['col_ids'])))
+            data.check_format(full_check=True)
+        except (ValueError, TypeError) as e:
+            error_msg = 'INVALID sparse_matrix:\n'
+            error_msg += 'cannot build CSR matrix:\n{}\n'.format(e)
+            raise ValueError(error_msg)
+
+        data.eliminate_zeros()
+
+        return data
+
+    def _get_dtype(self, precision):
+        """
+        _get_dtype: numpy dtype for given precision (default float64)
+        """
+        if precision == 'float32':
+            return np.float32
+
+        return np.float64
+
+    def _to_wire(self, values, precision):
+        """
+        _to_wire: convert array to list for JSON output
+
+        float32 values are emitted with their shortest round-trip representation
+        (e.g. 0.3 instead of 0.30000001192092896) so the payload shrinks as well
+
+        they go through strings TO_WIRE_CHUNK_VALUES at a time (whole rows of a 2-D array),
+        so the temporary string array stays small next to the result
+        """
+        values = np.asarray(values)
+
+        if precision != 'float32':
+            return values.tolist()
+
+        values = values.astype(np.float32)
+        if values.ndim == 0:
+            return float(str(values))
+
+        row_values = max(values[0].size, 1) if len(values) else 1
+        chunk_rows = max(self.TO_WIRE_CHUNK_VALUES // row_values, 1)
+        wire_values = list()
+        for start in xrange(0, len(values), chunk_rows):
+            chunk = values[start:start + chunk_rows]
+            wire_values.extend(chunk.astype(str).astype(float).tolist())
+
+        return wire_values
+
+    def _get_tile_size(self, col_size, item_size=8):
+        """
+        _get_tile_size: number of rows per tile so that a pair of row tiles fits into L2 cache
+        """
+        tile_size = self.L2_CACHE_BYTES // (2 * item_size * max(col_size, 1))
+
+        return int(min(max(tile_size, 32), 1024))
+
+    def _condensed_offset(self, row, row_size):
+        """
+        _condensed_offset: position of pair (row, row + 1) in a condensed distance matrix
+        """
+        return row * row_size - row * (row + 1) // 2
+
+    def _tiled_pdist(self, data, metric, tile_size=None, n_jobs=None, dist_matrix=None,
+                     dtype=np.float64):
+        """
+        _tiled_pdist: compute condensed distance matrix for euclidean, cosine or correlation
+                      metric as blocked matrix products plus row norms
+
+        rows are processed in tiles of tile_size against every later tile on a thread pool
+        (numpy releases the GIL in BLAS calls) and each tile is written straight into its
+        slice of the condensed dist_matrix (allocated in memory unless given, e.g. a memmap)
+
+        the expansion |x|^2 + |y|^2 - 2x.y cancels for close pairs, so pairs below
+        TILED_RECOMPUTE_RATIO are recomputed from x - y, which keeps them as accurate as scipy
+        pdist and gives duplicate rows a distance of exactly 0
+
+        distances are always computed in float64, dtype (float32 halves the result) only sets
+        the precision they are rounded to when written into dist_matrix
+        """
+        if metric not in self.TILED_METRIC:
+            raise ValueError('tiled pdist does not support metric [{}]'.format(metric))
+
+        if dist_matrix is not None:
+            dtype = dist_matrix.dtype
+
+        data = np.asarray(data, dtype=np.float64)
+        row_size, col_size = data.shape
+
+        if metric == 'correlation':
+            data = data - data.mean(axis=1)[:, np.newaxis]
+
+        sq_norms = np.einsum('ij,ij->i', data, data)
+        if metric in ['cosine', 'correlation']:
+            with np.errstate(divide='ignore', invalid='ignore'):
+                data = data / np.sqrt(sq_norms)[:, np.newaxis]
+
+        if dist_matrix is None:
+            dist_matrix = np.empty(row_size * (row_size - 1) // 2, dtype=dtype)
+
+        if not tile_size:
+            tile_size = self._get_tile_size(col_size, data.itemsize)
+
+        def recompute_close_pairs(block, close, row_start, col_start):
+            # squared distance of the (normalized) rows, exact 0 for duplicates
+            for row in np.nonzero(close.any(axis=1))[0]:
+                cols = np.nonzero(close[row])[0]
+                diff = data[col_start + cols] - data[row_start + row]
+                sq_dist = np.einsum('ij,ij->i', diff, diff)
+                if metric == 'euclidean':
+                    block[row, cols] = np.sqrt(sq_dist)
+                else:
+                    block[row, cols] = 0.5 * sq_dist  # 1 - x.y of unit rows
+
+        def compute_tile(row_start):
+            row_end = min(row_start + tile_size, row_size)
+            row_block = data[row_start:row_end]
+
+            for col_start in range(row_start, row_size, tile_size):
+                col_end = min(col_start + tile_size, row_size)
+                product = np.dot(row_block, data[col_start:col_end].T)
+
+                with np.errstate(invalid='ignore'):
+                    if metric == 'euclidean':
+                        scale = (sq_norms[row_start:row_end, np.newaxis] +
+                                 sq_norms[np.newaxis, col_start:col_end])
+                        block = scale - 2 * product
+                        close = block <= self.TILED_RECOMPUTE_RATIO * scale
+                        np.maximum(block, 0, out=block)
+                        np.sqrt(block, out=block)
+                    else:
+                        block = 1.0 - product
+                        close = block <= self.TILED_RECOMPUTE_RATIO
+                        np.clip(block, 0, 2, out=block)
+
+                if col_start == row_start:
+                    close[np.tril_indices(row_end - row_start)] = False
+                recompute_close_pairs(block, close, row_start, col_start)
+
+                for row in range(row_start, row_end):
+                    first_col = max(col_start, row + 1)
+                    if first_col >= col_end:
+                        continue
+                    offset = self._condensed_offset(row, row_size) - row - 1
+                    dist_matrix[offset + first_col:offset + col_end] = \
+                        block[row - row_start, first_col - col_start:]
+
+        if not n_jobs:
+            # the uwsgi workers of the server share the cores
+            n_jobs = max(multiprocessing.cpu_count() // self._get_server_processes(), 1)
+
+        pool = ThreadPool(n_jobs)
+        try:
+            pool.map(compute_tile, range(0, row_size, tile_size))
+        finally:
+            pool.close()
+            pool.join()
+
+        return dist_matrix
+
+    def _compute_pdist(self, data, metric, dtype=np.float64):
+        """
+        _compute_pdist: compute condensed distance matrix, using the tiled path for large inputs
+        """
+        if sparse.issparse(data):
+            log('computing sparse distance matrix')
+            return self._sparse_pdist(data, metric, dtype=dtype)
+
+        if metric in self.TILED_METRIC and data.shape[0] >= self.TILED_PDIST_MIN_ROWS:
+            log('computing tiled distance matrix')
+            return self._tiled_pdist(data, metric, dtype=dtype)
+
+        return dist.pdist(data, metric=metric).astype(dtype, copy=False)
+
+    def _fill_condensed(self, row_size, compute_block, dist_matrix):
+        """
+        _fill_condensed: fill condensed dist_matrix block of rows by block of rows
+
+        compute_block(row_start, row_end) returns the distances of rows [row_start, row_end)
+        to rows [row_start + 1, row_size) so only one block is held in memory at a time
+        """
+        block_size = max(self.OUT_OF_CORE_BLOCK_BYTES // (8 * max(row_size, 1)), 1)
+
+        for row_start in range(0, row_size - 1, block_size):
+            row_end = min(row_start + block_size, row_size - 1)
+            block = compute_block(row_start, row_end)
+
+            for row in range(row_start, row_end):
+                offset = self._condensed_offset(row, row_size)
+                dist_matrix[offset:offset + row_size - row - 1] = \
+                    block[row - row_start, row - row_start:]
+
+    def _blocked_pdist(self, data, metric, dist_matrix):
+        """
+        _blocked_pdist: fill condensed dist_matrix with scipy cdist on blocks of rows
+        """
+        def compute_block(row_start, row_end):
+            return dist.cdist(data[row_start:row_end], data[row_start + 1:], metric=metric)
+
+        self._fill_condensed(data.shape[0], compute_block, dist_matrix)
+
+    def _sparse_pdist(self, data, metric, dtype=np.float64, dist_matrix=None):
+        """
+        _sparse_pdist: compute condensed distance matrix of a CSR matrix for SPARSE_METRIC
+
+        euclidean and cosine come from sparse row products plus row norms, jaccard from
+        products of the non-zero pattern and cityblock from sklearn sparse manhattan_distances,
+        so work scales with non-zeros
+
+        jaccard only accepts presence/absence data (all non-zero values equal), the only input
+        for which the non-zero pattern gives scipy jaccard
+        """
+        if metric not in self.SPARSE_METRIC:
+            raise ValueError('sparse pdist does not support metric [{}]'.format(metric))
+
+        row_size = data.shape[0]
+
+        if metric == 'jaccard':
+            if data.nnz and np.any(data.data != data.data[0]):
+                error_msg = 'INVALID sparse_matrix:\n'
+                error_msg += 'jaccard needs presence/absence data, '
+                error_msg += 'all non-zero values must be equal\n'
+                raise ValueError(error_msg)
+            data = data.copy()
+            data.data[:] = 1
+
+        sq_norms = np.asarray(data.multiply(data).sum(axis=1)).ravel()
+
+        if dist_matrix is None:
+            dist_matrix = np.empty(row_size * (row_size - 1) // 2, dtype=dtype)
+
+        def compute_block(row_start, row_end):
+            row_block = data[row_start:row_end]
+            col_block = data[row_start + 1:]
+
+            if metric == 'cityblock':
+                return manhattan_distances(row_block, col_block)
+
+            product = row_block.dot(col_block.T).toarray()
+            row_norms = sq_norms[row_start:row_end, np.newaxis]
+            col_norms = sq_norms[np.newaxis, row_start + 1:]
+
+            if metric == 'euclidean':
+                block = row_norms + col_norms - 2 * product
+                np.maximum(block, 0, out=block)
+                np.sqrt(block, out=block)
+            elif metric == 'cosine':
+                with np.errstate(divide='ignore', invalid='ignore'):
+                    block = 1.0 - product / np.sqrt(row_norms * col_norms)
+                np.clip(block, 0, 2, out=block)
+            else:
+                # jaccard: sq_norms are non-zero counts of the binary pattern
+                union = row_norms + col_norms - product
+                with np.errstate(divide='ignore', invalid='ignore'):
+                    block = 1.0 - product / union
+                block[union == 0] = 0
+
+            return block
+
+        self._fill_condensed(row_size, compute_block, dist_matrix)
+
+        return dist_matrix
+
+    def _compute_pdist_file(self, data, metric, dtype=np.float64):
+        """
+        _compute_pdist_file: compute condensed distance matrix straight into a memory-mapped
+                             .npy file in scratch
+
+        return the file path
+        """
+        row_size = data.shape[0]
+
+        output_directory = os.path.join(self.scratch, str(uuid.uuid4()))
+        self._mkdir_p(output_directory)
+        dist_matrix_file = os.path.join(output_directory, 'dist_matrix.npy')
+
+        dist_matrix = np.lib.format.open_memmap(dist_matrix_file, mode='w+', dtype=dtype,
+                                                shape=(row_size * (row_size - 1) // 2,))
+
+        if sparse.issparse(data):
+            self._sparse_pdist(data, metric, dist_matrix=dist_matrix)
+        elif metric in self.TILED_METRIC:
+            self._tiled_pdist(data, metric, dist_matrix=dist_matrix)
+        else:
+            self._blocked_pdist(data, metric, dist_matrix)
+
+        dist_matrix.flush()
+        del dist_matrix
+
+        return dist_matrix_file
+
+    def _load_dist_matrix_file(self, dist_matrix_file):
+        """
+        _load_dist_matrix_file: open a condensed distance matrix file (refer to run_pdist
+                                return with out_of_core) as a read-only memmap
+        """
+        scratch = os.path.realpath(self.scratch)
+        file_path = os.path.realpath(dist_matrix_file)
+
+        if not file_path.startswith(scratch + os.sep) or not os.path.isfile(file_path):
+            raise ValueError('INPUT ERROR:\nInput dist_matrix_file [{}] is not valid.\n'.format(
+                                                                            dist_matrix_file))
+
+        return np.load(file_path, mmap_mode='r')
+
+    def _get_dist_matrix(self, params):
+        """
+        _get_dist_matrix: get condensed distance matrix from dist_matrix or dist_matrix_file
+        """
+        dist_matrix_file = params.get('dist_matrix_file')
+
+        if dist_matrix_file:
+            log('reading distance matrix from {}'.format(dist_matrix_file))
+            return self._load_dist_matrix_file(dist_matrix_file)
+
+        dtype = self._get_dtype(params.get('precision'))
+
+        return np.asarray(params.get('dist_matrix'), dtype=dtype)
+
+    def _pack_linkage_matrix(self, linkage_matrix):
+        """
+        _pack_linkage_matrix: encode linkage matrix as base64 of little-endian float64 values,
+                              row by row
+        """
+        linkage_matrix = np.asarray(linkage_matrix, dtype='<f8')
+
+        return base64.b64encode(linkage_matrix.tobytes())
+
+    def _unpack_linkage_matrix(self, packed_linkage_matrix):
+        """
+        _unpack_linkage_matrix: decode linkage matrix packed by _pack_linkage_matrix
+        """
+        try:
+            values = np.frombuffer(base64.b64decode(packed_linkage_matrix), dtype='<f8')
+        except (TypeError, ValueError) as e:
+            values = None
+            error = str(e)
+        else:
+            error = 'got {} values, expected a multiple of 4'.format(values.size)
+
+        if values is None or not values.size or values.size % 4:
+            error_msg = 'INPUT ERROR:\nInput packed_linkage_matrix is not valid.\n'
+            error_msg += error
+            raise ValueError(error_msg)
+
+        return values.reshape(-1, 4).astype(np.float64)
+
+    def _get_linkage_matrix(self, params):
+        """
+        _get_linkage_matrix: get linkage matrix from linkage_matrix or packed_linkage_matrix
+        """
+        packed_linkage_matrix = params.get('packed_linkage_matrix')
+
+        if packed_linkage_matrix:
+            return self._unpack_linkage_matrix(packed_linkage_matrix)
+
+        return np.asarray(params.get('linkage_matrix'), dtype=np.float64)
+
     def _process_fcluster(self, fcluster, labels=None):
         """
         _process_fcluster: assign labels to corresponding cluster group
@@ -270,22 +851,118 @@ class KnowledgeEngineUtil:
 
         flat_cluster = {}
         for pos, element in enumerate(fcluster):
-            cluster_name = str(element)
-            if cluster_name not in flat_cluster:
-                if labels:
-                    flat_cluster.update({cluster_name: [labels[pos]]})
-                else:
-                    flat_cluster.update({cluster_name: [pos]})
-            else:
-                cluster = flat_cluster.get(cluster_name)
-                if labels:
-                    cluster.append(labels[pos])
-                else:
-                    cluster.append(pos)
-                flat_cluster.update({cluster_name: cluster})
+            flat_cluster.setdefault(str(element), []).append(labels[pos] if labels else pos)
 
         return flat_cluster
 
+    def _compact_fcluster(self, fcluster):
+        """
+        _compact_fcluster: encode flat clusters as integer arrays instead of a label mapping
+
+        cluster_assignment - cluster id of each element, in element order
+        cluster_offsets - cluster boundaries, starting with 0,
+                          cluster id i spans cluster_members[offsets[i - 1]:offsets[i]]
+        cluster_members - element positions grouped by cluster id (stable within a cluster)
+        """
+
+        log('start encoding compact clusters')
+
+        cluster_assignment = np.asarray(fcluster, dtype=int)
+        cluster_members = np.argsort(cluster_assignment, kind='mergesort')
+        cluster_size = cluster_assignment.max() if cluster_assignment.size else 0
+        # cluster ids start from 1, so the count of id 0 is the leading 0 boundary
+        cluster_offsets = np.cumsum(np.bincount(cluster_assignment, minlength=cluster_size + 1))
+
+        return {'cluster_assignment': cluster_assignment.tolist(),
+                'cluster_offsets': cluster_offsets.tolist(),
+                'cluster_members': cluster_members.tolist()}
+
+    def _sweep_fcluster(self, linkage_matrix, thresholds, is_maxclust):
+        """
+        _sweep_fcluster: cut linkage_matrix at every threshold with a single sweep
+
+        merges are applied in increasing order of their maximum cophenetic distance (the
+        same monotonic criterion scipy.cluster.hierarchy.fcluster uses) into a union-find
+        over all 2n-1 tree nodes, and a flat cluster assignment is taken each time the sweep
+        passes a threshold, so the tree is walked once regardless of the number of cuts
+
+        distance thresholds form clusters with cophenetic distance <= threshold,
+        maxclust values apply merges until no more than maxclust clusters remain
+
+        return assignments in the same order as thresholds, cluster ids are numbered by
+        first appearance in leaf order
+        """
+        linkage_matrix = np.asarray(linkage_matrix, dtype=float)
+        hier.is_valid_linkage(linkage_matrix, throw=True, name='linkage_matrix')
+
+        leaf_size = linkage_matrix.shape[0] + 1
+        merges = linkage_matrix[:, :2].astype(int)
+
+        # children always precede their parent, so max distances fill in index order
+        max_dists = np.zeros(leaf_size - 1)
+        for idx in range(leaf_size - 1):
+            max_dist = linkage_matrix[idx, 2]
+            for child in merges[idx]:
+                if child >= leaf_size:
+                    max_dist = max(max_dist, max_dists[child - leaf_size])
+            max_dists[idx] = max_dist
+
+        merge_order = np.argsort(max_dists, kind='mergesort')
+        parent = np.arange(2 * leaf_size - 1)
+
+        def find(node):
+            while parent[node] != node:
+                parent[node] = parent[parent[node]]
+                node = parent[node]
+            return node
+
+        def snapshot():
+            roots = [find(leaf) for leaf in range(leaf_size)]
+            cluster_ids = {}
+            assignment = []
+            for root in roots:
+                if root not in cluster_ids:
+                    cluster_ids[root] = len(cluster_ids) + 1
+                assignment.append(cluster_ids[root])
+            return assignment
+
+        if is_maxclust:
+            # fewer clusters need more merges, walk the values from largest to smallest
+            query_order = sorted(range(len(thresholds)), key=lambda i: -thresholds[i])
+        else:
+            query_order = sorted(range(len(thresholds)), key=lambda i: thresholds[i])
+
+        assignments = [None] * len(thresholds)
+        cluster_size = leaf_size
+        pos = 0
+        for query in query_order:
+            threshold = thresholds[query]
+            while pos < leaf_size - 1:
+                merge_dist = max_dists[merge_order[pos]]
+                if is_maxclust:
+                    if cluster_size <= threshold:
+                        break
+                    # merges sharing a distance are inseparable, apply them together
+                    group_end = pos
+                    while (group_end < leaf_size - 1 and
+                           max_dists[merge_order[group_end]] == merge_dist):
+                        group_end += 1
+                else:
+                    if merge_dist > threshold:
+                        break
+                    group_end = pos + 1
+
+                for idx in merge_order[pos:group_end]:
+                    node = leaf_size + idx
+                    for child in merges[idx]:
+                        parent[find(child)] = node
+                    cluster_size -= 1
+                pos = group_end
+
+            assignments[query] = snapshot()
+
+        return assignments
+
     def _add_distance(self, ddata):
         """
         _add_distance: Add distance and cluster count to dendrogram
@@ -307,14 +984,152 @@ class KnowledgeEngineUtil:
                              textcoords='offset points',
                              va='top', ha='center')
 
+    def _render_dendrogram(self, linkage_matrix, write, output_format='svg', labels=None,
+                           last_merges=None, dist_threshold=None, width=None, height=None,
+                           min_pixels=None):
+        """
+        _render_dendrogram: lay out linkage_matrix and write it as SVG or JSON with write callable
+
+        the tree is walked once from the root with an explicit stack, giving every subtree a
+        horizontal span proportional to its leaf count. A subtree narrower than min_pixels
+        is drawn as one collapsed node (a triangle from its merge height down to the leaves)
+        without visiting its descendants, so the work is bounded by the visible nodes.
+        With last_merges only the last merges are visited, the clusters below them are
+        collapsed nodes with one slot each.
+
+        nodes are written as soon as they are placed, children before their parent.
+        "json" writes one object per line: the plot size first, then one node per line
+        (id, x, y, dist, count, and children or label/collapsed)
+        """
+        linkage_matrix = np.asarray(linkage_matrix, dtype=float)
+        hier.is_valid_linkage(linkage_matrix, throw=True, name='linkage_matrix')
+
+        width = width or self.DENDROGRAM_WIDTH
+        height = height or self.DENDROGRAM_HEIGHT
+        if min_pixels is None:
+            min_pixels = self.DENDROGRAM_MIN_PIXELS
+
+        leaf_size = linkage_matrix.shape[0] + 1
+        root = 2 * leaf_size - 2
+        merges = linkage_matrix[:, :2].astype(int).tolist()
+
+        def node_dist(node):
+            return 0.0 if node < leaf_size else linkage_matrix[node - leaf_size, 2]
+
+        def node_count(node):
+            return 1 if node < leaf_size else int(linkage_matrix[node - leaf_size, 3])
+
+        if last_merges and last_merges < leaf_size:
+            # nodes merged later than first_shown form the top of the tree,
+            # every cluster below them takes a single slot
+            first_shown = 2 * leaf_size - last_merges
+            slots = {}
+            for node in range(first_shown, root + 1):
+                slots[node] = sum(slots.get(child, 1) for child in merges[node - leaf_size])
+            node_slots = lambda node: slots.get(node, 1)
+            slot_total = last_merges
+        else:
+            first_shown = leaf_size
+            node_slots = node_count
+            slot_total = leaf_size
+
+        margin_left, margin_top, margin_right, margin_bottom = 60.0, 40.0, 20.0, 120.0
+        plot_width = max(width - margin_left - margin_right, 1.0)
+        plot_height = max(height - margin_top - margin_bottom, 1.0)
+        baseline = margin_top + plot_height
+        slot_pixels = plot_width / slot_total
+        draw_labels = slot_pixels >= self.DENDROGRAM_LABEL_PIXELS
+        max_dist = linkage_matrix[:, 2].max() or 1.0
+
+        def to_y(dist_value):
+            return baseline - dist_value / max_dist * plot_height
+
+        if output_format == 'json':
+            write(json.dumps({'width': width, 'height': height, 'max_dist': max_dist,
+                              'baseline': baseline, 'dist_threshold': dist_threshold}) + '\n')
+        else:
+            write('<svg xmlns="http://www.w3.org/2000/svg" width="%d" height="%d" '
+                  'viewBox="0 0 %d %d">\n' % (width, height, width, height))
+            write('<style>path{fill:none;stroke:#1f77b4}polygon{fill:#aec7e8;stroke:#1f77b4}'
+                  'line{stroke:#000}text{font:8px sans-serif}</style>\n')
+            write('<text x="%.1f" y="20" text-anchor="middle" style="font-size:14px">'
+                  'Hierarchical Clustering Dendrogram%s</text>\n' % (
+                        width / 2.0, ' (truncated)' if first_shown > leaf_size else ''))
+            write('<line x1="%.1f" y1="%.1f" x2="%.1f" y2="%.1f"/>\n' % (
+                        margin_left, margin_top, margin_left, baseline))
+            for tick in np.linspace(0, max_dist, 6):
+                write('<text x="%.1f" y="%.1f" text-anchor="end">%.3g</text>\n' % (
+                            margin_left - 4, to_y(tick) + 3, tick))
+
+        cursor = [margin_left]
+        placed = {}  # node -> (x, y) of nodes waiting for their parent
+
+        def place_terminal(node):
+            span = node_slots(node) * slot_pixels
+            x = cursor[0] + span / 2.0
+            y = to_y(node_dist(node))
+            cursor[0] += span
+            collapsed = node >= leaf_size
+            if collapsed:
+                label = '(%d)' % node_count(node)
+            else:
+                label = labels[node] if labels else str(node)
+
+            if output_format == 'json':
+                write(json.dumps({'id': node, 'x': round(x, 2), 'y': round(y, 2),
+                                  'dist': node_dist(node), 'count': node_count(node),
+                                  'label': label, 'collapsed': collapsed}) + '\n')
+            else:
+                if collapsed:
+                    write('<polygon points="%.1f,%.1f %.1f,%.1f %.1f,%.1f"/>\n' % (
+                                x, y, x - span / 2.0, baseline, x + span / 2.0, baseline))
+                if draw_labels:
+                    write('<text transform="translate(%.1f %.1f) rotate(90)">%s</text>\n' % (
+                                x - 3, baseline + 4, escape(label)))
+            placed[node] = (x, y)
+
+        stack = [(root, False)]
+        while stack:
+            node, expanded = stack.pop()
+            if not expanded:
+                if (node < first_shown or
+                        node_slots(node) * slot_pixels < min_pixels):
+                    place_terminal(node)
+                    continue
+                left, right = merges[node - leaf_size]
+                stack.append((node, True))
+                stack.append((right, False))
+                stack.append((left, False))
+                continue
+
+            left, right = merges[node - leaf_size]
+            left_x, left_y = placed.pop(left)
+            right_x, right_y = placed.pop(right)
+            x = (left_x + right_x) / 2.0
+            y = to_y(node_dist(node))
+            if output_format == 'json':
+                write(json.dumps({'id': node, 'x': round(x, 2), 'y': round(y, 2),
+                                  'dist': node_dist(node), 'count': node_count(node),
+                                  'children': [int(left), int(right)]}) + '\n')
+            else:
+                write('<path d="M%.1f %.1fV%.1fH%.1fV%.1f"/>\n' % (
+                            left_x, left_y, y, right_x, right_y))
+            placed[node] = (x, y)
+
+        if output_format != 'json':
+            if dist_threshold:
+                write('<line x1="%.1f" y1="%.1f" x2="%.1f" y2="%.1f"/>\n' % (
+                            margin_left, to_y(dist_threshold), margin_left + plot_width,
+                            to_y(dist_threshold)))
+            write('</svg>\n')
+
     def _process_ndarray_data(self, ndarray_ref):
         """
         _process_ndarray_data: process ndarray data
 
-        return a dict with row_ids, col_ids and values
+        return a sparse_matrix (CSR) dict with row_ids, col_ids, indptr, indices and values
+        only non-zero values are kept
         """
-        data_matrix = dict()
-
         ndarray_object = self.ws.get_objects2({'objects': [{'ref': ndarray_ref}]})['data'][0]
 
         ndarray_data = ndarray_object['data']
@@ -334,7 +1149,6 @@ class KnowledgeEngineUtil:
         data_values_scalar_type = data_values['scalar_type']
         data_values_key = '{}_values'.format(data_values_scalar_type)
         one_d_values = data_values[data_values_key]
-        two_d_values = list()  # each element is an array representing 1 row values
 
         total_values = len(row_ids) * len(col_ids)
         if len(one_d_values) != total_values:
@@ -344,49 +1158,62 @@ class KnowledgeEngineUtil:
         col_size = len(col_ids)
         empty_string = ['NA', 'NULL', 'null', '', None, 'None', 'none']
 
+        indptr = [0]
+        indices = list()
+        values = list()
         for row_count in range(len(row_ids)):
             start_pos = row_count * col_size
             end_pos = (row_count + 1) * col_size
-            row_values = one_d_values[start_pos:end_pos]
-            row_values = [0 if v in empty_string else v for v in row_values]
-            two_d_values.append(map(float, row_values))
-
-        data_matrix = {'row_ids': row_ids,
-                       'col_ids': col_ids,
-                       'values': two_d_values}
-
-        return data_matrix
-
-    def _build_flat_cluster(self, data_matrix, dist_threshold,
+            for col_pos, value in enumerate(one_d_values[start_pos:end_pos]):
+                if value in empty_string:
+                    continue
+                value = float(value)
+                if value:
+                    indices.append(col_pos)
+                    values.append(value)
+            indptr.append(len(values))
+
+        sparse_matrix = {'row_ids': row_ids,
+                         'col_ids': col_ids,
+                         'indptr': indptr,
+                         'indices': indices,
+                         'values': values}
+
+        return sparse_matrix
+
+    def _build_flat_cluster(self, sparse_matrix, dist_threshold,
                             dist_metric=None, linkage_method=None, fcluster_criterion=None):
 
         """
-        _build_cluster: build flat clusters of data_matrix with distance threshold
+        _build_cluster: build flat clusters of sparse_matrix with distance threshold
+
+        distances are computed by scipy on the dense matrix, as before sparse input existed,
+        so that every metric (e.g. jaccard of real values) keeps its scipy semantics
+
+        the steps do not go through run_pdist, run_linkage and run_fcluster: their intermediate
+        results are of no use to other calls and would only fill the result cache
         """
 
         # calculate distance matrix
-        pdist_params = {'data_matrix': data_matrix,
-                        'metric': dist_metric}
-        pdist_ret = self.run_pdist(pdist_params)
-
-        dist_matrix = pdist_ret['dist_matrix']
-        labels = pdist_ret['labels']
+        if not dist_metric:
+            dist_metric = 'euclidean'
+        data = self._get_sparse_data(sparse_matrix).toarray()
+        with stage('pdist'):
+            dist_matrix = dist.pdist(data, metric=str(dist_metric))
+        labels = sparse_matrix['row_ids']
 
         # performs hierarchical/agglomerative clustering
-        linkage_params = {'dist_matrix': dist_matrix,
-                          'method': linkage_method}
-        linkage_ret = self.run_linkage(linkage_params)
-
-        linkage_matrix = linkage_ret['linkage_matrix']
+        if not linkage_method:
+            linkage_method = 'single'
+        with stage('linkage'):
+            linkage_matrix = hier.linkage(dist_matrix, method=str(linkage_method))
 
         # generate flat clusters
-        fcluster_params = {'linkage_matrix': linkage_matrix,
-                           'dist_threshold': dist_threshold,
-                           'labels': labels,
-                           'criterion': fcluster_criterion}
-        fcluster_ret = self.run_fcluster(fcluster_params)
-
-        flat_cluster = fcluster_ret['flat_cluster']
+        if not fcluster_criterion:
+            fcluster_criterion = 'distance'
+        with stage('fcluster'):
+            fcluster = hier.fcluster(linkage_matrix, dist_threshold, criterion=fcluster_criterion)
+            flat_cluster = self._process_fcluster(fcluster, labels=labels)
 
         return flat_cluster
 
@@ -407,6 +1234,52 @@ class KnowledgeEngineUtil:
 
         return go_id_gene_ids_list_map
 
+    def _process_encoded_entity_term_set(self, encoded_entity_term_set):
+        """
+        _process_encoded_entity_term_set: process encoded_entity_term_set and get global
+                                          go_id: [entity positions] map
+
+        the entities x terms CSR matrix is transposed, so each go_id lists the positions of
+        its entities in entity_ids in ascending order
+        """
+        for p in ['entity_ids', 'terms', 'indptr', 'indices']:
+            if p not in encoded_entity_term_set:
+                raise ValueError(
+                    '"encoded_entity_term_set.{}" parameter is required, but missing'.format(p))
+
+        entity_ids = encoded_entity_term_set['entity_ids']
+        terms = encoded_entity_term_set['terms']
+
+        if len(set(entity_ids)) != len(entity_ids):
+            raise ValueError('INVALID encoded_entity_term_set:\nentity_ids are not unique\n')
+
+        try:
+            indices = np.asarray(encoded_entity_term_set['indices'], dtype=np.int64)
+            term_matrix = sparse.csr_matrix((np.ones(indices.size, dtype=np.int8), indices,
+                                             encoded_entity_term_set['indptr']),
+                                            shape=(len(entity_ids), len(terms)))
+            term_matrix.check_format(full_check=True)
+        except (ValueError, TypeError) as e:
+            error_msg = 'INVALID encoded_entity_term_set:\n'
+            error_msg += 'cannot build CSR matrix:\n{}\n'.format(e)
+            raise ValueError(error_msg)
+
+        term_matrix = term_matrix.tocsc()
+        entity_positions = term_matrix.indices.tolist()
+        term_bounds = term_matrix.indptr.tolist()
+
+        go_id_entity_positions_map = dict()
+        for term_position, go_term in enumerate(terms):
+            start, end = term_bounds[term_position], term_bounds[term_position + 1]
+            if start == end:
+                continue
+            if go_term in go_id_entity_positions_map:
+                go_id_entity_positions_map[go_term] += entity_positions[start:end]
+            else:
+                go_id_entity_positions_map[go_term] = entity_positions[start:end]
+
+        return go_id_entity_positions_map
+
     def _get_immediate_parents(self, ontology_hash, go_id,
                                is_a_relationship, regulates_relationship, part_of_relationship):
         """
@@ -504,6 +1377,57 @@ class KnowledgeEngineUtil:
 
         return ontology_hash
 
+    def _get_cached_ontology_hash(self):
+        """
+        _get_cached_ontology_hash: get global ontology info hash, loading it once per server
+        """
+        if self.ONTOLOGY_HASH:
+            log('using cached ontology data')
+            return self.ONTOLOGY_HASH
+
+        with stage('ontology_load'), self.ONTOLOGY_LOCK:
+            if self.ONTOLOGY_HASH:
+                log('using ontology data loaded by a concurrent request')
+            else:
+                log('loading ontology data')
+                self.update_ontology_hash(self._get_ontology_hash())
+
+        return self.ONTOLOGY_HASH
+
+    def _get_cached_weighted_edges(self):
+        """
+        _get_cached_weighted_edges: get ontology weighted edges, computing them once per server
+        """
+        if self.WEIGHTED_EDGES:
+            log('using cached weighted edges data')
+            return self.WEIGHTED_EDGES
+
+        with stage('ontology_load'), self.WEIGHTED_EDGES_LOCK:
+            if self.WEIGHTED_EDGES:
+                log('using weighted edges data loaded by a concurrent request')
+            else:
+                log('loading weighted edges data')
+                self.update_weighted_edges(self._compute_weighted_edges())
+
+        return self.WEIGHTED_EDGES
+
+    def _get_cached_ancestor_index(self):
+        """
+        _get_cached_ancestor_index: get ontology ancestor index, computing it once per server
+        """
+        if self.ANCESTOR_INDEX:
+            log('using cached ancestor index')
+            return self.ANCESTOR_INDEX
+
+        with stage('ontology_load'), self.ANCESTOR_INDEX_LOCK:
+            if self.ANCESTOR_INDEX:
+                log('using ancestor index built by a concurrent request')
+            else:
+                log('building ancestor index')
+                self.update_ancestor_index(self._compute_ancestor_index())
+
+        return self.ANCESTOR_INDEX
+
     def _process_parent_go_terms(self, go_id_gene_ids_list_map, ontology_hash):
         """
         _process_parent_go_terms: get go term parents and include parent gene_ids to all children
@@ -560,25 +1484,397 @@ class KnowledgeEngineUtil:
             a = len([i for i in feature_set_ids if i in mapped_gene_ids])
 
             if a:
-                # in feature_set doesn't match go_id
-                b = len(feature_set_ids) - a
-                # not in feature_set matches go_id
-                total_count = len(mapped_gene_ids)
-                c = total_count - a
-                # not in feature_set doesn't match go_id
-                d = len(total_feature_ids) - len(feature_set_ids) - c
+                go_enrichment.update({go_id: self._term_enrichment(a, len(feature_set_ids),
+                                                                   len(mapped_gene_ids),
+                                                                   len(total_feature_ids))})
+
+        return go_enrichment
+
+    def _term_enrichment(self, a, sample_size, total_count, entity_count):
+        """
+        _term_enrichment: fisher test of a term matching a of sample_size sample genes and
+                          total_count of entity_count genes
+        """
+        # in feature_set doesn't match go_id
+        b = sample_size - a
+        # not in feature_set matches go_id
+        c = total_count - a
+        # not in feature_set doesn't match go_id
+        d = entity_count - sample_size - c
+
+        raw_p_value = fisher.pvalue(a, b, c, d).two_tail
 
-                raw_p_value = fisher.pvalue(a, b, c, d).two_tail
+        expected_count = int(round(total_count * raw_p_value))
 
-                expected_count = int(round(total_count * raw_p_value))
+        return {'p_value': raw_p_value,
+                'total_count': total_count,
+                'sample_count': a,
+                'expected_count': expected_count}
 
-                go_enrichment.update({go_id: {'p_value': raw_p_value,
-                                              'total_count': total_count,
-                                              'sample_count': a,
-                                              'expected_count': expected_count}})
+    def _encode_entity_term_set(self, entity_term_set):
+        """
+        _encode_entity_term_set: dictionary encode entity_term_set
+                                 (refer to encoded_entity_term_set of enrich_onthology)
+        """
+        entity_ids = list()
+        terms = list()
+        term_positions = dict()
+        indptr = [0]
+        indices = list()
+
+        for gene_id, go_terms in entity_term_set.iteritems():
+            entity_ids.append(gene_id)
+            for go_term in go_terms:
+                term_position = term_positions.get(go_term)
+                if term_position is None:
+                    term_position = term_positions[go_term] = len(terms)
+                    terms.append(go_term)
+                indices.append(term_position)
+            indptr.append(len(indices))
+
+        return {'entity_ids': entity_ids, 'terms': terms, 'indptr': indptr, 'indices': indices}
+
+    def _term_bitmaps_entry(self, entity_ids, terms, bitmaps):
+        return {'entity_ids': np.array(entity_ids, dtype=np.unicode_),
+                'terms': np.array(terms, dtype=np.unicode_),
+                'bitmaps': bitmaps,
+                'total_counts': self.POPCOUNT[bitmaps].sum(axis=1, dtype=np.int64)}
+
+    def _build_term_bitmaps(self, go_id_entity_positions_map, entity_ids):
+        """
+        _build_term_bitmaps: build a np.packbits row of entities for each go_id
+                             (refer to TermBitmapCache)
+        """
+        terms = sorted(go_id_entity_positions_map.keys())
+        bitmaps = np.zeros((len(terms), (len(entity_ids) + 7) // 8), dtype=np.uint8)
+
+        if terms:
+            term_positions = np.repeat(np.arange(len(terms)),
+                                       [len(go_id_entity_positions_map[go_id]) for go_id in terms])
+            entity_positions = np.concatenate([go_id_entity_positions_map[go_id]
+                                               for go_id in terms]).astype(np.int64)
+            # same bit order as np.packbits, entity 0 is the high bit of byte 0
+            bits = np.left_shift(1, 7 - (entity_positions & 7)).astype(np.uint8)
+            np.bitwise_or.at(bitmaps, (term_positions, entity_positions >> 3), bits)
+
+        return self._term_bitmaps_entry(entity_ids, terms, bitmaps)
+
+    def _propagate_term_bitmaps(self, term_bitmaps, ontology_hash):
+        """
+        _propagate_term_bitmaps: include the entities of each term in the bitmaps of its parent
+                                 terms, the same as _process_parent_go_terms
+        """
+        terms = term_bitmaps['terms'].tolist()
+        bitmaps = term_bitmaps['bitmaps']
+        term_positions = {go_id: i for i, go_id in enumerate(terms)}
+
+        go_id_parent_ids_map = self._generate_parent_child_map(ontology_hash,
+                                                               terms,
+                                                               regulates_relationship=False)
+
+        log('including parent feature id to go_id bitmaps')
+        propagated_bitmaps = bitmaps.copy()
+        for go_id, parent_ids in go_id_parent_ids_map.iteritems():
+            term_position = term_positions.get(go_id)
+            if term_position is None:
+                continue
+            for parent_id in set(parent_ids):
+                parent_position = term_positions.get(parent_id)
+                if parent_position is not None:
+                    propagated_bitmaps[parent_position] |= bitmaps[term_position]
+
+        return self._term_bitmaps_entry(term_bitmaps['entity_ids'], terms, propagated_bitmaps)
+
+    def _check_entity_term_set_handle(self, entity_term_set_handle):
+        """
+        _check_entity_term_set_handle: handles name cache files, only accept what
+                                       register_entity_term_set returns
+        """
+        if not self.ENTITY_TERM_SET_HANDLE.match(entity_term_set_handle):
+            raise ValueError('INPUT ERROR:\nInput entity_term_set_handle [{}] is not valid.'.format(
+                                                                        entity_term_set_handle))
+
+    def _get_term_bitmaps(self, entity_term_set_handle, propagation):
+        """
+        _get_term_bitmaps: term bitmaps of a registered entity_term_set, the propagated bitmaps
+                           are built on first use and cached as well
+        """
+        self._check_entity_term_set_handle(entity_term_set_handle)
+
+        propagated_key = entity_term_set_handle + '_propagation'
+        if propagation:
+            term_bitmaps = self.term_bitmap_cache.get(propagated_key)
+            if term_bitmaps is not None:
+                return term_bitmaps
+
+        term_bitmaps = self.term_bitmap_cache.get(entity_term_set_handle)
+        if term_bitmaps is None:
+            error_msg = 'INPUT ERROR:\nentity_term_set_handle [{}] is not registered.\n'.format(
+                                                                        entity_term_set_handle)
+            error_msg += 'Register the entity_term_set again with register_entity_term_set'
+            raise ValueError(error_msg)
+
+        if not propagation:
+            return term_bitmaps
+
+        ontology_hash = self._get_cached_ontology_hash()
+        with stage('propagation'):
+            term_bitmaps = self._propagate_term_bitmaps(term_bitmaps, ontology_hash)
+
+        return self.term_bitmap_cache.put(propagated_key, term_bitmaps)
+
+    def _calculate_bitmap_go_enrichment(self, term_bitmaps, feature_set_ids):
+        """
+        _calculate_bitmap_go_enrichment: calcualte go enrichment from term bitmaps,
+                                         the same as _calculate_go_enrichment
+
+        sample genes are counted with popcounts of the term bitmaps masked by the sample bitmap,
+        only over the bitmap bytes holding sample genes. A gene listed k times in the sample
+        counts k times, one pass per multiplicity level.
+        """
+        log('start calcualting go enrichment from term bitmaps')
+
+        entity_ids = term_bitmaps['entity_ids'].tolist()
+        bitmaps = term_bitmaps['bitmaps']
+        total_counts = term_bitmaps['total_counts']
+
+        entity_positions = {gene_id: i for i, gene_id in enumerate(entity_ids)}
+        sample_positions = [entity_positions[gene_id] for gene_id in feature_set_ids
+                            if gene_id in entity_positions]
+
+        sample_counts = np.zeros(len(total_counts), dtype=np.int64)
+        if sample_positions:
+            multiplicity = np.bincount(sample_positions, minlength=len(entity_ids))
+            for level in range(1, multiplicity.max() + 1):
+                sample_bitmap = np.packbits(multiplicity >= level)
+                columns = np.flatnonzero(sample_bitmap)
+                sample_counts += self.POPCOUNT[bitmaps[:, columns] &
+                                               sample_bitmap[columns]].sum(axis=1, dtype=np.int64)
+
+        terms = term_bitmaps['terms'].tolist()
+        go_enrichment = dict()
+        for term_position in np.flatnonzero(sample_counts).tolist():
+            go_enrichment[terms[term_position]] = self._term_enrichment(
+                                                        int(sample_counts[term_position]),
+                                                        len(feature_set_ids),
+                                                        int(total_counts[term_position]),
+                                                        len(entity_ids))
 
         return go_enrichment
 
+    def _compute_ancestor_index(self):
+        """
+        _compute_ancestor_index: is_a ancestors of every ontology term
+
+        return:
+        terms - ontology terms, sorted
+        positions - term -> position in terms
+        ancestors - tuple of the positions of each term's ancestors, the term included
+        information_content - intrinsic information content of each term,
+                              -log(fraction of the terms that are the term or its descendants)
+        ancestor_ptr, ancestor_ranks, rank_positions - ancestors ranked by information_content
+                                                       (refer to _rank_ancestors)
+        """
+        ontology_hash = self._get_cached_ontology_hash()
+
+        terms = sorted(ontology_hash.keys())
+        positions = {go_id: i for i, go_id in enumerate(terms)}
+
+        parents = list()
+        for go_id in terms:
+            parent_ids = self._get_immediate_parents(ontology_hash, go_id,
+                                                     is_a_relationship=True,
+                                                     regulates_relationship=False,
+                                                     part_of_relationship=False)
+            parents.append([positions[parent_id] for parent_id in set(parent_ids)
+                            if parent_id in positions])
+
+        # depth first: a term's ancestors are merged once all its parents are done,
+        # a parent still in progress closes an is_a cycle and is skipped
+        ancestors = [None] * len(terms)
+        in_progress = [False] * len(terms)
+        for start_position in xrange(len(terms)):
+            stack = [start_position]
+            while stack:
+                position = stack[-1]
+                if ancestors[position] is not None:
+                    stack.pop()
+                    continue
+                in_progress[position] = True
+                pending = [parent for parent in parents[position]
+                           if ancestors[parent] is None and not in_progress[parent]]
+                if pending:
+                    stack.extend(pending)
+                    continue
+                stack.pop()
+                term_ancestors = set([position])
+                for parent in parents[position]:
+                    if ancestors[parent] is not None:
+                        term_ancestors.update(ancestors[parent])
+                ancestors[position] = tuple(term_ancestors)
+                in_progress[position] = False
+
+        descendant_counts = np.bincount(np.fromiter(itertools.chain.from_iterable(ancestors),
+                                                    dtype=np.int64),
+                                        minlength=len(terms))
+        information_content = np.log(float(len(terms)) / np.maximum(descendant_counts, 1))
+
+        ancestor_index = {'terms': terms,
+                          'positions': positions,
+                          'ancestors': ancestors,
+                          'information_content': information_content.tolist()}
+        ancestor_index.update({name: values.tolist() for name, values in
+                               self._rank_ancestors(ancestors, information_content).iteritems()})
+
+        return ancestor_index
+
+    def _rank_ancestors(self, ancestors, information_content):
+        """
+        _rank_ancestors: ancestors of every term as ranks, a rank orders the terms by
+                         information content (most informative first, ties by position), so
+                         the first rank two terms share is their most informative common ancestor
+
+        return:
+        ancestor_ptr - ancestors of term i are ancestor_ranks[ancestor_ptr[i]:ancestor_ptr[i + 1]]
+        ancestor_ranks - ancestor ranks of every term, ascending
+        rank_positions - term position of each rank
+        """
+        rank_positions = np.argsort(-np.asarray(information_content), kind='mergesort')
+        ranks = np.empty(len(rank_positions), dtype=np.int64)
+        ranks[rank_positions] = np.arange(len(rank_positions))
+
+        counts = np.array([len(term_ancestors) for term_ancestors in ancestors], dtype=np.int64)
+        ancestor_ptr = np.concatenate(([0], np.cumsum(counts)))
+        ancestor_ranks = ranks[np.fromiter(itertools.chain.from_iterable(ancestors),
+                                           dtype=np.int64, count=ancestor_ptr[-1])]
+        term_positions = np.repeat(np.arange(len(ancestors)), counts)
+        ancestor_ranks = ancestor_ranks[np.lexsort((ancestor_ranks, term_positions))]
+
+        return {'ancestor_ptr': ancestor_ptr,
+                'ancestor_ranks': ancestor_ranks,
+                'rank_positions': rank_positions}
+
+    def _annotation_information_content(self, term_bitmaps, ancestor_index):
+        """
+        _annotation_information_content: information content of every ontology term from the
+                                         entities of registered term bitmaps,
+                                         -log((count + 1) / (entities + 1)) with count the number
+                                         of entities annotated with the term or a descendant
+        """
+        positions = ancestor_index['positions']
+        ancestors = ancestor_index['ancestors']
+        bitmaps = term_bitmaps['bitmaps']
+
+        # ontology term position -> entities annotated with the term or a descendant
+        annotated = dict()
+        annotated_entities = np.zeros(bitmaps.shape[1], dtype=np.uint8)
+        for term_position, go_id in enumerate(term_bitmaps['terms'].tolist()):
+            position = positions.get(go_id)
+            if position is None:
+                continue
+            annotated_entities |= bitmaps[term_position]
+            for ancestor in ancestors[position]:
+                entities = annotated.get(ancestor)
+                if entities is None:
+                    annotated[ancestor] = bitmaps[term_position].copy()
+                else:
+                    entities |= bitmaps[term_position]
+
+        counts = np.zeros(len(ancestors), dtype=np.float64)
+        for ancestor, entities in annotated.iteritems():
+            counts[ancestor] = self.POPCOUNT[entities].sum()
+        entity_count = self.POPCOUNT[annotated_entities].sum()
+
+        return np.log((entity_count + 1.0) / (counts + 1.0))
+
+    def _get_information_content(self, params, ancestor_index):
+        """
+        _get_information_content: information content of every ontology term and the ancestors
+                                  ranked by it (information_content, ancestor_ranks and
+                                  rank_positions, refer to _rank_ancestors), from the annotations
+                                  of entity_term_set_handle if given (computed once per
+                                  entity_term_set and cached next to its term bitmaps)
+        """
+        entity_term_set_handle = params.get('entity_term_set_handle')
+        if not entity_term_set_handle:
+            return ancestor_index
+
+        self._check_entity_term_set_handle(entity_term_set_handle)
+
+        information_content_key = entity_term_set_handle + '_ranked_information_content'
+        entry = self.term_bitmap_cache.get(information_content_key)
+        if entry is None:
+            term_bitmaps = self._get_term_bitmaps(entity_term_set_handle, False)
+            with stage('information_content'):
+                information_content = self._annotation_information_content(term_bitmaps,
+                                                                           ancestor_index)
+                entry = self._rank_ancestors(ancestor_index['ancestors'], information_content)
+                del entry['ancestor_ptr']  # same as the ancestor index one
+                entry['information_content'] = information_content
+            self.term_bitmap_cache.put(information_content_key, entry)
+
+        return {name: values.tolist() for name, values in entry.iteritems()}
+
+    def _most_informative_common_ancestor(self, ancestor_index, ranking, pair_go_terms):
+        """
+        _most_informative_common_ancestor: information content of both terms and of their most
+                                           informative common ancestor,
+                                           None if a term is unknown or there is no common ancestor
+
+        ranking is a result of _get_information_content, the ancestor lists of both terms are
+        walked in rank order up to the first rank they share
+        """
+        positions = ancestor_index['positions']
+        start_position = positions.get(pair_go_terms[0])
+        end_position = positions.get(pair_go_terms[1])
+        if start_position is None or end_position is None:
+            return None
+
+        ancestor_ptr = ancestor_index['ancestor_ptr']
+        ancestor_ranks = ranking['ancestor_ranks']
+        start_index, start_end = ancestor_ptr[start_position], ancestor_ptr[start_position + 1]
+        end_index, end_end = ancestor_ptr[end_position], ancestor_ptr[end_position + 1]
+        while start_index < start_end and end_index < end_end:
+            start_rank = ancestor_ranks[start_index]
+            end_rank = ancestor_ranks[end_index]
+            if start_rank == end_rank:
+                scores = ranking['information_content']
+                return (scores[start_position],
+                        scores[end_position],
+                        scores[ranking['rank_positions'][start_rank]])
+            if start_rank < end_rank:
+                start_index += 1
+            else:
+                end_index += 1
+
+        return None
+
+    def _calc_information_content_scores(self, params, score, no_common_ancestor_score):
+        """
+        _calc_information_content_scores: score each onthology pair with
+                                          score(term_1 IC, term_2 IC, common ancestor IC)
+        """
+        self._validate_calc_onthology_dist_params(params)
+
+        onthology_set = params.get('onthology_set')
+
+        ancestor_index = self._get_cached_ancestor_index()
+        ranking = self._get_information_content(params, ancestor_index)
+
+        onthology_score_set = dict()
+        with stage('term_distance'):
+            for gene_id, pair_go_terms in onthology_set.iteritems():
+                mica = self._most_informative_common_ancestor(ancestor_index, ranking,
+                                                              pair_go_terms)
+                if mica is None:
+                    onthology_score_set[gene_id] = no_common_ancestor_score
+                else:
+                    onthology_score_set[gene_id] = score(*mica)
+
+        returnVal = {'onthology_score_set': onthology_score_set}
+
+        return returnVal
+
     def _find_comone_parent(self, pair_go_terms):
         """
         _find_comone_parent: find common parent of pair_go_terms
@@ -590,13 +1886,7 @@ class KnowledgeEngineUtil:
         if start_term == end_term:
             return start_term
 
-        if self.ONTOLOGY_HASH:
-            log('using cached ontology data')
-            ontology_hash = self.ONTOLOGY_HASH
-        else:
-            log('loading ontology data')
-            ontology_hash = self._get_ontology_hash()
-            self.update_ontology_hash(ontology_hash)
+        ontology_hash = self._get_cached_ontology_hash()
 
         step = 0
         start_parents = {start_term: step}
@@ -664,21 +1954,9 @@ class KnowledgeEngineUtil:
         if start_term == end_term:
             return 0
 
-        if self.ONTOLOGY_HASH:
-            log('using cached ontology data')
-            ontology_hash = self.ONTOLOGY_HASH
-        else:
-            log('loading ontology data')
-            ontology_hash = self._get_ontology_hash()
-            self.update_ontology_hash(ontology_hash)
+        ontology_hash = self._get_cached_ontology_hash()
 
-        if self.WEIGHTED_EDGES:
-            log('using cached weighted edges data')
-            weighted_edges = self.WEIGHTED_EDGES
-        else:
-            log('loading weighted edges data')
-            weighted_edges = self._compute_weighted_edges()
-            self.update_weighted_edges(weighted_edges)
+        weighted_edges = self._get_cached_weighted_edges()
 
         step = 0
         start_parents = {start_term: step}
@@ -795,13 +2073,7 @@ class KnowledgeEngineUtil:
         if start_term == end_term:
             return 0
 
-        if self.ONTOLOGY_HASH:
-            log('using cached ontology data')
-            ontology_hash = self.ONTOLOGY_HASH
-        else:
-            log('loading ontology data')
-            ontology_hash = self._get_ontology_hash()
-            self.update_ontology_hash(ontology_hash)
+        ontology_hash = self._get_cached_ontology_hash()
 
         step = 0
         start_parents = {start_term: step}
@@ -868,13 +2140,7 @@ class KnowledgeEngineUtil:
 
         log('generating weighted edges')
 
-        if self.ONTOLOGY_HASH:
-            log('using cached ontology data')
-            ontology_hash = self.ONTOLOGY_HASH
-        else:
-            log('loading ontology data')
-            ontology_hash = self._get_ontology_hash()
-            self.update_ontology_hash(ontology_hash)
+        ontology_hash = self._get_cached_ontology_hash()
 
         root_terms = list()
         weighted_edges = dict()
@@ -918,52 +2184,129 @@ class KnowledgeEngineUtil:
                 weighted_edges[parent_term][child] = weight / 2.0
                 self._update_weighted_edges(weighted_edges, child, weight / 2.0)
 
-    def _getNewick(self, node, newick, parentdist, leaf_names):
-        if node.is_leaf():
-            return "%s:%.2f%s" % (leaf_names[node.id], parentdist - node.dist, newick)
-        else:
-            if len(newick) > 0:
-                newick = "):%.2f%s" % (parentdist - node.dist, newick)
+    def _text_writer(self, output):
+        """
+        _text_writer: write callable of a utf-8 text file for fragments that are either unicode
+                      (e.g. formatted with labels) or ascii byte strings
+        """
+        def write(fragment):
+            if isinstance(fragment, bytes):
+                fragment = fragment.decode('utf-8')
+            output.write(fragment)
+
+        return write
+
+    def _write_newick(self, linkage_matrix, labels, write):
+        """
+        _write_newick: write newick representation of linkage_matrix with write callable
+
+        walks the linkage matrix with an explicit stack instead of recursing over
+        hier.to_tree and hands every fragment to write (e.g. file.write), so conversion is
+        linear in the number of leaves with no recursion depth or string copying
+
+        each cluster is written as (right,left):branch_length, leaves as label:branch_length
+        """
+        linkage_matrix = np.asarray(linkage_matrix, dtype=float)
+        hier.is_valid_linkage(linkage_matrix, throw=True, name='linkage_matrix')
+
+        leaf_size = linkage_matrix.shape[0] + 1
+        if not labels:
+            labels = [str(leaf) for leaf in range(leaf_size)]
+
+        root = 2 * leaf_size - 2
+        stack = [(root, linkage_matrix[-1, 2])]
+
+        while stack:
+            item = stack.pop()
+            if not isinstance(item, tuple):
+                write(item)
+                continue
+
+            node, parent_dist = item
+            if node < leaf_size:
+                write('%s:%.2f' % (labels[node], parent_dist))
+                continue
+
+            left, right, node_dist = linkage_matrix[node - leaf_size, :3]
+            if node == root:
+                stack.append(');')
             else:
-                newick = ");"
-            newick = self._getNewick(node.get_left(), newick, node.dist, leaf_names)
-            newick = self._getNewick(node.get_right(), ",%s" % (newick), node.dist, leaf_names)
-            newick = "(%s" % (newick)
-            return newick
+                stack.append('):%.2f' % (parent_dist - node_dist))
+            stack.append((int(left), node_dist))
+            stack.append(',')
+            stack.append((int(right), node_dist))
+            write('(')
 
     def __init__(self, config):
         self.ws_url = config["workspace-url"]
-        self.token = config['KB_AUTH_TOKEN']
+        self.token = config.get('KB_AUTH_TOKEN')
         self.shock_url = config['shock-url']
         self.srv_wiz_url = config['srv-wiz-url']
         self.scratch = config['scratch']
+        self.result_cache = self._get_result_cache(config)
+        self.term_bitmap_cache = self._get_term_bitmap_cache(config)
 
         self.ws = Workspace(self.ws_url, token=self.token)
         sys.setrecursionlimit(150000)
 
+    def preload_ontology(self):
+        """
+        preload_ontology: load ontology data, weighted edges and the ancestor index ahead of
+                          the first request
+                          (run in a background thread at server start)
+        """
+        try:
+            self._get_cached_weighted_edges()
+            self._get_cached_ancestor_index()
+            log('preloaded ontology data')
+        except Exception as e:
+            log('failed to preload ontology data, it will be loaded on first use: {}'.format(e))
+
     def linkage_2_newick(self, params):
         """
         linkage_2_newick: convert a linkage matrix to newick format
 
         linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+        packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                                (refer to run_linkage return with packed_output)
         labels - items corresponding to each linkage_matrix element
              (If labels are given, result flat_cluster will be mapped to element in labels.)
 
+        Optional arguments:
+        write_to_file - stream the newick tree into a file in scratch instead of returning it
+                        (default is 0)
+
         return:
         newick: newick representation of tree
                 https://en.wikipedia.org/wiki/Newick_format
+        newick_file: path of the newick file if write_to_file is set
         """
 
         log('--->\nrunning linkage_2_newick\n')
 
-        linkage_matrix = params.get('linkage_matrix')
+        cache_key = self._result_cache_key('linkage_2_newick', params)
+        returnVal = self.result_cache.get(cache_key)
+        if returnVal is not None:
+            log('found linkage_2_newick result in cache')
+            return returnVal
+
+        linkage_matrix = self._get_linkage_matrix(params)
         labels = params.get('labels')
 
-        tree = hier.to_tree(linkage_matrix, False)
+        if params.get('write_to_file'):
+            output_directory = os.path.join(self.scratch, str(uuid.uuid4()))
+            self._mkdir_p(output_directory)
+            newick_file = os.path.join(output_directory, 'tree.newick')
+
+            with io.open(newick_file, 'w', encoding='utf-8') as output:
+                self._write_newick(linkage_matrix, labels, self._text_writer(output))
 
-        newick = self._getNewick(tree, "", tree.dist, labels)
+            return {'newick': '', 'newick_file': newick_file}
 
-        return {'newick': newick}
+        fragments = list()
+        self._write_newick(linkage_matrix, labels, fragments.append)
+
+        return self.result_cache.put(cache_key, {'newick': ''.join(fragments)})
 
     def run_PCA(self, params):
         """
@@ -971,6 +2314,8 @@ class KnowledgeEngineUtil:
 
         data_matrix - raw data matrix in json format
         n_components - number of components (default 2)
+        sparse_matrix - sparse data matrix used in place of data_matrix
+                        (randomized truncated SVD on scaled, uncentered values)
 
         return:
         PCA_matrix - PCA matrix in json format with principal_component_1, principal_component_2 col
@@ -981,20 +2326,47 @@ class KnowledgeEngineUtil:
 
         self._validate_run_PCA_params(params)
 
+        cache_key = self._result_cache_key('run_PCA', params)
+        returnVal = self.result_cache.get(cache_key)
+        if returnVal is not None:
+            log('found run_PCA result in cache')
+            return returnVal
+
         data_matrix = params.get('data_matrix')
         n_components = params.get('n_components', 2)
-        df = pd.read_json(data_matrix)
-        df.fillna(0, inplace=True)
+        sparse_matrix = params.get('sparse_matrix')
+
+        if sparse_matrix:
+            data = self._get_sparse_data(sparse_matrix)
+            index = sparse_matrix['row_ids']
+        else:
+            with stage('json_parse'):
+                df = pd.read_json(data_matrix)
+                df.fillna(0, inplace=True)
+                data = df.values
+                index = df.index
 
-        if n_components > min(df.index.size, df.columns.size):
+        annotate('rows', data.shape[0])
+        annotate('cols', data.shape[1])
+
+        if n_components > min(data.shape):
             raise ValueError('Number of components should be less than min(n_samples, n_features)')
 
-        # Standardizing the values
-        s_values = StandardScaler().fit_transform(df.values)
+        if sparse_matrix:
+            # Scaling without centering keeps the matrix sparse
+            s_values = StandardScaler(with_mean=False).fit_transform(data)
+
+            # Projection to ND
+            pca = TruncatedSVD(n_components=n_components, algorithm='randomized', random_state=0)
+        else:
+            # Standardizing the values
+            s_values = StandardScaler().fit_transform(data)
+
+            # Projection to ND
+            pca = PCA(n_components=n_components)
 
-        # Projection to ND
-        pca = PCA(n_components=n_components)
-        principalComponents = pca.fit_transform(s_values)
+        with stage('pca'):
+            principalComponents = pca.fit_transform(s_values)
 
         col = list()
         for i in range(n_components):
@@ -1003,9 +2375,9 @@ class KnowledgeEngineUtil:
         principalDf = pd.DataFrame(data=principalComponents,
                                    columns=col)
 
-        principalDf.index = df.index
+        principalDf.index = index
 
-        return {'PCA_matrix': principalDf.to_json()}
+        return self.result_cache.put(cache_key, {'PCA_matrix': principalDf.to_json()})
 
     def run_kmeans2(self, params):
         """
@@ -1025,7 +2397,7 @@ class KnowledgeEngineUtil:
 
         self._validate_run_kmeans2_params(params)
 
-        dist_matrix = params.get('dist_matrix')
+        dist_matrix = self._get_dist_matrix(params)
         k_num = params.get('k_num')
 
         try:
@@ -1035,7 +2407,8 @@ class KnowledgeEngineUtil:
 
         dist_squareform = dist.squareform(dist_matrix)
 
-        centroid, idx = vq.kmeans2(dist_squareform, k_num, minit='points')
+        with stage('kmeans'):
+            centroid, idx = vq.kmeans2(dist_squareform, k_num, minit='points')
 
         returnVal = {'centroid': centroid.tolist(),
                      'idx': idx.tolist()}
@@ -1065,33 +2438,79 @@ class KnowledgeEngineUtil:
         Note: Advanced metric functions 'minkowski', 'seuclidean' and 'mahalanobis' included in
               scipy.spatial.distance.pdist library are not implemented
 
+        out_of_core - write the condensed distance matrix into a memory-mapped file in scratch
+                      instead of returning it (default is 0)
+        precision - floating point precision of the distance matrix, 'float64' (default) or
+                    'float32' (computed in float64 and rounded, agrees with float64 to a
+                    relative tolerance of 1e-6)
+        sparse_matrix - sparse data matrix used in place of data_matrix
+                        "cosine", "euclidean", "jaccard" and "cityblock" are computed on the
+                        non-zero values only (jaccard needs all non-zero values equal)
+
         return:
         dist_matrix - a condensed distance matrix
         labels - item name corresponding to each dist_matrix element
+        dist_matrix_file - memory-mapped condensed distance matrix file if out_of_core is set
         """
 
         log('--->\nrunning run_pdist\n')
 
         self._validate_run_pdist_params(params)
 
+        cache_key = self._result_cache_key('run_pdist', params)
+        returnVal = self.result_cache.get(cache_key)
+        if returnVal is not None:
+            log('found run_pdist result in cache')
+            return returnVal
+
         data_matrix = params.get('data_matrix')
         metric = params.get('metric')
         if not metric:
             metric = 'euclidean'
+        precision = params.get('precision')
+        dtype = self._get_dtype(precision)
+
+        sparse_matrix = params.get('sparse_matrix')
+        if sparse_matrix:
+            labels = sparse_matrix['row_ids']
+            data = self._get_sparse_data(sparse_matrix)
+            if metric not in self.SPARSE_METRIC:
+                log('no sparse kernel for metric [{}], densifying input'.format(metric))
+                data = data.toarray()
+        else:
+            with stage('json_parse'):
+                df = pd.read_json(data_matrix)
+                labels = df.index.tolist()
+                values = df.values.tolist()
+
+                data = self._get_data(values)
 
-        df = pd.read_json(data_matrix)
-        labels = df.index.tolist()
-        values = df.values.tolist()
+        annotate('rows', data.shape[0])
+        annotate('cols', data.shape[1])
 
-        data = self._get_data(values)
         log('start computing distance matrix')
-        dist_matrix = dist.pdist(data, metric=metric).tolist()
+        if params.get('out_of_core'):
+            with stage('pdist'):
+                dist_matrix_file = self._compute_pdist_file(data, metric, dtype=dtype)
+            log('finished computing distance matrix into {}'.format(dist_matrix_file))
+
+            returnVal = {'dist_matrix': [],
+                         'labels': labels,
+                         'dist_matrix_file': dist_matrix_file}
+
+            return returnVal
+
+        with stage('pdist'):
+            dist_matrix = self._compute_pdist(data, metric, dtype=dtype)
         log('finished computing distance matrix')
 
+        with stage('to_wire'):
+            dist_matrix = self._to_wire(dist_matrix, precision)
+
         returnVal = {'dist_matrix': dist_matrix,
                      'labels': labels}
 
-        return returnVal
+        return self.result_cache.put(cache_key, returnVal)
 
     def run_linkage(self, params):
         """
@@ -1107,27 +2526,48 @@ class KnowledgeEngineUtil:
                  ["single", "complete", "average", "weighted", "centroid", "median", "ward"]
                  Details refer to:
                  https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.linkage.html
+        dist_matrix_file - memory-mapped condensed distance matrix file used in place of dist_matrix
+                           (refer to run_pdist return with out_of_core); linkage still copies
+                           it into a float64 array in memory (8 bytes per distance)
+        precision - floating point precision of the linkage distances, 'float64' (default) or
+                    'float32'
+        packed_output - return packed_linkage_matrix instead of linkage_matrix
 
         return:
         linkage_matrix - The hierarchical clustering encoded as a linkage matrix
+        packed_linkage_matrix - linkage matrix as base64 of little-endian float64 values,
+                                row by row (packed_output)
         """
 
         log('--->\nrunning run_linkage\n')
 
         self._validate_run_linkage_params(params)
 
-        dist_matrix = params.get('dist_matrix')
+        cache_key = self._result_cache_key('run_linkage', params)
+        returnVal = self.result_cache.get(cache_key)
+        if returnVal is not None:
+            log('found run_linkage result in cache')
+            return returnVal
+
+        dist_matrix = self._get_dist_matrix(params)
         method = params.get('method')
         if not method:
             method = 'single'
 
         log('start computing linkage matrix')
-        linkage_matrix = hier.linkage(dist_matrix, method=str(method)).tolist()
+        with stage('linkage'):
+            linkage_matrix = hier.linkage(dist_matrix, method=str(method))
         log('finished computing linkage matrix')
 
-        returnVal = {'linkage_matrix': linkage_matrix}
+        with stage('to_wire'):
+            linkage_matrix = self._to_wire(linkage_matrix, params.get('precision'))
 
-        return returnVal
+        if params.get('packed_output'):
+            returnVal = {'packed_linkage_matrix': self._pack_linkage_matrix(linkage_matrix)}
+        else:
+            returnVal = {'linkage_matrix': linkage_matrix}
+
+        return self.result_cache.put(cache_key, returnVal)
 
     def run_fcluster(self, params):
         """
@@ -1136,6 +2576,8 @@ class KnowledgeEngineUtil:
         https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html
 
         linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+        packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                                (refer to run_linkage return with packed_output)
         dist_threshold - the threshold to apply when forming flat clusters
 
         Optional arguments:
@@ -1148,35 +2590,97 @@ class KnowledgeEngineUtil:
                     scipy.cluster.hierarchy.fcluster library are not implemented
                     Details refer to:
                     https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html
+        precision - floating point precision of linkage_matrix, 'float64' (default) or 'float32'
+        compact_output - return cluster_assignment, cluster_offsets and cluster_members
+                         instead of flat_cluster
 
         return:
         flat_cluster - A dictionary of flat clusters.
                        Each element of flat_cluster representing a cluster contains a label array.
                       (If labels is none, element position array is returned to each cluster group)
+        cluster_assignment - cluster id of each element, aligned with labels (compact_output)
+        cluster_offsets - cluster boundaries in cluster_members, starting with 0 (compact_output)
+        cluster_members - element positions grouped by cluster id (compact_output)
         """
 
         log('--->\nrunning run_fcluster\n')
 
         self._validate_run_fcluster_params(params)
 
-        linkage_matrix = params.get('linkage_matrix')
+        cache_key = self._result_cache_key('run_fcluster', params)
+        returnVal = self.result_cache.get(cache_key)
+        if returnVal is not None:
+            log('found run_fcluster result in cache')
+            return returnVal
+
+        linkage_matrix = self._get_linkage_matrix(params)
         dist_threshold = params.get('dist_threshold')
         criterion = params.get('criterion')
         if not criterion:
             criterion = 'distance'
         labels = params.get('labels')
 
+        if params.get('precision') == 'float32' and criterion == 'distance':
+            # linkage distances were rounded to float32, round the threshold the same way
+            # so merges at exactly dist_threshold fall on the same side as in float64
+            dist_threshold = float(np.float32(dist_threshold))
+
         log('start computing flat clusters')
-        fcluster = hier.fcluster(linkage_matrix, dist_threshold, criterion=criterion)
+        with stage('fcluster'):
+            fcluster = hier.fcluster(linkage_matrix, dist_threshold, criterion=criterion)
 
-        if labels:
-            flat_cluster = self._process_fcluster(fcluster, labels=labels)
-        else:
-            flat_cluster = self._process_fcluster(fcluster)
+            if params.get('compact_output'):
+                returnVal = self._compact_fcluster(fcluster)
+            else:
+                flat_cluster = self._process_fcluster(fcluster, labels=labels)
+                returnVal = {'flat_cluster': flat_cluster}
 
         log('finished computing flat clusters')
 
-        returnVal = {'flat_cluster': flat_cluster}
+        return self.result_cache.put(cache_key, returnVal)
+
+    def run_fcluster_sweep(self, params):
+        """
+        run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+                            over the merge heights, instead of one run_fcluster call per
+                            threshold
+
+        linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+        packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                                (refer to run_linkage return with packed_output)
+        dist_thresholds - thresholds to apply when forming flat clusters ('distance' criterion)
+        maxclust_values - maximum numbers of flat clusters to form ('maxclust' criterion)
+        (provide exactly one of dist_thresholds or maxclust_values)
+
+        Optional arguments:
+        labels - items corresponding to each linkage_matrix element
+                 (If labels are given, result flat_cluster will be mapped to element in labels.)
+
+        return:
+        flat_clusters - A list of flat clusters, one for each element of dist_thresholds or
+                        maxclust_values and in the same order (refer to run_fcluster return)
+        """
+
+        log('--->\nrunning run_fcluster_sweep\n')
+
+        self._validate_run_fcluster_sweep_params(params)
+
+        linkage_matrix = self._get_linkage_matrix(params)
+        labels = params.get('labels')
+        maxclust_values = params.get('maxclust_values')
+        with stage('fcluster'):
+            if maxclust_values:
+                assignments = self._sweep_fcluster(linkage_matrix, maxclust_values, True)
+            else:
+                assignments = self._sweep_fcluster(linkage_matrix, params.get('dist_thresholds'),
+                                                   False)
+
+            flat_clusters = [self._process_fcluster(assignment, labels=labels)
+                             for assignment in assignments]
+
+        log('finished computing flat clusters')
+
+        returnVal = {'flat_clusters': flat_clusters}
 
         return returnVal
 
@@ -1187,6 +2691,8 @@ class KnowledgeEngineUtil:
         https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.dendrogram.html
 
         linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+        packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                                (refer to run_linkage return with packed_output)
 
         Optional arguments:
         dist_threshold - the threshold to apply when forming flat clusters
@@ -1194,6 +2700,13 @@ class KnowledgeEngineUtil:
         labels - items corresponding to each linkage_matrix element
                 (If labels are given, result dendrogram x-axis will be mapped to element in labels)
         last_merges - show only last given value merged clusters
+        output_format - "png" (default, matplotlib), "svg" or "json"
+                        "svg" and "json" are laid out in a single pass and streamed to the
+                        output file (refer to _render_dendrogram)
+        width - output width in pixels for "svg" and "json". Default set to 2500.
+        height - output height in pixels for "svg" and "json". Default set to 1000.
+        min_pixels - subtrees narrower than min_pixels are drawn as one collapsed node
+                     for "svg" and "json". Default set to 1.0.
 
         return:
         result_plots - List of result plot path(s)
@@ -1203,17 +2716,35 @@ class KnowledgeEngineUtil:
 
         self._validate_run_dendrogram_params(params)
 
-        plt.switch_backend('agg')
-
         result_plots = list()
         output_directory = os.path.join(self.scratch, str(uuid.uuid4()))
         self._mkdir_p(output_directory)
-        plot_file = os.path.join(output_directory, 'dendrogram.png')
 
-        linkage_matrix = params.get('linkage_matrix')
+        linkage_matrix = self._get_linkage_matrix(params)
         dist_threshold = params.get('dist_threshold')
         labels = params.get('labels')
         last_merges = params.get('last_merges')
+        output_format = params.get('output_format')
+
+        if output_format in ['svg', 'json']:
+            plot_file = os.path.join(output_directory, 'dendrogram.' + output_format)
+            with io.open(plot_file, 'w', encoding='utf-8') as output:
+                self._render_dendrogram(linkage_matrix, self._text_writer(output),
+                                        output_format=output_format,
+                                        labels=labels,
+                                        last_merges=last_merges,
+                                        dist_threshold=dist_threshold,
+                                        width=params.get('width'),
+                                        height=params.get('height'),
+                                        min_pixels=params.get('min_pixels'))
+            result_plots.append(plot_file)
+
+            log('finished rendering dendrogram')
+
+            return {'result_plots': result_plots}
+
+        plt.switch_backend('agg')
+        plot_file = os.path.join(output_directory, 'dendrogram.png')
 
         plt.figure(figsize=(25, 10))
         plt.ylabel('distance')
@@ -1300,8 +2831,9 @@ class KnowledgeEngineUtil:
         linkage_method = params.get('linkage_method')
         fcluster_criterion = params.get('fcluster_criterion')
 
-        data_matrix = self._process_ndarray_data(ndarray_ref)
-        flat_cluster = self._build_flat_cluster(data_matrix, dist_threshold,
+        with stage('ndarray_fetch'):
+            sparse_matrix = self._process_ndarray_data(ndarray_ref)
+        flat_cluster = self._build_flat_cluster(sparse_matrix, dist_threshold,
                                                 dist_metric=dist_metric,
                                                 linkage_method=linkage_method,
                                                 fcluster_criterion=fcluster_criterion)
@@ -1322,6 +2854,13 @@ class KnowledgeEngineUtil:
 
         Optional arguments:
         propagation: includes is_a relationship to all go terms (default is 0)
+        encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                                 entity_term_set
+                                 e.g. {'entity_ids': ['gene_id_1'],
+                                       'terms': ['go_term_1', 'go_term_2'],
+                                       'indptr': [0, 2], 'indices': [0, 1]}
+        entity_term_set_handle: handle returned by register_entity_term_set, used in place of
+                                entity_term_set
 
         return:
         enrichment_profile: dict structure stores enrichment info
@@ -1336,25 +2875,48 @@ class KnowledgeEngineUtil:
         self._validate_enrich_onthology_params(params)
 
         sample_set = params.get('sample_set')
-        entity_term_set = params.get('entity_term_set')
         propagation = params.get('propagation', False)
 
-        go_id_gene_ids_list_map = self._process_entity_term_set(entity_term_set, propagation)
+        entity_term_set_handle = params.get('entity_term_set_handle')
+        if entity_term_set_handle:
+            term_bitmaps = self._get_term_bitmaps(entity_term_set_handle, propagation)
+            annotate('entities', term_bitmaps['entity_ids'].size)
+            annotate('terms', term_bitmaps['terms'].size)
 
-        if self.ONTOLOGY_HASH:
-            log('using cached ontology data')
-            ontology_hash = self.ONTOLOGY_HASH
+            with stage('fisher_test'):
+                enrichment_profile = self._calculate_bitmap_go_enrichment(term_bitmaps,
+                                                                          sample_set)
+
+            self._append_ontology_type(enrichment_profile, self._get_cached_ontology_hash())
+
+            return {'enrichment_profile': enrichment_profile}
+
+        encoded_entity_term_set = params.get('encoded_entity_term_set')
+        if encoded_entity_term_set:
+            # genes are handled as positions in entity_ids, sample genes without terms as None
+            go_id_gene_ids_list_map = self._process_encoded_entity_term_set(
+                                                                    encoded_entity_term_set)
+            entity_ids = encoded_entity_term_set['entity_ids']
+            entity_positions = {gene_id: i for i, gene_id in enumerate(entity_ids)}
+            sample_set = [entity_positions.get(gene_id) for gene_id in sample_set]
         else:
-            log('loading ontology data')
-            ontology_hash = self._get_ontology_hash()
-            self.update_ontology_hash(ontology_hash)
+            entity_term_set = params.get('entity_term_set')
+            go_id_gene_ids_list_map = self._process_entity_term_set(entity_term_set, propagation)
+            entity_ids = entity_term_set.keys()
+
+        annotate('entities', len(entity_ids))
+        annotate('terms', len(go_id_gene_ids_list_map))
+
+        ontology_hash = self._get_cached_ontology_hash()
 
         if propagation:
-            self._process_parent_go_terms(go_id_gene_ids_list_map, ontology_hash)
+            with stage('propagation'):
+                self._process_parent_go_terms(go_id_gene_ids_list_map, ontology_hash)
 
-        enrichment_profile = self._calculate_go_enrichment(go_id_gene_ids_list_map,
-                                                           sample_set,
-                                                           entity_term_set.keys())
+        with stage('fisher_test'):
+            enrichment_profile = self._calculate_go_enrichment(go_id_gene_ids_list_map,
+                                                               sample_set,
+                                                               entity_ids)
 
         self._append_ontology_type(enrichment_profile, ontology_hash)
 
@@ -1362,6 +2924,57 @@ class KnowledgeEngineUtil:
 
         return returnVal
 
+    def register_entity_term_set(self, params):
+        """
+        register_entity_term_set: keep an entity_term_set as term to entities bitmaps,
+                                  for enrich_onthology calls with entity_term_set_handle
+
+        entity_term_set: entity terms dict structure where global GO term and gene_ids are stored
+                         e.g. {'gene_id_1': ['go_term_1', 'go_term_2']}
+
+        Optional arguments:
+        encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                                 entity_term_set
+
+        return:
+        entity_term_set_handle: content hash of the entity_term_set
+        entity_count: number of entities
+        term_count: number of distinct terms
+        """
+
+        log('--->\nrunning register_entity_term_set')
+
+        self._validate_register_entity_term_set_params(params)
+
+        encoded_entity_term_set = params.get('encoded_entity_term_set')
+        if encoded_entity_term_set:
+            entity_term_set_handle = self.term_bitmap_cache.key(
+                        'register_entity_term_set',
+                        {'encoded_entity_term_set': encoded_entity_term_set})
+        else:
+            entity_term_set = params.get('entity_term_set')
+            entity_term_set_handle = self.term_bitmap_cache.key(
+                        'register_entity_term_set', {'entity_term_set': entity_term_set})
+            encoded_entity_term_set = self._encode_entity_term_set(entity_term_set)
+
+        term_bitmaps = self.term_bitmap_cache.get(entity_term_set_handle)
+        if term_bitmaps is None:
+            go_id_entity_positions_map = self._process_encoded_entity_term_set(
+                                                                    encoded_entity_term_set)
+            with stage('term_bitmaps'):
+                term_bitmaps = self._build_term_bitmaps(go_id_entity_positions_map,
+                                                        encoded_entity_term_set['entity_ids'])
+            self.term_bitmap_cache.put(entity_term_set_handle, term_bitmaps)
+
+        annotate('entities', term_bitmaps['entity_ids'].size)
+        annotate('terms', term_bitmaps['terms'].size)
+
+        returnVal = {'entity_term_set_handle': entity_term_set_handle,
+                     'entity_count': term_bitmaps['entity_ids'].size,
+                     'term_count': term_bitmaps['terms'].size}
+
+        return returnVal
+
     def calc_onthology_dist(self, params):
         """
         enrich_onthology: calculate onthology distance
@@ -1384,9 +2997,10 @@ class KnowledgeEngineUtil:
         onthology_set = params.get('onthology_set')
 
         onthology_dist_set = dict()
-        for gene_id, pair_go_terms in onthology_set.iteritems():
-            dist = self._calc_pair_term_dist(pair_go_terms)
-            onthology_dist_set.update({gene_id: dist})
+        with stage('term_distance'):
+            for gene_id, pair_go_terms in onthology_set.iteritems():
+                dist = self._calc_pair_term_dist(pair_go_terms)
+                onthology_dist_set.update({gene_id: dist})
 
         returnVal = {'onthology_dist_set': onthology_dist_set}
 
@@ -1415,23 +3029,105 @@ class KnowledgeEngineUtil:
         onthology_set = params.get('onthology_set')
 
         onthology_dist_set = dict()
-        for gene_id, pair_go_terms in onthology_set.iteritems():
-            common_parents = self._find_comone_parent(pair_go_terms)
-            if common_parents:
-                dist = 0
-                for common_parent in common_parents:
-                    start_go_term = pair_go_terms[0]
-                    end_go_term = pair_go_terms[1]
-                    start_dist = self._calc_weighted_pair_term_dist([start_go_term,
-                                                                     common_parent])
-                    end_dist = self._calc_weighted_pair_term_dist([end_go_term, common_parent])
-                    tmp_dist = start_dist + end_dist
-                    if not dist or (tmp_dist < dist):
-                        dist = tmp_dist
-                onthology_dist_set.update({gene_id: dist})
-            else:
-                onthology_dist_set.update({gene_id: float('inf')})
+        with stage('term_distance'):
+            for gene_id, pair_go_terms in onthology_set.iteritems():
+                common_parents = self._find_comone_parent(pair_go_terms)
+                if common_parents:
+                    dist = 0
+                    for common_parent in common_parents:
+                        start_go_term = pair_go_terms[0]
+                        end_go_term = pair_go_terms[1]
+                        start_dist = self._calc_weighted_pair_term_dist([start_go_term,
+                                                                         common_parent])
+                        end_dist = self._calc_weighted_pair_term_dist([end_go_term, common_parent])
+                        tmp_dist = start_dist + end_dist
+                        if not dist or (tmp_dist < dist):
+                            dist = tmp_dist
+                    onthology_dist_set.update({gene_id: dist})
+                else:
+                    onthology_dist_set.update({gene_id: float('inf')})
 
         returnVal = {'onthology_dist_set': onthology_dist_set}
 
         return returnVal
+
+    def calc_resnik_onthology_sim(self, params):
+        """
+        calc_resnik_onthology_sim: calculate Resnik onthology similarity
+                                   (information content of the most informative common
+                                    is_a ancestor)
+                                   NOTE: return 0 if no common ancestor node found
+
+        onthology_set: dict structure stores mapping of gene_id to paried onthology
+                       e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
+
+        Optional arguments:
+        entity_term_set_handle - information content from the annotations of a registered
+                                 entity_term_set (refer to register_entity_term_set)
+                                 default: from the ontology structure
+
+        return:
+        onthology_score_set: dict structure stores mapping of gene_id to similarity
+                             e.g. {"gene_id_1": 2.3}
+        """
+
+        log('--->\nrunning calc_resnik_onthology_sim')
+
+        return self._calc_information_content_scores(params,
+                                                     lambda ic_1, ic_2, ic_mica: ic_mica,
+                                                     0.0)
+
+    def calc_lin_onthology_sim(self, params):
+        """
+        calc_lin_onthology_sim: calculate Lin onthology similarity
+                                (2 * IC(common ancestor) / (IC(term_1) + IC(term_2)), in [0, 1])
+                                NOTE: return 0 if no common ancestor node found
+
+        onthology_set: dict structure stores mapping of gene_id to paried onthology
+                       e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
+
+        Optional arguments:
+        entity_term_set_handle - information content from the annotations of a registered
+                                 entity_term_set (refer to register_entity_term_set)
+                                 default: from the ontology structure
+
+        return:
+        onthology_score_set: dict structure stores mapping of gene_id to similarity
+                             e.g. {"gene_id_1": 0.8}
+        """
+
+        log('--->\nrunning calc_lin_onthology_sim')
+
+        def lin(ic_1, ic_2, ic_mica):
+            if ic_1 + ic_2 > 0:
+                return 2 * ic_mica / (ic_1 + ic_2)
+            # both terms are roots, the root is its own common ancestor
+            return 1.0
+
+        return self._calc_information_content_scores(params, lin, 0.0)
+
+    def calc_jiang_conrath_onthology_dist(self, params):
+        """
+        calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath onthology distance
+                                           (IC(term_1) + IC(term_2) - 2 * IC(common ancestor))
+                                           NOTE: return inf if no common ancestor node found
+
+        onthology_set: dict structure stores mapping of gene_id to paried onthology
+                       e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
+
+        Optional arguments:
+        entity_term_set_handle - information content from the annotations of a registered
+                                 entity_term_set (refer to register_entity_term_set)
+                                 default: from the ontology structure
+
+        return:
+        onthology_score_set: dict structure stores mapping of gene_id to distance
+                             e.g. {"gene_id_1": 1.2}
+        """
+
+        log('--->\nrunning calc_jiang_conrath_onthology_dist')
+
+        return self._calc_information_content_scores(
+                            params,
+                            lambda ic_1, ic_2, ic_mica: max(ic_1 + ic_2 - 2 * ic_mica, 0.0),
+                            float('inf'))
@@ -0,0 +1,233 @@
+import os
+import errno
+import json
+import time
+import uuid
+import hashlib
+import threading
+from collections import OrderedDict
+
+
+def log(message, prefix_newline=False):
+    time_str = time.strftime("%Y-%m-%d %H:%M:%S", time.gmtime(time.time()))
+    print(('\n' if prefix_newline else '') + time_str + ': ' + message)
+
+
+class ResultCache:
+    """
+    ResultCache: content-addressed cache of deterministic method results
+
+    Entries are keyed by the sha256 of the module version, the method name and the canonical
+    JSON of its params, so a deployment of new code does not pick up results of the old one
+    from the disk tier.
+    The memory tier holds result objects, the disk tier holds their JSON under scratch.
+    Both tiers evict least recently used entries once over their byte budget
+    (entry size is the length of the result JSON). A byte budget of 0 disables the tier.
+    Result objects take several times the length of their JSON in memory (a float of a list
+    is a 24 byte object plus an 8 byte pointer), so memory entries count MEMORY_SIZE_FACTOR
+    times the JSON length against the memory budget.
+    Failing to write the disk tier (e.g. scratch is full) is logged and does not fail put.
+
+    The disk tier can be shared by several server processes: an entry missing from the index
+    of this process is looked up on disk, and files removed by another process's eviction are
+    treated as misses. Each process evicts by its own index, so the directory can grow to the
+    disk budget times the number of processes.
+
+    Cached result objects are shared between callers and must not be modified.
+    Subclasses can store other objects by overriding FILE_SUFFIX, _dumps and _loads.
+    """
+
+    FILE_SUFFIX = '.json'
+    MEMORY_SIZE_FACTOR = 4
+
+    def __init__(self, memory_bytes, disk_bytes, cache_directory, version=''):
+        self.memory_bytes = memory_bytes
+        self.disk_bytes = disk_bytes
+        self.cache_directory = cache_directory
+        self.version = version
+
+        self._lock = threading.Lock()
+        self._memory = OrderedDict()  # key -> (result, size)
+        self._memory_size = 0
+        self._disk = OrderedDict()  # key -> size
+        self._disk_size = 0
+
+        self._memory_hits = 0
+        self._disk_hits = 0
+        self._misses = 0
+        self._evictions = 0
+
+        if self.disk_bytes > 0:
+            self._load_disk_index()
+
+    def _mkdir_p(self, path):
+        try:
+            os.makedirs(path)
+        except OSError as exc:
+            if exc.errno == errno.EEXIST and os.path.isdir(path):
+                pass
+            else:
+                raise
+
+    def _load_disk_index(self):
+        """
+        _load_disk_index: pick up entries left by a previous server process, oldest first
+        """
+        self._mkdir_p(self.cache_directory)
+        entries = list()
+        for file_name in os.listdir(self.cache_directory):
+            if not file_name.endswith(self.FILE_SUFFIX):
+                continue
+            stat = os.stat(os.path.join(self.cache_directory, file_name))
+            entries.append((stat.st_mtime, file_name[:-len(self.FILE_SUFFIX)], stat.st_size))
+
+        for mtime, key, size in sorted(entries):
+            self._disk[key] = size
+            self._disk_size += size
+        self._evict_disk()
+
+    def _disk_path(self, key):
+        return os.path.join(self.cache_directory, key + self.FILE_SUFFIX)
+
+    def _dumps(self, result):
+        """
+        _dumps: serialized result, its length is the entry size
+        """
+        return json.dumps(result, separators=(',', ':'))
+
+    def _loads(self, data):
+        return json.loads(data)
+
+    def key(self, method, params):
+        """
+        key: content hash of a method call
+
+        params are canonicalized as JSON with sorted keys and no whitespace
+        """
+        canonical = json.dumps(params, sort_keys=True, separators=(',', ':'))
+        return hashlib.sha256((self.version + '\n' + method + '\n' +
+                               canonical).encode('utf-8')).hexdigest()
+
+    def get(self, key):
+        """
+        get: cached result for key, or None
+        """
+        if key is None:
+            return None
+
+        with self._lock:
+            entry = self._memory.pop(key, None)
+            if entry is not None:
+                self._memory[key] = entry
+                self._memory_hits += 1
+                return entry[0]
+
+            size = self._disk.pop(key, None)
+            if size is not None:
+                self._disk[key] = size
+            elif self.disk_bytes <= 0:
+                self._misses += 1
+                return None
+
+        try:
+            # not indexed here, but may have been written by another server process
+            with open(self._disk_path(key), 'rb') as result_file:
+                result_data = result_file.read()
+            os.utime(self._disk_path(key), None)
+        except (IOError, OSError):
+            with self._lock:
+                if size is not None and self._disk.pop(key, None) is not None:
+                    self._disk_size -= size
+                self._misses += 1
+            return None
+
+        result = self._loads(result_data)
+        with self._lock:
+            if key not in self._disk:
+                self._disk[key] = len(result_data)
+                self._disk_size += len(result_data)
+                self._evict_disk()
+            self._disk_hits += 1
+            self._put_memory(key, result, len(result_data))
+
+        return result
+
+    def put(self, key, result):
+        """
+        put: store result in both tiers and return it
+        """
+        if key is None or (self.memory_bytes <= 0 and self.disk_bytes <= 0):
+            # nothing to store, do not pay for serializing the result
+            return result
+
+        result_data = self._dumps(result)
+        size = len(result_data)
+
+        with self._lock:
+            self._put_memory(key, result, size)
+
+        if 0 < size <= self.disk_bytes:
+            tmp_path = os.path.join(self.cache_directory, '.' + str(uuid.uuid4()))
+            try:
+                with open(tmp_path, 'wb') as result_file:
+                    result_file.write(result_data)
+                os.rename(tmp_path, self._disk_path(key))
+            except (IOError, OSError) as error:
+                log('cannot write result cache entry {}: {}'.format(key, error))
+                try:
+                    os.remove(tmp_path)
+                except OSError:
+                    pass
+                return result
+
+            with self._lock:
+                previous = self._disk.pop(key, None)
+                if previous is not None:
+                    self._disk_size -= previous
+                self._disk[key] = size
+                self._disk_size += size
+                self._evict_disk()
+
+        return result
+
+    def _put_memory(self, key, result, size):
+        size *= self.MEMORY_SIZE_FACTOR
+        if size > self.memory_bytes:
+            return
+        previous = self._memory.pop(key, None)
+        if previous is not None:
+            self._memory_size -= previous[1]
+        self._memory[key] = (result, size)
+        self._memory_size += size
+        while self._memory_size > self.memory_bytes:
+            _, (_, evicted_size) = self._memory.popitem(last=False)
+            self._memory_size -= evicted_size
+            self._evictions += 1
+
+    def _evict_disk(self):
+        while self._disk_size > self.disk_bytes:
+            evicted_key, evicted_size = self._disk.popitem(last=False)
+            self._disk_size -= evicted_size
+            self._evictions += 1
+            try:
+                os.remove(self._disk_path(evicted_key))
+            except OSError:
+                # already evicted by another server process
+                pass
+
+    def stats(self):
+        """
+        stats: hit and size counters of the cache
+        """
+        with self._lock:
+            lookups = self._memory_hits + self._disk_hits + self._misses
+            hit_rate = float(self._memory_hits + self._disk_hits) / lookups if lookups else 0.0
+            return {'memory_hits': self._memory_hits,
+                    'disk_hits': self._disk_hits,
+                    'misses': self._misses,
+                    'hit_rate': hit_rate,
+                    'evictions': self._evictions,
+                    'memory_entries': len(self._memory),
+                    'memory_bytes': self._memory_size,
+                    'disk_entries': len(self._disk),
+                    'disk_bytes': self._disk_size}
@@ -0,0 +1,223 @@
+import io
+import gzip
+import json
+import struct
+import zlib
+import threading
+
+from biokbase import log
+from kb_ke_util.kb_ke_utilServer import JSONObjectEncoder, MethodContext, getIPAddress
+from kb_ke_util.Utils.StageTimer import StageTimer, stage
+
+try:
+    import cbor2
+    _REQUEST_DECODE_ERRORS = (ValueError, cbor2.CBORDecodeError)
+except ImportError:
+    cbor2 = None
+    _REQUEST_DECODE_ERRORS = (ValueError,)
+
+JSON_CONTENT_TYPE = 'application/json'
+CBOR_CONTENT_TYPE = 'application/cbor'
+GZIP_MIN_SIZE = 64 * 1024  # responses smaller than this are not compressed
+GZIP_LEVEL = 1  # fastest level, distance payloads still compress well
+GZIP_MAX_REQUEST_BYTES = 1024 * 1024 * 1024  # gzip requests may not decompress to more than this
+
+
+def _cbor_default(encoder, value):
+    # same conversions as JSONObjectEncoder
+    if isinstance(value, (set, frozenset)):
+        encoder.encode(list(value))
+    elif hasattr(value, 'toJSONable'):
+        encoder.encode(value.toJSONable())
+    else:
+        raise ValueError('cannot serialize type %s' % type(value))
+
+
+class _RequestState(threading.local):
+    # the request handled by the current thread, class attributes are the defaults
+    rpc_request = None
+    cbor_response = False
+    content_type = JSON_CONTENT_TYPE
+    ctx = None
+
+
+class RpcTransport:
+    """
+    RpcTransport: WSGI middleware around the generated kb_ke_util server application
+
+    kb_ke_utilServer.py is regenerated by kb-sdk compile, so the transport features live here:
+    - chunked requests (no content-length) are read to the end if the server marks the input
+      as terminated (wsgi.input_terminated), which the uwsgi http router does not, so the
+      clients send fixed-length requests
+    - gzip requests (content-encoding: gzip) are decompressed up to GZIP_MAX_REQUEST_BYTES,
+      responses of at least GZIP_MIN_SIZE bytes are gzip compressed for clients that accept it
+    - application/cbor requests get a CBOR response if the client accepts it,
+      errors are always returned as JSON
+    - every request gets a StageTimer, its profile is logged at the end of the request and,
+      if the JSON RPC context has profile set, returned as the 'profile' member of the response
+
+    The request is decoded once, here. The server gets it without its params, which is all it
+    needs to authenticate and log the call, and the server's rpc_service.call is replaced so
+    that the method runs with the decoded request and the response is encoded as negotiated.
+    """
+
+    def __init__(self, application):
+        self.application = application
+        self.rpc_service = application.rpc_service
+        self._request = _RequestState()
+        self.rpc_service.call = self._call
+
+    def _read_body(self, environ):
+        if not environ.get('CONTENT_LENGTH') and environ.get('wsgi.input_terminated'):
+            # chunked request, read until the end
+            return environ['wsgi.input'].read()
+        try:
+            body_size = int(environ.get('CONTENT_LENGTH', 0))
+        except ValueError:
+            body_size = 0
+        return environ['wsgi.input'].read(body_size)
+
+    def _gunzip(self, request_body):
+        # the request is not authenticated yet, do not let it inflate without bounds; GzipFile
+        # reads at most the bytes asked for and, unlike a decompressobj, checks the gzip trailer
+        gzip_file = gzip.GzipFile(fileobj=io.BytesIO(request_body), mode='rb')
+        try:
+            request_body = gzip_file.read(GZIP_MAX_REQUEST_BYTES + 1)
+        except (IOError, EOFError, zlib.error, struct.error) as error:
+            raise ValueError('cannot decompress gzip request: ' + str(error))
+        if len(request_body) > GZIP_MAX_REQUEST_BYTES:
+            raise ValueError('gzip request decompresses to more than {} bytes'.format(
+                                                                    GZIP_MAX_REQUEST_BYTES))
+        return request_body
+
+    def _call(self, ctx, jsondata):
+        """
+        _call: rpc_service.call of the server, call the method and encode its response
+        """
+        request = self._request
+        if request.rpc_request is not None:
+            jsondata = request.rpc_request
+            ctx['provenance'][0]['method_params'] = jsondata['params']
+        request.ctx = ctx
+
+        result = self.rpc_service.call_py(ctx, jsondata)
+        if result is None:
+            return None
+
+        timer = StageTimer.current()
+        rpc_context = jsondata.get('context') if isinstance(jsondata, dict) else None
+        if (timer is not None and isinstance(result, dict) and
+                isinstance(rpc_context, dict) and rpc_context.get('profile')):
+            # the response encoding comes after, it is in the logged profile only
+            result['profile'] = timer.profile()
+
+        with stage('result_encoding'):
+            if request.cbor_response:
+                body = cbor2.dumps(result, default=_cbor_default)
+                request.content_type = CBOR_CONTENT_TYPE
+            else:
+                body = json.dumps(result, cls=JSONObjectEncoder)
+
+        return body
+
+    def __call__(self, environ, start_response):
+        if environ['REQUEST_METHOD'] == 'OPTIONS':
+            return self.application(environ, start_response)
+
+        request = self._request
+        request.rpc_request = None
+        request.cbor_response = False
+        request.content_type = JSON_CONTENT_TYPE
+        request.ctx = None
+        timer = StageTimer.begin()
+        try:
+            return self._handle(environ, start_response, request, timer)
+        finally:
+            StageTimer.end()
+            # do not hold on to the params of the request
+            request.rpc_request = None
+            request.ctx = None
+
+    def _handle(self, environ, start_response, request, timer):
+        request_body = self._read_body(environ)
+        timer.sizes['request_bytes'] = len(request_body)
+
+        cbor_request = (cbor2 is not None and
+                        environ.get('CONTENT_TYPE', '').startswith(CBOR_CONTENT_TYPE))
+        request.cbor_response = (cbor_request and
+                                 CBOR_CONTENT_TYPE in environ.get('HTTP_ACCEPT', ''))
+        try:
+            with stage('request_decode'):
+                if environ.get('HTTP_CONTENT_ENCODING') == 'gzip':
+                    request_body = self._gunzip(request_body)
+                if cbor_request:
+                    rpc_request = cbor2.loads(request_body)
+                else:
+                    rpc_request = json.loads(request_body)
+        except _REQUEST_DECODE_ERRORS as ve:
+            return self._parse_error(environ, start_response, str(ve))
+
+        if isinstance(rpc_request, dict) and 'params' in rpc_request:
+            request.rpc_request = rpc_request
+            server_request = dict(rpc_request)
+            server_request['params'] = []
+            request_body = json.dumps(server_request)
+        elif cbor_request:
+            request_body = json.dumps(rpc_request)
+
+        server_environ = dict(environ)
+        server_environ['wsgi.input'] = io.BytesIO(request_body)
+        server_environ['CONTENT_LENGTH'] = str(len(request_body))
+        server_environ['CONTENT_TYPE'] = JSON_CONTENT_TYPE
+        server_environ.pop('HTTP_CONTENT_ENCODING', None)
+
+        response = {}
+
+        def server_start_response(status, headers, exc_info=None):
+            response['status'] = status
+            response['headers'] = headers
+
+        response_body = ''.join(self.application(server_environ, server_start_response))
+
+        timer.sizes['response_bytes'] = len(response_body)
+        ctx = request.ctx
+        if ctx is None and isinstance(rpc_request, dict) and 'method' in rpc_request:
+            # the call failed before the method ran, e.g. on authentication
+            ctx = MethodContext(self.application.userlog)
+            ctx['client_ip'] = getIPAddress(environ)
+            ctx['module'], ctx['method'] = rpc_request['method'].split('.')
+            ctx['call_id'] = rpc_request.get('id')
+        if ctx is not None:
+            self.application.log(log.INFO, ctx, 'profile ' + json.dumps(timer.profile()))
+
+        headers = [(name, value) for name, value in response['headers']
+                   if name.lower() not in ('content-type', 'content-length')]
+        return self._respond(environ, start_response, response['status'], headers,
+                             response_body, request.content_type)
+
+    def _parse_error(self, environ, start_response, message):
+        ctx = MethodContext(self.application.userlog)
+        ctx['client_ip'] = getIPAddress(environ)
+        err = {'error': {'code': -32700,
+                         'name': "Parse error",
+                         'message': message,
+                         }
+               }
+        response_body = self.application.process_error(err, ctx, {'version': '1.1'})
+        headers = [('Access-Control-Allow-Origin', '*'),
+                   ('Access-Control-Allow-Headers', environ.get(
+                       'HTTP_ACCESS_CONTROL_REQUEST_HEADERS', 'authorization'))]
+        return self._respond(environ, start_response, '500 Internal Server Error', headers,
+                             response_body, JSON_CONTENT_TYPE)
+
+    def _respond(self, environ, start_response, status, headers, response_body, content_type):
+        headers.append(('content-type', content_type))
+        if (len(response_body) >= GZIP_MIN_SIZE and
+                'gzip' in environ.get('HTTP_ACCEPT_ENCODING', '')):
+            compressor = zlib.compressobj(GZIP_LEVEL, zlib.DEFLATED, 16 + zlib.MAX_WBITS)
+            response_body = compressor.compress(response_body) + compressor.flush()
+            headers.append(('content-encoding', 'gzip'))
+            headers.append(('vary', 'Accept-Encoding'))
+        headers.append(('content-length', str(len(response_body))))
+        start_response(status, headers)
+        return [response_body]
@@ -0,0 +1,111 @@
+import sys
+import time
+import resource
+import threading
+from collections import OrderedDict
+from contextlib import contextmanager
+
+_current = threading.local()
+
+
+class StageTimer:
+    """
+    StageTimer: wall clock time spent in named stages of one request
+
+    The server starts a timer for each request on the thread handling it, code running on that
+    thread records stages with stage(name) and sizes with annotate(name, value). Stages are
+    inclusive (a stage nested in another counts in both) and a stage entered more than once
+    accumulates its time. Work done on pool threads is counted in the stage that started it.
+
+    profile() also reports the peak resident set size of the server process, which is a
+    high-water mark over all requests the process has served, and how much this request raised it.
+    """
+
+    def __init__(self):
+        self.start_time = time.time()
+        self.start_peak_rss = self._peak_rss()
+        self.stages = OrderedDict()  # name -> [seconds, count]
+        self.sizes = OrderedDict()
+
+    @classmethod
+    def begin(cls):
+        """
+        begin: start a timer for the request handled by the current thread
+        """
+        _current.timer = cls()
+        return _current.timer
+
+    @classmethod
+    def end(cls):
+        """
+        end: detach the timer of the current thread and return it (None if there is none)
+        """
+        timer = getattr(_current, 'timer', None)
+        _current.timer = None
+        return timer
+
+    @classmethod
+    def current(cls):
+        return getattr(_current, 'timer', None)
+
+    def _peak_rss(self):
+        peak_rss = resource.getrusage(resource.RUSAGE_SELF).ru_maxrss
+        # kilobytes on Linux, bytes on macOS
+        return peak_rss if sys.platform == 'darwin' else peak_rss * 1024
+
+    def add(self, name, seconds):
+        entry = self.stages.get(name)
+        if entry is None:
+            self.stages[name] = [seconds, 1]
+        else:
+            entry[0] += seconds
+            entry[1] += 1
+
+    def profile(self):
+        """
+        profile: stage timings, sizes and memory of the request so far
+
+        return:
+        total_seconds - time since the timer started
+        stages - list of {name, seconds, count} in the order the stages were first entered
+        sizes - values recorded with annotate, e.g. request_bytes
+        peak_rss_bytes - peak resident set size of the server process
+        peak_rss_growth_bytes - how much the peak grew while the timer was running
+        """
+        peak_rss = self._peak_rss()
+
+        return {'total_seconds': time.time() - self.start_time,
+                'stages': [{'name': name, 'seconds': seconds, 'count': count}
+                           for name, (seconds, count) in self.stages.items()],
+                'sizes': dict(self.sizes),
+                'peak_rss_bytes': peak_rss,
+                'peak_rss_growth_bytes': peak_rss - self.start_peak_rss}
+
+
+@contextmanager
+def stage(name):
+    """
+    stage: time the enclosed block as stage name of the current request (no-op without a timer)
+
+    with stage('pdist'):
+        dist_matrix = dist.pdist(data)
+    """
+    timer = StageTimer.current()
+    if timer is None:
+        yield
+        return
+
+    start = time.time()
+    try:
+        yield
+    finally:
+        timer.add(name, time.time() - start)
+
+
+def annotate(name, value):
+    """
+    annotate: record a size of the current request, e.g. annotate('rows', 1000)
+    """
+    timer = StageTimer.current()
+    if timer is not None:
+        timer.sizes[name] = value
@@ -0,0 +1,33 @@
+import io
+import numpy as np
+
+from kb_ke_util.Utils.ResultCache import ResultCache
+
+
+class TermBitmapCache(ResultCache):
+    """
+    TermBitmapCache: term -> entities bitmaps of registered entity_term_sets
+
+    Entries are keyed by entity_term_set handle and hold numpy arrays:
+    entity_ids - entity guids, bit i of a bitmap stands for entity_ids[i]
+    terms - terms assigned to at least one entity
+    bitmaps - one np.packbits row per term, shape (len(terms), ceil(len(entity_ids) / 8))
+    total_counts - number of entities of each term
+
+    Every entry is written to an .npz file under scratch as soon as it is put, so it outlives
+    memory eviction, and a handle registered by one server process is found on disk by the
+    others (refer to ResultCache) until it is evicted. Entry size is the .npz size, which is
+    close to the size of the arrays, so it is also the memory size of an entry.
+    """
+
+    FILE_SUFFIX = '.npz'
+    MEMORY_SIZE_FACTOR = 1
+
+    def _dumps(self, entry):
+        entry_file = io.BytesIO()
+        np.savez(entry_file, **entry)
+        return entry_file.getvalue()
+
+    def _loads(self, data):
+        arrays = np.load(io.BytesIO(data))
+        return {name: arrays[name] for name in arrays.files}
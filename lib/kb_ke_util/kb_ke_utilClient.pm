@@ -124,8 +124,13 @@ $returnVal is a kb_ke_util.NewickOutput
 NewickParams is a reference to a hash where the following keys are defined:
 	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 	labels has a value which is a reference to a list where each element is a string
+	write_to_file has a value which is a kb_ke_util.boolean
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+boolean is an int
+packed_linkage is a string
 NewickOutput is a reference to a hash where the following keys are defined:
 	newick has a value which is a string
+	newick_file has a value which is a string
 
 </pre>
 
@@ -138,15 +143,20 @@ $returnVal is a kb_ke_util.NewickOutput
 NewickParams is a reference to a hash where the following keys are defined:
 	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 	labels has a value which is a reference to a list where each element is a string
+	write_to_file has a value which is a kb_ke_util.boolean
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+boolean is an int
+packed_linkage is a string
 NewickOutput is a reference to a hash where the following keys are defined:
 	newick has a value which is a string
+	newick_file has a value which is a string
 
 
 =end text
 
 =item Description
 
-run_PCA: perform PCA on a n-dimensional matrix
+linkage_2_newick: convert a linkage matrix to newick format
 
 =back
 
@@ -216,6 +226,13 @@ $returnVal is a kb_ke_util.PCAOutput
 PCAParams is a reference to a hash where the following keys are defined:
 	data_matrix has a value which is a string
 	n_components has a value which is an int
+	sparse_matrix has a value which is a kb_ke_util.SparseMatrix
+SparseMatrix is a reference to a hash where the following keys are defined:
+	row_ids has a value which is a reference to a list where each element is a string
+	col_ids has a value which is a reference to a list where each element is a string
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+	values has a value which is a reference to a list where each element is a float
 PCAOutput is a reference to a hash where the following keys are defined:
 	PCA_matrix has a value which is a string
 
@@ -230,6 +247,13 @@ $returnVal is a kb_ke_util.PCAOutput
 PCAParams is a reference to a hash where the following keys are defined:
 	data_matrix has a value which is a string
 	n_components has a value which is an int
+	sparse_matrix has a value which is a kb_ke_util.SparseMatrix
+SparseMatrix is a reference to a hash where the following keys are defined:
+	row_ids has a value which is a reference to a list where each element is a string
+	col_ids has a value which is a reference to a list where each element is a string
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+	values has a value which is a reference to a list where each element is a float
 PCAOutput is a reference to a hash where the following keys are defined:
 	PCA_matrix has a value which is a string
 
@@ -404,9 +428,20 @@ $returnVal is a kb_ke_util.PdistOutput
 PdistParams is a reference to a hash where the following keys are defined:
 	data_matrix has a value which is a string
 	metric has a value which is a string
+	out_of_core has a value which is a kb_ke_util.boolean
+	precision has a value which is a string
+	sparse_matrix has a value which is a kb_ke_util.SparseMatrix
+boolean is an int
+SparseMatrix is a reference to a hash where the following keys are defined:
+	row_ids has a value which is a reference to a list where each element is a string
+	col_ids has a value which is a reference to a list where each element is a string
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+	values has a value which is a reference to a list where each element is a float
 PdistOutput is a reference to a hash where the following keys are defined:
 	dist_matrix has a value which is a reference to a list where each element is a float
 	labels has a value which is a reference to a list where each element is a string
+	dist_matrix_file has a value which is a string
 
 </pre>
 
@@ -419,9 +454,20 @@ $returnVal is a kb_ke_util.PdistOutput
 PdistParams is a reference to a hash where the following keys are defined:
 	data_matrix has a value which is a string
 	metric has a value which is a string
+	out_of_core has a value which is a kb_ke_util.boolean
+	precision has a value which is a string
+	sparse_matrix has a value which is a kb_ke_util.SparseMatrix
+boolean is an int
+SparseMatrix is a reference to a hash where the following keys are defined:
+	row_ids has a value which is a reference to a list where each element is a string
+	col_ids has a value which is a reference to a list where each element is a string
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+	values has a value which is a reference to a list where each element is a float
 PdistOutput is a reference to a hash where the following keys are defined:
 	dist_matrix has a value which is a reference to a list where each element is a float
 	labels has a value which is a reference to a list where each element is a string
+	dist_matrix_file has a value which is a string
 
 
 =end text
@@ -500,8 +546,14 @@ $returnVal is a kb_ke_util.LinkageOutput
 LinkageParams is a reference to a hash where the following keys are defined:
 	dist_matrix has a value which is a reference to a list where each element is a float
 	method has a value which is a string
+	dist_matrix_file has a value which is a string
+	precision has a value which is a string
+	packed_output has a value which is a kb_ke_util.boolean
+boolean is an int
 LinkageOutput is a reference to a hash where the following keys are defined:
 	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
 
 </pre>
 
@@ -514,8 +566,14 @@ $returnVal is a kb_ke_util.LinkageOutput
 LinkageParams is a reference to a hash where the following keys are defined:
 	dist_matrix has a value which is a reference to a list where each element is a float
 	method has a value which is a string
+	dist_matrix_file has a value which is a string
+	precision has a value which is a string
+	packed_output has a value which is a kb_ke_util.boolean
+boolean is an int
 LinkageOutput is a reference to a hash where the following keys are defined:
 	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
 
 
 =end text
@@ -596,8 +654,16 @@ FclusterParams is a reference to a hash where the following keys are defined:
 	dist_threshold has a value which is a float
 	labels has a value which is a reference to a list where each element is a string
 	criterion has a value which is a string
+	precision has a value which is a string
+	compact_output has a value which is a kb_ke_util.boolean
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+boolean is an int
+packed_linkage is a string
 FclusterOutput is a reference to a hash where the following keys are defined:
 	flat_cluster has a value which is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+	cluster_assignment has a value which is a reference to a list where each element is an int
+	cluster_offsets has a value which is a reference to a list where each element is an int
+	cluster_members has a value which is a reference to a list where each element is an int
 
 </pre>
 
@@ -612,8 +678,16 @@ FclusterParams is a reference to a hash where the following keys are defined:
 	dist_threshold has a value which is a float
 	labels has a value which is a reference to a list where each element is a string
 	criterion has a value which is a string
+	precision has a value which is a string
+	compact_output has a value which is a kb_ke_util.boolean
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+boolean is an int
+packed_linkage is a string
 FclusterOutput is a reference to a hash where the following keys are defined:
 	flat_cluster has a value which is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+	cluster_assignment has a value which is a reference to a list where each element is an int
+	cluster_offsets has a value which is a reference to a list where each element is an int
+	cluster_members has a value which is a reference to a list where each element is an int
 
 
 =end text
@@ -676,6 +750,107 @@ https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcl
  
 
 
+=head2 run_fcluster_sweep
+
+  $returnVal = $obj->run_fcluster_sweep($params)
+
+=over 4
+
+=item Parameter and return types
+
+=begin html
+
+<pre>
+$params is a kb_ke_util.FclusterSweepParams
+$returnVal is a kb_ke_util.FclusterSweepOutput
+FclusterSweepParams is a reference to a hash where the following keys are defined:
+	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+	dist_thresholds has a value which is a reference to a list where each element is a float
+	maxclust_values has a value which is a reference to a list where each element is an int
+	labels has a value which is a reference to a list where each element is a string
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
+FclusterSweepOutput is a reference to a hash where the following keys are defined:
+	flat_clusters has a value which is a reference to a list where each element is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+
+</pre>
+
+=end html
+
+=begin text
+
+$params is a kb_ke_util.FclusterSweepParams
+$returnVal is a kb_ke_util.FclusterSweepOutput
+FclusterSweepParams is a reference to a hash where the following keys are defined:
+	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+	dist_thresholds has a value which is a reference to a list where each element is a float
+	maxclust_values has a value which is a reference to a list where each element is an int
+	labels has a value which is a reference to a list where each element is a string
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
+FclusterSweepOutput is a reference to a hash where the following keys are defined:
+	flat_clusters has a value which is a reference to a list where each element is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+
+
+=end text
+
+=item Description
+
+run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+over the merge heights (union-find), giving the same clusters as run_fcluster per threshold
+
+=back
+
+=cut
+
+ sub run_fcluster_sweep
+{
+    my($self, @args) = @_;
+
+# Authentication: required
+
+    if ((my $n = @args) != 1)
+    {
+	Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+							       "Invalid argument count for function run_fcluster_sweep (received $n, expecting 1)");
+    }
+    {
+	my($params) = @args;
+
+	my @_bad_arguments;
+        (ref($params) eq 'HASH') or push(@_bad_arguments, "Invalid type for argument 1 \"params\" (value was \"$params\")");
+        if (@_bad_arguments) {
+	    my $msg = "Invalid arguments passed to run_fcluster_sweep:\n" . join("", map { "\t$_\n" } @_bad_arguments);
+	    Bio::KBase::Exceptions::ArgumentValidationError->throw(error => $msg,
+								   method_name => 'run_fcluster_sweep');
+	}
+    }
+
+    my $url = $self->{url};
+    my $result = $self->{client}->call($url, $self->{headers}, {
+	    method => "kb_ke_util.run_fcluster_sweep",
+	    params => \@args,
+    });
+    if ($result) {
+	if ($result->is_error) {
+	    Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+					       code => $result->content->{error}->{code},
+					       method_name => 'run_fcluster_sweep',
+					       data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+					      );
+	} else {
+	    return wantarray ? @{$result->result} : $result->result->[0];
+	}
+    } else {
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method run_fcluster_sweep",
+					    status_line => $self->{client}->status_line,
+					    method_name => 'run_fcluster_sweep',
+				       );
+    }
+}
+ 
+
+
 =head2 run_dendrogram
 
   $returnVal = $obj->run_dendrogram($params)
@@ -690,10 +865,16 @@ https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcl
 $params is a kb_ke_util.DendrogramParams
 $returnVal is a kb_ke_util.DendrogramOutput
 DendrogramParams is a reference to a hash where the following keys are defined:
-	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a string
+	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 	dist_threshold has a value which is a float
 	labels has a value which is a reference to a list where each element is a string
 	last_merges has a value which is an int
+	output_format has a value which is a string
+	width has a value which is an int
+	height has a value which is an int
+	min_pixels has a value which is a float
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
 DendrogramOutput is a reference to a hash where the following keys are defined:
 	result_plots has a value which is a reference to a list where each element is a string
 
@@ -706,10 +887,16 @@ DendrogramOutput is a reference to a hash where the following keys are defined:
 $params is a kb_ke_util.DendrogramParams
 $returnVal is a kb_ke_util.DendrogramOutput
 DendrogramParams is a reference to a hash where the following keys are defined:
-	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a string
+	linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 	dist_threshold has a value which is a float
 	labels has a value which is a reference to a list where each element is a string
 	last_merges has a value which is an int
+	output_format has a value which is a string
+	width has a value which is an int
+	height has a value which is an int
+	min_pixels has a value which is a float
+	packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+packed_linkage is a string
 DendrogramOutput is a reference to a hash where the following keys are defined:
 	result_plots has a value which is a reference to a list where each element is a string
 
@@ -891,12 +1078,20 @@ EnrichOnthologyParams is a reference to a hash where the following keys are defi
 	sample_set has a value which is a reference to a list where each element is a string
 	entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
 	propagation has a value which is a kb_ke_util.boolean
+	encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 entity_guid is a string
 assigned_term_guids is a reference to a list where each element is a string
 boolean is an int
+EncodedEntityTermSet is a reference to a hash where the following keys are defined:
+	entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+	terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+term_guid is a string
+entity_term_set_handle is a string
 EnrichOnthologyOutput is a reference to a hash where the following keys are defined:
 	enrichment_profile has a value which is a reference to a hash where the key is a kb_ke_util.term_guid and the value is a kb_ke_util.TermEnrichment
-term_guid is a string
 TermEnrichment is a reference to a hash where the following keys are defined:
 	sample_count has a value which is an int
 	total_count has a value which is an int
@@ -915,12 +1110,20 @@ EnrichOnthologyParams is a reference to a hash where the following keys are defi
 	sample_set has a value which is a reference to a list where each element is a string
 	entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
 	propagation has a value which is a kb_ke_util.boolean
+	encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 entity_guid is a string
 assigned_term_guids is a reference to a list where each element is a string
 boolean is an int
+EncodedEntityTermSet is a reference to a hash where the following keys are defined:
+	entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+	terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+term_guid is a string
+entity_term_set_handle is a string
 EnrichOnthologyOutput is a reference to a hash where the following keys are defined:
 	enrichment_profile has a value which is a reference to a hash where the key is a kb_ke_util.term_guid and the value is a kb_ke_util.TermEnrichment
-term_guid is a string
 TermEnrichment is a reference to a hash where the following keys are defined:
 	sample_count has a value which is an int
 	total_count has a value which is an int
@@ -986,6 +1189,125 @@ enrich_onthology: run GO term enrichment analysis
  
 
 
+=head2 register_entity_term_set
+
+  $returnVal = $obj->register_entity_term_set($params)
+
+=over 4
+
+=item Parameter and return types
+
+=begin html
+
+<pre>
+$params is a kb_ke_util.RegisterEntityTermSetParams
+$returnVal is a kb_ke_util.RegisterEntityTermSetOutput
+RegisterEntityTermSetParams is a reference to a hash where the following keys are defined:
+	entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
+	encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+entity_guid is a string
+assigned_term_guids is a reference to a list where each element is a string
+EncodedEntityTermSet is a reference to a hash where the following keys are defined:
+	entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+	terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+term_guid is a string
+RegisterEntityTermSetOutput is a reference to a hash where the following keys are defined:
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+	entity_count has a value which is an int
+	term_count has a value which is an int
+entity_term_set_handle is a string
+
+</pre>
+
+=end html
+
+=begin text
+
+$params is a kb_ke_util.RegisterEntityTermSetParams
+$returnVal is a kb_ke_util.RegisterEntityTermSetOutput
+RegisterEntityTermSetParams is a reference to a hash where the following keys are defined:
+	entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
+	encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+entity_guid is a string
+assigned_term_guids is a reference to a list where each element is a string
+EncodedEntityTermSet is a reference to a hash where the following keys are defined:
+	entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+	terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+	indptr has a value which is a reference to a list where each element is an int
+	indices has a value which is a reference to a list where each element is an int
+term_guid is a string
+RegisterEntityTermSetOutput is a reference to a hash where the following keys are defined:
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+	entity_count has a value which is an int
+	term_count has a value which is an int
+entity_term_set_handle is a string
+
+
+=end text
+
+=item Description
+
+register_entity_term_set: keep an entity_term_set on the server as term to entities bitmaps,
+                          for enrich_onthology calls with entity_term_set_handle
+Registered sets are kept in server memory and scratch, least recently used sets are dropped
+when over budget. enrich_onthology fails with an error naming the handle if it is no longer
+registered: register the entity_term_set again and retry.
+A term assigned twice to the same entity counts once with a handle.
+
+=back
+
+=cut
+
+ sub register_entity_term_set
+{
+    my($self, @args) = @_;
+
+# Authentication: required
+
+    if ((my $n = @args) != 1)
+    {
+	Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+							       "Invalid argument count for function register_entity_term_set (received $n, expecting 1)");
+    }
+    {
+	my($params) = @args;
+
+	my @_bad_arguments;
+        (ref($params) eq 'HASH') or push(@_bad_arguments, "Invalid type for argument 1 \"params\" (value was \"$params\")");
+        if (@_bad_arguments) {
+	    my $msg = "Invalid arguments passed to register_entity_term_set:\n" . join("", map { "\t$_\n" } @_bad_arguments);
+	    Bio::KBase::Exceptions::ArgumentValidationError->throw(error => $msg,
+								   method_name => 'register_entity_term_set');
+	}
+    }
+
+    my $url = $self->{url};
+    my $result = $self->{client}->call($url, $self->{headers}, {
+	    method => "kb_ke_util.register_entity_term_set",
+	    params => \@args,
+    });
+    if ($result) {
+	if ($result->is_error) {
+	    Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+					       code => $result->content->{error}->{code},
+					       method_name => 'register_entity_term_set',
+					       data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+					      );
+	} else {
+	    return wantarray ? @{$result->result} : $result->result->[0];
+	}
+    } else {
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method register_entity_term_set",
+					    status_line => $self->{client}->status_line,
+					    method_name => 'register_entity_term_set',
+				       );
+    }
+}
+ 
+
+
 =head2 calc_onthology_dist
 
   $returnVal = $obj->calc_onthology_dist($params)
@@ -1001,8 +1323,10 @@ $params is a kb_ke_util.CalcOnthologyDistParams
 $returnVal is a kb_ke_util.CalcOnthologyDistOutput
 CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
 	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 gene_id is a string
 onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
 CalcOnthologyDistOutput is a reference to a hash where the following keys are defined:
 	onthology_dist_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is an int
 
@@ -1016,8 +1340,10 @@ $params is a kb_ke_util.CalcOnthologyDistParams
 $returnVal is a kb_ke_util.CalcOnthologyDistOutput
 CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
 	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 gene_id is a string
 onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
 CalcOnthologyDistOutput is a reference to a hash where the following keys are defined:
 	onthology_dist_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is an int
 
@@ -1098,8 +1424,10 @@ $params is a kb_ke_util.CalcOnthologyDistParams
 $returnVal is a kb_ke_util.CalcOnthologyDistOutput
 CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
 	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 gene_id is a string
 onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
 CalcOnthologyDistOutput is a reference to a hash where the following keys are defined:
 	onthology_dist_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is an int
 
@@ -1113,8 +1441,10 @@ $params is a kb_ke_util.CalcOnthologyDistParams
 $returnVal is a kb_ke_util.CalcOnthologyDistOutput
 CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
 	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 gene_id is a string
 onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
 CalcOnthologyDistOutput is a reference to a hash where the following keys are defined:
 	onthology_dist_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is an int
 
@@ -1179,45 +1509,353 @@ NOTE: return inf if no common ancestor node found
     }
 }
  
-  
-sub status
+
+
+=head2 calc_resnik_onthology_sim
+
+  $returnVal = $obj->calc_resnik_onthology_sim($params)
+
+=over 4
+
+=item Parameter and return types
+
+=begin html
+
+<pre>
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+</pre>
+
+=end html
+
+=begin text
+
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+
+=end text
+
+=item Description
+
+calc_resnik_onthology_sim: calculate Resnik similarity
+                           (information content of the most informative common ancestor)
+                           NOTE: return 0 if no common ancestor node found
+Information content of a term is -log(p) with p the frequency of the term:
+with entity_term_set_handle, the fraction of the registered entities annotated with the term
+or one of its descendants, (count + 1) / (entities + 1); without it, the fraction of ontology
+terms that are the term or one of its descendants.
+It is computed once per corpus, ancestors follow is_a relationships.
+
+=back
+
+=cut
+
+ sub calc_resnik_onthology_sim
 {
     my($self, @args) = @_;
-    if ((my $n = @args) != 0) {
-        Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
-                                   "Invalid argument count for function status (received $n, expecting 0)");
+
+# Authentication: required
+
+    if ((my $n = @args) != 1)
+    {
+	Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+							       "Invalid argument count for function calc_resnik_onthology_sim (received $n, expecting 1)");
+    }
+    {
+	my($params) = @args;
+
+	my @_bad_arguments;
+        (ref($params) eq 'HASH') or push(@_bad_arguments, "Invalid type for argument 1 \"params\" (value was \"$params\")");
+        if (@_bad_arguments) {
+	    my $msg = "Invalid arguments passed to calc_resnik_onthology_sim:\n" . join("", map { "\t$_\n" } @_bad_arguments);
+	    Bio::KBase::Exceptions::ArgumentValidationError->throw(error => $msg,
+								   method_name => 'calc_resnik_onthology_sim');
+	}
     }
+
     my $url = $self->{url};
     my $result = $self->{client}->call($url, $self->{headers}, {
-        method => "kb_ke_util.status",
-        params => \@args,
+	    method => "kb_ke_util.calc_resnik_onthology_sim",
+	    params => \@args,
     });
     if ($result) {
-        if ($result->is_error) {
-            Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
-                           code => $result->content->{error}->{code},
-                           method_name => 'status',
-                           data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
-                          );
-        } else {
-            return wantarray ? @{$result->result} : $result->result->[0];
-        }
+	if ($result->is_error) {
+	    Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+					       code => $result->content->{error}->{code},
+					       method_name => 'calc_resnik_onthology_sim',
+					       data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+					      );
+	} else {
+	    return wantarray ? @{$result->result} : $result->result->[0];
+	}
     } else {
-        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method status",
-                        status_line => $self->{client}->status_line,
-                        method_name => 'status',
-                       );
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method calc_resnik_onthology_sim",
+					    status_line => $self->{client}->status_line,
+					    method_name => 'calc_resnik_onthology_sim',
+				       );
     }
 }
-   
+ 
 
-sub version {
-    my ($self) = @_;
-    my $result = $self->{client}->call($self->{url}, $self->{headers}, {
-        method => "kb_ke_util.version",
-        params => [],
-    });
-    if ($result) {
+
+=head2 calc_lin_onthology_sim
+
+  $returnVal = $obj->calc_lin_onthology_sim($params)
+
+=over 4
+
+=item Parameter and return types
+
+=begin html
+
+<pre>
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+</pre>
+
+=end html
+
+=begin text
+
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+
+=end text
+
+=item Description
+
+calc_lin_onthology_sim: calculate Lin similarity
+(2 * IC(most informative common ancestor) / (IC(term_1) + IC(term_2)),
+ from 0 to 1, information content IC as in calc_resnik_onthology_sim)
+NOTE: return 0 if no common ancestor node found
+
+=back
+
+=cut
+
+ sub calc_lin_onthology_sim
+{
+    my($self, @args) = @_;
+
+# Authentication: required
+
+    if ((my $n = @args) != 1)
+    {
+	Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+							       "Invalid argument count for function calc_lin_onthology_sim (received $n, expecting 1)");
+    }
+    {
+	my($params) = @args;
+
+	my @_bad_arguments;
+        (ref($params) eq 'HASH') or push(@_bad_arguments, "Invalid type for argument 1 \"params\" (value was \"$params\")");
+        if (@_bad_arguments) {
+	    my $msg = "Invalid arguments passed to calc_lin_onthology_sim:\n" . join("", map { "\t$_\n" } @_bad_arguments);
+	    Bio::KBase::Exceptions::ArgumentValidationError->throw(error => $msg,
+								   method_name => 'calc_lin_onthology_sim');
+	}
+    }
+
+    my $url = $self->{url};
+    my $result = $self->{client}->call($url, $self->{headers}, {
+	    method => "kb_ke_util.calc_lin_onthology_sim",
+	    params => \@args,
+    });
+    if ($result) {
+	if ($result->is_error) {
+	    Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+					       code => $result->content->{error}->{code},
+					       method_name => 'calc_lin_onthology_sim',
+					       data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+					      );
+	} else {
+	    return wantarray ? @{$result->result} : $result->result->[0];
+	}
+    } else {
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method calc_lin_onthology_sim",
+					    status_line => $self->{client}->status_line,
+					    method_name => 'calc_lin_onthology_sim',
+				       );
+    }
+}
+ 
+
+
+=head2 calc_jiang_conrath_onthology_dist
+
+  $returnVal = $obj->calc_jiang_conrath_onthology_dist($params)
+
+=over 4
+
+=item Parameter and return types
+
+=begin html
+
+<pre>
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+</pre>
+
+=end html
+
+=begin text
+
+$params is a kb_ke_util.CalcOnthologyDistParams
+$returnVal is a kb_ke_util.CalcOnthologyScoreOutput
+CalcOnthologyDistParams is a reference to a hash where the following keys are defined:
+	onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+	entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+gene_id is a string
+onthology_pair is a reference to a list where each element is a string
+entity_term_set_handle is a string
+CalcOnthologyScoreOutput is a reference to a hash where the following keys are defined:
+	onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+
+=end text
+
+=item Description
+
+calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath distance
+(IC(term_1) + IC(term_2) -
+ 2 * IC(most informative common ancestor),
+ information content IC as in calc_resnik_onthology_sim)
+NOTE: return inf if no common ancestor node found
+
+=back
+
+=cut
+
+ sub calc_jiang_conrath_onthology_dist
+{
+    my($self, @args) = @_;
+
+# Authentication: required
+
+    if ((my $n = @args) != 1)
+    {
+	Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+							       "Invalid argument count for function calc_jiang_conrath_onthology_dist (received $n, expecting 1)");
+    }
+    {
+	my($params) = @args;
+
+	my @_bad_arguments;
+        (ref($params) eq 'HASH') or push(@_bad_arguments, "Invalid type for argument 1 \"params\" (value was \"$params\")");
+        if (@_bad_arguments) {
+	    my $msg = "Invalid arguments passed to calc_jiang_conrath_onthology_dist:\n" . join("", map { "\t$_\n" } @_bad_arguments);
+	    Bio::KBase::Exceptions::ArgumentValidationError->throw(error => $msg,
+								   method_name => 'calc_jiang_conrath_onthology_dist');
+	}
+    }
+
+    my $url = $self->{url};
+    my $result = $self->{client}->call($url, $self->{headers}, {
+	    method => "kb_ke_util.calc_jiang_conrath_onthology_dist",
+	    params => \@args,
+    });
+    if ($result) {
+	if ($result->is_error) {
+	    Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+					       code => $result->content->{error}->{code},
+					       method_name => 'calc_jiang_conrath_onthology_dist',
+					       data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+					      );
+	} else {
+	    return wantarray ? @{$result->result} : $result->result->[0];
+	}
+    } else {
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method calc_jiang_conrath_onthology_dist",
+					    status_line => $self->{client}->status_line,
+					    method_name => 'calc_jiang_conrath_onthology_dist',
+				       );
+    }
+}
+ 
+  
+sub status
+{
+    my($self, @args) = @_;
+    if ((my $n = @args) != 0) {
+        Bio::KBase::Exceptions::ArgumentValidationError->throw(error =>
+                                   "Invalid argument count for function status (received $n, expecting 0)");
+    }
+    my $url = $self->{url};
+    my $result = $self->{client}->call($url, $self->{headers}, {
+        method => "kb_ke_util.status",
+        params => \@args,
+    });
+    if ($result) {
+        if ($result->is_error) {
+            Bio::KBase::Exceptions::JSONRPC->throw(error => $result->error_message,
+                           code => $result->content->{error}->{code},
+                           method_name => 'status',
+                           data => $result->content->{error}->{error} # JSON::RPC::ReturnObject only supports JSONRPC 1.1 or 1.O
+                          );
+        } else {
+            return wantarray ? @{$result->result} : $result->result->[0];
+        }
+    } else {
+        Bio::KBase::Exceptions::HTTP->throw(error => "Error invoking method status",
+                        status_line => $self->{client}->status_line,
+                        method_name => 'status',
+                       );
+    }
+}
+   
+
+sub version {
+    my ($self) = @_;
+    my $result = $self->{client}->call($self->{url}, $self->{headers}, {
+        method => "kb_ke_util.version",
+        params => [],
+    });
+    if ($result) {
         if ($result->is_error) {
             Bio::KBase::Exceptions::JSONRPC->throw(
                 error => $result->error_message,
@@ -1331,6 +1969,38 @@ a string
 
 
 
+=head2 packed_linkage
+
+=over 4
+
+
+
+=item Description
+
+A linkage matrix packed as base64 encoded little-endian float64 values, row by row
+(n - 1 rows of [cluster_1, cluster_2, distance, count] for n leaves)
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a string
+</pre>
+
+=end html
+
+=begin text
+
+a string
+
+=end text
+
+=back
+
+
+
 =head2 NewickParams
 
 =over 4
@@ -1344,6 +2014,12 @@ linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage re
 labels - items corresponding to each linkage_matrix element 
          (If labels are given, result flat_cluster will be mapped to element in labels.)
 
+Optional arguments:
+write_to_file - stream the newick tree into a file in scratch instead of returning it
+                (default is 0)
+packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                        (refer to run_linkage return with packed_output)
+
 
 =item Definition
 
@@ -1353,6 +2029,8 @@ labels - items corresponding to each linkage_matrix element
 a reference to a hash where the following keys are defined:
 linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 labels has a value which is a reference to a list where each element is a string
+write_to_file has a value which is a kb_ke_util.boolean
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 </pre>
 
@@ -1363,6 +2041,8 @@ labels has a value which is a reference to a list where each element is a string
 a reference to a hash where the following keys are defined:
 linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 labels has a value which is a reference to a list where each element is a string
+write_to_file has a value which is a kb_ke_util.boolean
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 
 =end text
@@ -1382,6 +2062,7 @@ labels has a value which is a reference to a list where each element is a string
 Ouput of the linkage_2_newick function
 newick - newick representation of tree
          https://en.wikipedia.org/wiki/Newick_format
+newick_file - path of the newick file if write_to_file is set (newick is then empty)
 
 
 =item Definition
@@ -1391,6 +2072,7 @@ newick - newick representation of tree
 <pre>
 a reference to a hash where the following keys are defined:
 newick has a value which is a string
+newick_file has a value which is a string
 
 </pre>
 
@@ -1400,6 +2082,55 @@ newick has a value which is a string
 
 a reference to a hash where the following keys are defined:
 newick has a value which is a string
+newick_file has a value which is a string
+
+
+=end text
+
+=back
+
+
+
+=head2 SparseMatrix
+
+=over 4
+
+
+
+=item Description
+
+Sparse data matrix in compressed sparse row (CSR) format
+row_ids - item names of matrix rows (e.g. gene ids)
+col_ids - names of matrix columns (e.g. conditions)
+indptr - non-zero values of row i are values[indptr[i]:indptr[i+1]] (size len(row_ids) + 1)
+indices - column position of each non-zero value
+values - non-zero values
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+row_ids has a value which is a reference to a list where each element is a string
+col_ids has a value which is a reference to a list where each element is a string
+indptr has a value which is a reference to a list where each element is an int
+indices has a value which is a reference to a list where each element is an int
+values has a value which is a reference to a list where each element is a float
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+row_ids has a value which is a reference to a list where each element is a string
+col_ids has a value which is a reference to a list where each element is a string
+indptr has a value which is a reference to a list where each element is an int
+indices has a value which is a reference to a list where each element is an int
+values has a value which is a reference to a list where each element is a float
 
 
 =end text
@@ -1423,6 +2154,8 @@ data_matrix - raw data matrix in json format
                    u'condition_3': {u'gene_1': 0.3, u'gene_2': 0.5, u'gene_3': None},
                    u'condition_4': {u'gene_1': 0.4, u'gene_2': 0.6, u'gene_3': None}}
 n_components - number of components (default 2)
+sparse_matrix - sparse data matrix used in place of data_matrix
+                (randomized truncated SVD on scaled, uncentered values)
 
 
 =item Definition
@@ -1433,6 +2166,7 @@ n_components - number of components (default 2)
 a reference to a hash where the following keys are defined:
 data_matrix has a value which is a string
 n_components has a value which is an int
+sparse_matrix has a value which is a kb_ke_util.SparseMatrix
 
 </pre>
 
@@ -1443,6 +2177,7 @@ n_components has a value which is an int
 a reference to a hash where the following keys are defined:
 data_matrix has a value which is a string
 n_components has a value which is an int
+sparse_matrix has a value which is a kb_ke_util.SparseMatrix
 
 
 =end text
@@ -1594,6 +2329,17 @@ metric - The distance metric to use. Default set to 'euclidean'.
 Note: Advanced metric functions 'minkowski', 'seuclidean' and 'mahalanobis' included in 
       scipy.spatial.distance.pdist library are not implemented
 
+out_of_core - write the condensed distance matrix into a memory-mapped file in scratch
+              instead of returning it (default is 0)
+              dist_matrix_file is returned and dist_matrix is left empty
+precision - floating point precision of the distance matrix, 'float64' (default) or 'float32'
+            float32 halves memory and payload size; distances are computed in
+            float64 and rounded, so values agree with float64 ones to a relative
+            tolerance of 1e-6
+sparse_matrix - sparse data matrix used in place of data_matrix
+                "cosine", "euclidean", "jaccard" and "cityblock" are computed on the
+                non-zero values only (jaccard on the non-zero pattern)
+
 
 =item Definition
 
@@ -1603,6 +2349,9 @@ Note: Advanced metric functions 'minkowski', 'seuclidean' and 'mahalanobis' incl
 a reference to a hash where the following keys are defined:
 data_matrix has a value which is a string
 metric has a value which is a string
+out_of_core has a value which is a kb_ke_util.boolean
+precision has a value which is a string
+sparse_matrix has a value which is a kb_ke_util.SparseMatrix
 
 </pre>
 
@@ -1613,6 +2362,9 @@ metric has a value which is a string
 a reference to a hash where the following keys are defined:
 data_matrix has a value which is a string
 metric has a value which is a string
+out_of_core has a value which is a kb_ke_util.boolean
+precision has a value which is a string
+sparse_matrix has a value which is a kb_ke_util.SparseMatrix
 
 
 =end text
@@ -1632,6 +2384,7 @@ metric has a value which is a string
 Ouput of the run_pdist function
 dist_matrix - 1D distance matrix
 labels - item name corresponding to each dist_matrix element
+dist_matrix_file - memory-mapped condensed distance matrix file (.npy) if out_of_core is set
 
 
 =item Definition
@@ -1642,6 +2395,7 @@ labels - item name corresponding to each dist_matrix element
 a reference to a hash where the following keys are defined:
 dist_matrix has a value which is a reference to a list where each element is a float
 labels has a value which is a reference to a list where each element is a string
+dist_matrix_file has a value which is a string
 
 </pre>
 
@@ -1652,6 +2406,7 @@ labels has a value which is a reference to a list where each element is a string
 a reference to a hash where the following keys are defined:
 dist_matrix has a value which is a reference to a list where each element is a float
 labels has a value which is a reference to a list where each element is a string
+dist_matrix_file has a value which is a string
 
 
 =end text
@@ -1672,11 +2427,16 @@ Input of the run_linkage function
 dist_matrix - 1D distance matrix (refer to run_pdist return)
 
 Optional arguments:
-method - The linkage algorithm to use. Default set to 'ward'.
+method - The linkage algorithm to use. Default set to 'single'.
          The method can be 
          ["single", "complete", "average", "weighted", "centroid", "median", "ward"]
          Details refer to: 
          https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.linkage.html
+dist_matrix_file - memory-mapped condensed distance matrix file used in place of dist_matrix
+                   (refer to run_pdist return with out_of_core); linkage still copies
+                   it into a float64 array in memory (8 bytes per distance)
+precision - floating point precision of the linkage distances, 'float64' (default) or 'float32'
+packed_output - return packed_linkage_matrix instead of linkage_matrix
 
 
 =item Definition
@@ -1687,6 +2447,9 @@ method - The linkage algorithm to use. Default set to 'ward'.
 a reference to a hash where the following keys are defined:
 dist_matrix has a value which is a reference to a list where each element is a float
 method has a value which is a string
+dist_matrix_file has a value which is a string
+precision has a value which is a string
+packed_output has a value which is a kb_ke_util.boolean
 
 </pre>
 
@@ -1697,6 +2460,9 @@ method has a value which is a string
 a reference to a hash where the following keys are defined:
 dist_matrix has a value which is a reference to a list where each element is a float
 method has a value which is a string
+dist_matrix_file has a value which is a string
+precision has a value which is a string
+packed_output has a value which is a kb_ke_util.boolean
 
 
 =end text
@@ -1715,6 +2481,7 @@ method has a value which is a string
 
 Ouput of the run_linkage function
 linkage_matrix - The hierarchical clustering encoded as a linkage matrix
+packed_linkage_matrix - the same linkage matrix packed as float64 values if packed_output is set
 
 
 =item Definition
@@ -1724,6 +2491,7 @@ linkage_matrix - The hierarchical clustering encoded as a linkage matrix
 <pre>
 a reference to a hash where the following keys are defined:
 linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 </pre>
 
@@ -1733,6 +2501,7 @@ linkage_matrix has a value which is a reference to a list where each element is
 
 a reference to a hash where the following keys are defined:
 linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 
 =end text
@@ -1763,6 +2532,12 @@ criterion - The criterion to use in forming flat clusters. Default set to 'dista
             scipy.cluster.hierarchy.fcluster library are not implemented
             Details refer to: 
             https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html
+precision - floating point precision of linkage_matrix, 'float64' (default) or 'float32'
+            (with 'float32' dist_threshold is rounded the same way as the linkage distances)
+compact_output - return cluster_assignment (plus cluster_offsets and cluster_members)
+                 instead of flat_cluster
+packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                        (refer to run_linkage return with packed_output)
 
 
 =item Definition
@@ -1775,6 +2550,9 @@ linkage_matrix has a value which is a reference to a list where each element is
 dist_threshold has a value which is a float
 labels has a value which is a reference to a list where each element is a string
 criterion has a value which is a string
+precision has a value which is a string
+compact_output has a value which is a kb_ke_util.boolean
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 </pre>
 
@@ -1787,6 +2565,9 @@ linkage_matrix has a value which is a reference to a list where each element is
 dist_threshold has a value which is a float
 labels has a value which is a reference to a list where each element is a string
 criterion has a value which is a string
+precision has a value which is a string
+compact_output has a value which is a kb_ke_util.boolean
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 
 =end text
@@ -1808,6 +2589,12 @@ flat_cluster - A dictionary of flat clusters.
                Each element of flat_cluster representing a cluster contains a label array. 
                (If labels is none, element position array is returned to each cluster group)
 
+with compact_output set, flat_cluster is omitted and the clusters are returned as:
+cluster_assignment - cluster id (1 based) of each element, aligned with labels
+cluster_offsets - cluster boundaries in cluster_members, starting with 0,
+                  cluster id i spans cluster_members[cluster_offsets[i - 1]:cluster_offsets[i]]
+cluster_members - element positions grouped by cluster id
+
 
 =item Definition
 
@@ -1816,6 +2603,9 @@ flat_cluster - A dictionary of flat clusters.
 <pre>
 a reference to a hash where the following keys are defined:
 flat_cluster has a value which is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+cluster_assignment has a value which is a reference to a list where each element is an int
+cluster_offsets has a value which is a reference to a list where each element is an int
+cluster_members has a value which is a reference to a list where each element is an int
 
 </pre>
 
@@ -1825,6 +2615,100 @@ flat_cluster has a value which is a reference to a hash where the key is a strin
 
 a reference to a hash where the following keys are defined:
 flat_cluster has a value which is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+cluster_assignment has a value which is a reference to a list where each element is an int
+cluster_offsets has a value which is a reference to a list where each element is an int
+cluster_members has a value which is a reference to a list where each element is an int
+
+
+=end text
+
+=back
+
+
+
+=head2 FclusterSweepParams
+
+=over 4
+
+
+
+=item Description
+
+Input of the run_fcluster_sweep function
+linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
+dist_thresholds - thresholds to apply when forming flat clusters ('distance' criterion)
+maxclust_values - maximum numbers of flat clusters to form ('maxclust' criterion)
+                  (exactly one of dist_thresholds and maxclust_values is required)
+
+Optional arguments:
+labels - items corresponding to each linkage_matrix element 
+         (If labels are given, result flat_clusters will be mapped to element in labels.)
+packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                        (refer to run_linkage return with packed_output)
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+dist_thresholds has a value which is a reference to a list where each element is a float
+maxclust_values has a value which is a reference to a list where each element is an int
+labels has a value which is a reference to a list where each element is a string
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
+dist_thresholds has a value which is a reference to a list where each element is a float
+maxclust_values has a value which is a reference to a list where each element is an int
+labels has a value which is a reference to a list where each element is a string
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
+
+
+=end text
+
+=back
+
+
+
+=head2 FclusterSweepOutput
+
+=over 4
+
+
+
+=item Description
+
+Ouput of the run_fcluster_sweep function
+flat_clusters - flat clusters for each element of dist_thresholds or maxclust_values, 
+                in the same order (refer to run_fcluster return)
+                cluster ids are numbered by first appearance in labels order
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+flat_clusters has a value which is a reference to a list where each element is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+flat_clusters has a value which is a reference to a list where each element is a reference to a hash where the key is a string and the value is a reference to a list where each element is a string
 
 
 =end text
@@ -1849,6 +2733,16 @@ dist_threshold - the threshold to apply when forming flat clusters (draw a horiz
 labels - items corresponding to each linkage_matrix element 
          (If labels are given, result dendrogram x-axis will be mapped to element in labels.)
 last_merges - show only last given value merged clusters
+output_format - "png" (default, matplotlib), "svg" or "json"
+                "svg" and "json" are laid out in a single pass over the linkage matrix and
+                written to the output file as they are placed ("json" writes one node
+                object per line, children before their parent)
+width - output width in pixels for "svg" and "json". Default set to 2500.
+height - output height in pixels for "svg" and "json". Default set to 1000.
+min_pixels - subtrees narrower than min_pixels are drawn as one collapsed node
+             for "svg" and "json". Default set to 1.0.
+packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+                        (refer to run_linkage return with packed_output)
 
 
 =item Definition
@@ -1857,10 +2751,15 @@ last_merges - show only last given value merged clusters
 
 <pre>
 a reference to a hash where the following keys are defined:
-linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a string
+linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 dist_threshold has a value which is a float
 labels has a value which is a reference to a list where each element is a string
 last_merges has a value which is an int
+output_format has a value which is a string
+width has a value which is an int
+height has a value which is an int
+min_pixels has a value which is a float
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 </pre>
 
@@ -1869,10 +2768,15 @@ last_merges has a value which is an int
 =begin text
 
 a reference to a hash where the following keys are defined:
-linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a string
+linkage_matrix has a value which is a reference to a list where each element is a reference to a list where each element is a float
 dist_threshold has a value which is a float
 labels has a value which is a reference to a list where each element is a string
 last_merges has a value which is an int
+output_format has a value which is a string
+width has a value which is an int
+height has a value which is an int
+min_pixels has a value which is a float
+packed_linkage_matrix has a value which is a kb_ke_util.packed_linkage
 
 
 =end text
@@ -2135,6 +3039,86 @@ p_value has a value which is a float
 
 
 
+=head2 EncodedEntityTermSet
+
+=over 4
+
+
+
+=item Description
+
+entity_term_set in dictionary encoded (CSR) form, each term sent once
+entity_ids - entity guids (e.g. gene ids), each once
+terms - term dictionary (e.g. GO term ids)
+indptr - terms of entity i are at positions indices[indptr[i]:indptr[i+1]] of terms
+         (size len(entity_ids) + 1)
+indices - position in terms of each assigned term
+e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2": ["go_term_2"]} is
+     {"entity_ids": ["gene_id_1", "gene_id_2"], "terms": ["go_term_1", "go_term_2"],
+      "indptr": [0, 2, 3], "indices": [0, 1, 1]}
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+indptr has a value which is a reference to a list where each element is an int
+indices has a value which is a reference to a list where each element is an int
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+entity_ids has a value which is a reference to a list where each element is a kb_ke_util.entity_guid
+terms has a value which is a reference to a list where each element is a kb_ke_util.term_guid
+indptr has a value which is a reference to a list where each element is an int
+indices has a value which is a reference to a list where each element is an int
+
+
+=end text
+
+=back
+
+
+
+=head2 entity_term_set_handle
+
+=over 4
+
+
+
+=item Description
+
+Handle of an entity_term_set registered with register_entity_term_set
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a string
+</pre>
+
+=end html
+
+=begin text
+
+a string
+
+=end text
+
+=back
+
+
+
 =head2 EnrichOnthologyParams
 
 =over 4
@@ -2151,6 +3135,10 @@ entity_term_set: entity terms dict structure where global GO term and gene_ids a
 
 Optional arguments:
 propagation: includes is_a relationship to all go terms (default is 0)
+encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                         entity_term_set
+entity_term_set_handle: handle returned by register_entity_term_set, used in place of
+                        entity_term_set
 
 
 =item Definition
@@ -2162,6 +3150,8 @@ a reference to a hash where the following keys are defined:
 sample_set has a value which is a reference to a list where each element is a string
 entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
 propagation has a value which is a kb_ke_util.boolean
+encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 
 </pre>
 
@@ -2173,6 +3163,8 @@ a reference to a hash where the following keys are defined:
 sample_set has a value which is a reference to a list where each element is a string
 entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
 propagation has a value which is a kb_ke_util.boolean
+encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 
 
 =end text
@@ -2221,6 +3213,91 @@ enrichment_profile has a value which is a reference to a hash where the key is a
 
 
 
+=head2 RegisterEntityTermSetParams
+
+=over 4
+
+
+
+=item Description
+
+Input of the register_entity_term_set function
+entity_term_set: entity terms dict structure (refer to enrich_onthology)
+
+Optional arguments:
+encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+                         entity_term_set
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
+encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+entity_term_set has a value which is a reference to a hash where the key is a kb_ke_util.entity_guid and the value is a kb_ke_util.assigned_term_guids
+encoded_entity_term_set has a value which is a kb_ke_util.EncodedEntityTermSet
+
+
+=end text
+
+=back
+
+
+
+=head2 RegisterEntityTermSetOutput
+
+=over 4
+
+
+
+=item Description
+
+Ouput of the register_entity_term_set function
+entity_term_set_handle: content hash of the entity_term_set, the same for every registration
+                        of the same entity_term_set
+entity_count: number of entities
+term_count: number of distinct terms
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+entity_count has a value which is an int
+term_count has a value which is an int
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
+entity_count has a value which is an int
+term_count has a value which is an int
+
+
+=end text
+
+=back
+
+
+
 =head2 onthology_pair
 
 =over 4
@@ -2285,6 +3362,12 @@ Input of the calc_onthology_dist function
 onthology_set: dict structure stores mapping of gene_id to paried onthology
                e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
 
+Optional arguments:
+entity_term_set_handle: annotation corpus for the information content of
+                        calc_resnik_onthology_sim, calc_lin_onthology_sim and
+                        calc_jiang_conrath_onthology_dist
+                        (handle returned by register_entity_term_set)
+
 
 =item Definition
 
@@ -2293,6 +3376,7 @@ onthology_set: dict structure stores mapping of gene_id to paried onthology
 <pre>
 a reference to a hash where the following keys are defined:
 onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 
 </pre>
 
@@ -2302,6 +3386,7 @@ onthology_set has a value which is a reference to a hash where the key is a kb_k
 
 a reference to a hash where the following keys are defined:
 onthology_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a kb_ke_util.onthology_pair
+entity_term_set_handle has a value which is a kb_ke_util.entity_term_set_handle
 
 
 =end text
@@ -2347,6 +3432,43 @@ onthology_dist_set has a value which is a reference to a hash where the key is a
 
 
 
+=head2 CalcOnthologyScoreOutput
+
+=over 4
+
+
+
+=item Description
+
+Ouput of the information content based onthology functions
+onthology_score_set: dict structure stores mapping of gene_id to score
+                     e.g. {"gene_id_1": 2.3}
+
+
+=item Definition
+
+=begin html
+
+<pre>
+a reference to a hash where the following keys are defined:
+onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+</pre>
+
+=end html
+
+=begin text
+
+a reference to a hash where the following keys are defined:
+onthology_score_set has a value which is a reference to a hash where the key is a kb_ke_util.gene_id and the value is a float
+
+
+=end text
+
+=back
+
+
+
 =cut
 
 package kb_ke_util::kb_ke_utilClient::RpcClient;
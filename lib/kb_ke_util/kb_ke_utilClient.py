@@ -35,18 +35,29 @@ class kb_ke_util(object):
 
     def linkage_2_newick(self, params, context=None):
         """
-        run_PCA: perform PCA on a n-dimensional matrix
+        linkage_2_newick: convert a linkage matrix to newick format
         :param params: instance of type "NewickParams" (Input of the
            linkage_2_newick function linkage_matrix - hierarchical clustering
            linkage matrix (refer to run_linkage return) labels - items
            corresponding to each linkage_matrix element (If labels are given,
-           result flat_cluster will be mapped to element in labels.)) ->
-           structure: parameter "linkage_matrix" of list of list of Double,
-           parameter "labels" of list of String
+           result flat_cluster will be mapped to element in labels.) Optional
+           arguments: write_to_file - stream the newick tree into a file in
+           scratch instead of returning it (default is 0)
+           packed_linkage_matrix - linkage matrix used in place of
+           linkage_matrix (refer to run_linkage return with packed_output))
+           -> structure: parameter "linkage_matrix" of list of list of
+           Double, parameter "labels" of list of String, parameter
+           "write_to_file" of type "boolean" (A boolean - 0 for false, 1 for
+           true. @range (0, 1)), parameter "packed_linkage_matrix" of type
+           "packed_linkage" (A linkage matrix packed as base64 encoded
+           little-endian float64 values, row by row (n - 1 rows of
+           [cluster_1, cluster_2, distance, count] for n leaves))
         :returns: instance of type "NewickOutput" (Ouput of the
            linkage_2_newick function newick - newick representation of tree
-           https://en.wikipedia.org/wiki/Newick_format) -> structure:
-           parameter "newick" of String
+           https://en.wikipedia.org/wiki/Newick_format newick_file - path of
+           the newick file if write_to_file is set (newick is then empty)) ->
+           structure: parameter "newick" of String, parameter "newick_file"
+           of String
         """
         return self._client.call_method(
             'kb_ke_util.linkage_2_newick',
@@ -61,9 +72,20 @@ class kb_ke_util(object):
            None}, u'condition_2': {u'gene_1': 0.2, u'gene_2': 0.4, u'gene_3':
            None}, u'condition_3': {u'gene_1': 0.3, u'gene_2': 0.5, u'gene_3':
            None}, u'condition_4': {u'gene_1': 0.4, u'gene_2': 0.6, u'gene_3':
-           None}} n_components - number of components (default 2)) ->
+           None}} n_components - number of components (default 2)
+           sparse_matrix - sparse data matrix used in place of data_matrix
+           (randomized truncated SVD on scaled, uncentered values)) ->
            structure: parameter "data_matrix" of String, parameter
-           "n_components" of Long
+           "n_components" of Long, parameter "sparse_matrix" of type
+           "SparseMatrix" (Sparse data matrix in compressed sparse row (CSR)
+           format row_ids - item names of matrix rows (e.g. gene ids) col_ids
+           - names of matrix columns (e.g. conditions) indptr - non-zero
+           values of row i are values[indptr[i]:indptr[i+1]] (size
+           len(row_ids) + 1) indices - column position of each non-zero value
+           values - non-zero values) -> structure: parameter "row_ids" of
+           list of String, parameter "col_ids" of list of String, parameter
+           "indptr" of list of Long, parameter "indices" of list of Long,
+           parameter "values" of list of Double
         :returns: instance of type "PCAOutput" (Ouput of the run_PCA function
            PCA_matrix - PCA matrix in json format with principal_component_1,
            principal_component_2 col and same index as original data matrix)
@@ -113,14 +135,37 @@ class kb_ke_util(object):
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.spatial.
            distance.pdist.html Note: Advanced metric functions 'minkowski',
            'seuclidean' and 'mahalanobis' included in
-           scipy.spatial.distance.pdist library are not implemented) ->
-           structure: parameter "data_matrix" of String, parameter "metric"
-           of String
+           scipy.spatial.distance.pdist library are not implemented
+           out_of_core - write the condensed distance matrix into a
+           memory-mapped file in scratch instead of returning it (default is
+           0) dist_matrix_file is returned and dist_matrix is left empty
+           precision - floating point precision of the distance matrix,
+           'float64' (default) or 'float32' float32 halves memory and payload
+           size; distances are computed in float64 and rounded, so values
+           agree with float64 ones to a relative tolerance of 1e-6
+           sparse_matrix - sparse data matrix used in place of data_matrix
+           "cosine", "euclidean", "jaccard" and "cityblock" are computed on
+           the non-zero values only (jaccard on the non-zero
+           pattern)) -> structure: parameter "data_matrix" of String,
+           parameter "metric" of String, parameter "out_of_core" of type
+           "boolean" (A boolean - 0 for false, 1 for true. @range (0, 1)),
+           parameter "precision" of String, parameter "sparse_matrix" of type
+           "SparseMatrix" (Sparse data matrix in compressed sparse row (CSR)
+           format row_ids - item names of matrix rows (e.g. gene ids) col_ids
+           - names of matrix columns (e.g. conditions) indptr - non-zero
+           values of row i are values[indptr[i]:indptr[i+1]] (size
+           len(row_ids) + 1) indices - column position of each non-zero value
+           values - non-zero values) -> structure: parameter "row_ids" of
+           list of String, parameter "col_ids" of list of String, parameter
+           "indptr" of list of Long, parameter "indices" of list of Long,
+           parameter "values" of list of Double
         :returns: instance of type "PdistOutput" (Ouput of the run_pdist
            function dist_matrix - 1D distance matrix labels - item name
-           corresponding to each dist_matrix element) -> structure: parameter
-           "dist_matrix" of list of Double, parameter "labels" of list of
-           String
+           corresponding to each dist_matrix element dist_matrix_file -
+           memory-mapped condensed distance matrix file (.npy) if out_of_core
+           is set) -> structure: parameter "dist_matrix" of list of Double,
+           parameter "labels" of list of String, parameter "dist_matrix_file"
+           of String
         """
         return self._client.call_method(
             'kb_ke_util.run_pdist',
@@ -134,16 +179,30 @@ class kb_ke_util(object):
         :param params: instance of type "LinkageParams" (Input of the
            run_linkage function dist_matrix - 1D distance matrix (refer to
            run_pdist return) Optional arguments: method - The linkage
-           algorithm to use. Default set to 'ward'. The method can be
+           algorithm to use. Default set to 'single'. The method can be
            ["single", "complete", "average", "weighted", "centroid",
            "median", "ward"] Details refer to:
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.
-           hierarchy.linkage.html) -> structure: parameter "dist_matrix" of
-           list of Double, parameter "method" of String
+           hierarchy.linkage.html dist_matrix_file - memory-mapped condensed
+           distance matrix file used in place of dist_matrix (refer to
+           run_pdist return with out_of_core); linkage still copies it into a
+           float64 array in memory (8 bytes per distance) precision - floating
+           point precision of the linkage distances, 'float64' (default) or
+           'float32' packed_output - return packed_linkage_matrix instead of
+           linkage_matrix) -> structure: parameter "dist_matrix" of list of
+           Double, parameter "method" of String, parameter "dist_matrix_file"
+           of String, parameter "precision" of String, parameter
+           "packed_output" of type "boolean" (A boolean - 0 for false, 1 for
+           true. @range (0, 1))
         :returns: instance of type "LinkageOutput" (Ouput of the run_linkage
            function linkage_matrix - The hierarchical clustering encoded as a
-           linkage matrix) -> structure: parameter "linkage_matrix" of list
-           of list of Double
+           linkage matrix packed_linkage_matrix - the same linkage matrix
+           packed as float64 values if packed_output is set) -> structure:
+           parameter "linkage_matrix" of list of list of Double, parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         """
         return self._client.call_method(
             'kb_ke_util.run_linkage',
@@ -167,21 +226,75 @@ class kb_ke_util(object):
            scipy.cluster.hierarchy.fcluster library are not implemented
            Details refer to:
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.
-           hierarchy.fcluster.html) -> structure: parameter "linkage_matrix"
-           of list of list of Double, parameter "dist_threshold" of Double,
-           parameter "labels" of list of String, parameter "criterion" of
-           String
+           hierarchy.fcluster.html precision - floating point precision of
+           linkage_matrix, 'float64' (default) or 'float32' (with 'float32'
+           dist_threshold is rounded the same way as the linkage distances)
+           compact_output - return cluster_assignment (plus cluster_offsets
+           and cluster_members) instead of flat_cluster packed_linkage_matrix
+           - linkage matrix used in place of linkage_matrix (refer to
+           run_linkage return with packed_output)) -> structure: parameter
+           "linkage_matrix" of list of list of Double, parameter
+           "dist_threshold" of Double, parameter "labels" of list of String,
+           parameter "criterion" of String, parameter "precision" of String,
+           parameter "compact_output" of type "boolean" (A boolean - 0 for
+           false, 1 for true. @range (0, 1)), parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         :returns: instance of type "FclusterOutput" (Ouput of the
            run_fcluster function flat_cluster - A dictionary of flat
            clusters. Each element of flat_cluster representing a cluster
            contains a label array. (If labels is none, element position array
-           is returned to each cluster group)) -> structure: parameter
-           "flat_cluster" of mapping from String to list of String
+           is returned to each cluster group) with compact_output set,
+           flat_cluster is omitted and the clusters are returned as:
+           cluster_assignment - cluster id (1 based) of each element, aligned
+           with labels cluster_offsets - cluster boundaries in
+           cluster_members, starting with 0, cluster id i spans
+           cluster_members[cluster_offsets[i - 1]:cluster_offsets[i]]
+           cluster_members - element positions grouped by cluster id) ->
+           structure: parameter "flat_cluster" of mapping from String to list
+           of String, parameter "cluster_assignment" of list of Long,
+           parameter "cluster_offsets" of list of Long, parameter
+           "cluster_members" of list of Long
         """
         return self._client.call_method(
             'kb_ke_util.run_fcluster',
             [params], self._service_ver, context)
 
+    def run_fcluster_sweep(self, params, context=None):
+        """
+        run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+        over the merge heights (union-find), giving the same clusters as run_fcluster per threshold
+        :param params: instance of type "FclusterSweepParams" (Input of the
+           run_fcluster_sweep function linkage_matrix - hierarchical
+           clustering linkage matrix (refer to run_linkage return)
+           dist_thresholds - thresholds to apply when forming flat clusters
+           ('distance' criterion) maxclust_values - maximum numbers of flat
+           clusters to form ('maxclust' criterion) (exactly one of
+           dist_thresholds and maxclust_values is required) Optional
+           arguments: labels - items corresponding to each linkage_matrix
+           element (If labels are given, result flat_clusters will be mapped
+           to element in labels.) packed_linkage_matrix - linkage matrix used
+           in place of linkage_matrix (refer to run_linkage return with
+           packed_output)) -> structure: parameter "linkage_matrix" of list
+           of list of Double, parameter "dist_thresholds" of list of Double,
+           parameter "maxclust_values" of list of Long, parameter "labels" of
+           list of String, parameter "packed_linkage_matrix" of type
+           "packed_linkage" (A linkage matrix packed as base64 encoded
+           little-endian float64 values, row by row (n - 1 rows of
+           [cluster_1, cluster_2, distance, count] for n leaves))
+        :returns: instance of type "FclusterSweepOutput" (Ouput of the
+           run_fcluster_sweep function flat_clusters - flat clusters for each
+           element of dist_thresholds or maxclust_values, in the same order
+           (refer to run_fcluster return) cluster ids are numbered by first
+           appearance in labels order) -> structure: parameter
+           "flat_clusters" of list of mapping from String to list of String
+        """
+        return self._client.call_method(
+            'kb_ke_util.run_fcluster_sweep',
+            [params], self._service_ver, context)
+
     def run_dendrogram(self, params, context=None):
         """
         run_dendrogram: a wrapper method for scipy.cluster.hierarchy.dendrogram
@@ -194,10 +307,26 @@ class kb_ke_util(object):
            (draw a horizontal line to dendrogram) labels - items
            corresponding to each linkage_matrix element (If labels are given,
            result dendrogram x-axis will be mapped to element in labels.)
-           last_merges - show only last given value merged clusters) ->
-           structure: parameter "linkage_matrix" of list of list of String,
-           parameter "dist_threshold" of Double, parameter "labels" of list
-           of String, parameter "last_merges" of Long
+           last_merges - show only last given value merged clusters
+           output_format - "png" (default, matplotlib), "svg" or "json" "svg"
+           and "json" are laid out in a single pass over the linkage matrix
+           and written to the output file as they are placed ("json" writes
+           one node object per line, children before their parent) width -
+           output width in pixels for "svg" and "json". Default set to 2500.
+           height - output height in pixels for "svg" and "json". Default set
+           to 1000. min_pixels - subtrees narrower than min_pixels are drawn
+           as one collapsed node for "svg" and "json". Default set to 1.0.
+           packed_linkage_matrix - linkage matrix used in place of
+           linkage_matrix (refer to run_linkage return with packed_output))
+           -> structure: parameter "linkage_matrix" of list of list of
+           Double, parameter "dist_threshold" of Double, parameter "labels"
+           of list of String, parameter "last_merges" of Long, parameter
+           "output_format" of String, parameter "width" of Long, parameter
+           "height" of Long, parameter "min_pixels" of Double, parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         :returns: instance of type "DendrogramOutput" (Ouput of the
            run_dendrogram function result_plots - List of result plot
            path(s)) -> structure: parameter "result_plots" of list of String
@@ -252,12 +381,30 @@ class kb_ke_util(object):
            entity_term_set: entity terms dict structure where global GO term
            and gene_ids are stored e.g. {"gene_id_1": ["go_term_1",
            "go_term_2"]} Optional arguments: propagation: includes is_a
-           relationship to all go terms (default is 0)) -> structure:
-           parameter "sample_set" of list of String, parameter
-           "entity_term_set" of mapping from type "entity_guid" to type
-           "assigned_term_guids" -> list of String, parameter "propagation"
-           of type "boolean" (A boolean - 0 for false, 1 for true. @range (0,
-           1))
+           relationship to all go terms (default is 0)
+           encoded_entity_term_set: entity_term_set in dictionary encoded
+           form, used in place of entity_term_set entity_term_set_handle:
+           handle returned by register_entity_term_set, used in place of
+           entity_term_set) -> structure: parameter "sample_set" of list of
+           String, parameter "entity_term_set" of mapping from type
+           "entity_guid" to type "assigned_term_guids" -> list of String,
+           parameter "propagation" of type "boolean" (A boolean - 0 for
+           false, 1 for true. @range (0, 1)), parameter
+           "encoded_entity_term_set" of type "EncodedEntityTermSet"
+           (entity_term_set in dictionary encoded (CSR) form, each term sent
+           once entity_ids - entity guids (e.g. gene ids), each once terms -
+           term dictionary (e.g. GO term ids) indptr - terms of entity i are
+           at positions indices[indptr[i]:indptr[i+1]] of terms (size
+           len(entity_ids) + 1) indices - position in terms of each assigned
+           term e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2":
+           ["go_term_2"]} is {"entity_ids": ["gene_id_1", "gene_id_2"],
+           "terms": ["go_term_1", "go_term_2"], "indptr": [0, 2, 3],
+           "indices": [0, 1, 1]}) -> structure: parameter "entity_ids" of
+           list of type "entity_guid", parameter "terms" of list of type
+           "term_guid", parameter "indptr" of list of Long, parameter
+           "indices" of list of Long, parameter "entity_term_set_handle" of
+           type "entity_term_set_handle" (Handle of an entity_term_set
+           registered with register_entity_term_set)
         :returns: instance of type "EnrichOnthologyOutput" (Ouput of the
            enrich_onthology function enrichment_profile: dict structure
            stores enrichment info e.g. {"go_term_1": {"sample_count": 10,
@@ -271,6 +418,48 @@ class kb_ke_util(object):
             'kb_ke_util.enrich_onthology',
             [params], self._service_ver, context)
 
+    def register_entity_term_set(self, params, context=None):
+        """
+        register_entity_term_set: keep an entity_term_set on the server as term to entities bitmaps,
+                                  for enrich_onthology calls with entity_term_set_handle
+        Registered sets are kept in server memory and scratch, least recently used sets are dropped
+        when over budget. enrich_onthology fails with an error naming the handle if it is no longer
+        registered: register the entity_term_set again and retry.
+        A term assigned twice to the same entity counts once with a handle.
+        :param params: instance of type "RegisterEntityTermSetParams" (Input
+           of the register_entity_term_set function entity_term_set: entity
+           terms dict structure (refer to enrich_onthology) Optional
+           arguments: encoded_entity_term_set: entity_term_set in dictionary
+           encoded form, used in place of entity_term_set) -> structure:
+           parameter "entity_term_set" of mapping from type "entity_guid" to
+           type "assigned_term_guids" -> list of String, parameter
+           "encoded_entity_term_set" of type "EncodedEntityTermSet"
+           (entity_term_set in dictionary encoded (CSR) form, each term sent
+           once entity_ids - entity guids (e.g. gene ids), each once terms -
+           term dictionary (e.g. GO term ids) indptr - terms of entity i are
+           at positions indices[indptr[i]:indptr[i+1]] of terms (size
+           len(entity_ids) + 1) indices - position in terms of each assigned
+           term e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2":
+           ["go_term_2"]} is {"entity_ids": ["gene_id_1", "gene_id_2"],
+           "terms": ["go_term_1", "go_term_2"], "indptr": [0, 2, 3],
+           "indices": [0, 1, 1]}) -> structure: parameter "entity_ids" of
+           list of type "entity_guid", parameter "terms" of list of type
+           "term_guid", parameter "indptr" of list of Long, parameter
+           "indices" of list of Long
+        :returns: instance of type "RegisterEntityTermSetOutput" (Ouput of
+           the register_entity_term_set function entity_term_set_handle:
+           content hash of the entity_term_set, the same for every
+           registration of the same entity_term_set entity_count: number of
+           entities term_count: number of distinct terms) -> structure:
+           parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set), parameter "entity_count" of Long,
+           parameter "term_count" of Long
+        """
+        return self._client.call_method(
+            'kb_ke_util.register_entity_term_set',
+            [params], self._service_ver, context)
+
     def calc_onthology_dist(self, params, context=None):
         """
         calc_onthology_dist: calculate onthology distance
@@ -280,9 +469,15 @@ class kb_ke_util(object):
         :param params: instance of type "CalcOnthologyDistParams" (Input of
            the calc_onthology_dist function onthology_set: dict structure
            stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
-           ["go_term_1", "go_term_2"]}) -> structure: parameter
-           "onthology_set" of mapping from type "gene_id" to type
-           "onthology_pair" -> list of String
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
         :returns: instance of type "CalcOnthologyDistOutput" (Ouput of the
            calc_onthology_dist function onthology_dist_set: dict structure
            stores mapping of gene_id to dist e.g. {"gene_id_1": 3}) ->
@@ -303,9 +498,15 @@ class kb_ke_util(object):
         :param params: instance of type "CalcOnthologyDistParams" (Input of
            the calc_onthology_dist function onthology_set: dict structure
            stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
-           ["go_term_1", "go_term_2"]}) -> structure: parameter
-           "onthology_set" of mapping from type "gene_id" to type
-           "onthology_pair" -> list of String
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
         :returns: instance of type "CalcOnthologyDistOutput" (Ouput of the
            calc_onthology_dist function onthology_dist_set: dict structure
            stores mapping of gene_id to dist e.g. {"gene_id_1": 3}) ->
@@ -316,6 +517,95 @@ class kb_ke_util(object):
             'kb_ke_util.calc_weighted_onthology_dist',
             [params], self._service_ver, context)
 
+    def calc_resnik_onthology_sim(self, params, context=None):
+        """
+        calc_resnik_onthology_sim: calculate Resnik similarity
+                                   (information content of the most informative common ancestor)
+                                   NOTE: return 0 if no common ancestor node found
+        Information content of a term is -log(p) with p the frequency of the term:
+        with entity_term_set_handle, the fraction of the registered entities annotated with the term
+        or one of its descendants, (count + 1) / (entities + 1); without it, the fraction of ontology
+        terms that are the term or one of its descendants.
+        It is computed once per corpus, ancestors follow is_a relationships.
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        return self._client.call_method(
+            'kb_ke_util.calc_resnik_onthology_sim',
+            [params], self._service_ver, context)
+
+    def calc_lin_onthology_sim(self, params, context=None):
+        """
+        calc_lin_onthology_sim: calculate Lin similarity
+        (2 * IC(most informative common ancestor) / (IC(term_1) + IC(term_2)),
+         from 0 to 1, information content IC as in calc_resnik_onthology_sim)
+        NOTE: return 0 if no common ancestor node found
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        return self._client.call_method(
+            'kb_ke_util.calc_lin_onthology_sim',
+            [params], self._service_ver, context)
+
+    def calc_jiang_conrath_onthology_dist(self, params, context=None):
+        """
+        calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath distance
+        (IC(term_1) + IC(term_2) -
+         2 * IC(most informative common ancestor),
+         information content IC as in calc_resnik_onthology_sim)
+        NOTE: return inf if no common ancestor node found
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        return self._client.call_method(
+            'kb_ke_util.calc_jiang_conrath_onthology_dist',
+            [params], self._service_ver, context)
+
     def status(self, context=None):
         return self._client.call_method('kb_ke_util.status',
                                         [], self._service_ver, context)
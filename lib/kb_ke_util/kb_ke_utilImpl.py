@@ -1,6 +1,7 @@
 # -*- coding: utf-8 -*-
 #BEGIN_HEADER
 import os
+import threading
 
 from kb_ke_util.Utils.KnowledgeEngineUtil import KnowledgeEngineUtil
 #END_HEADER
@@ -34,24 +35,51 @@ class kb_ke_util:
         #BEGIN_CONSTRUCTOR
         self.config = config
         # self.config['KB_AUTH_TOKEN'] = os.environ['KB_AUTH_TOKEN']
+        # result cache keys include the version, so that cached results of older code are
+        # not served after a deployment
+        self.config['module-version'] = '{}-{}'.format(self.VERSION, self.GIT_COMMIT_HASH)
+
+        if str(config.get('preload-ontology', '')).lower() in ['1', 'true', 'yes']:
+            ke_util = KnowledgeEngineUtil(dict(config))
+            try:
+                import uwsgi  # noqa: F401
+                # uwsgi forks its worker processes after loading the app: load the ontology
+                # here so that every worker starts with it (copy-on-write) and no thread or
+                # lock is left mid-load across the fork
+                ke_util.preload_ontology()
+            except ImportError:
+                preload = threading.Thread(target=ke_util.preload_ontology)
+                preload.daemon = True
+                preload.start()
         #END_CONSTRUCTOR
         pass
 
 
     def linkage_2_newick(self, ctx, params):
         """
-        run_PCA: perform PCA on a n-dimensional matrix
+        linkage_2_newick: convert a linkage matrix to newick format
         :param params: instance of type "NewickParams" (Input of the
            linkage_2_newick function linkage_matrix - hierarchical clustering
            linkage matrix (refer to run_linkage return) labels - items
            corresponding to each linkage_matrix element (If labels are given,
-           result flat_cluster will be mapped to element in labels.)) ->
-           structure: parameter "linkage_matrix" of list of list of Double,
-           parameter "labels" of list of String
+           result flat_cluster will be mapped to element in labels.) Optional
+           arguments: write_to_file - stream the newick tree into a file in
+           scratch instead of returning it (default is 0)
+           packed_linkage_matrix - linkage matrix used in place of
+           linkage_matrix (refer to run_linkage return with packed_output))
+           -> structure: parameter "linkage_matrix" of list of list of
+           Double, parameter "labels" of list of String, parameter
+           "write_to_file" of type "boolean" (A boolean - 0 for false, 1 for
+           true. @range (0, 1)), parameter "packed_linkage_matrix" of type
+           "packed_linkage" (A linkage matrix packed as base64 encoded
+           little-endian float64 values, row by row (n - 1 rows of
+           [cluster_1, cluster_2, distance, count] for n leaves))
         :returns: instance of type "NewickOutput" (Ouput of the
            linkage_2_newick function newick - newick representation of tree
-           https://en.wikipedia.org/wiki/Newick_format) -> structure:
-           parameter "newick" of String
+           https://en.wikipedia.org/wiki/Newick_format newick_file - path of
+           the newick file if write_to_file is set (newick is then empty)) ->
+           structure: parameter "newick" of String, parameter "newick_file"
+           of String
         """
         # ctx is the context object
         # return variables are: returnVal
@@ -82,9 +110,20 @@ class kb_ke_util:
            None}, u'condition_2': {u'gene_1': 0.2, u'gene_2': 0.4, u'gene_3':
            None}, u'condition_3': {u'gene_1': 0.3, u'gene_2': 0.5, u'gene_3':
            None}, u'condition_4': {u'gene_1': 0.4, u'gene_2': 0.6, u'gene_3':
-           None}} n_components - number of components (default 2)) ->
+           None}} n_components - number of components (default 2)
+           sparse_matrix - sparse data matrix used in place of data_matrix
+           (randomized truncated SVD on scaled, uncentered values)) ->
            structure: parameter "data_matrix" of String, parameter
-           "n_components" of Long
+           "n_components" of Long, parameter "sparse_matrix" of type
+           "SparseMatrix" (Sparse data matrix in compressed sparse row (CSR)
+           format row_ids - item names of matrix rows (e.g. gene ids) col_ids
+           - names of matrix columns (e.g. conditions) indptr - non-zero
+           values of row i are values[indptr[i]:indptr[i+1]] (size
+           len(row_ids) + 1) indices - column position of each non-zero value
+           values - non-zero values) -> structure: parameter "row_ids" of
+           list of String, parameter "col_ids" of list of String, parameter
+           "indptr" of list of Long, parameter "indices" of list of Long,
+           parameter "values" of list of Double
         :returns: instance of type "PCAOutput" (Ouput of the run_PCA function
            PCA_matrix - PCA matrix in json format with principal_component_1,
            principal_component_2 col and same index as original data matrix)
@@ -166,14 +205,37 @@ class kb_ke_util:
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.spatial.
            distance.pdist.html Note: Advanced metric functions 'minkowski',
            'seuclidean' and 'mahalanobis' included in
-           scipy.spatial.distance.pdist library are not implemented) ->
-           structure: parameter "data_matrix" of String, parameter "metric"
-           of String
+           scipy.spatial.distance.pdist library are not implemented
+           out_of_core - write the condensed distance matrix into a
+           memory-mapped file in scratch instead of returning it (default is
+           0) dist_matrix_file is returned and dist_matrix is left empty
+           precision - floating point precision of the distance matrix,
+           'float64' (default) or 'float32' float32 halves memory and payload
+           size; distances are computed in float64 and rounded, so values
+           agree with float64 ones to a relative tolerance of 1e-6
+           sparse_matrix - sparse data matrix used in place of data_matrix
+           "cosine", "euclidean", "jaccard" and "cityblock" are computed on
+           the non-zero values only (jaccard on the non-zero
+           pattern)) -> structure: parameter "data_matrix" of String,
+           parameter "metric" of String, parameter "out_of_core" of type
+           "boolean" (A boolean - 0 for false, 1 for true. @range (0, 1)),
+           parameter "precision" of String, parameter "sparse_matrix" of type
+           "SparseMatrix" (Sparse data matrix in compressed sparse row (CSR)
+           format row_ids - item names of matrix rows (e.g. gene ids) col_ids
+           - names of matrix columns (e.g. conditions) indptr - non-zero
+           values of row i are values[indptr[i]:indptr[i+1]] (size
+           len(row_ids) + 1) indices - column position of each non-zero value
+           values - non-zero values) -> structure: parameter "row_ids" of
+           list of String, parameter "col_ids" of list of String, parameter
+           "indptr" of list of Long, parameter "indices" of list of Long,
+           parameter "values" of list of Double
         :returns: instance of type "PdistOutput" (Ouput of the run_pdist
            function dist_matrix - 1D distance matrix labels - item name
-           corresponding to each dist_matrix element) -> structure: parameter
-           "dist_matrix" of list of Double, parameter "labels" of list of
-           String
+           corresponding to each dist_matrix element dist_matrix_file -
+           memory-mapped condensed distance matrix file (.npy) if out_of_core
+           is set) -> structure: parameter "dist_matrix" of list of Double,
+           parameter "labels" of list of String, parameter "dist_matrix_file"
+           of String
         """
         # ctx is the context object
         # return variables are: returnVal
@@ -204,16 +266,30 @@ class kb_ke_util:
         :param params: instance of type "LinkageParams" (Input of the
            run_linkage function dist_matrix - 1D distance matrix (refer to
            run_pdist return) Optional arguments: method - The linkage
-           algorithm to use. Default set to 'ward'. The method can be
+           algorithm to use. Default set to 'single'. The method can be
            ["single", "complete", "average", "weighted", "centroid",
            "median", "ward"] Details refer to:
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.
-           hierarchy.linkage.html) -> structure: parameter "dist_matrix" of
-           list of Double, parameter "method" of String
+           hierarchy.linkage.html dist_matrix_file - memory-mapped condensed
+           distance matrix file used in place of dist_matrix (refer to
+           run_pdist return with out_of_core); linkage still copies it into a
+           float64 array in memory (8 bytes per distance) precision - floating
+           point precision of the linkage distances, 'float64' (default) or
+           'float32' packed_output - return packed_linkage_matrix instead of
+           linkage_matrix) -> structure: parameter "dist_matrix" of list of
+           Double, parameter "method" of String, parameter "dist_matrix_file"
+           of String, parameter "precision" of String, parameter
+           "packed_output" of type "boolean" (A boolean - 0 for false, 1 for
+           true. @range (0, 1))
         :returns: instance of type "LinkageOutput" (Ouput of the run_linkage
            function linkage_matrix - The hierarchical clustering encoded as a
-           linkage matrix) -> structure: parameter "linkage_matrix" of list
-           of list of Double
+           linkage matrix packed_linkage_matrix - the same linkage matrix
+           packed as float64 values if packed_output is set) -> structure:
+           parameter "linkage_matrix" of list of list of Double, parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         """
         # ctx is the context object
         # return variables are: returnVal
@@ -253,16 +329,37 @@ class kb_ke_util:
            scipy.cluster.hierarchy.fcluster library are not implemented
            Details refer to:
            https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.
-           hierarchy.fcluster.html) -> structure: parameter "linkage_matrix"
-           of list of list of Double, parameter "dist_threshold" of Double,
-           parameter "labels" of list of String, parameter "criterion" of
-           String
+           hierarchy.fcluster.html precision - floating point precision of
+           linkage_matrix, 'float64' (default) or 'float32' (with 'float32'
+           dist_threshold is rounded the same way as the linkage distances)
+           compact_output - return cluster_assignment (plus cluster_offsets
+           and cluster_members) instead of flat_cluster packed_linkage_matrix
+           - linkage matrix used in place of linkage_matrix (refer to
+           run_linkage return with packed_output)) -> structure: parameter
+           "linkage_matrix" of list of list of Double, parameter
+           "dist_threshold" of Double, parameter "labels" of list of String,
+           parameter "criterion" of String, parameter "precision" of String,
+           parameter "compact_output" of type "boolean" (A boolean - 0 for
+           false, 1 for true. @range (0, 1)), parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         :returns: instance of type "FclusterOutput" (Ouput of the
            run_fcluster function flat_cluster - A dictionary of flat
            clusters. Each element of flat_cluster representing a cluster
            contains a label array. (If labels is none, element position array
-           is returned to each cluster group)) -> structure: parameter
-           "flat_cluster" of mapping from String to list of String
+           is returned to each cluster group) with compact_output set,
+           flat_cluster is omitted and the clusters are returned as:
+           cluster_assignment - cluster id (1 based) of each element, aligned
+           with labels cluster_offsets - cluster boundaries in
+           cluster_members, starting with 0, cluster id i spans
+           cluster_members[cluster_offsets[i - 1]:cluster_offsets[i]]
+           cluster_members - element positions grouped by cluster id) ->
+           structure: parameter "flat_cluster" of mapping from String to list
+           of String, parameter "cluster_assignment" of list of Long,
+           parameter "cluster_offsets" of list of Long, parameter
+           "cluster_members" of list of Long
         """
         # ctx is the context object
         # return variables are: returnVal
@@ -284,6 +381,55 @@ class kb_ke_util:
         # return the results
         return [returnVal]
 
+    def run_fcluster_sweep(self, ctx, params):
+        """
+        run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+        over the merge heights (union-find), giving the same clusters as run_fcluster per threshold
+        :param params: instance of type "FclusterSweepParams" (Input of the
+           run_fcluster_sweep function linkage_matrix - hierarchical
+           clustering linkage matrix (refer to run_linkage return)
+           dist_thresholds - thresholds to apply when forming flat clusters
+           ('distance' criterion) maxclust_values - maximum numbers of flat
+           clusters to form ('maxclust' criterion) (exactly one of
+           dist_thresholds and maxclust_values is required) Optional
+           arguments: labels - items corresponding to each linkage_matrix
+           element (If labels are given, result flat_clusters will be mapped
+           to element in labels.) packed_linkage_matrix - linkage matrix used
+           in place of linkage_matrix (refer to run_linkage return with
+           packed_output)) -> structure: parameter "linkage_matrix" of list
+           of list of Double, parameter "dist_thresholds" of list of Double,
+           parameter "maxclust_values" of list of Long, parameter "labels" of
+           list of String, parameter "packed_linkage_matrix" of type
+           "packed_linkage" (A linkage matrix packed as base64 encoded
+           little-endian float64 values, row by row (n - 1 rows of
+           [cluster_1, cluster_2, distance, count] for n leaves))
+        :returns: instance of type "FclusterSweepOutput" (Ouput of the
+           run_fcluster_sweep function flat_clusters - flat clusters for each
+           element of dist_thresholds or maxclust_values, in the same order
+           (refer to run_fcluster return) cluster ids are numbered by first
+           appearance in labels order) -> structure: parameter
+           "flat_clusters" of list of mapping from String to list of String
+        """
+        # ctx is the context object
+        # return variables are: returnVal
+        #BEGIN run_fcluster_sweep
+        for key, value in params.iteritems():
+            if isinstance(value, basestring):
+                params[key] = value.strip()
+
+        self.config['KB_AUTH_TOKEN'] = ctx["token"]
+
+        ke_util = KnowledgeEngineUtil(self.config)
+        returnVal = ke_util.run_fcluster_sweep(params)
+        #END run_fcluster_sweep
+
+        # At some point might do deeper type checking...
+        if not isinstance(returnVal, dict):
+            raise ValueError('Method run_fcluster_sweep return value ' +
+                             'returnVal is not type dict as required.')
+        # return the results
+        return [returnVal]
+
     def run_dendrogram(self, ctx, params):
         """
         run_dendrogram: a wrapper method for scipy.cluster.hierarchy.dendrogram
@@ -296,10 +442,26 @@ class kb_ke_util:
            (draw a horizontal line to dendrogram) labels - items
            corresponding to each linkage_matrix element (If labels are given,
            result dendrogram x-axis will be mapped to element in labels.)
-           last_merges - show only last given value merged clusters) ->
-           structure: parameter "linkage_matrix" of list of list of String,
-           parameter "dist_threshold" of Double, parameter "labels" of list
-           of String, parameter "last_merges" of Long
+           last_merges - show only last given value merged clusters
+           output_format - "png" (default, matplotlib), "svg" or "json" "svg"
+           and "json" are laid out in a single pass over the linkage matrix
+           and written to the output file as they are placed ("json" writes
+           one node object per line, children before their parent) width -
+           output width in pixels for "svg" and "json". Default set to 2500.
+           height - output height in pixels for "svg" and "json". Default set
+           to 1000. min_pixels - subtrees narrower than min_pixels are drawn
+           as one collapsed node for "svg" and "json". Default set to 1.0.
+           packed_linkage_matrix - linkage matrix used in place of
+           linkage_matrix (refer to run_linkage return with packed_output))
+           -> structure: parameter "linkage_matrix" of list of list of
+           Double, parameter "dist_threshold" of Double, parameter "labels"
+           of list of String, parameter "last_merges" of Long, parameter
+           "output_format" of String, parameter "width" of Long, parameter
+           "height" of Long, parameter "min_pixels" of Double, parameter
+           "packed_linkage_matrix" of type "packed_linkage" (A linkage matrix
+           packed as base64 encoded little-endian float64 values, row by row
+           (n - 1 rows of [cluster_1, cluster_2, distance, count] for n
+           leaves))
         :returns: instance of type "DendrogramOutput" (Ouput of the
            run_dendrogram function result_plots - List of result plot
            path(s)) -> structure: parameter "result_plots" of list of String
@@ -386,12 +548,30 @@ class kb_ke_util:
            entity_term_set: entity terms dict structure where global GO term
            and gene_ids are stored e.g. {"gene_id_1": ["go_term_1",
            "go_term_2"]} Optional arguments: propagation: includes is_a
-           relationship to all go terms (default is 0)) -> structure:
-           parameter "sample_set" of list of String, parameter
-           "entity_term_set" of mapping from type "entity_guid" to type
-           "assigned_term_guids" -> list of String, parameter "propagation"
-           of type "boolean" (A boolean - 0 for false, 1 for true. @range (0,
-           1))
+           relationship to all go terms (default is 0)
+           encoded_entity_term_set: entity_term_set in dictionary encoded
+           form, used in place of entity_term_set entity_term_set_handle:
+           handle returned by register_entity_term_set, used in place of
+           entity_term_set) -> structure: parameter "sample_set" of list of
+           String, parameter "entity_term_set" of mapping from type
+           "entity_guid" to type "assigned_term_guids" -> list of String,
+           parameter "propagation" of type "boolean" (A boolean - 0 for
+           false, 1 for true. @range (0, 1)), parameter
+           "encoded_entity_term_set" of type "EncodedEntityTermSet"
+           (entity_term_set in dictionary encoded (CSR) form, each term sent
+           once entity_ids - entity guids (e.g. gene ids), each once terms -
+           term dictionary (e.g. GO term ids) indptr - terms of entity i are
+           at positions indices[indptr[i]:indptr[i+1]] of terms (size
+           len(entity_ids) + 1) indices - position in terms of each assigned
+           term e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2":
+           ["go_term_2"]} is {"entity_ids": ["gene_id_1", "gene_id_2"],
+           "terms": ["go_term_1", "go_term_2"], "indptr": [0, 2, 3],
+           "indices": [0, 1, 1]}) -> structure: parameter "entity_ids" of
+           list of type "entity_guid", parameter "terms" of list of type
+           "term_guid", parameter "indptr" of list of Long, parameter
+           "indices" of list of Long, parameter "entity_term_set_handle" of
+           type "entity_term_set_handle" (Handle of an entity_term_set
+           registered with register_entity_term_set)
         :returns: instance of type "EnrichOnthologyOutput" (Ouput of the
            enrich_onthology function enrichment_profile: dict structure
            stores enrichment info e.g. {"go_term_1": {"sample_count": 10,
@@ -421,6 +601,60 @@ class kb_ke_util:
         # return the results
         return [returnVal]
 
+    def register_entity_term_set(self, ctx, params):
+        """
+        register_entity_term_set: keep an entity_term_set on the server as term to entities bitmaps,
+                                  for enrich_onthology calls with entity_term_set_handle
+        Registered sets are kept in server memory and scratch, least recently used sets are dropped
+        when over budget. enrich_onthology fails with an error naming the handle if it is no longer
+        registered: register the entity_term_set again and retry.
+        A term assigned twice to the same entity counts once with a handle.
+        :param params: instance of type "RegisterEntityTermSetParams" (Input
+           of the register_entity_term_set function entity_term_set: entity
+           terms dict structure (refer to enrich_onthology) Optional
+           arguments: encoded_entity_term_set: entity_term_set in dictionary
+           encoded form, used in place of entity_term_set) -> structure:
+           parameter "entity_term_set" of mapping from type "entity_guid" to
+           type "assigned_term_guids" -> list of String, parameter
+           "encoded_entity_term_set" of type "EncodedEntityTermSet"
+           (entity_term_set in dictionary encoded (CSR) form, each term sent
+           once entity_ids - entity guids (e.g. gene ids), each once terms -
+           term dictionary (e.g. GO term ids) indptr - terms of entity i are
+           at positions indices[indptr[i]:indptr[i+1]] of terms (size
+           len(entity_ids) + 1) indices - position in terms of each assigned
+           term e.g. {"gene_id_1": ["go_term_1", "go_term_2"], "gene_id_2":
+           ["go_term_2"]} is {"entity_ids": ["gene_id_1", "gene_id_2"],
+           "terms": ["go_term_1", "go_term_2"], "indptr": [0, 2, 3],
+           "indices": [0, 1, 1]}) -> structure: parameter "entity_ids" of
+           list of type "entity_guid", parameter "terms" of list of type
+           "term_guid", parameter "indptr" of list of Long, parameter
+           "indices" of list of Long
+        :returns: instance of type "RegisterEntityTermSetOutput" (Ouput of
+           the register_entity_term_set function entity_term_set_handle:
+           content hash of the entity_term_set, the same for every
+           registration of the same entity_term_set entity_count: number of
+           entities term_count: number of distinct terms) -> structure:
+           parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set), parameter "entity_count" of Long,
+           parameter "term_count" of Long
+        """
+        # ctx is the context object
+        # return variables are: returnVal
+        #BEGIN register_entity_term_set
+        self.config['KB_AUTH_TOKEN'] = ctx["token"]
+
+        ke_util = KnowledgeEngineUtil(self.config)
+        returnVal = ke_util.register_entity_term_set(params)
+        #END register_entity_term_set
+
+        # At some point might do deeper type checking...
+        if not isinstance(returnVal, dict):
+            raise ValueError('Method register_entity_term_set return value ' +
+                             'returnVal is not type dict as required.')
+        # return the results
+        return [returnVal]
+
     def calc_onthology_dist(self, ctx, params):
         """
         calc_onthology_dist: calculate onthology distance
@@ -430,9 +664,15 @@ class kb_ke_util:
         :param params: instance of type "CalcOnthologyDistParams" (Input of
            the calc_onthology_dist function onthology_set: dict structure
            stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
-           ["go_term_1", "go_term_2"]}) -> structure: parameter
-           "onthology_set" of mapping from type "gene_id" to type
-           "onthology_pair" -> list of String
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
         :returns: instance of type "CalcOnthologyDistOutput" (Ouput of the
            calc_onthology_dist function onthology_dist_set: dict structure
            stores mapping of gene_id to dist e.g. {"gene_id_1": 3}) ->
@@ -469,9 +709,15 @@ class kb_ke_util:
         :param params: instance of type "CalcOnthologyDistParams" (Input of
            the calc_onthology_dist function onthology_set: dict structure
            stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
-           ["go_term_1", "go_term_2"]}) -> structure: parameter
-           "onthology_set" of mapping from type "gene_id" to type
-           "onthology_pair" -> list of String
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
         :returns: instance of type "CalcOnthologyDistOutput" (Ouput of the
            calc_onthology_dist function onthology_dist_set: dict structure
            stores mapping of gene_id to dist e.g. {"gene_id_1": 3}) ->
@@ -497,12 +743,151 @@ class kb_ke_util:
                              'returnVal is not type dict as required.')
         # return the results
         return [returnVal]
+
+    def calc_resnik_onthology_sim(self, ctx, params):
+        """
+        calc_resnik_onthology_sim: calculate Resnik similarity
+                                   (information content of the most informative common ancestor)
+                                   NOTE: return 0 if no common ancestor node found
+        Information content of a term is -log(p) with p the frequency of the term:
+        with entity_term_set_handle, the fraction of the registered entities annotated with the term
+        or one of its descendants, (count + 1) / (entities + 1); without it, the fraction of ontology
+        terms that are the term or one of its descendants.
+        It is computed once per corpus, ancestors follow is_a relationships.
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        # ctx is the context object
+        # return variables are: returnVal
+        #BEGIN calc_resnik_onthology_sim
+        for key, value in params.iteritems():
+            if isinstance(value, basestring):
+                params[key] = value.strip()
+
+        self.config['KB_AUTH_TOKEN'] = ctx["token"]
+
+        ke_util = KnowledgeEngineUtil(self.config)
+        returnVal = ke_util.calc_resnik_onthology_sim(params)
+        #END calc_resnik_onthology_sim
+
+        # At some point might do deeper type checking...
+        if not isinstance(returnVal, dict):
+            raise ValueError('Method calc_resnik_onthology_sim return value ' +
+                             'returnVal is not type dict as required.')
+        # return the results
+        return [returnVal]
+
+    def calc_lin_onthology_sim(self, ctx, params):
+        """
+        calc_lin_onthology_sim: calculate Lin similarity
+        (2 * IC(most informative common ancestor) / (IC(term_1) + IC(term_2)),
+         from 0 to 1, information content IC as in calc_resnik_onthology_sim)
+        NOTE: return 0 if no common ancestor node found
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        # ctx is the context object
+        # return variables are: returnVal
+        #BEGIN calc_lin_onthology_sim
+        for key, value in params.iteritems():
+            if isinstance(value, basestring):
+                params[key] = value.strip()
+
+        self.config['KB_AUTH_TOKEN'] = ctx["token"]
+
+        ke_util = KnowledgeEngineUtil(self.config)
+        returnVal = ke_util.calc_lin_onthology_sim(params)
+        #END calc_lin_onthology_sim
+
+        # At some point might do deeper type checking...
+        if not isinstance(returnVal, dict):
+            raise ValueError('Method calc_lin_onthology_sim return value ' +
+                             'returnVal is not type dict as required.')
+        # return the results
+        return [returnVal]
+
+    def calc_jiang_conrath_onthology_dist(self, ctx, params):
+        """
+        calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath distance
+        (IC(term_1) + IC(term_2) -
+         2 * IC(most informative common ancestor),
+         information content IC as in calc_resnik_onthology_sim)
+        NOTE: return inf if no common ancestor node found
+        :param params: instance of type "CalcOnthologyDistParams" (Input of
+           the calc_onthology_dist function onthology_set: dict structure
+           stores mapping of gene_id to paried onthology e.g. {"gene_id_1":
+           ["go_term_1", "go_term_2"]} Optional arguments:
+           entity_term_set_handle: annotation corpus for the information
+           content of calc_resnik_onthology_sim, calc_lin_onthology_sim and
+           calc_jiang_conrath_onthology_dist (handle returned by
+           register_entity_term_set)) -> structure: parameter "onthology_set"
+           of mapping from type "gene_id" to type "onthology_pair" -> list of
+           String, parameter "entity_term_set_handle" of type
+           "entity_term_set_handle" (Handle of an entity_term_set registered
+           with register_entity_term_set)
+        :returns: instance of type "CalcOnthologyScoreOutput" (Ouput of the
+           information content based onthology functions onthology_score_set:
+           dict structure stores mapping of gene_id to score e.g.
+           {"gene_id_1": 2.3}) -> structure: parameter "onthology_score_set"
+           of mapping from type "gene_id" to Double
+        """
+        # ctx is the context object
+        # return variables are: returnVal
+        #BEGIN calc_jiang_conrath_onthology_dist
+        for key, value in params.iteritems():
+            if isinstance(value, basestring):
+                params[key] = value.strip()
+
+        self.config['KB_AUTH_TOKEN'] = ctx["token"]
+
+        ke_util = KnowledgeEngineUtil(self.config)
+        returnVal = ke_util.calc_jiang_conrath_onthology_dist(params)
+        #END calc_jiang_conrath_onthology_dist
+
+        # At some point might do deeper type checking...
+        if not isinstance(returnVal, dict):
+            raise ValueError('Method calc_jiang_conrath_onthology_dist return value ' +
+                             'returnVal is not type dict as required.')
+        # return the results
+        return [returnVal]
     def status(self, ctx):
         #BEGIN_STATUS
         returnVal = {'state': "OK",
                      'message': "",
                      'version': self.VERSION,
                      'git_url': self.GIT_URL,
-                     'git_commit_hash': self.GIT_COMMIT_HASH}
+                     'git_commit_hash': self.GIT_COMMIT_HASH,
+                     'result_cache': KnowledgeEngineUtil.result_cache_stats(),
+                     'term_bitmap_cache': KnowledgeEngineUtil.term_bitmap_cache_stats()}
         #END_STATUS
         return [returnVal]
@@ -357,6 +357,10 @@ class Application(object):
                              name='kb_ke_util.run_fcluster',
                              types=[dict])
         self.method_authentication['kb_ke_util.run_fcluster'] = 'required'  # noqa
+        self.rpc_service.add(impl_kb_ke_util.run_fcluster_sweep,
+                             name='kb_ke_util.run_fcluster_sweep',
+                             types=[dict])
+        self.method_authentication['kb_ke_util.run_fcluster_sweep'] = 'required'  # noqa
         self.rpc_service.add(impl_kb_ke_util.run_dendrogram,
                              name='kb_ke_util.run_dendrogram',
                              types=[dict])
@@ -369,6 +373,10 @@ class Application(object):
                              name='kb_ke_util.enrich_onthology',
                              types=[dict])
         self.method_authentication['kb_ke_util.enrich_onthology'] = 'required'  # noqa
+        self.rpc_service.add(impl_kb_ke_util.register_entity_term_set,
+                             name='kb_ke_util.register_entity_term_set',
+                             types=[dict])
+        self.method_authentication['kb_ke_util.register_entity_term_set'] = 'required'  # noqa
         self.rpc_service.add(impl_kb_ke_util.calc_onthology_dist,
                              name='kb_ke_util.calc_onthology_dist',
                              types=[dict])
@@ -377,6 +385,18 @@ class Application(object):
                              name='kb_ke_util.calc_weighted_onthology_dist',
                              types=[dict])
         self.method_authentication['kb_ke_util.calc_weighted_onthology_dist'] = 'required'  # noqa
+        self.rpc_service.add(impl_kb_ke_util.calc_resnik_onthology_sim,
+                             name='kb_ke_util.calc_resnik_onthology_sim',
+                             types=[dict])
+        self.method_authentication['kb_ke_util.calc_resnik_onthology_sim'] = 'required'  # noqa
+        self.rpc_service.add(impl_kb_ke_util.calc_lin_onthology_sim,
+                             name='kb_ke_util.calc_lin_onthology_sim',
+                             types=[dict])
+        self.method_authentication['kb_ke_util.calc_lin_onthology_sim'] = 'required'  # noqa
+        self.rpc_service.add(impl_kb_ke_util.calc_jiang_conrath_onthology_dist,
+                             name='kb_ke_util.calc_jiang_conrath_onthology_dist',
+                             types=[dict])
+        self.method_authentication['kb_ke_util.calc_jiang_conrath_onthology_dist'] = 'required'  # noqa
         self.rpc_service.add(impl_kb_ke_util.status,
                              name='kb_ke_util.status',
                              types=[dict])
@@ -0,0 +1,43 @@
+"""
+WSGI entry point of the kb_ke_util service: the generated server application wrapped in
+RpcTransport (refer to Utils/RpcTransport.py). kb_ke_utilServer.py is regenerated by
+kb-sdk compile, this module is not.
+
+To run it in uwsgi with 4 workers listening on port 9999:
+uwsgi -M -p 4 --http :9999 --wsgi-file _this_file_
+To run it in the single threaded python BaseHTTP service listening on port 9999 by default,
+execute this file (optionally with --host and --port).
+"""
+import sys
+from getopt import getopt, GetoptError
+from wsgiref.simple_server import make_server
+
+from kb_ke_util import kb_ke_utilServer
+from kb_ke_util.Utils.RpcTransport import RpcTransport
+
+application = RpcTransport(kb_ke_utilServer.application)
+
+try:
+    import uwsgi
+    # the server module registers its own application on import, serve the wrapped one
+    uwsgi.applications = {'': application}
+except ImportError:
+    # Not available outside of wsgi, ignore
+    pass
+
+if __name__ == "__main__":
+    try:
+        opts, args = getopt(sys.argv[1:], "", ["port=", "host="])
+    except GetoptError as err:
+        print(str(err))
+        sys.exit(2)
+    port = 9999
+    host = 'localhost'
+    for o, a in opts:
+        if o == '--port':
+            port = int(a)
+        elif o == '--host':
+            host = a
+    httpd = make_server(host, port, application)
+    print("Listening on port %s" % httpd.server_address[1])
+    httpd.serve_forever()
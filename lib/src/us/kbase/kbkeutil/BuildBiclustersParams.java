@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -60,7 +62,7 @@ public class BuildBiclustersParams {
     private String linkageMethod;
     @JsonProperty("fcluster_criterion")
     private String fclusterCriterion;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("ndarray_ref")
     public String getNdarrayRef() {
@@ -137,19 +139,27 @@ public class BuildBiclustersParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((((((((("BuildBiclustersParams"+" [ndarrayRef=")+ ndarrayRef)+", distThreshold=")+ distThreshold)+", distMetric=")+ distMetric)+", linkageMethod=")+ linkageMethod)+", fclusterCriterion=")+ fclusterCriterion)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((("BuildBiclustersParams"+" [ndarrayRef=")+ ndarrayRef)+", distThreshold=")+ distThreshold)+", distMetric=")+ distMetric)+", linkageMethod=")+ linkageMethod)+", fclusterCriterion=")+ fclusterCriterion)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -29,7 +31,7 @@ public class CalcOnthologyDistOutput {
 
     @JsonProperty("onthology_dist_set")
     private Map<String, Long> onthologyDistSet;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("onthology_dist_set")
     public Map<String, Long> getOnthologyDistSet() {
@@ -46,19 +48,27 @@ public class CalcOnthologyDistOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((("CalcOnthologyDistOutput"+" [onthologyDistSet=")+ onthologyDistSet)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((("CalcOnthologyDistOutput"+" [onthologyDistSet=")+ onthologyDistSet)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -18,19 +20,27 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * Input of the calc_onthology_dist function
  * onthology_set: dict structure stores mapping of gene_id to paried onthology
  *                e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
+ * Optional arguments:
+ * entity_term_set_handle: annotation corpus for the information content of
+ *                         calc_resnik_onthology_sim, calc_lin_onthology_sim and
+ *                         calc_jiang_conrath_onthology_dist
+ *                         (handle returned by register_entity_term_set)
  * </pre>
  * 
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
-    "onthology_set"
+    "onthology_set",
+    "entity_term_set_handle"
 })
 public class CalcOnthologyDistParams {
 
     @JsonProperty("onthology_set")
     private Map<String, List<String>> onthologySet;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("entity_term_set_handle")
+    private java.lang.String entityTermSetHandle;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("onthology_set")
     public Map<String, List<String>> getOnthologySet() {
@@ -47,19 +57,42 @@ public class CalcOnthologyDistParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("entity_term_set_handle")
+    public java.lang.String getEntityTermSetHandle() {
+        return entityTermSetHandle;
+    }
+
+    @JsonProperty("entity_term_set_handle")
+    public void setEntityTermSetHandle(java.lang.String entityTermSetHandle) {
+        this.entityTermSetHandle = entityTermSetHandle;
+    }
+
+    public CalcOnthologyDistParams withEntityTermSetHandle(java.lang.String entityTermSetHandle) {
+        this.entityTermSetHandle = entityTermSetHandle;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((("CalcOnthologyDistParams"+" [onthologySet=")+ onthologySet)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((("CalcOnthologyDistParams"+" [onthologySet=")+ onthologySet)+", entityTermSetHandle=")+ entityTermSetHandle)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
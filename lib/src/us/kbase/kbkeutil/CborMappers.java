@@ -0,0 +1,56 @@
+package us.kbase.kbkeutil;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+
+/**
+ * <p>The shared CBOR mapper of KbKeUtilMappers, built on first use.</p>
+ * <pre>
+ * Only this class and its Holder refer to jackson-dataformat-cbor, and the
+ * Holder is initialized by the first CBOR call, so clients that never enable
+ * CBOR load without the jar.
+ * </pre>
+ */
+final class CborMappers {
+
+    private CborMappers() {
+    }
+
+    static ObjectMapper mapper() {
+        return holder().mapper;
+    }
+
+    static ObjectWriter writer() {
+        return holder().writer;
+    }
+
+    static <T> ObjectReader reader(TypeReference<T> type) {
+        Holder holder = holder();
+        return KbKeUtilMappers.reader(holder.mapper, holder.readers, type);
+    }
+
+    private static Holder holder() {
+        if (!KbKeUtilMappers.isCborAvailable()) {
+            throw new UnsupportedOperationException(
+                "CBOR needs jackson-dataformat-cbor on the classpath");
+        }
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+
+        static final Holder INSTANCE = new Holder();
+
+        final ObjectMapper mapper = KbKeUtilMappers.configure(new ObjectMapper(new CBORFactory()));
+        final ObjectWriter writer = mapper.writer();
+        final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<Type, ObjectReader>();
+    }
+}
@@ -0,0 +1,46 @@
+package us.kbase.kbkeutil;
+
+
+/**
+ * <p>Flight recorder events of the client, without a compile or load time dependency on jdk.jfr.</p>
+ * <pre>
+ * INSTANCE is a JfrClientEvents, which emits RpcCallEvent and
+ * LinkageCodecEvent, if it can be loaded; on a runtime without jdk.jfr
+ * (e.g. Java 8) it is this class, whose methods do nothing. Only
+ * JfrClientEvents and the event classes refer to jdk.jfr, so the rest of
+ * the client loads on Java 8.
+ * A begin method returns an event only if a recording has enabled it, and
+ * null otherwise; the matching end method takes that value.
+ * </pre>
+ */
+class ClientEvents {
+
+    static final ClientEvents INSTANCE = load();
+
+    private static ClientEvents load() {
+        try {
+            // the event classes are only resolved on first use, check for their superclass here
+            Class.forName("jdk.jfr.Event");
+            return (ClientEvents) Class.forName("us.kbase.kbkeutil.JfrClientEvents")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ClientEvents();
+        }
+    }
+
+    Object beginRpcCall() {
+        return null;
+    }
+
+    void endRpcCall(Object event, String method, String transport, boolean cbor,
+            long requestBytes, long responseBytes, long serializeNanos, long waitNanos,
+            long deserializeNanos, Throwable error) {
+    }
+
+    Object beginLinkageCodec() {
+        return null;
+    }
+
+    void endLinkageCodec(Object event, String operation, long rows, long bytes) {
+    }
+}
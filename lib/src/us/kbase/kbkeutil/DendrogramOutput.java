@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -29,7 +31,7 @@ public class DendrogramOutput {
 
     @JsonProperty("result_plots")
     private List<String> resultPlots;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("result_plots")
     public List<String> getResultPlots() {
@@ -46,19 +48,27 @@ public class DendrogramOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((("DendrogramOutput"+" [resultPlots=")+ resultPlots)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((("DendrogramOutput"+" [resultPlots=")+ resultPlots)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
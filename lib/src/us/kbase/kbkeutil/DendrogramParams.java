@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -22,6 +24,16 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * labels - items corresponding to each linkage_matrix element 
  *          (If labels are given, result dendrogram x-axis will be mapped to element in labels.)
  * last_merges - show only last given value merged clusters
+ * output_format - "png" (default, matplotlib), "svg" or "json"
+ *                 "svg" and "json" are laid out in a single pass over the linkage matrix and
+ *                 written to the output file as they are placed ("json" writes one node
+ *                 object per line, children before their parent)
+ * width - output width in pixels for "svg" and "json". Default set to 2500.
+ * height - output height in pixels for "svg" and "json". Default set to 1000.
+ * min_pixels - subtrees narrower than min_pixels are drawn as one collapsed node
+ *              for "svg" and "json". Default set to 1.0.
+ * packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+ *                         (refer to run_linkage return with packed_output)
  * </pre>
  * 
  */
@@ -31,46 +43,61 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
     "linkage_matrix",
     "dist_threshold",
     "labels",
-    "last_merges"
+    "last_merges",
+    "output_format",
+    "width",
+    "height",
+    "min_pixels",
+    "packed_linkage_matrix"
 })
 public class DendrogramParams {
 
     @JsonProperty("linkage_matrix")
-    private List<List<String>> linkageMatrix;
+    private List<List<Double>> linkageMatrix;
     @JsonProperty("dist_threshold")
-    private Double distThreshold;
+    private java.lang.Double distThreshold;
     @JsonProperty("labels")
     private List<String> labels;
     @JsonProperty("last_merges")
     private Long lastMerges;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("output_format")
+    private java.lang.String outputFormat;
+    @JsonProperty("width")
+    private Long width;
+    @JsonProperty("height")
+    private Long height;
+    @JsonProperty("min_pixels")
+    private java.lang.Double minPixels;
+    @JsonProperty("packed_linkage_matrix")
+    private java.lang.String packedLinkageMatrix;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("linkage_matrix")
-    public List<List<String>> getLinkageMatrix() {
+    public List<List<Double>> getLinkageMatrix() {
         return linkageMatrix;
     }
 
     @JsonProperty("linkage_matrix")
-    public void setLinkageMatrix(List<List<String>> linkageMatrix) {
+    public void setLinkageMatrix(List<List<Double>> linkageMatrix) {
         this.linkageMatrix = linkageMatrix;
     }
 
-    public DendrogramParams withLinkageMatrix(List<List<String>> linkageMatrix) {
+    public DendrogramParams withLinkageMatrix(List<List<Double>> linkageMatrix) {
         this.linkageMatrix = linkageMatrix;
         return this;
     }
 
     @JsonProperty("dist_threshold")
-    public Double getDistThreshold() {
+    public java.lang.Double getDistThreshold() {
         return distThreshold;
     }
 
     @JsonProperty("dist_threshold")
-    public void setDistThreshold(Double distThreshold) {
+    public void setDistThreshold(java.lang.Double distThreshold) {
         this.distThreshold = distThreshold;
     }
 
-    public DendrogramParams withDistThreshold(Double distThreshold) {
+    public DendrogramParams withDistThreshold(java.lang.Double distThreshold) {
         this.distThreshold = distThreshold;
         return this;
     }
@@ -105,19 +132,102 @@ public class DendrogramParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("output_format")
+    public java.lang.String getOutputFormat() {
+        return outputFormat;
+    }
+
+    @JsonProperty("output_format")
+    public void setOutputFormat(java.lang.String outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    public DendrogramParams withOutputFormat(java.lang.String outputFormat) {
+        this.outputFormat = outputFormat;
+        return this;
+    }
+
+    @JsonProperty("width")
+    public Long getWidth() {
+        return width;
+    }
+
+    @JsonProperty("width")
+    public void setWidth(Long width) {
+        this.width = width;
+    }
+
+    public DendrogramParams withWidth(Long width) {
+        this.width = width;
+        return this;
+    }
+
+    @JsonProperty("height")
+    public Long getHeight() {
+        return height;
+    }
+
+    @JsonProperty("height")
+    public void setHeight(Long height) {
+        this.height = height;
+    }
+
+    public DendrogramParams withHeight(Long height) {
+        this.height = height;
+        return this;
+    }
+
+    @JsonProperty("min_pixels")
+    public java.lang.Double getMinPixels() {
+        return minPixels;
+    }
+
+    @JsonProperty("min_pixels")
+    public void setMinPixels(java.lang.Double minPixels) {
+        this.minPixels = minPixels;
+    }
+
+    public DendrogramParams withMinPixels(java.lang.Double minPixels) {
+        this.minPixels = minPixels;
+        return this;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public java.lang.String getPackedLinkageMatrix() {
+        return packedLinkageMatrix;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public void setPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+    }
+
+    public DendrogramParams withPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((((((((("DendrogramParams"+" [linkageMatrix=")+ linkageMatrix)+", distThreshold=")+ distThreshold)+", labels=")+ labels)+", lastMerges=")+ lastMerges)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((((((((((("DendrogramParams"+" [linkageMatrix=")+ linkageMatrix)+", distThreshold=")+ distThreshold)+", labels=")+ labels)+", lastMerges=")+ lastMerges)+", outputFormat=")+ outputFormat)+", width=")+ width)+", height=")+ height)+", minPixels=")+ minPixels)+", packedLinkageMatrix=")+ packedLinkageMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -22,6 +24,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  *                  e.g. {"gene_id_1": ["go_term_1", "go_term_2"]}
  * Optional arguments:
  * propagation: includes is_a relationship to all go terms (default is 0)
+ * encoded_entity_term_set: entity_term_set in dictionary encoded form, used in place of
+ *                          entity_term_set
+ * entity_term_set_handle: handle returned by register_entity_term_set, used in place of
+ *                         entity_term_set
  * </pre>
  * 
  */
@@ -30,7 +36,9 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @JsonPropertyOrder({
     "sample_set",
     "entity_term_set",
-    "propagation"
+    "propagation",
+    "encoded_entity_term_set",
+    "entity_term_set_handle"
 })
 public class EnrichOnthologyParams {
 
@@ -40,7 +48,11 @@ public class EnrichOnthologyParams {
     private Map<String, List<String>> entityTermSet;
     @JsonProperty("propagation")
     private Long propagation;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("encoded_entity_term_set")
+    private EncodedEntityTermSet encodedEntityTermSet;
+    @JsonProperty("entity_term_set_handle")
+    private java.lang.String entityTermSetHandle;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("sample_set")
     public List<String> getSampleSet() {
@@ -87,19 +99,57 @@ public class EnrichOnthologyParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("encoded_entity_term_set")
+    public EncodedEntityTermSet getEncodedEntityTermSet() {
+        return encodedEntityTermSet;
+    }
+
+    @JsonProperty("encoded_entity_term_set")
+    public void setEncodedEntityTermSet(EncodedEntityTermSet encodedEntityTermSet) {
+        this.encodedEntityTermSet = encodedEntityTermSet;
+    }
+
+    public EnrichOnthologyParams withEncodedEntityTermSet(EncodedEntityTermSet encodedEntityTermSet) {
+        this.encodedEntityTermSet = encodedEntityTermSet;
+        return this;
+    }
+
+    @JsonProperty("entity_term_set_handle")
+    public java.lang.String getEntityTermSetHandle() {
+        return entityTermSetHandle;
+    }
+
+    @JsonProperty("entity_term_set_handle")
+    public void setEntityTermSetHandle(java.lang.String entityTermSetHandle) {
+        this.entityTermSetHandle = entityTermSetHandle;
+    }
+
+    public EnrichOnthologyParams withEntityTermSetHandle(java.lang.String entityTermSetHandle) {
+        this.entityTermSetHandle = entityTermSetHandle;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((((((("EnrichOnthologyParams"+" [sampleSet=")+ sampleSet)+", entityTermSet=")+ entityTermSet)+", propagation=")+ propagation)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((("EnrichOnthologyParams"+" [sampleSet=")+ sampleSet)+", entityTermSet=")+ entityTermSet)+", propagation=")+ propagation)+", encodedEntityTermSet=")+ encodedEntityTermSet)+", entityTermSetHandle=")+ entityTermSetHandle)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -0,0 +1,402 @@
+package us.kbase.kbkeutil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+
+/**
+ * <p>Columnar form of an enrich_onthology output.</p>
+ * <pre>
+ * Holds the enrichment_profile as parallel arrays indexed by row: term ids,
+ * sample/total/expected counts, p-values and ontology types, instead of one
+ * TermEnrichment object (and boxed fields) per term.
+ * Term ids are the field names of enrichment_profile, which Jackson
+ * canonicalizes, so a term id decoded again is the same String instance.
+ * The table is decoded with a streaming parser, either as the result of
+ * KbKeUtilClient.enrichOnthologyTable or from any JSON or CBOR parser with
+ * the mapper of your choice:
+ *
+ *   EnrichmentTable table = client.enrichOnthologyTable(params);
+ *   int[] order = table.getPValueOrder();
+ *   for (int i = 0, n = table.countPValueAtMost(0.05); i < n; i++) {
+ *       int row = order[i];
+ *       ... table.getTermId(row), table.getPValue(row) ...
+ *   }
+ * </pre>
+ *
+ */
+@JsonDeserialize(using = EnrichmentTable.Deserializer.class)
+public class EnrichmentTable {
+
+    /** Ontology type of terms missing from the ontology. */
+    public static final byte NO_ONTOLOGY_TYPE = 0;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final String[] termIds;
+    private final int[] sampleCounts;
+    private final int[] totalCounts;
+    private final int[] expectedCounts;
+    private final double[] pValues;
+    private final byte[] ontologyTypes;
+    private final int size;
+    private volatile int[] pValueOrder;
+
+    /**
+     * <p>Table over the given columns, which are not copied.</p>
+     * @param   size   number of rows, at most the length of every column.
+     */
+    public EnrichmentTable(String[] termIds, int[] sampleCounts, int[] totalCounts,
+            int[] expectedCounts, double[] pValues, byte[] ontologyTypes, int size) {
+        if (size < 0 || termIds.length < size || sampleCounts.length < size ||
+                totalCounts.length < size || expectedCounts.length < size ||
+                pValues.length < size || ontologyTypes.length < size) {
+            throw new IllegalArgumentException("all columns must have at least " + size + " rows");
+        }
+        this.termIds = termIds;
+        this.sampleCounts = sampleCounts;
+        this.totalCounts = totalCounts;
+        this.expectedCounts = expectedCounts;
+        this.pValues = pValues;
+        this.ontologyTypes = ontologyTypes;
+        this.size = size;
+    }
+
+    /**
+     * <p>Columnar copy of an enrich_onthology output.</p>
+     * @param   output   enrich_onthology output.
+     * @return   the table, rows in the order of enrichment_profile.
+     */
+    public static EnrichmentTable of(EnrichOnthologyOutput output) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, TermEnrichment> term : output.getEnrichmentProfile().entrySet()) {
+            TermEnrichment enrichment = term.getValue();
+            Object ontologyType = enrichment.getAdditionalProperties().get("ontology_type");
+            builder.add(term.getKey(),
+                toInt(enrichment.getSampleCount()),
+                toInt(enrichment.getTotalCount()),
+                toInt(enrichment.getExpectedCount()),
+                enrichment.getPValue() == null ? Double.NaN : enrichment.getPValue(),
+                ontologyType == null ? NO_ONTOLOGY_TYPE : toOntologyType(ontologyType.toString()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * <p>Decodes an enrich_onthology output, the parser positioned on its START_OBJECT.</p>
+     * Members other than enrichment_profile are skipped.
+     * @param   parser   JSON or CBOR parser.
+     * @return   the table, rows in the order of enrichment_profile.
+     * @throws IOException if the input is not an enrich_onthology output.
+     */
+    public static EnrichmentTable decode(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null) {
+            parser.nextToken();
+        }
+        expect(parser, JsonToken.START_OBJECT);
+        EnrichmentTable table = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if ("enrichment_profile".equals(name)) {
+                table = decodeProfile(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (table == null) {
+            throw new IOException("enrich_onthology output has no enrichment_profile");
+        }
+        return table;
+    }
+
+    private static EnrichmentTable decodeProfile(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        Builder builder = new Builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String termId = parser.getCurrentName();
+            parser.nextToken();
+            expect(parser, JsonToken.START_OBJECT);
+            int sampleCount = 0;
+            int totalCount = 0;
+            int expectedCount = 0;
+            double pValue = Double.NaN;
+            byte ontologyType = NO_ONTOLOGY_TYPE;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if ("sample_count".equals(name)) {
+                    sampleCount = parser.getValueAsInt();
+                } else if ("total_count".equals(name)) {
+                    totalCount = parser.getValueAsInt();
+                } else if ("expected_count".equals(name)) {
+                    expectedCount = parser.getValueAsInt();
+                } else if ("p_value".equals(name)) {
+                    pValue = parser.getValueAsDouble(Double.NaN);
+                } else if ("ontology_type".equals(name) && value == JsonToken.VALUE_STRING) {
+                    // first character read in place, no String per term
+                    if (parser.getTextLength() > 0) {
+                        ontologyType = (byte) parser.getTextCharacters()[parser.getTextOffset()];
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            builder.add(termId, sampleCount, totalCount, expectedCount, pValue, ontologyType);
+        }
+        return builder.build();
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new IOException("Expected " + token + " but found " + parser.currentToken() +
+                " at " + parser.getCurrentLocation());
+        }
+    }
+
+    private static int toInt(Long value) {
+        return value == null ? 0 : (int) value.longValue();
+    }
+
+    private static byte toOntologyType(String ontologyType) {
+        return ontologyType.isEmpty() ? NO_ONTOLOGY_TYPE : (byte) ontologyType.charAt(0);
+    }
+
+    /** @return the number of terms. */
+    public int size() {
+        return size;
+    }
+
+    public String getTermId(int row) {
+        checkRow(row);
+        return termIds[row];
+    }
+
+    public int getSampleCount(int row) {
+        checkRow(row);
+        return sampleCounts[row];
+    }
+
+    public int getTotalCount(int row) {
+        checkRow(row);
+        return totalCounts[row];
+    }
+
+    public int getExpectedCount(int row) {
+        checkRow(row);
+        return expectedCounts[row];
+    }
+
+    /** @return the p-value of a term, NaN if the server returned none. */
+    public double getPValue(int row) {
+        checkRow(row);
+        return pValues[row];
+    }
+
+    /**
+     * <p>Ontology type of a term.</p>
+     * @return   'P' (biological process), 'F' (molecular function), 'C' (cellular component),
+     *   or NO_ONTOLOGY_TYPE if the term is not in the ontology.
+     */
+    public byte getOntologyType(int row) {
+        checkRow(row);
+        return ontologyTypes[row];
+    }
+
+    /**
+     * <p>Rows sorted by ascending p-value, ties in table order, NaN p-values last.</p>
+     * The order is computed on first use and shared, do not modify it.
+     * @return   row indices.
+     */
+    public int[] getPValueOrder() {
+        int[] order = pValueOrder;
+        if (order == null) {
+            order = sortByPValue();
+            pValueOrder = order;
+        }
+        return order;
+    }
+
+    /**
+     * <p>Number of terms with a p-value at most maxPValue.</p>
+     * They are the first rows of getPValueOrder().
+     * @param   maxPValue   p-value cutoff, inclusive.
+     * @return   the number of terms.
+     */
+    public int countPValueAtMost(double maxPValue) {
+        int[] order = getPValueOrder();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (pValues[order[middle]] <= maxPValue) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * <p>Rows of the terms with a p-value at most maxPValue, by ascending p-value.</p>
+     * @param   maxPValue   p-value cutoff, inclusive.
+     * @return   a new array of row indices.
+     */
+    public int[] filterPValueAtMost(double maxPValue) {
+        return Arrays.copyOf(getPValueOrder(), countPValueAtMost(maxPValue));
+    }
+
+    /**
+     * <p>Rows of the terms of one ontology type, in table order.</p>
+     * @param   ontologyType   'P', 'F', 'C' or NO_ONTOLOGY_TYPE.
+     * @return   a new array of row indices.
+     */
+    public int[] filterOntologyType(byte ontologyType) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (ontologyTypes[row] == ontologyType) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * <p>Row of a term, by linear scan.</p>
+     * @param   termId   term id, e.g. GO:0008150.
+     * @return   the row, or -1 if the term is not in the table.
+     */
+    public int indexOf(String termId) {
+        for (int row = 0; row < size; row++) {
+            if (termIds[row].equals(termId)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>Row-oriented copy of the table.</p>
+     * @return   enrich_onthology output with the same terms.
+     */
+    public EnrichOnthologyOutput toOutput() {
+        Map<String, TermEnrichment> enrichmentProfile =
+            new LinkedHashMap<String, TermEnrichment>(size * 4 / 3 + 1);
+        for (int row = 0; row < size; row++) {
+            TermEnrichment enrichment = new TermEnrichment()
+                .withSampleCount((long) sampleCounts[row])
+                .withTotalCount((long) totalCounts[row])
+                .withExpectedCount((long) expectedCounts[row])
+                .withPValue(Double.isNaN(pValues[row]) ? null : pValues[row]);
+            enrichment.setAdditionalProperties("ontology_type",
+                ontologyTypes[row] == NO_ONTOLOGY_TYPE ? null : String.valueOf((char) ontologyTypes[row]));
+            enrichmentProfile.put(termIds[row], enrichment);
+        }
+        return new EnrichOnthologyOutput().withEnrichmentProfile(enrichmentProfile);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+    }
+
+    // merge sort of row indices keyed by p-value, stable and without boxing
+    private int[] sortByPValue() {
+        int[] order = new int[size];
+        for (int row = 0; row < size; row++) {
+            order[row] = row;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, size);
+                if (Double.compare(pValues[order[middle - 1]], pValues[order[middle]]) <= 0) {
+                    continue;
+                }
+                int left = low;
+                int right = middle;
+                int out = low;
+                while (left < middle && right < high) {
+                    buffer[out++] = Double.compare(pValues[order[right]], pValues[order[left]]) < 0 ?
+                        order[right++] : order[left++];
+                }
+                while (left < middle) {
+                    buffer[out++] = order[left++];
+                }
+                while (right < high) {
+                    buffer[out++] = order[right++];
+                }
+                System.arraycopy(buffer, low, order, low, high - low);
+            }
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "EnrichmentTable [size=" + size + "]";
+    }
+
+    /** Growable columns, filled one term at a time. */
+    private static class Builder {
+
+        private String[] termIds = new String[INITIAL_CAPACITY];
+        private int[] sampleCounts = new int[INITIAL_CAPACITY];
+        private int[] totalCounts = new int[INITIAL_CAPACITY];
+        private int[] expectedCounts = new int[INITIAL_CAPACITY];
+        private double[] pValues = new double[INITIAL_CAPACITY];
+        private byte[] ontologyTypes = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        void add(String termId, int sampleCount, int totalCount, int expectedCount,
+                double pValue, byte ontologyType) {
+            if (size == termIds.length) {
+                int capacity = size * 2;
+                termIds = Arrays.copyOf(termIds, capacity);
+                sampleCounts = Arrays.copyOf(sampleCounts, capacity);
+                totalCounts = Arrays.copyOf(totalCounts, capacity);
+                expectedCounts = Arrays.copyOf(expectedCounts, capacity);
+                pValues = Arrays.copyOf(pValues, capacity);
+                ontologyTypes = Arrays.copyOf(ontologyTypes, capacity);
+            }
+            termIds[size] = termId;
+            sampleCounts[size] = sampleCount;
+            totalCounts[size] = totalCount;
+            expectedCounts[size] = expectedCount;
+            pValues[size] = pValue;
+            ontologyTypes[size] = ontologyType;
+            size++;
+        }
+
+        EnrichmentTable build() {
+            return new EnrichmentTable(termIds, sampleCounts, totalCounts, expectedCounts,
+                pValues, ontologyTypes, size);
+        }
+    }
+
+    /** Jackson deserializer decoding the table with decode(parser). */
+    public static class Deserializer extends JsonDeserializer<EnrichmentTable> {
+
+        @Override
+        public EnrichmentTable deserialize(JsonParser parser, DeserializationContext context)
+                throws IOException {
+            return decode(parser);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package us.kbase.kbkeutil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>Client helper for the dictionary encoded entity_term_set of enrich_onthology.</p>
+ * <pre>
+ * encode() sends each term id once, in a term dictionary, and each entity's
+ * terms as positions in it. Encode the entity_term_set of a genome once and
+ * pass the same EncodedEntityTermSet with every sample_set:
+ *
+ *   EncodedEntityTermSet encoded = EntityTermSets.encode(entityTermSet);
+ *   for (List&lt;String&gt; sampleSet : clusters) {
+ *       client.enrichOnthology(new EnrichOnthologyParams()
+ *           .withSampleSet(sampleSet).withEncodedEntityTermSet(encoded));
+ *   }
+ * </pre>
+ *
+ */
+public final class EntityTermSets {
+
+    private EntityTermSets() {
+    }
+
+    /**
+     * <p>Dictionary encodes an entity_term_set.</p>
+     * Terms are numbered in order of first appearance.
+     * @param   entityTermSet   entity guid -> assigned term guids.
+     * @return   the encoded entity_term_set, entities in iteration order.
+     */
+    public static EncodedEntityTermSet encode(Map<String, List<String>> entityTermSet) {
+        Map<String, Long> termPositions = new HashMap<String, Long>();
+        List<String> entityIds = new ArrayList<String>(entityTermSet.size());
+        List<String> terms = new ArrayList<String>();
+        List<Long> indptr = new ArrayList<Long>(entityTermSet.size() + 1);
+        List<Long> indices = new ArrayList<Long>();
+        indptr.add(0L);
+        for (Map.Entry<String, List<String>> entity : entityTermSet.entrySet()) {
+            entityIds.add(entity.getKey());
+            for (String term : entity.getValue()) {
+                Long position = termPositions.get(term);
+                if (position == null) {
+                    position = (long) terms.size();
+                    termPositions.put(term, position);
+                    terms.add(term);
+                }
+                // boxed once per distinct term, shared by every entity assigned to it
+                indices.add(position);
+            }
+            indptr.add((long) indices.size());
+        }
+        return new EncodedEntityTermSet().withEntityIds(entityIds).withTerms(terms)
+            .withIndptr(indptr).withIndices(indices);
+    }
+
+    /**
+     * <p>Decodes an encoded entity_term_set.</p>
+     * @param   encoded   the encoded entity_term_set.
+     * @return   entity guid -> assigned term guids, entities in the order of entity_ids.
+     */
+    public static Map<String, List<String>> decode(EncodedEntityTermSet encoded) {
+        List<String> entityIds = encoded.getEntityIds();
+        List<String> terms = encoded.getTerms();
+        List<Long> indptr = encoded.getIndptr();
+        List<Long> indices = encoded.getIndices();
+        if (indptr.size() != entityIds.size() + 1) {
+            throw new IllegalArgumentException("indptr must have " + (entityIds.size() + 1) +
+                " values, got " + indptr.size());
+        }
+        Map<String, List<String>> entityTermSet =
+            new LinkedHashMap<String, List<String>>(entityIds.size() * 4 / 3 + 1);
+        for (int i = 0; i < entityIds.size(); i++) {
+            int start = indptr.get(i).intValue();
+            int end = indptr.get(i + 1).intValue();
+            List<String> entityTerms = new ArrayList<String>(Math.max(end - start, 0));
+            for (int k = start; k < end; k++) {
+                entityTerms.add(terms.get(indices.get(k).intValue()));
+            }
+            entityTermSet.put(entityIds.get(i), entityTerms);
+        }
+        return entityTermSet;
+    }
+
+}
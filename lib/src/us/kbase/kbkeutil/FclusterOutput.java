@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -19,19 +21,33 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * flat_cluster - A dictionary of flat clusters.
  *                Each element of flat_cluster representing a cluster contains a label array. 
  *                (If labels is none, element position array is returned to each cluster group)
+ * with compact_output set, flat_cluster is omitted and the clusters are returned as:
+ * cluster_assignment - cluster id (1 based) of each element, aligned with labels
+ * cluster_offsets - cluster boundaries in cluster_members, starting with 0,
+ *                   cluster id i spans cluster_members[cluster_offsets[i - 1]:cluster_offsets[i]]
+ * cluster_members - element positions grouped by cluster id
  * </pre>
  * 
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
-    "flat_cluster"
+    "flat_cluster",
+    "cluster_assignment",
+    "cluster_offsets",
+    "cluster_members"
 })
 public class FclusterOutput {
 
     @JsonProperty("flat_cluster")
     private Map<String, List<String>> flatCluster;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("cluster_assignment")
+    private List<Long> clusterAssignment;
+    @JsonProperty("cluster_offsets")
+    private List<Long> clusterOffsets;
+    @JsonProperty("cluster_members")
+    private List<Long> clusterMembers;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("flat_cluster")
     public Map<String, List<String>> getFlatCluster() {
@@ -48,19 +64,72 @@ public class FclusterOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("cluster_assignment")
+    public List<Long> getClusterAssignment() {
+        return clusterAssignment;
+    }
+
+    @JsonProperty("cluster_assignment")
+    public void setClusterAssignment(List<Long> clusterAssignment) {
+        this.clusterAssignment = clusterAssignment;
+    }
+
+    public FclusterOutput withClusterAssignment(List<Long> clusterAssignment) {
+        this.clusterAssignment = clusterAssignment;
+        return this;
+    }
+
+    @JsonProperty("cluster_offsets")
+    public List<Long> getClusterOffsets() {
+        return clusterOffsets;
+    }
+
+    @JsonProperty("cluster_offsets")
+    public void setClusterOffsets(List<Long> clusterOffsets) {
+        this.clusterOffsets = clusterOffsets;
+    }
+
+    public FclusterOutput withClusterOffsets(List<Long> clusterOffsets) {
+        this.clusterOffsets = clusterOffsets;
+        return this;
+    }
+
+    @JsonProperty("cluster_members")
+    public List<Long> getClusterMembers() {
+        return clusterMembers;
+    }
+
+    @JsonProperty("cluster_members")
+    public void setClusterMembers(List<Long> clusterMembers) {
+        this.clusterMembers = clusterMembers;
+    }
+
+    public FclusterOutput withClusterMembers(List<Long> clusterMembers) {
+        this.clusterMembers = clusterMembers;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((("FclusterOutput"+" [flatCluster=")+ flatCluster)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((("FclusterOutput"+" [flatCluster=")+ flatCluster)+", clusterAssignment=")+ clusterAssignment)+", clusterOffsets=")+ clusterOffsets)+", clusterMembers=")+ clusterMembers)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
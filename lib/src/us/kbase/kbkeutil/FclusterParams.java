@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -28,6 +30,12 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  *             scipy.cluster.hierarchy.fcluster library are not implemented
  *             Details refer to: 
  *             https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.fcluster.html
+ * precision - floating point precision of linkage_matrix, 'float64' (default) or 'float32'
+ *             (with 'float32' dist_threshold is rounded the same way as the linkage distances)
+ * compact_output - return cluster_assignment (plus cluster_offsets and cluster_members)
+ *                  instead of flat_cluster
+ * packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+ *                         (refer to run_linkage return with packed_output)
  * </pre>
  * 
  */
@@ -37,7 +45,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
     "linkage_matrix",
     "dist_threshold",
     "labels",
-    "criterion"
+    "criterion",
+    "precision",
+    "compact_output",
+    "packed_linkage_matrix"
 })
 public class FclusterParams {
 
@@ -49,7 +60,13 @@ public class FclusterParams {
     private List<String> labels;
     @JsonProperty("criterion")
     private java.lang.String criterion;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("precision")
+    private java.lang.String precision;
+    @JsonProperty("compact_output")
+    private Long compactOutput;
+    @JsonProperty("packed_linkage_matrix")
+    private java.lang.String packedLinkageMatrix;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("linkage_matrix")
     public List<List<Double>> getLinkageMatrix() {
@@ -111,19 +128,72 @@ public class FclusterParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("precision")
+    public java.lang.String getPrecision() {
+        return precision;
+    }
+
+    @JsonProperty("precision")
+    public void setPrecision(java.lang.String precision) {
+        this.precision = precision;
+    }
+
+    public FclusterParams withPrecision(java.lang.String precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    @JsonProperty("compact_output")
+    public Long getCompactOutput() {
+        return compactOutput;
+    }
+
+    @JsonProperty("compact_output")
+    public void setCompactOutput(Long compactOutput) {
+        this.compactOutput = compactOutput;
+    }
+
+    public FclusterParams withCompactOutput(Long compactOutput) {
+        this.compactOutput = compactOutput;
+        return this;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public java.lang.String getPackedLinkageMatrix() {
+        return packedLinkageMatrix;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public void setPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+    }
+
+    public FclusterParams withPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((((((((("FclusterParams"+" [linkageMatrix=")+ linkageMatrix)+", distThreshold=")+ distThreshold)+", labels=")+ labels)+", criterion=")+ criterion)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((((((("FclusterParams"+" [linkageMatrix=")+ linkageMatrix)+", distThreshold=")+ distThreshold)+", labels=")+ labels)+", criterion=")+ criterion)+", precision=")+ precision)+", compactOutput=")+ compactOutput)+", packedLinkageMatrix=")+ packedLinkageMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -0,0 +1,147 @@
+package us.kbase.kbkeutil;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * <p>Client helper for run_fcluster output requested with compact_output.</p>
+ * <pre>
+ * Exposes cluster_assignment, cluster_offsets and cluster_members as the
+ * flat_cluster mapping (cluster id -> labels) without copying: entries and
+ * label lists are views over the compact arrays, resolved on access.
+ * If labels is null, element positions are returned as strings, the same as
+ * run_fcluster without labels.
+ * </pre>
+ *
+ */
+public class FlatClusters extends AbstractMap<String, List<String>> {
+
+    private final List<Long> clusterOffsets;
+    private final List<Long> clusterMembers;
+    private final List<String> labels;
+
+    /**
+     * <p>Map view of a run_fcluster output.</p>
+     * Returns flat_cluster as is when the output is not compact.
+     * @param   output   run_fcluster output.
+     * @param   labels   the labels passed to run_fcluster, or null.
+     * @return   flat clusters keyed by cluster id.
+     */
+    public static Map<String, List<String>> asMap(FclusterOutput output, List<String> labels) {
+        if (output.getClusterOffsets() == null) {
+            return output.getFlatCluster();
+        }
+        return new FlatClusters(output.getClusterOffsets(), output.getClusterMembers(), labels);
+    }
+
+    public FlatClusters(List<Long> clusterOffsets, List<Long> clusterMembers, List<String> labels) {
+        if (clusterOffsets.isEmpty()) {
+            throw new IllegalArgumentException("cluster_offsets must start with 0");
+        }
+        this.clusterOffsets = clusterOffsets;
+        this.clusterMembers = clusterMembers;
+        this.labels = labels;
+    }
+
+    /**
+     * <p>Labels of one cluster.</p>
+     * @param   clusterId   cluster id, from 1 to size().
+     * @return   view over the cluster members.
+     */
+    public List<String> getCluster(int clusterId) {
+        if (clusterId < 1 || clusterId > size()) {
+            throw new IndexOutOfBoundsException("cluster id " + clusterId);
+        }
+        final int start = clusterOffsets.get(clusterId - 1).intValue();
+        final int end = clusterOffsets.get(clusterId).intValue();
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index < 0 || index >= end - start) {
+                    throw new IndexOutOfBoundsException("index " + index);
+                }
+                int member = clusterMembers.get(start + index).intValue();
+                return labels == null ? String.valueOf(member) : labels.get(member);
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return clusterOffsets.size() - 1;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return clusterId(key) > 0;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        int clusterId = clusterId(key);
+        return clusterId > 0 ? getCluster(clusterId) : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        return new AbstractSet<Map.Entry<String, List<String>>>() {
+            @Override
+            public Iterator<Map.Entry<String, List<String>>> iterator() {
+                return new Iterator<Map.Entry<String, List<String>>>() {
+                    private int clusterId = 1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return clusterId <= size();
+                    }
+
+                    @Override
+                    public Map.Entry<String, List<String>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = clusterId++;
+                        return new SimpleImmutableEntry<String, List<String>>(
+                            String.valueOf(id), getCluster(id));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return FlatClusters.this.size();
+            }
+        };
+    }
+
+    private int clusterId(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        try {
+            int clusterId = Integer.parseInt((String) key);
+            boolean valid = clusterId >= 1 && clusterId <= size() && key.equals(String.valueOf(clusterId));
+            return valid ? clusterId : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+}
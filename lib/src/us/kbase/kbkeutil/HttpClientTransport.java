@@ -0,0 +1,51 @@
+package us.kbase.kbkeutil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+
+/**
+ * <p>PooledTransport sending requests through one java.net.http.HttpClient.</p>
+ * <pre>
+ * Loaded by PooledTransport by name only, so that Java 8 never loads it.
+ * The client keeps connections alive between calls and, for HTTP/2,
+ * multiplexes calls over one connection. It does not follow redirects.
+ * </pre>
+ */
+final class HttpClientTransport extends PooledTransport {
+
+    private final HttpClient httpClient;
+
+    HttpClientTransport(boolean http2, int connectTimeoutMillis) {
+        httpClient = HttpClient.newBuilder()
+            .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    @Override
+    Reply post(URI uri, Map<String, String> headers, byte[] body, Integer readTimeoutMillis)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        if (readTimeoutMillis != null && readTimeoutMillis > 0) {
+            builder.timeout(Duration.ofMillis(readTimeoutMillis));
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        HttpRequest request = builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+        HttpResponse<InputStream> response = httpClient.send(request,
+            HttpResponse.BodyHandlers.ofInputStream());
+        return new Reply(response.statusCode(),
+            response.headers().firstValue("Content-Type").orElse(null),
+            response.headers().firstValue("Content-Encoding").orElse(null),
+            response.body());
+    }
+}
@@ -0,0 +1,70 @@
+package us.kbase.kbkeutil;
+
+
+/**
+ * <p>ClientEvents emitting RpcCallEvent and LinkageCodecEvent.</p>
+ * <pre>
+ * Loaded by ClientEvents by name only, so that a runtime without jdk.jfr
+ * never loads it.
+ * </pre>
+ */
+final class JfrClientEvents extends ClientEvents {
+
+    @Override
+    Object beginRpcCall() {
+        RpcCallEvent event = new RpcCallEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endRpcCall(Object started, String method, String transport, boolean cbor,
+            long requestBytes, long responseBytes, long serializeNanos, long waitNanos,
+            long deserializeNanos, Throwable error) {
+        if (started == null) {
+            return;
+        }
+        RpcCallEvent event = (RpcCallEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.transport = transport;
+            event.cbor = cbor;
+            event.requestBytes = requestBytes;
+            event.responseBytes = responseBytes;
+            event.serializeNanos = serializeNanos;
+            event.waitNanos = waitNanos;
+            event.deserializeNanos = deserializeNanos;
+            event.error = error == null ? null : error.toString();
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginLinkageCodec() {
+        LinkageCodecEvent event = new LinkageCodecEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endLinkageCodec(Object started, String operation, long rows, long bytes) {
+        if (started == null) {
+            return;
+        }
+        LinkageCodecEvent event = (LinkageCodecEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
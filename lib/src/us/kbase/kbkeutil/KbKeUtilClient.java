@@ -8,7 +8,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import us.kbase.auth.AuthToken;
-import us.kbase.common.service.JsonClientCaller;
 import us.kbase.common.service.JsonClientException;
 import us.kbase.common.service.RpcContext;
 import us.kbase.common.service.UnauthorizedException;
@@ -20,7 +19,7 @@ import us.kbase.common.service.UnauthorizedException;
  * </pre>
  */
 public class KbKeUtilClient {
-    private JsonClientCaller caller;
+    private KbKeUtilClientCaller caller;
     private String serviceVersion = null;
 
 
@@ -28,7 +27,7 @@ public class KbKeUtilClient {
      * @param url the URL of the service.
      */
     public KbKeUtilClient(URL url) {
-        caller = new JsonClientCaller(url);
+        caller = new KbKeUtilClientCaller(url);
     }
     /** Constructs a client with a custom URL.
      * @param url the URL of the service.
@@ -38,7 +37,7 @@ public class KbKeUtilClient {
      * validity.
      */
     public KbKeUtilClient(URL url, AuthToken token) throws UnauthorizedException, IOException {
-        caller = new JsonClientCaller(url, token);
+        caller = new KbKeUtilClientCaller(url, token);
     }
 
     /** Constructs a client with a custom URL.
@@ -50,7 +49,7 @@ public class KbKeUtilClient {
      * credentials.
      */
     public KbKeUtilClient(URL url, String user, String password) throws UnauthorizedException, IOException {
-        caller = new JsonClientCaller(url, user, password);
+        caller = new KbKeUtilClientCaller(url, user, password);
     }
 
     /** Constructs a client with a custom URL
@@ -64,7 +63,7 @@ public class KbKeUtilClient {
      * credentials.
      */
     public KbKeUtilClient(URL url, String user, String password, URL auth) throws UnauthorizedException, IOException {
-        caller = new JsonClientCaller(url, user, password, auth);
+        caller = new KbKeUtilClientCaller(url, user, password, auth);
     }
 
     /** Get the token this client uses to communicate with the server.
@@ -150,6 +149,103 @@ public class KbKeUtilClient {
         return caller.isStreamingModeOn();
     }
 
+    /** Set whether requests should be sent as CBOR (application/cbor)
+     * instead of JSON. The encoding is negotiated per request and the client
+     * falls back to JSON if the server does not support it.
+     * Needs jackson-dataformat-cbor on the classpath.
+     * @param enabled true to send CBOR requests. Default false.
+     * @throws UnsupportedOperationException if enabled without
+     * jackson-dataformat-cbor on the classpath.
+     */
+    public void setCborEncodingEnabled(boolean enabled) {
+        caller.setCborEnabled(enabled);
+    }
+
+    /** Check if requests are sent as CBOR.
+     * @return true if CBOR is enabled and the server has not rejected it.
+     */
+    public boolean isCborEncodingEnabled() {
+        return caller.isCborEnabled();
+    }
+
+    /** Set whether request bodies of at least the compression threshold
+     * should be sent gzip compressed, and responses requested gzip compressed
+     * (Accept-Encoding). The client falls back to uncompressed requests if
+     * the server does not support them.
+     * @param enabled true to compress. Default false.
+     */
+    public void setCompressionEnabled(boolean enabled) {
+        caller.setCompressionEnabled(enabled);
+    }
+
+    /** Check if requests and responses are compressed.
+     * @return true if compression is enabled and the server has not rejected it.
+     */
+    public boolean isCompressionEnabled() {
+        return caller.isCompressionEnabled();
+    }
+
+    /** Set the request body size below which requests are sent uncompressed.
+     * @param bytes the threshold in bytes. Default 64 KiB.
+     */
+    public void setCompressionThreshold(int bytes) {
+        caller.setCompressionThreshold(bytes);
+    }
+
+    /** Set whether calls should go through a pooled transport: one shared
+     * HttpClient keeping connections alive between calls (HTTP/2 for https
+     * URLs), with at most maxConnections calls in flight, so a single client
+     * can be shared between threads. Connections are dropped after
+     * idleTimeoutMillis without calls. Needs Java 11 or later.
+     * @param enabled true to use the pooled transport. Default false.
+     * @param maxConnections the maximum number of calls in flight at once.
+     * @param idleTimeoutMillis time without calls after which pooled
+     * connections are dropped.
+     */
+    public void setPooledTransport(boolean enabled, int maxConnections, long idleTimeoutMillis) {
+        caller.setPooledTransport(enabled, maxConnections, idleTimeoutMillis);
+    }
+
+    /** Check if calls go through the pooled transport.
+     * @return true if the pooled transport is enabled.
+     */
+    public boolean isPooledTransportEnabled() {
+        return caller.isPooledTransportEnabled();
+    }
+
+    /** Set the listener receiving the sizes and stage timings of every call.
+     * @param listener the listener, e.g. an RpcMetricsRecorder, or null. Default null.
+     */
+    public void setMetricsListener(RpcMetricsListener listener) {
+        caller.setMetricsListener(listener);
+    }
+
+    /** Get the listener receiving the metrics of every call.
+     * @return the listener, or null.
+     */
+    public RpcMetricsListener getMetricsListener() {
+        return caller.getMetricsListener();
+    }
+
+    /** Set whether the server should return a profile (stage timings, sizes
+     * and peak memory) of every call. Profiles are passed to the metrics
+     * listener and set as the "server_profile" property of the call's
+     * RpcContext.
+     * A single call is profiled by passing an RpcContext with the additional
+     * property "profile" set to 1.
+     * @param enabled true to request server profiles. Default false.
+     */
+    public void setServerProfilingEnabled(boolean enabled) {
+        caller.setServerProfilingEnabled(enabled);
+    }
+
+    /** Check if the server is asked for a profile of every call.
+     * @return true if server profiles are requested.
+     */
+    public boolean isServerProfilingEnabled() {
+        return caller.isServerProfilingEnabled();
+    }
+
     public void _setFileForNextRpcResponse(File f) {
         caller.setFileForNextRpcResponse(f);
     }
@@ -278,6 +374,25 @@ public class KbKeUtilClient {
         return res.get(0);
     }
 
+    /**
+     * <p>Original spec-file function name: run_fcluster_sweep</p>
+     * <pre>
+     * run_fcluster_sweep: cut one linkage matrix at many thresholds with a single sorted sweep
+     * over the merge heights (union-find), giving the same clusters as run_fcluster per threshold
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.FclusterSweepParams FclusterSweepParams}
+     * @return   parameter "returnVal" of type {@link us.kbase.kbkeutil.FclusterSweepOutput FclusterSweepOutput}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public FclusterSweepOutput runFclusterSweep(FclusterSweepParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<FclusterSweepOutput>> retType = new TypeReference<List<FclusterSweepOutput>>() {};
+        List<FclusterSweepOutput> res = caller.jsonrpcCall("kb_ke_util.run_fcluster_sweep", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
     /**
      * <p>Original spec-file function name: run_dendrogram</p>
      * <pre>
@@ -334,6 +449,48 @@ public class KbKeUtilClient {
         return res.get(0);
     }
 
+    /**
+     * <p>enrich_onthology decoded as an EnrichmentTable</p>
+     * <pre>
+     * Same call as enrichOnthology, the enrichment_profile is streamed into
+     * columnar arrays instead of one TermEnrichment per term.
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.EnrichOnthologyParams EnrichOnthologyParams}
+     * @return   the enrichment profile as {@link us.kbase.kbkeutil.EnrichmentTable EnrichmentTable}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public EnrichmentTable enrichOnthologyTable(EnrichOnthologyParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<EnrichmentTable>> retType = new TypeReference<List<EnrichmentTable>>() {};
+        List<EnrichmentTable> res = caller.jsonrpcCall("kb_ke_util.enrich_onthology", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
+    /**
+     * <p>Original spec-file function name: register_entity_term_set</p>
+     * <pre>
+     * register_entity_term_set: keep an entity_term_set on the server as term to entities bitmaps,
+     *                           for enrich_onthology calls with entity_term_set_handle
+     * Registered sets are kept in server memory and scratch, least recently used sets are dropped
+     * when over budget. enrich_onthology fails with an error naming the handle if it is no longer
+     * registered: register the entity_term_set again and retry.
+     * A term assigned twice to the same entity counts once with a handle.
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.RegisterEntityTermSetParams RegisterEntityTermSetParams}
+     * @return   parameter "returnVal" of type {@link us.kbase.kbkeutil.RegisterEntityTermSetOutput RegisterEntityTermSetOutput}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public RegisterEntityTermSetOutput registerEntityTermSet(RegisterEntityTermSetParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<RegisterEntityTermSetOutput>> retType = new TypeReference<List<RegisterEntityTermSetOutput>>() {};
+        List<RegisterEntityTermSetOutput> res = caller.jsonrpcCall("kb_ke_util.register_entity_term_set", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
     /**
      * <p>Original spec-file function name: calc_onthology_dist</p>
      * <pre>
@@ -377,6 +534,74 @@ public class KbKeUtilClient {
         return res.get(0);
     }
 
+    /**
+     * <p>Original spec-file function name: calc_resnik_onthology_sim</p>
+     * <pre>
+     * calc_resnik_onthology_sim: calculate Resnik similarity
+     *                            (information content of the most informative common ancestor)
+     *                            NOTE: return 0 if no common ancestor node found
+     * Information content of a term is -log(p) with p the frequency of the term:
+     * with entity_term_set_handle, the fraction of the registered entities annotated with the term
+     * or one of its descendants, (count + 1) / (entities + 1); without it, the fraction of ontology
+     * terms that are the term or one of its descendants.
+     * It is computed once per corpus, ancestors follow is_a relationships.
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.CalcOnthologyDistParams CalcOnthologyDistParams}
+     * @return   parameter "returnVal" of type {@link us.kbase.kbkeutil.CalcOnthologyScoreOutput CalcOnthologyScoreOutput}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public CalcOnthologyScoreOutput calcResnikOnthologySim(CalcOnthologyDistParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<CalcOnthologyScoreOutput>> retType = new TypeReference<List<CalcOnthologyScoreOutput>>() {};
+        List<CalcOnthologyScoreOutput> res = caller.jsonrpcCall("kb_ke_util.calc_resnik_onthology_sim", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
+    /**
+     * <p>Original spec-file function name: calc_lin_onthology_sim</p>
+     * <pre>
+     * calc_lin_onthology_sim: calculate Lin similarity
+     *                         (2 * IC(most informative common ancestor) / (IC(term_1) + IC(term_2)),
+     *                          from 0 to 1, information content IC as in calc_resnik_onthology_sim)
+     *                         NOTE: return 0 if no common ancestor node found
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.CalcOnthologyDistParams CalcOnthologyDistParams}
+     * @return   parameter "returnVal" of type {@link us.kbase.kbkeutil.CalcOnthologyScoreOutput CalcOnthologyScoreOutput}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public CalcOnthologyScoreOutput calcLinOnthologySim(CalcOnthologyDistParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<CalcOnthologyScoreOutput>> retType = new TypeReference<List<CalcOnthologyScoreOutput>>() {};
+        List<CalcOnthologyScoreOutput> res = caller.jsonrpcCall("kb_ke_util.calc_lin_onthology_sim", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
+    /**
+     * <p>Original spec-file function name: calc_jiang_conrath_onthology_dist</p>
+     * <pre>
+     * calc_jiang_conrath_onthology_dist: calculate Jiang-Conrath distance
+     *                                    (IC(term_1) + IC(term_2) -
+     *                                     2 * IC(most informative common ancestor),
+     *                                     information content IC as in calc_resnik_onthology_sim)
+     *                                    NOTE: return inf if no common ancestor node found
+     * </pre>
+     * @param   params   instance of type {@link us.kbase.kbkeutil.CalcOnthologyDistParams CalcOnthologyDistParams}
+     * @return   parameter "returnVal" of type {@link us.kbase.kbkeutil.CalcOnthologyScoreOutput CalcOnthologyScoreOutput}
+     * @throws IOException if an IO exception occurs
+     * @throws JsonClientException if a JSON RPC exception occurs
+     */
+    public CalcOnthologyScoreOutput calcJiangConrathOnthologyDist(CalcOnthologyDistParams params, RpcContext... jsonRpcContext) throws IOException, JsonClientException {
+        List<Object> args = new ArrayList<Object>();
+        args.add(params);
+        TypeReference<List<CalcOnthologyScoreOutput>> retType = new TypeReference<List<CalcOnthologyScoreOutput>>() {};
+        List<CalcOnthologyScoreOutput> res = caller.jsonrpcCall("kb_ke_util.calc_jiang_conrath_onthology_dist", args, retType, true, true, jsonRpcContext, this.serviceVersion);
+        return res.get(0);
+    }
+
     public Map<String, Object> status(RpcContext... jsonRpcContext) throws IOException, JsonClientException {
         List<Object> args = new ArrayList<Object>();
         TypeReference<List<Map<String, Object>>> retType = new TypeReference<List<Map<String, Object>>>() {};
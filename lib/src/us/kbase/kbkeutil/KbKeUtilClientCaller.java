@@ -0,0 +1,710 @@
+package us.kbase.kbkeutil;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import us.kbase.auth.AuthToken;
+import us.kbase.common.service.JsonClientCaller;
+import us.kbase.common.service.JsonClientException;
+import us.kbase.common.service.RpcContext;
+import us.kbase.common.service.ServerException;
+import us.kbase.common.service.UnauthorizedException;
+
+/**
+ * <p>JSON RPC caller adding CBOR encoding, gzip compression and a pooled transport to JsonClientCaller.</p>
+ * <pre>
+ * CBOR is opt-in (setCborEnabled), needs jackson-dataformat-cbor on the
+ * classpath, and is negotiated per request: the request is
+ * sent with content type application/cbor and an Accept header listing both
+ * application/cbor and application/json, and the response is decoded by its
+ * content type. Numbers travel as binary float64/int values instead of
+ * formatted text.
+ * Compression is opt-in (setCompressionEnabled): request bodies of at least
+ * the compression threshold are sent gzip encoded, and responses are
+ * requested with Accept-Encoding: gzip. Request bodies are buffered and
+ * sent with a fixed length, also in streaming mode, because the uwsgi
+ * server does not read chunked requests.
+ * The pooled transport is opt-in (setPooledTransport) and needs Java 11 or
+ * later: calls go through one shared java.net.http.HttpClient that keeps
+ * connections alive between calls and multiplexes them over HTTP/2 for
+ * https URLs, at most maxConnections calls are in flight at once, and the
+ * client is replaced (dropping its connections) after idleTimeout without
+ * calls. The client itself runs on Java 8: java.net.http is only used by
+ * HttpClientTransport, see PooledTransport.
+ * If the server cannot parse a CBOR or gzip request (a JSON RPC parse error
+ * or HTTP 415), the call is repeated as plain JSON and all later calls of
+ * this caller use plain JSON. Trust-all SSL connections always use plain
+ * JSON, as do service wizard lookups for dynamic services.
+ * Metrics are opt-in (setMetricsListener): the listener gets the sizes and
+ * stage timings of every call, see RpcCallMetrics. Calls are then made by
+ * this caller even if CBOR, compression and pooling are all off.
+ * Server profiles are opt-in, for all calls (setServerProfilingEnabled) or
+ * for one call with a context whose additional property "profile" is 1:
+ * the server returns the stage timings, sizes and peak memory of the call,
+ * which are set as the "server_profile" additional property of the call's
+ * context and passed to the metrics listener.
+ * Every call emits an RpcCallEvent when it is enabled in a flight recording
+ * (on runtimes with jdk.jfr, see ClientEvents).
+ * Requests and responses are (de)serialized with KbKeUtilMappers, shared by
+ * all callers. Its JSON mapper reads the non-finite numbers (Infinity) of
+ * the distance results, which JsonClientCaller cannot, so the methods
+ * returning them never go through JsonClientCaller, except for trust-all
+ * SSL connections and results written to a file.
+ * A caller is safe to share between threads.
+ * </pre>
+ */
+public class KbKeUtilClientCaller extends JsonClientCaller {
+
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 64 * 1024;
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60 * 1000;
+
+    private static final String GZIP = "gzip";
+    private static final int PARSE_ERROR = -32700;
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CONNECT_TIMEOUT = 10000;
+    private static final String PROFILE = "profile";
+    private static final Integer PROFILE_REQUESTED = 1;
+    private static final String SERVER_PROFILE = "server_profile";
+    // results of these may hold Infinity, which the mapper of JsonClientCaller rejects
+    private static final Set<String> NON_FINITE_RESULT_METHODS = new HashSet<String>(Arrays.asList(
+        "kb_ke_util.calc_onthology_dist",
+        "kb_ke_util.calc_weighted_onthology_dist",
+        "kb_ke_util.calc_jiang_conrath_onthology_dist"));
+
+    private static final ObjectMapper JSON_MAPPER = KbKeUtilMappers.json();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE =
+        new TypeReference<Map<String, Object>>() {};
+
+    private final Random random = new Random();
+    private volatile boolean cborEnabled = false;
+    private volatile boolean compressionEnabled = false;
+    private volatile int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    private volatile boolean rejected = false;
+    private Integer connectionReadTimeOut = null;
+    private File fileForNextRpcResponse = null;
+    private volatile RpcMetricsListener metricsListener = null;
+    private volatile boolean serverProfiling = false;
+
+    private volatile boolean pooled = false;
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private Semaphore connections = new Semaphore(DEFAULT_MAX_CONNECTIONS, true);
+    private PooledTransport transport = null;
+    private long lastUsed = 0;
+
+    public KbKeUtilClientCaller(URL url) {
+        super(url);
+    }
+
+    public KbKeUtilClientCaller(URL url, AuthToken token) throws UnauthorizedException, IOException {
+        super(url, token);
+    }
+
+    public KbKeUtilClientCaller(URL url, String user, String password) throws UnauthorizedException, IOException {
+        super(url, user, password);
+    }
+
+    public KbKeUtilClientCaller(URL url, String user, String password, URL auth) throws UnauthorizedException, IOException {
+        super(url, user, password, auth);
+    }
+
+    /** Set whether requests should be sent as CBOR.
+     * @param enabled true to send CBOR requests. Default false.
+     * @throws UnsupportedOperationException if enabled without
+     * jackson-dataformat-cbor on the classpath.
+     */
+    public void setCborEnabled(boolean enabled) {
+        if (enabled && !KbKeUtilMappers.isCborAvailable()) {
+            throw new UnsupportedOperationException(
+                "CBOR needs jackson-dataformat-cbor on the classpath");
+        }
+        this.cborEnabled = enabled;
+        this.rejected = false;
+    }
+
+    /** Check if requests are sent as CBOR.
+     * @return true if CBOR is enabled and the server has not rejected it.
+     */
+    public boolean isCborEnabled() {
+        return cborEnabled && !rejected;
+    }
+
+    /** Set whether large requests should be gzip compressed and responses
+     * requested gzip compressed.
+     * @param enabled true to compress. Default false.
+     */
+    public void setCompressionEnabled(boolean enabled) {
+        this.compressionEnabled = enabled;
+        this.rejected = false;
+    }
+
+    /** Check if compression is used.
+     * @return true if compression is enabled and the server has not rejected it.
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled && !rejected;
+    }
+
+    /** Set the request body size below which requests are sent uncompressed.
+     * @param bytes the threshold in bytes. Default 64 KiB.
+     */
+    public void setCompressionThreshold(int bytes) {
+        this.compressionThreshold = bytes;
+    }
+
+    /** Get the request body size below which requests are sent uncompressed.
+     * @return the threshold in bytes.
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /** Set whether calls should go through the pooled HttpClient transport.
+     * @param enabled true to use the pooled transport. Default false.
+     * @param maxConnections the maximum number of calls in flight at once.
+     * @param idleTimeoutMillis time without calls after which pooled
+     * connections are dropped.
+     * @throws UnsupportedOperationException if enabled on Java 8, which has no
+     * java.net.http.
+     */
+    public synchronized void setPooledTransport(boolean enabled, int maxConnections, long idleTimeoutMillis) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        if (enabled && !PooledTransport.isAvailable()) {
+            throw new UnsupportedOperationException("The pooled transport needs Java 11 or later");
+        }
+        this.connections = new Semaphore(maxConnections, true);
+        this.idleTimeout = idleTimeoutMillis;
+        this.transport = null;
+        this.pooled = enabled;
+    }
+
+    /** Check if calls go through the pooled HttpClient transport.
+     * @return true if the pooled transport is enabled.
+     */
+    public boolean isPooledTransportEnabled() {
+        return pooled;
+    }
+
+    /** Set the listener receiving the metrics of every call.
+     * @param listener the listener, or null to stop collecting metrics. Default null.
+     */
+    public void setMetricsListener(RpcMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    /** Get the listener receiving the metrics of every call.
+     * @return the listener, or null.
+     */
+    public RpcMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /** Set whether the server should return a profile of every call.
+     * @param enabled true to request server profiles. Default false.
+     */
+    public void setServerProfilingEnabled(boolean enabled) {
+        this.serverProfiling = enabled;
+    }
+
+    /** Check if the server is asked for a profile of every call.
+     * @return true if server profiles are requested.
+     */
+    public boolean isServerProfilingEnabled() {
+        return serverProfiling;
+    }
+
+    @Override
+    public void setConnectionReadTimeOut(Integer milliseconds) {
+        super.setConnectionReadTimeOut(milliseconds);
+        this.connectionReadTimeOut = milliseconds;
+    }
+
+    @Override
+    public void setFileForNextRpcResponse(File f) {
+        super.setFileForNextRpcResponse(f);
+        this.fileForNextRpcResponse = f;
+    }
+
+    @Override
+    public <ARG, RET> RET jsonrpcCall(String method, ARG arg, TypeReference<RET> cls,
+            boolean ret, boolean authRequired, RpcContext[] context, String serviceVersion)
+            throws IOException, JsonClientException {
+        RpcMetricsListener listener = metricsListener;
+        Object event = ClientEvents.INSTANCE.beginRpcCall();
+        CallStats stats = new CallStats();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return call(method, arg, cls, ret, authRequired, context, serviceVersion,
+                listener != null || event != null, stats);
+        } catch (IOException | JsonClientException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            ClientEvents.INSTANCE.endRpcCall(event, method, stats.transport, stats.cbor,
+                stats.requestBytes, stats.responseBytes, stats.serializeNanos, stats.waitNanos,
+                stats.deserializeNanos, error);
+            if (listener != null) {
+                try {
+                    listener.callCompleted(new RpcCallMetrics(method, stats.requestBytes,
+                        stats.responseBytes, stats.serializeNanos, stats.waitNanos,
+                        stats.deserializeNanos, System.nanoTime() - start, stats.serverProfile,
+                        error));
+                } catch (RuntimeException e) {
+                    // a failing listener must not fail the call
+                }
+            }
+        }
+    }
+
+    private <ARG, RET> RET call(String method, ARG arg, TypeReference<RET> cls,
+            boolean ret, boolean authRequired, RpcContext[] context, String serviceVersion,
+            boolean measured, CallStats stats) throws IOException, JsonClientException {
+        boolean cbor = isCborEnabled();
+        boolean compression = isCompressionEnabled();
+        boolean pooledCall = isPooledTransportEnabled();
+        boolean toFile = fileForNextRpcResponse != null;
+        fileForNextRpcResponse = null;
+        RpcContext rpcContext = context != null && context.length == 1 ? context[0] : null;
+        boolean profile = serverProfiling || isProfileRequested(rpcContext);
+        boolean plain = !cbor && !compression && !pooledCall && !measured && !profile;
+        if ((plain && !NON_FINITE_RESULT_METHODS.contains(method)) || toFile ||
+                isAllSSLCertificatesTrusted()) {
+            return super.jsonrpcCall(method, arg, cls, ret, authRequired, context, serviceVersion);
+        }
+        stats.transport = pooledCall ? "pooled" : "connection";
+        stats.cbor = cbor;
+
+        AuthToken token = getToken();
+        if (authRequired && token == null) {
+            throw new UnauthorizedException("RPC method requires authentication but credentials were not provided");
+        }
+
+        Map<String, Object> request = new LinkedHashMap<String, Object>();
+        request.put("params", arg);
+        request.put("method", method);
+        request.put("version", "1.1");
+        request.put("id", Long.toString(random.nextLong()));
+        if (profile) {
+            Map<String, Object> profileContext = new LinkedHashMap<String, Object>();
+            if (rpcContext != null) {
+                profileContext.putAll(JSON_MAPPER.convertValue(rpcContext, MAP_TYPE));
+            }
+            profileContext.remove(SERVER_PROFILE);
+            profileContext.put(PROFILE, PROFILE_REQUESTED);
+            request.put("context", profileContext);
+        } else if (rpcContext != null) {
+            request.put("context", rpcContext);
+        }
+
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("Content-Type", cbor ? CBOR_CONTENT_TYPE : JSON_CONTENT_TYPE);
+        headers.put("Accept", cbor ? CBOR_CONTENT_TYPE + ", " + JSON_CONTENT_TYPE : JSON_CONTENT_TYPE);
+        if (compression) {
+            headers.put("Accept-Encoding", GZIP);
+        }
+        if (token != null) {
+            headers.put("Authorization", token.getToken());
+        }
+        ObjectWriter requestWriter = KbKeUtilMappers.writer(cbor);
+        int threshold = compression ? compressionThreshold : -1;
+
+        Response response;
+        if (pooledCall) {
+            response = sendPooled(headers, requestWriter, request, threshold, stats);
+        } else {
+            response = sendConnection(headers, requestWriter, request, threshold, stats);
+        }
+        long readStart = System.nanoTime();
+        try {
+            RET result = readResponse(response, cls, ret, cbor);
+            stats.serverProfile = response.profile;
+            if (rpcContext != null && response.profile != null) {
+                rpcContext.setAdditionalProperties(SERVER_PROFILE, response.profile);
+            }
+            return result;
+        } catch (RejectedEncodingException e) {
+            stats.delegated();
+        } finally {
+            response.release();
+            if (stats.serializeNanos >= 0) {
+                stats.deserializeNanos = System.nanoTime() - readStart;
+                stats.responseBytes = response.bodyBytes();
+            }
+        }
+        rejected = true;
+        if (NON_FINITE_RESULT_METHODS.contains(method)) {
+            // repeated as plain JSON here, JsonClientCaller cannot read the result
+            return call(method, arg, cls, ret, authRequired, context, serviceVersion, measured,
+                stats);
+        }
+        return super.jsonrpcCall(method, arg, cls, ret, authRequired, context, serviceVersion);
+    }
+
+    private static boolean isProfileRequested(RpcContext context) {
+        if (context == null) {
+            return false;
+        }
+        Object profile = context.getAdditionalProperties().get(PROFILE);
+        return Boolean.TRUE.equals(profile) ||
+            (profile instanceof Number && ((Number) profile).intValue() != 0);
+    }
+
+    private Response sendConnection(Map<String, String> headers, ObjectWriter writer,
+            Object request, int threshold, CallStats stats) throws IOException {
+        long start = System.nanoTime();
+        HttpURLConnection conn = (HttpURLConnection) getURL().openConnection();
+        conn.setConnectTimeout(CONNECT_TIMEOUT);
+        if (connectionReadTimeOut != null) {
+            conn.setReadTimeout(connectionReadTimeOut);
+        }
+        conn.setDoOutput(true);
+        conn.setRequestMethod("POST");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            conn.setRequestProperty(header.getKey(), header.getValue());
+        }
+        RequestBody body = new RequestBody(conn, threshold);
+        try {
+            writer.writeValue(body, request);
+        } finally {
+            body.close();
+        }
+        stats.serializeNanos = body.encodedAt - start;
+        stats.requestBytes = body.bytesSent();
+
+        int code = conn.getResponseCode();
+        stats.waitNanos = System.nanoTime() - body.encodedAt;
+        InputStream is = null;
+        if (code != UNSUPPORTED_MEDIA_TYPE) {
+            is = code < 300 ? conn.getInputStream() : conn.getErrorStream();
+        }
+        return new Response(code, conn.getContentType(), conn.getContentEncoding(), is,
+            body.isCompressed(), null);
+    }
+
+    private Response sendPooled(Map<String, String> headers, ObjectWriter writer,
+            Object request, int threshold, CallStats stats) throws IOException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writer.writeValue(buffer, request);
+        boolean compressed = threshold >= 0 && buffer.size() >= threshold;
+        if (compressed) {
+            ByteArrayOutputStream data = buffer;
+            buffer = new ByteArrayOutputStream(data.size() / 4);
+            GZIPOutputStream gzip = new GZIPOutputStream(buffer, CHUNK_SIZE);
+            data.writeTo(gzip);
+            gzip.close();
+            headers.put("Content-Encoding", GZIP);
+        }
+        stats.serializeNanos = System.nanoTime() - start;
+        stats.requestBytes = buffer.size();
+
+        URI uri;
+        try {
+            uri = getURL().toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid service URL " + getURL(), e);
+        }
+
+        Semaphore permits = acquireConnection();
+        try {
+            long sendStart = System.nanoTime();
+            PooledTransport.Reply reply = getTransport().post(uri, headers, buffer.toByteArray(),
+                connectionReadTimeOut);
+            stats.waitNanos = System.nanoTime() - sendStart;
+            return new Response(reply.code, reply.contentType, reply.contentEncoding, reply.body,
+                compressed, permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permits.release();
+            throw new IOException("Interrupted while waiting for the server response", e);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Semaphore acquireConnection() throws IOException {
+        Semaphore permits;
+        synchronized (this) {
+            permits = connections;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a pooled connection", e);
+        }
+        return permits;
+    }
+
+    private synchronized PooledTransport getTransport() {
+        long now = System.currentTimeMillis();
+        if (transport != null && now - lastUsed > idleTimeout) {
+            // connections of the replaced client are closed once it is unreachable
+            transport = null;
+        }
+        if (transport == null) {
+            boolean https = "https".equalsIgnoreCase(getURL().getProtocol());
+            transport = PooledTransport.create(https, CONNECT_TIMEOUT);
+        }
+        lastUsed = now;
+        return transport;
+    }
+
+    private <RET> RET readResponse(Response response, TypeReference<RET> cls, boolean ret,
+            boolean cbor) throws IOException, JsonClientException {
+        int code = response.code;
+        if (code == UNSUPPORTED_MEDIA_TYPE) {
+            throw new RejectedEncodingException();
+        }
+        String contentType = response.contentType;
+        boolean cborResponse = contentType != null && contentType.startsWith(CBOR_CONTENT_TYPE);
+        ObjectMapper mapper = cborResponse ? KbKeUtilMappers.cbor() : JSON_MAPPER;
+
+        RET result = null;
+        Map<String, Object> error = null;
+        InputStream is = response.body;
+        if (is == null) {
+            throw new JsonClientException("Server returned HTTP " + code + " without a response body");
+        }
+        if (GZIP.equals(response.contentEncoding)) {
+            is = new GZIPInputStream(is, CHUNK_SIZE);
+        }
+        try {
+            JsonParser parser = mapper.getFactory().createParser(is);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonClientException("Server response is not a JSON RPC object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (field.equals("result") && ret) {
+                    result = KbKeUtilMappers.reader(cborResponse, cls).readValue(parser);
+                } else if (field.equals("error")) {
+                    error = mapper.readValue(parser, MAP_TYPE);
+                } else if (field.equals(PROFILE)) {
+                    response.profile = mapper.readValue(parser, MAP_TYPE);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            // read to the end (and past the gzip trailer) so the connection can be reused
+            byte[] rest = new byte[8192];
+            while (is.read(rest) >= 0) {
+            }
+            while (is != response.body && response.body.read(rest) >= 0) {
+            }
+        } finally {
+            is.close();
+        }
+
+        if (error != null) {
+            int errorCode = error.get("code") instanceof Number ? ((Number) error.get("code")).intValue() : 0;
+            if (errorCode == PARSE_ERROR && (cbor || response.compressed)) {
+                throw new RejectedEncodingException();
+            }
+            Object data = error.get("data") != null ? error.get("data") : error.get("error");
+            throw new ServerException((String) error.get("message"), errorCode,
+                (String) error.get("name"), data == null ? null : data.toString());
+        }
+        if (ret && result == null) {
+            throw new JsonClientException("Server response doesn't contain result");
+        }
+        return result;
+    }
+
+    /** Thrown when the server could not decode a CBOR or gzip request. */
+    private static class RejectedEncodingException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /** Sizes and stage timings of a call so far, -1 where not known. */
+    private static class CallStats {
+
+        long requestBytes = -1;
+        long responseBytes = -1;
+        long serializeNanos = -1;
+        long waitNanos = -1;
+        long deserializeNanos = -1;
+        Map<String, Object> serverProfile = null;
+        String transport = "delegated";
+        boolean cbor = false;
+
+        /** The call is repeated by JsonClientCaller, which only the total time covers. */
+        void delegated() {
+            requestBytes = responseBytes = serializeNanos = waitNanos = deserializeNanos = -1;
+            transport = "delegated";
+            cbor = false;
+        }
+    }
+
+    /** Status, headers and body stream of a response, from either transport. */
+    private static class Response {
+
+        final int code;
+        final String contentType;
+        final String contentEncoding;
+        final CountingInputStream body;
+        final boolean compressed;
+        Map<String, Object> profile = null;
+        private Semaphore permits;
+
+        Response(int code, String contentType, String contentEncoding, InputStream body,
+                boolean compressed, Semaphore permits) {
+            this.code = code;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.body = body == null ? null : new CountingInputStream(body);
+            this.compressed = compressed;
+            this.permits = permits;
+        }
+
+        long bodyBytes() {
+            return body == null ? 0 : body.count;
+        }
+
+        void release() throws IOException {
+            try {
+                if (body != null) {
+                    body.close();
+                }
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                    permits = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Request body that is buffered whole and sent with a fixed length, as
+     * the uwsgi server does not read chunked requests. A body that stays
+     * below the compression threshold is sent as is, a larger one is gzip
+     * compressed into the buffer.
+     */
+    private static class RequestBody extends OutputStream {
+
+        private final HttpURLConnection conn;
+        private final int threshold;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream out = buffer;
+        private boolean compressed = false;
+        private boolean closed = false;
+        long encodedAt = 0;
+
+        RequestBody(HttpURLConnection conn, int threshold) {
+            this.conn = conn;
+            this.threshold = threshold;
+        }
+
+        boolean isCompressed() {
+            return compressed;
+        }
+
+        long bytesSent() {
+            return buffer.size();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            checkThreshold();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            checkThreshold();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void checkThreshold() throws IOException {
+            if (compressed || threshold < 0 || buffer.size() < threshold) {
+                return;
+            }
+            compressed = true;
+            conn.setRequestProperty("Content-Encoding", GZIP);
+            ByteArrayOutputStream data = buffer;
+            buffer = new ByteArrayOutputStream(data.size() / 4);
+            out = new GZIPOutputStream(buffer, CHUNK_SIZE);
+            data.writeTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.close();
+            encodedAt = System.nanoTime();
+            conn.setFixedLengthStreamingMode(buffer.size());
+            OutputStream os = conn.getOutputStream();
+            try {
+                buffer.writeTo(os);
+            } finally {
+                os.close();
+            }
+        }
+    }
+
+    /** Input stream counting the bytes read from it. */
+    private static class CountingInputStream extends FilterInputStream {
+
+        long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package us.kbase.kbkeutil;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+
+/**
+ * <p>Jackson mappers shared by all KbKeUtilClient instances.</p>
+ * <pre>
+ * The JSON and CBOR mappers are built once per class loader, so the bean
+ * (de)serializers of the POJOs are resolved once and reused by every client
+ * and call, and an ObjectReader is kept per result type.
+ * The CBOR mapper needs jackson-dataformat-cbor, which the KBase SDK jar set
+ * does not include: it is only built on first use (see CborMappers), and
+ * isCborAvailable tells whether it can be.
+ * If jackson-module-blackbird (Java 11+, Jackson 2.12+) or
+ * jackson-module-afterburner is on the classpath, it is registered so that
+ * POJO properties are accessed through generated bytecode instead of
+ * reflection; set the system property kbkeutil.jackson.accessors to none to
+ * keep reflection. No module is required.
+ * The mappers must not be reconfigured, use configure(new ObjectMapper())
+ * for a mapper of your own with the same setup.
+ * </pre>
+ */
+public final class KbKeUtilMappers {
+
+    private static final String ACCESSORS_PROPERTY = "kbkeutil.jackson.accessors";
+    private static final String[] ACCESSOR_MODULES = {
+        "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+        "com.fasterxml.jackson.module.afterburner.AfterburnerModule"
+    };
+
+    private static final Module ACCESSOR_MODULE = accessorModule();
+    private static final ObjectMapper JSON = configure(new ObjectMapper());
+    private static final ObjectWriter JSON_WRITER = JSON.writer();
+    private static final ConcurrentMap<Type, ObjectReader> JSON_READERS =
+        new ConcurrentHashMap<Type, ObjectReader>();
+    private static final boolean CBOR_AVAILABLE = checkCborAvailable();
+
+    private KbKeUtilMappers() {
+    }
+
+    /** @return the shared JSON mapper. */
+    public static ObjectMapper json() {
+        return JSON;
+    }
+
+    /** @return the shared CBOR mapper.
+     * @throws UnsupportedOperationException if jackson-dataformat-cbor is not on the classpath.
+     */
+    public static ObjectMapper cbor() {
+        return CborMappers.mapper();
+    }
+
+    /** @return true if jackson-dataformat-cbor is on the classpath, so cbor() can be used. */
+    public static boolean isCborAvailable() {
+        return CBOR_AVAILABLE;
+    }
+
+    /**
+     * <p>Applies the shared mapper setup, i.e. allows the non-finite numbers NaN and Infinity,
+     * which the server returns e.g. as the distance of terms without a common ancestor, and
+     * registers a bytecode accessor module if available.</p>
+     * @param   mapper   a new mapper.
+     * @return   the mapper.
+     */
+    public static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.configure(JsonParser.Feature.ALLOW_NON_NUMERIC_NUMBERS, true);
+        if (ACCESSOR_MODULE != null) {
+            mapper.registerModule(ACCESSOR_MODULE);
+        }
+        return mapper;
+    }
+
+    /**
+     * <p>Name of the accessor module registered with the shared mappers.</p>
+     * @return   the module name, or null if POJOs are accessed through reflection.
+     */
+    public static String getAccessorModuleName() {
+        return ACCESSOR_MODULE == null ? null : ACCESSOR_MODULE.getModuleName();
+    }
+
+    /**
+     * <p>Reader of the shared JSON or CBOR mapper for a result type.</p>
+     * @param   cbor   true for the CBOR mapper.
+     * @param   type   the result type.
+     * @return   a cached reader.
+     */
+    public static <T> ObjectReader reader(boolean cbor, TypeReference<T> type) {
+        if (cbor) {
+            return CborMappers.reader(type);
+        }
+        return reader(JSON, JSON_READERS, type);
+    }
+
+    static <T> ObjectReader reader(ObjectMapper mapper, ConcurrentMap<Type, ObjectReader> readers,
+            TypeReference<T> type) {
+        ObjectReader reader = readers.get(type.getType());
+        if (reader == null) {
+            reader = mapper.readerFor(type);
+            readers.putIfAbsent(type.getType(), reader);
+        }
+        return reader;
+    }
+
+    /**
+     * <p>Writer of the shared JSON or CBOR mapper.</p>
+     * @param   cbor   true for the CBOR mapper.
+     * @return   the writer.
+     */
+    public static ObjectWriter writer(boolean cbor) {
+        return cbor ? CborMappers.writer() : JSON_WRITER;
+    }
+
+    private static boolean checkCborAvailable() {
+        try {
+            Class.forName("com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Module accessorModule() {
+        if ("none".equals(System.getProperty(ACCESSORS_PROPERTY))) {
+            return null;
+        }
+        for (String className : ACCESSOR_MODULES) {
+            try {
+                return (Module) Class.forName(className).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // not on the classpath or not supported by this JVM, try the next one
+            }
+        }
+        return null;
+    }
+
+}
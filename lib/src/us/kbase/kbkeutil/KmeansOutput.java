@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -33,7 +35,7 @@ public class KmeansOutput {
     private List<Double> centroid;
     @JsonProperty("idx")
     private List<Long> idx;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("centroid")
     public List<Double> getCentroid() {
@@ -65,19 +67,27 @@ public class KmeansOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((("KmeansOutput"+" [centroid=")+ centroid)+", idx=")+ idx)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((("KmeansOutput"+" [centroid=")+ centroid)+", idx=")+ idx)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -33,7 +35,7 @@ public class KmeansParams {
     private List<Double> distMatrix;
     @JsonProperty("k_num")
     private Long kNum;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("dist_matrix")
     public List<Double> getDistMatrix() {
@@ -65,19 +67,27 @@ public class KmeansParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((("KmeansParams"+" [distMatrix=")+ distMatrix)+", kNum=")+ kNum)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((("KmeansParams"+" [distMatrix=")+ distMatrix)+", kNum=")+ kNum)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -0,0 +1,121 @@
+package us.kbase.kbkeutil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+
+/**
+ * <p>Codec for the packed_linkage spec type.</p>
+ * <pre>
+ * A linkage matrix of n leaves is held as a packed double[] of n - 1 rows of
+ * [cluster_1, cluster_2, distance, count], row by row, and travels as base64
+ * encoded little-endian float64 values (packed_linkage_matrix in LinkageOutput,
+ * NewickParams, FclusterParams, FclusterSweepParams and DendrogramParams).
+ * NewickWriter writes a packed linkage matrix as a Newick tree on the client.
+ * encode and decode emit LinkageCodecEvent when it is enabled in a flight recording
+ * (on runtimes with jdk.jfr, see ClientEvents).
+ * </pre>
+ *
+ */
+public final class LinkageCodec {
+
+    /** Number of values in one linkage matrix row. */
+    public static final int ROW_SIZE = 4;
+
+    private LinkageCodec() {
+    }
+
+    /**
+     * <p>Encodes a packed linkage matrix as a packed_linkage string.</p>
+     * @param   packed   linkage matrix values, row by row.
+     * @return   base64 of the little-endian float64 values.
+     */
+    public static String encode(double[] packed) {
+        Object event = ClientEvents.INSTANCE.beginLinkageCodec();
+        checkSize(packed.length);
+        ByteBuffer bytes = ByteBuffer.allocate(packed.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asDoubleBuffer().put(packed);
+        String packedLinkage = Base64.getEncoder().encodeToString(bytes.array());
+        ClientEvents.INSTANCE.endLinkageCodec(event, "encode", packed.length / ROW_SIZE,
+            packedLinkage.length());
+        return packedLinkage;
+    }
+
+    /**
+     * <p>Decodes a packed_linkage string.</p>
+     * @param   packedLinkage   base64 of little-endian float64 values.
+     * @return   linkage matrix values, row by row.
+     */
+    public static double[] decode(String packedLinkage) {
+        Object event = ClientEvents.INSTANCE.beginLinkageCodec();
+        byte[] bytes = Base64.getDecoder().decode(packedLinkage);
+        if (bytes.length % 8 != 0) {
+            throw new IllegalArgumentException("packed linkage matrix is not a float64 array");
+        }
+        DoubleBuffer values = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        double[] packed = new double[values.remaining()];
+        values.get(packed);
+        checkSize(packed.length);
+        ClientEvents.INSTANCE.endLinkageCodec(event, "decode", packed.length / ROW_SIZE,
+            packedLinkage.length());
+        return packed;
+    }
+
+    /**
+     * <p>Packs a linkage_matrix into a flat double[].</p>
+     * @param   linkageMatrix   linkage matrix rows of 4 values.
+     * @return   linkage matrix values, row by row.
+     */
+    public static double[] pack(List<List<Double>> linkageMatrix) {
+        double[] packed = new double[linkageMatrix.size() * ROW_SIZE];
+        int pos = 0;
+        for (List<Double> row : linkageMatrix) {
+            if (row.size() != ROW_SIZE) {
+                throw new IllegalArgumentException("linkage matrix row " + pos / ROW_SIZE +
+                    " has " + row.size() + " values, expected " + ROW_SIZE);
+            }
+            for (Double value : row) {
+                packed[pos++] = value;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * <p>Unpacks a flat double[] into linkage_matrix rows.</p>
+     * @param   packed   linkage matrix values, row by row.
+     * @return   linkage matrix rows of 4 values.
+     */
+    public static List<List<Double>> unpack(double[] packed) {
+        checkSize(packed.length);
+        List<List<Double>> linkageMatrix = new ArrayList<List<Double>>(packed.length / ROW_SIZE);
+        for (int pos = 0; pos < packed.length; pos += ROW_SIZE) {
+            linkageMatrix.add(Arrays.asList(packed[pos], packed[pos + 1], packed[pos + 2],
+                packed[pos + 3]));
+        }
+        return linkageMatrix;
+    }
+
+    /**
+     * <p>Number of rows (merges) in a packed linkage matrix.</p>
+     * @param   packed   linkage matrix values, row by row.
+     * @return   number of rows, one less than the number of leaves.
+     */
+    public static int rows(double[] packed) {
+        checkSize(packed.length);
+        return packed.length / ROW_SIZE;
+    }
+
+    private static void checkSize(int size) {
+        if (size % ROW_SIZE != 0) {
+            throw new IllegalArgumentException("packed linkage matrix has " + size +
+                " values, expected a multiple of " + ROW_SIZE);
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package us.kbase.kbkeutil;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * <p>Java Flight Recorder event of one LinkageCodec encode or decode.</p>
+ * <pre>
+ * Disabled by default, enabled the same way as RpcCallEvent with the event
+ * name us.kbase.kbkeutil.KeUtilLinkageCodec.
+ * </pre>
+ */
+@Name("us.kbase.kbkeutil.KeUtilLinkageCodec")
+@Label("KeUtil Linkage Codec")
+@Description("packed_linkage matrix encoded or decoded by LinkageCodec")
+@Category({"KBase", "kb_ke_util"})
+@Enabled(false)
+final class LinkageCodecEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Encoded Bytes")
+    @DataAmount
+    long bytes;
+
+}
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -17,19 +19,23 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * <pre>
  * Ouput of the run_linkage function
  * linkage_matrix - The hierarchical clustering encoded as a linkage matrix
+ * packed_linkage_matrix - the same linkage matrix packed as float64 values if packed_output is set
  * </pre>
  * 
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
-    "linkage_matrix"
+    "linkage_matrix",
+    "packed_linkage_matrix"
 })
 public class LinkageOutput {
 
     @JsonProperty("linkage_matrix")
     private List<List<Double>> linkageMatrix;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    @JsonProperty("packed_linkage_matrix")
+    private String packedLinkageMatrix;
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("linkage_matrix")
     public List<List<Double>> getLinkageMatrix() {
@@ -46,19 +52,42 @@ public class LinkageOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("packed_linkage_matrix")
+    public String getPackedLinkageMatrix() {
+        return packedLinkageMatrix;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public void setPackedLinkageMatrix(String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+    }
+
+    public LinkageOutput withPackedLinkageMatrix(String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((("LinkageOutput"+" [linkageMatrix=")+ linkageMatrix)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((("LinkageOutput"+" [linkageMatrix=")+ linkageMatrix)+", packedLinkageMatrix=")+ packedLinkageMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -18,11 +20,16 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * Input of the run_linkage function
  * dist_matrix - 1D distance matrix (refer to run_pdist return)
  * Optional arguments:
- * method - The linkage algorithm to use. Default set to 'ward'.
+ * method - The linkage algorithm to use. Default set to 'single'.
  *          The method can be 
  *          ["single", "complete", "average", "weighted", "centroid", "median", "ward"]
  *          Details refer to: 
  *          https://docs.scipy.org/doc/scipy/reference/generated/scipy.cluster.hierarchy.linkage.html
+ * dist_matrix_file - memory-mapped condensed distance matrix file used in place of dist_matrix
+ *                    (refer to run_pdist return with out_of_core); linkage still copies
+ *                    it into a float64 array in memory (8 bytes per distance)
+ * precision - floating point precision of the linkage distances, 'float64' (default) or 'float32'
+ * packed_output - return packed_linkage_matrix instead of linkage_matrix
  * </pre>
  * 
  */
@@ -30,7 +37,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
     "dist_matrix",
-    "method"
+    "method",
+    "dist_matrix_file",
+    "precision",
+    "packed_output"
 })
 public class LinkageParams {
 
@@ -38,7 +48,13 @@ public class LinkageParams {
     private List<Double> distMatrix;
     @JsonProperty("method")
     private String method;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    @JsonProperty("dist_matrix_file")
+    private String distMatrixFile;
+    @JsonProperty("precision")
+    private String precision;
+    @JsonProperty("packed_output")
+    private Long packedOutput;
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("dist_matrix")
     public List<Double> getDistMatrix() {
@@ -70,19 +86,72 @@ public class LinkageParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("dist_matrix_file")
+    public String getDistMatrixFile() {
+        return distMatrixFile;
+    }
+
+    @JsonProperty("dist_matrix_file")
+    public void setDistMatrixFile(String distMatrixFile) {
+        this.distMatrixFile = distMatrixFile;
+    }
+
+    public LinkageParams withDistMatrixFile(String distMatrixFile) {
+        this.distMatrixFile = distMatrixFile;
+        return this;
+    }
+
+    @JsonProperty("precision")
+    public String getPrecision() {
+        return precision;
+    }
+
+    @JsonProperty("precision")
+    public void setPrecision(String precision) {
+        this.precision = precision;
+    }
+
+    public LinkageParams withPrecision(String precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    @JsonProperty("packed_output")
+    public Long getPackedOutput() {
+        return packedOutput;
+    }
+
+    @JsonProperty("packed_output")
+    public void setPackedOutput(Long packedOutput) {
+        this.packedOutput = packedOutput;
+    }
+
+    public LinkageParams withPackedOutput(Long packedOutput) {
+        this.packedOutput = packedOutput;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((("LinkageParams"+" [distMatrix=")+ distMatrix)+", method=")+ method)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((("LinkageParams"+" [distMatrix=")+ distMatrix)+", method=")+ method)+", distMatrixFile=")+ distMatrixFile)+", precision=")+ precision)+", packedOutput=")+ packedOutput)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
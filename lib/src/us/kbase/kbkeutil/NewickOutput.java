@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -17,19 +19,23 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * Ouput of the linkage_2_newick function
  * newick - newick representation of tree
  *          https://en.wikipedia.org/wiki/Newick_format
+ * newick_file - path of the newick file if write_to_file is set (newick is then empty)
  * </pre>
  * 
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
-    "newick"
+    "newick",
+    "newick_file"
 })
 public class NewickOutput {
 
     @JsonProperty("newick")
     private String newick;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    @JsonProperty("newick_file")
+    private String newickFile;
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("newick")
     public String getNewick() {
@@ -46,19 +52,42 @@ public class NewickOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("newick_file")
+    public String getNewickFile() {
+        return newickFile;
+    }
+
+    @JsonProperty("newick_file")
+    public void setNewickFile(String newickFile) {
+        this.newickFile = newickFile;
+    }
+
+    public NewickOutput withNewickFile(String newickFile) {
+        this.newickFile = newickFile;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((("NewickOutput"+" [newick=")+ newick)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((("NewickOutput"+" [newick=")+ newick)+", newickFile=")+ newickFile)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -19,6 +21,11 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * linkage_matrix - hierarchical clustering linkage matrix (refer to run_linkage return)
  * labels - items corresponding to each linkage_matrix element 
  *          (If labels are given, result flat_cluster will be mapped to element in labels.)
+ * Optional arguments:
+ * write_to_file - stream the newick tree into a file in scratch instead of returning it
+ *                 (default is 0)
+ * packed_linkage_matrix - linkage matrix used in place of linkage_matrix
+ *                         (refer to run_linkage return with packed_output)
  * </pre>
  * 
  */
@@ -26,7 +33,9 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
     "linkage_matrix",
-    "labels"
+    "labels",
+    "write_to_file",
+    "packed_linkage_matrix"
 })
 public class NewickParams {
 
@@ -34,7 +43,11 @@ public class NewickParams {
     private List<List<Double>> linkageMatrix;
     @JsonProperty("labels")
     private List<String> labels;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("write_to_file")
+    private Long writeToFile;
+    @JsonProperty("packed_linkage_matrix")
+    private java.lang.String packedLinkageMatrix;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("linkage_matrix")
     public List<List<Double>> getLinkageMatrix() {
@@ -66,19 +79,57 @@ public class NewickParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("write_to_file")
+    public Long getWriteToFile() {
+        return writeToFile;
+    }
+
+    @JsonProperty("write_to_file")
+    public void setWriteToFile(Long writeToFile) {
+        this.writeToFile = writeToFile;
+    }
+
+    public NewickParams withWriteToFile(Long writeToFile) {
+        this.writeToFile = writeToFile;
+        return this;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public java.lang.String getPackedLinkageMatrix() {
+        return packedLinkageMatrix;
+    }
+
+    @JsonProperty("packed_linkage_matrix")
+    public void setPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+    }
+
+    public NewickParams withPackedLinkageMatrix(java.lang.String packedLinkageMatrix) {
+        this.packedLinkageMatrix = packedLinkageMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((((("NewickParams"+" [linkageMatrix=")+ linkageMatrix)+", labels=")+ labels)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((("NewickParams"+" [linkageMatrix=")+ linkageMatrix)+", labels=")+ labels)+", writeToFile=")+ writeToFile)+", packedLinkageMatrix=")+ packedLinkageMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -0,0 +1,149 @@
+package us.kbase.kbkeutil;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * <p>Client side linkage_2_newick: writes a linkage matrix as a Newick tree.</p>
+ * <pre>
+ * The output is the same as the one of the server's linkage_2_newick: each
+ * cluster is written as (right,left):branch_length, leaves as
+ * label:branch_length, lengths with two decimals. The tree is walked with an
+ * explicit stack, so deep (e.g. caterpillar) trees do not overflow the call
+ * stack, and every fragment goes straight to the Appendable (e.g. a Writer),
+ * so the tree is never held as a whole.
+ * </pre>
+ *
+ */
+public final class NewickWriter {
+
+    // stack entries that are not nodes
+    private static final int CLOSE_ROOT = -1;
+    private static final int CLOSE = -2;
+    private static final int SEPARATOR = -3;
+
+    private NewickWriter() {
+    }
+
+    /**
+     * <p>Writes the tree of linkage_2_newick parameters.</p>
+     * @param   params   packed_linkage_matrix, or linkage_matrix if not set, and the optional labels.
+     * @param   out   where the tree is written.
+     * @throws   IOException   if out fails.
+     */
+    public static void write(NewickParams params, Appendable out) throws IOException {
+        double[] packed = params.getPackedLinkageMatrix() != null ?
+            LinkageCodec.decode(params.getPackedLinkageMatrix()) :
+            LinkageCodec.pack(params.getLinkageMatrix());
+        write(packed, params.getLabels(), out);
+    }
+
+    /**
+     * <p>Converts a packed linkage matrix to a Newick tree.</p>
+     * @param   packed   linkage matrix values, row by row (see LinkageCodec).
+     * @param   labels   leaf labels, or null (or empty) to label leaves by their index.
+     * @return   the tree.
+     */
+    public static String toNewick(double[] packed, List<String> labels) {
+        StringBuilder newick = new StringBuilder();
+        try {
+            write(packed, labels, newick);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringBuilder cannot fail", e);
+        }
+        return newick.toString();
+    }
+
+    /**
+     * <p>Writes a packed linkage matrix as a Newick tree.</p>
+     * @param   packed   linkage matrix values, row by row (see LinkageCodec).
+     * @param   labels   leaf labels, or null (or empty) to label leaves by their index.
+     * @param   out   where the tree is written.
+     * @throws   IOException   if out fails.
+     */
+    public static void write(double[] packed, List<String> labels, Appendable out)
+            throws IOException {
+        int rows = LinkageCodec.rows(packed);
+        if (rows == 0) {
+            throw new IllegalArgumentException("linkage matrix has no rows");
+        }
+        int leaves = rows + 1;
+        if (labels != null && !labels.isEmpty() && labels.size() != leaves) {
+            throw new IllegalArgumentException("linkage matrix has " + leaves +
+                " leaves but " + labels.size() + " labels are given");
+        }
+        checkClusters(packed, leaves);
+
+        int root = 2 * leaves - 2;
+        int[] nodes = new int[64];
+        double[] lengths = new double[64];
+        int size = 0;
+        nodes[size] = root;
+        lengths[size++] = packed[(root - leaves) * LinkageCodec.ROW_SIZE + 2];
+
+        while (size > 0) {
+            int node = nodes[--size];
+            double parentDist = lengths[size];
+            if (node == CLOSE_ROOT) {
+                out.append(");");
+            } else if (node == CLOSE) {
+                out.append("):").append(format(parentDist));
+            } else if (node == SEPARATOR) {
+                out.append(',');
+            } else if (node < leaves) {
+                out.append(labels == null || labels.isEmpty() ? Integer.toString(node) :
+                    labels.get(node));
+                out.append(':').append(format(parentDist));
+            } else {
+                int row = (node - leaves) * LinkageCodec.ROW_SIZE;
+                double nodeDist = packed[row + 2];
+                if (size + 4 > nodes.length) {
+                    nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+                    lengths = Arrays.copyOf(lengths, 2 * lengths.length);
+                }
+                nodes[size] = node == root ? CLOSE_ROOT : CLOSE;
+                lengths[size++] = parentDist - nodeDist;
+                nodes[size] = (int) packed[row];
+                lengths[size++] = nodeDist;
+                nodes[size] = SEPARATOR;
+                lengths[size++] = 0;
+                nodes[size] = (int) packed[row + 1];
+                lengths[size++] = nodeDist;
+                out.append('(');
+            }
+        }
+    }
+
+    /**
+     * Every row must merge two distinct clusters formed before it, so that the walk visits
+     * each cluster once.
+     */
+    private static void checkClusters(double[] packed, int leaves) {
+        boolean[] merged = new boolean[2 * leaves - 1];
+        for (int row = 0; row < leaves - 1; row++) {
+            for (int i = 0; i < 2; i++) {
+                double cluster = packed[row * LinkageCodec.ROW_SIZE + i];
+                if (cluster != Math.rint(cluster) || cluster < 0 || cluster >= leaves + row ||
+                        merged[(int) cluster]) {
+                    throw new IllegalArgumentException("linkage matrix row " + row +
+                        " does not merge two unmerged clusters");
+                }
+                merged[(int) cluster] = true;
+            }
+        }
+    }
+
+    /** Same as Python's '%.2f': the exact double rounded half to even, with the sign of zero. */
+    private static String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.isNaN(value) ? "nan" : value > 0 ? "inf" : "-inf";
+        }
+        String digits = new BigDecimal(Math.abs(value)).setScale(2, RoundingMode.HALF_EVEN)
+            .toPlainString();
+        return value < 0 || (value == 0 && 1 / value < 0) ? "-" + digits : digits;
+    }
+}
@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -21,6 +23,8 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  *                    u'condition_3': {u'gene_1': 0.3, u'gene_2': 0.5, u'gene_3': None},
  *                    u'condition_4': {u'gene_1': 0.4, u'gene_2': 0.6, u'gene_3': None}}
  * n_components - number of components (default 2)
+ * sparse_matrix - sparse data matrix used in place of data_matrix
+ *                 (randomized truncated SVD on scaled, uncentered values)
  * </pre>
  * 
  */
@@ -28,7 +32,8 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
     "data_matrix",
-    "n_components"
+    "n_components",
+    "sparse_matrix"
 })
 public class PCAParams {
 
@@ -36,7 +41,9 @@ public class PCAParams {
     private String dataMatrix;
     @JsonProperty("n_components")
     private Long nComponents;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    @JsonProperty("sparse_matrix")
+    private SparseMatrix sparseMatrix;
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("data_matrix")
     public String getDataMatrix() {
@@ -68,19 +75,42 @@ public class PCAParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("sparse_matrix")
+    public SparseMatrix getSparseMatrix() {
+        return sparseMatrix;
+    }
+
+    @JsonProperty("sparse_matrix")
+    public void setSparseMatrix(SparseMatrix sparseMatrix) {
+        this.sparseMatrix = sparseMatrix;
+    }
+
+    public PCAParams withSparseMatrix(SparseMatrix sparseMatrix) {
+        this.sparseMatrix = sparseMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((("PCAParams"+" [dataMatrix=")+ dataMatrix)+", nComponents=")+ nComponents)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((("PCAParams"+" [dataMatrix=")+ dataMatrix)+", nComponents=")+ nComponents)+", sparseMatrix=")+ sparseMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
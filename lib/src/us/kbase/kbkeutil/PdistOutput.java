@@ -1,12 +1,14 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -18,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  * Ouput of the run_pdist function
  * dist_matrix - 1D distance matrix
  * labels - item name corresponding to each dist_matrix element
+ * dist_matrix_file - memory-mapped condensed distance matrix file (.npy) if out_of_core is set
  * </pre>
  * 
  */
@@ -25,7 +28,8 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
     "dist_matrix",
-    "labels"
+    "labels",
+    "dist_matrix_file"
 })
 public class PdistOutput {
 
@@ -33,7 +37,9 @@ public class PdistOutput {
     private List<Double> distMatrix;
     @JsonProperty("labels")
     private List<String> labels;
-    private Map<java.lang.String, Object> additionalProperties = new HashMap<java.lang.String, Object>();
+    @JsonProperty("dist_matrix_file")
+    private java.lang.String distMatrixFile;
+    private Map<java.lang.String, Object> additionalProperties;
 
     @JsonProperty("dist_matrix")
     public List<Double> getDistMatrix() {
@@ -65,19 +71,42 @@ public class PdistOutput {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("dist_matrix_file")
+    public java.lang.String getDistMatrixFile() {
+        return distMatrixFile;
+    }
+
+    @JsonProperty("dist_matrix_file")
+    public void setDistMatrixFile(java.lang.String distMatrixFile) {
+        this.distMatrixFile = distMatrixFile;
+    }
+
+    public PdistOutput withDistMatrixFile(java.lang.String distMatrixFile) {
+        this.distMatrixFile = distMatrixFile;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<java.lang.String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<java.lang.String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(java.lang.String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<java.lang.String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<java.lang.String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public java.lang.String toString() {
-        return ((((((("PdistOutput"+" [distMatrix=")+ distMatrix)+", labels=")+ labels)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((("PdistOutput"+" [distMatrix=")+ distMatrix)+", labels=")+ labels)+", distMatrixFile=")+ distMatrixFile)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -31,6 +33,16 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
  *           https://docs.scipy.org/doc/scipy/reference/generated/scipy.spatial.distance.pdist.html
  * Note: Advanced metric functions 'minkowski', 'seuclidean' and 'mahalanobis' included in 
  *       scipy.spatial.distance.pdist library are not implemented
+ * out_of_core - write the condensed distance matrix into a memory-mapped file in scratch
+ *               instead of returning it (default is 0)
+ *               dist_matrix_file is returned and dist_matrix is left empty
+ * precision - floating point precision of the distance matrix, 'float64' (default) or 'float32'
+ *             float32 halves memory and payload size; distances are computed in
+ *             float64 and rounded, so values agree with float64 ones to a relative
+ *             tolerance of 1e-6
+ * sparse_matrix - sparse data matrix used in place of data_matrix
+ *                 "cosine", "euclidean", "jaccard" and "cityblock" are computed on the
+ *                 non-zero values only (jaccard on the non-zero pattern)
  * </pre>
  * 
  */
@@ -38,7 +50,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 @Generated("com.googlecode.jsonschema2pojo")
 @JsonPropertyOrder({
     "data_matrix",
-    "metric"
+    "metric",
+    "out_of_core",
+    "precision",
+    "sparse_matrix"
 })
 public class PdistParams {
 
@@ -46,7 +61,13 @@ public class PdistParams {
     private String dataMatrix;
     @JsonProperty("metric")
     private String metric;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    @JsonProperty("out_of_core")
+    private Long outOfCore;
+    @JsonProperty("precision")
+    private String precision;
+    @JsonProperty("sparse_matrix")
+    private SparseMatrix sparseMatrix;
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("data_matrix")
     public String getDataMatrix() {
@@ -78,19 +99,72 @@ public class PdistParams {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonProperty("out_of_core")
+    public Long getOutOfCore() {
+        return outOfCore;
+    }
+
+    @JsonProperty("out_of_core")
+    public void setOutOfCore(Long outOfCore) {
+        this.outOfCore = outOfCore;
+    }
+
+    public PdistParams withOutOfCore(Long outOfCore) {
+        this.outOfCore = outOfCore;
+        return this;
+    }
+
+    @JsonProperty("precision")
+    public String getPrecision() {
+        return precision;
+    }
+
+    @JsonProperty("precision")
+    public void setPrecision(String precision) {
+        this.precision = precision;
+    }
+
+    public PdistParams withPrecision(String precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    @JsonProperty("sparse_matrix")
+    public SparseMatrix getSparseMatrix() {
+        return sparseMatrix;
+    }
+
+    @JsonProperty("sparse_matrix")
+    public void setSparseMatrix(SparseMatrix sparseMatrix) {
+        this.sparseMatrix = sparseMatrix;
+    }
+
+    public PdistParams withSparseMatrix(SparseMatrix sparseMatrix) {
+        this.sparseMatrix = sparseMatrix;
+        return this;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((("PdistParams"+" [dataMatrix=")+ dataMatrix)+", metric=")+ metric)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((((("PdistParams"+" [dataMatrix=")+ dataMatrix)+", metric=")+ metric)+", outOfCore=")+ outOfCore)+", precision=")+ precision)+", sparseMatrix=")+ sparseMatrix)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
@@ -0,0 +1,83 @@
+package us.kbase.kbkeutil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+
+/**
+ * <p>Keep-alive HTTP transport of KbKeUtilClientCaller, without a compile or load time dependency on java.net.http.</p>
+ * <pre>
+ * create returns an HttpClientTransport, which sends requests through one
+ * java.net.http.HttpClient. Only HttpClientTransport refers to
+ * java.net.http, and it is loaded by name, so the rest of the client loads
+ * on Java 8; there isAvailable is false and the pooled transport cannot be
+ * enabled.
+ * </pre>
+ */
+abstract class PooledTransport {
+
+    private static final String IMPLEMENTATION = "us.kbase.kbkeutil.HttpClientTransport";
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private static boolean checkAvailable() {
+        try {
+            Class.forName("java.net.http.HttpClient");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /** Check if the runtime has java.net.http (Java 11 or later).
+     * @return true if create can be called.
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /** Create a transport with its own connection pool.
+     * @param http2 true to negotiate HTTP/2, false for HTTP/1.1 only.
+     * @param connectTimeoutMillis connect timeout of new connections.
+     * @return the transport.
+     */
+    static PooledTransport create(boolean http2, int connectTimeoutMillis) {
+        if (!AVAILABLE) {
+            throw new UnsupportedOperationException("The pooled transport needs Java 11 or later");
+        }
+        try {
+            return (PooledTransport) Class.forName(IMPLEMENTATION)
+                .getDeclaredConstructor(boolean.class, int.class)
+                .newInstance(http2, connectTimeoutMillis);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + IMPLEMENTATION, e);
+        }
+    }
+
+    /** Send a POST request and wait for the response headers.
+     * @param uri the service URL.
+     * @param headers the request headers.
+     * @param body the request body.
+     * @param readTimeoutMillis the response timeout, or null for none.
+     * @return the response, with its body still to be read.
+     */
+    abstract Reply post(URI uri, Map<String, String> headers, byte[] body,
+            Integer readTimeoutMillis) throws IOException, InterruptedException;
+
+    /** Status, headers and body stream of a response. */
+    static final class Reply {
+
+        final int code;
+        final String contentType;
+        final String contentEncoding;
+        final InputStream body;
+
+        Reply(int code, String contentType, String contentEncoding, InputStream body) {
+            this.code = code;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package us.kbase.kbkeutil;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * <p>Java Flight Recorder event of one KbKeUtilClient RPC call.</p>
+ * <pre>
+ * Disabled by default: begin, end and shouldCommit are no-ops that the JIT
+ * removes, so the event costs nothing unless a recording enables it, e.g.
+ *
+ *   java -XX:StartFlightRecording:settings=kbkeutil.jfc ...
+ *
+ * with a copy of default.jfc that adds
+ *
+ *   &lt;event name="us.kbase.kbkeutil.KeUtilRpcCall"&gt;
+ *     &lt;setting name="enabled"&gt;true&lt;/setting&gt;
+ *     &lt;setting name="stackTrace"&gt;true&lt;/setting&gt;
+ *     &lt;setting name="threshold"&gt;0 ms&lt;/setting&gt;
+ *   &lt;/event&gt;
+ *
+ * (JDK 17 and later also take us.kbase.kbkeutil.KeUtilRpcCall#enabled=true
+ * as a StartFlightRecording option). While enabled, calls are made by
+ * KbKeUtilClientCaller itself so that the stage fields are filled, see
+ * RpcCallMetrics for their meaning; they are -1 for delegated calls.
+ * Only created through JfrClientEvents, so the client loads without jdk.jfr.
+ * </pre>
+ */
+@Name("us.kbase.kbkeutil.KeUtilRpcCall")
+@Label("KeUtil RPC Call")
+@Description("JSON RPC call made by KbKeUtilClient")
+@Category({"KBase", "kb_ke_util"})
+@Enabled(false)
+final class RpcCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Transport")
+    @Description("connection, pooled or delegated (JsonClientCaller)")
+    String transport;
+
+    @Label("CBOR")
+    boolean cbor;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Serialize")
+    @Timespan
+    long serializeNanos;
+
+    @Label("Wait")
+    @Timespan
+    long waitNanos;
+
+    @Label("Deserialize")
+    @Timespan
+    long deserializeNanos;
+
+    @Label("Error")
+    String error;
+
+}
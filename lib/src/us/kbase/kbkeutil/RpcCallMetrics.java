@@ -0,0 +1,106 @@
+package us.kbase.kbkeutil;
+
+import java.util.Map;
+
+/**
+ * <p>Sizes and stage timings of one RPC call, see RpcMetricsListener.</p>
+ * <pre>
+ * serialize   - encoding the request body (JSON or CBOR, and gzip); in
+ *               streaming mode this includes writing it to the connection
+ * wait        - sending the body until the response status and headers
+ *               arrived, i.e. network and server compute
+ * deserialize - reading and decoding the response body, which is parsed
+ *               as it arrives from the connection
+ * Byte counts are as sent and received on the wire (after compression).
+ * Calls delegated to JsonClientCaller (trust-all SSL, responses written to
+ * a file, fallbacks after a rejected encoding) only report the total time,
+ * their other values are -1.
+ * The server profile is only returned if it was requested, see
+ * KbKeUtilClient.setServerProfilingEnabled.
+ * </pre>
+ */
+public final class RpcCallMetrics {
+
+    private final String method;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long serializeNanos;
+    private final long waitNanos;
+    private final long deserializeNanos;
+    private final long totalNanos;
+    private final Map<String, Object> serverProfile;
+    private final Throwable error;
+
+    public RpcCallMetrics(String method, long requestBytes, long responseBytes,
+            long serializeNanos, long waitNanos, long deserializeNanos, long totalNanos,
+            Map<String, Object> serverProfile, Throwable error) {
+        this.method = method;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.serializeNanos = serializeNanos;
+        this.waitNanos = waitNanos;
+        this.deserializeNanos = deserializeNanos;
+        this.totalNanos = totalNanos;
+        this.serverProfile = serverProfile;
+        this.error = error;
+    }
+
+    /** @return the JSON RPC method name, e.g. kb_ke_util.run_pdist. */
+    public String getMethod() {
+        return method;
+    }
+
+    /** @return the request body size in bytes, or -1. */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /** @return the response body size in bytes, or -1. */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /** @return the request encoding time in nanoseconds, or -1. */
+    public long getSerializeNanos() {
+        return serializeNanos;
+    }
+
+    /** @return the time until the response headers arrived in nanoseconds, or -1. */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /** @return the response decoding time in nanoseconds, or -1. */
+    public long getDeserializeNanos() {
+        return deserializeNanos;
+    }
+
+    /** @return the duration of the whole call in nanoseconds. */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * <p>Profile of the call on the server.</p>
+     * @return   total_seconds, stages (list of name, seconds and count), sizes,
+     *           peak_rss_bytes and peak_rss_growth_bytes, or null if not requested.
+     */
+    public Map<String, Object> getServerProfile() {
+        return serverProfile;
+    }
+
+    /** @return the exception the call failed with, or null. */
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "RpcCallMetrics [method=" + method + ", requestBytes=" + requestBytes +
+            ", responseBytes=" + responseBytes + ", serializeNanos=" + serializeNanos +
+            ", waitNanos=" + waitNanos + ", deserializeNanos=" + deserializeNanos +
+            ", totalNanos=" + totalNanos + ", serverProfile=" + serverProfile +
+            ", error=" + error + "]";
+    }
+
+}
@@ -0,0 +1,22 @@
+package us.kbase.kbkeutil;
+
+
+/**
+ * <p>Receives the metrics of every RPC call made by a KbKeUtilClient.</p>
+ * <pre>
+ * Registered with KbKeUtilClient.setMetricsListener. callCompleted runs on
+ * the calling thread once the call has returned or failed, so it should
+ * only record the values (RpcMetricsRecorder keeps histograms per method;
+ * a Micrometer bridge would update its timers and distribution summaries).
+ * Exceptions thrown by the listener are ignored.
+ * </pre>
+ */
+public interface RpcMetricsListener {
+
+    /**
+     * <p>Called once per RPC call.</p>
+     * @param   metrics   sizes, stage timings and error of the call.
+     */
+    void callCompleted(RpcCallMetrics metrics);
+
+}
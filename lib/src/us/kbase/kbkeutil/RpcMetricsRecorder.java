@@ -0,0 +1,207 @@
+package us.kbase.kbkeutil;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * <p>RpcMetricsListener keeping histograms of sizes and stage timings per RPC method.</p>
+ * <pre>
+ * Recording is lock free: every histogram is a fixed array of log-linear
+ * buckets (8 per power of two, so percentiles are within 12.5% of the
+ * recorded value) updated with atomic increments.
+ *
+ *   RpcMetricsRecorder recorder = new RpcMetricsRecorder();
+ *   client.setMetricsListener(recorder);
+ *   ...
+ *   recorder.getMethods().get("kb_ke_util.run_pdist").getWaitNanos().getPercentile(0.99);
+ * </pre>
+ */
+public class RpcMetricsRecorder implements RpcMetricsListener {
+
+    private final ConcurrentHashMap<String, MethodMetrics> methods =
+        new ConcurrentHashMap<String, MethodMetrics>();
+
+    @Override
+    public void callCompleted(RpcCallMetrics metrics) {
+        MethodMetrics method = methods.get(metrics.getMethod());
+        if (method == null) {
+            methods.putIfAbsent(metrics.getMethod(), new MethodMetrics());
+            method = methods.get(metrics.getMethod());
+        }
+        method.record(metrics);
+    }
+
+    /**
+     * <p>Metrics recorded so far.</p>
+     * @return   live metrics keyed by JSON RPC method name, sorted by name.
+     */
+    public Map<String, MethodMetrics> getMethods() {
+        return Collections.unmodifiableMap(new TreeMap<String, MethodMetrics>(methods));
+    }
+
+    /** Drops all recorded metrics. */
+    public void reset() {
+        methods.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, MethodMetrics> method : getMethods().entrySet()) {
+            report.append(method.getKey()).append(": ").append(method.getValue()).append('\n');
+        }
+        return report.toString();
+    }
+
+    /** Histograms of one RPC method. */
+    public static class MethodMetrics {
+
+        private final LongAdder errors = new LongAdder();
+        private final Histogram requestBytes = new Histogram();
+        private final Histogram responseBytes = new Histogram();
+        private final Histogram serializeNanos = new Histogram();
+        private final Histogram waitNanos = new Histogram();
+        private final Histogram deserializeNanos = new Histogram();
+        private final Histogram totalNanos = new Histogram();
+
+        void record(RpcCallMetrics metrics) {
+            if (metrics.getError() != null) {
+                errors.increment();
+            }
+            requestBytes.record(metrics.getRequestBytes());
+            responseBytes.record(metrics.getResponseBytes());
+            serializeNanos.record(metrics.getSerializeNanos());
+            waitNanos.record(metrics.getWaitNanos());
+            deserializeNanos.record(metrics.getDeserializeNanos());
+            totalNanos.record(metrics.getTotalNanos());
+        }
+
+        /** @return the number of calls. */
+        public long getCalls() {
+            return totalNanos.getCount();
+        }
+
+        /** @return the number of failed calls. */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public Histogram getRequestBytes() {
+            return requestBytes;
+        }
+
+        public Histogram getResponseBytes() {
+            return responseBytes;
+        }
+
+        public Histogram getSerializeNanos() {
+            return serializeNanos;
+        }
+
+        public Histogram getWaitNanos() {
+            return waitNanos;
+        }
+
+        public Histogram getDeserializeNanos() {
+            return deserializeNanos;
+        }
+
+        public Histogram getTotalNanos() {
+            return totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "calls=" + getCalls() + " errors=" + getErrors() +
+                " requestBytes[" + requestBytes + "] responseBytes[" + responseBytes +
+                "] serializeNanos[" + serializeNanos + "] waitNanos[" + waitNanos +
+                "] deserializeNanos[" + deserializeNanos + "] totalNanos[" + totalNanos + "]";
+        }
+    }
+
+    /** Log-linear histogram of non-negative long values, negative values are not recorded. */
+    public static class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        /**
+         * <p>Records one value.</p>
+         * @param   value   the value, ignored if negative.
+         */
+        public void record(long value) {
+            if (value < 0) {
+                return;
+            }
+            counts.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long base = (SUB_BUCKETS | (bucket % SUB_BUCKETS)) + 1L;
+            return (base << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        /** @return the number of recorded values. */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /** @return the mean of the recorded values, or 0. */
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * <p>Value at a quantile, as the upper bound of its bucket.</p>
+         * @param   quantile   from 0 to 1, e.g. 0.99.
+         * @return   the value, or 0 if nothing was recorded.
+         */
+        public long getPercentile(double quantile) {
+            long n = count.sum();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * n));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length(); bucket++) {
+                seen += counts.get(bucket);
+                if (seen >= rank) {
+                    return upperBound(bucket);
+                }
+            }
+            return upperBound(counts.length() - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + " mean=" + Math.round(getMean()) + " p50=" +
+                getPercentile(0.5) + " p99=" + getPercentile(0.99);
+        }
+    }
+
+}
@@ -0,0 +1,422 @@
+package us.kbase.kbkeutil;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * <p>Local information content based term similarity, the same scores as
+ * calc_resnik_onthology_sim, calc_lin_onthology_sim and
+ * calc_jiang_conrath_onthology_dist.</p>
+ * <pre>
+ * Build it once per ontology (and annotation corpus) and score any number of
+ * term pairs without a server call:
+ *
+ *   SemanticSimilarity similarity = SemanticSimilarity.of(isAParents, entityTermSet);
+ *   double score = similarity.lin("GO:0050794", "GO:0019222");
+ *
+ * Information content of a term is -log(p): with an entity_term_set, p is
+ * (count + 1) / (entities + 1) with count the number of entities annotated with
+ * the term or one of its descendants; without it, p is the fraction of terms
+ * that are the term or one of its descendants.
+ * The ancestors of every term are precomputed and sorted by information
+ * content, so scoring a pair walks the two ancestor lists once and stops at
+ * the most informative common ancestor. Instances are immutable and thread safe.
+ * </pre>
+ */
+public final class SemanticSimilarity {
+
+    private final String[] terms;
+    private final Map<String, Integer> termIndexes;
+    private final double[] informationContent;
+    // ancestors of term i, the term included, are ancestorRanks[ancestorPtr[i]..ancestorPtr[i + 1]),
+    // a rank orders terms by information content, most informative first
+    private final int[] ancestorPtr;
+    private final int[] ancestorRanks;
+    private final int[] rankTerms;
+
+    private SemanticSimilarity(String[] terms, Map<String, Integer> termIndexes,
+            int[][] ancestors, double[] informationContent) {
+        this.terms = terms;
+        this.termIndexes = termIndexes;
+        this.informationContent = informationContent;
+
+        Integer[] order = new Integer[terms.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Double.compare(informationContent[b], informationContent[a]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        rankTerms = new int[terms.length];
+        int[] termRanks = new int[terms.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            rankTerms[rank] = order[rank];
+            termRanks[order[rank]] = rank;
+        }
+
+        ancestorPtr = new int[terms.length + 1];
+        for (int i = 0; i < terms.length; i++) {
+            ancestorPtr[i + 1] = ancestorPtr[i] + ancestors[i].length;
+        }
+        ancestorRanks = new int[ancestorPtr[terms.length]];
+        for (int i = 0; i < terms.length; i++) {
+            int start = ancestorPtr[i];
+            for (int ancestor : ancestors[i]) {
+                ancestorRanks[start++] = termRanks[ancestor];
+            }
+            Arrays.sort(ancestorRanks, ancestorPtr[i], ancestorPtr[i + 1]);
+        }
+    }
+
+    /**
+     * <p>Similarity with the information content of the ontology structure.</p>
+     * @param   isAParents   term -> is_a parent terms, parents that are not keys are roots.
+     * @return   the similarity.
+     */
+    public static SemanticSimilarity of(Map<String, ? extends Collection<String>> isAParents) {
+        return of(isAParents, null);
+    }
+
+    /**
+     * <p>Similarity with the information content of an annotation corpus.</p>
+     * @param   isAParents   term -> is_a parent terms, parents that are not keys are roots.
+     * @param   entityTermSet   entity -> assigned terms, terms not in the ontology are
+     * ignored; null for the information content of the ontology structure.
+     * @return   the similarity.
+     */
+    public static SemanticSimilarity of(Map<String, ? extends Collection<String>> isAParents,
+            Map<String, ? extends Collection<String>> entityTermSet) {
+        Map<String, Integer> termIndexes = new LinkedHashMap<String, Integer>();
+        for (Map.Entry<String, ? extends Collection<String>> term : isAParents.entrySet()) {
+            indexOf(termIndexes, term.getKey());
+            for (String parent : term.getValue()) {
+                indexOf(termIndexes, parent);
+            }
+        }
+        String[] terms = termIndexes.keySet().toArray(new String[termIndexes.size()]);
+        int[][] parents = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            Collection<String> termParents = isAParents.get(terms[i]);
+            parents[i] = new int[termParents == null ? 0 : termParents.size()];
+            int k = 0;
+            if (termParents != null) {
+                for (String parent : termParents) {
+                    parents[i][k++] = termIndexes.get(parent);
+                }
+            }
+        }
+
+        int[][] ancestors = ancestors(parents);
+        double[] informationContent = entityTermSet == null ?
+            intrinsicInformationContent(ancestors) :
+            annotationInformationContent(ancestors, termIndexes, entityTermSet);
+        return new SemanticSimilarity(terms, termIndexes, ancestors, informationContent);
+    }
+
+    /**
+     * <p>Index of a term.</p>
+     * @param   term   the term.
+     * @return   the index, or -1 if the term is not in the ontology.
+     */
+    public int termIndex(String term) {
+        Integer index = termIndexes.get(term);
+        return index == null ? -1 : index;
+    }
+
+    /** @return the number of terms. */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * @param   index   a term index.
+     * @return   the term.
+     */
+    public String getTerm(int index) {
+        return terms[index];
+    }
+
+    /**
+     * @param   index   a term index.
+     * @return   the information content of the term.
+     */
+    public double getInformationContent(int index) {
+        return informationContent[index];
+    }
+
+    /**
+     * <p>Most informative common ancestor of two terms, a term is its own ancestor.</p>
+     * @param   a   a term index.
+     * @param   b   a term index.
+     * @return   the index of the ancestor, or -1 if there is no common ancestor.
+     */
+    public int commonAncestor(int a, int b) {
+        int i = ancestorPtr[a];
+        int iEnd = ancestorPtr[a + 1];
+        int j = ancestorPtr[b];
+        int jEnd = ancestorPtr[b + 1];
+        while (i < iEnd && j < jEnd) {
+            int rankA = ancestorRanks[i];
+            int rankB = ancestorRanks[j];
+            if (rankA == rankB) {
+                return rankTerms[rankA];
+            }
+            if (rankA < rankB) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>Resnik similarity, the information content of the most informative common ancestor.</p>
+     * @param   a   a term index.
+     * @param   b   a term index.
+     * @return   the similarity, 0 if there is no common ancestor.
+     */
+    public double resnik(int a, int b) {
+        int ancestor = commonAncestor(a, b);
+        return ancestor < 0 ? 0.0 : informationContent[ancestor];
+    }
+
+    /**
+     * <p>Lin similarity, 2 * IC(common ancestor) / (IC(a) + IC(b)).</p>
+     * @param   a   a term index.
+     * @param   b   a term index.
+     * @return   the similarity in [0, 1], 0 if there is no common ancestor.
+     */
+    public double lin(int a, int b) {
+        int ancestor = commonAncestor(a, b);
+        if (ancestor < 0) {
+            return 0.0;
+        }
+        double sum = informationContent[a] + informationContent[b];
+        // both terms are roots, the root is its own common ancestor
+        return sum > 0 ? 2 * informationContent[ancestor] / sum : 1.0;
+    }
+
+    /**
+     * <p>Jiang-Conrath distance, IC(a) + IC(b) - 2 * IC(common ancestor).</p>
+     * @param   a   a term index.
+     * @param   b   a term index.
+     * @return   the distance, infinity if there is no common ancestor.
+     */
+    public double jiangConrath(int a, int b) {
+        int ancestor = commonAncestor(a, b);
+        if (ancestor < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(informationContent[a] + informationContent[b] -
+            2 * informationContent[ancestor], 0.0);
+    }
+
+    /**
+     * @param   a   a term.
+     * @param   b   a term.
+     * @return   the Resnik similarity, 0 if a term is not in the ontology.
+     */
+    public double resnik(String a, String b) {
+        int i = termIndex(a);
+        int j = termIndex(b);
+        return i < 0 || j < 0 ? 0.0 : resnik(i, j);
+    }
+
+    /**
+     * @param   a   a term.
+     * @param   b   a term.
+     * @return   the Lin similarity, 0 if a term is not in the ontology.
+     */
+    public double lin(String a, String b) {
+        int i = termIndex(a);
+        int j = termIndex(b);
+        return i < 0 || j < 0 ? 0.0 : lin(i, j);
+    }
+
+    /**
+     * @param   a   a term.
+     * @param   b   a term.
+     * @return   the Jiang-Conrath distance, infinity if a term is not in the ontology.
+     */
+    public double jiangConrath(String a, String b) {
+        int i = termIndex(a);
+        int j = termIndex(b);
+        return i < 0 || j < 0 ? Double.POSITIVE_INFINITY : jiangConrath(i, j);
+    }
+
+    /**
+     * <p>Resnik similarity of each onthology pair, the onthology_score_set of
+     * calc_resnik_onthology_sim.</p>
+     * @param   onthologySet   gene_id -> pair of terms.
+     * @return   gene_id -> similarity.
+     */
+    public Map<String, Double> resnik(Map<String, List<String>> onthologySet) {
+        Map<String, Double> scores = newScores(onthologySet);
+        for (Map.Entry<String, List<String>> pair : onthologySet.entrySet()) {
+            scores.put(pair.getKey(), resnik(pair.getValue().get(0), pair.getValue().get(1)));
+        }
+        return scores;
+    }
+
+    /**
+     * <p>Lin similarity of each onthology pair, the onthology_score_set of
+     * calc_lin_onthology_sim.</p>
+     * @param   onthologySet   gene_id -> pair of terms.
+     * @return   gene_id -> similarity.
+     */
+    public Map<String, Double> lin(Map<String, List<String>> onthologySet) {
+        Map<String, Double> scores = newScores(onthologySet);
+        for (Map.Entry<String, List<String>> pair : onthologySet.entrySet()) {
+            scores.put(pair.getKey(), lin(pair.getValue().get(0), pair.getValue().get(1)));
+        }
+        return scores;
+    }
+
+    /**
+     * <p>Jiang-Conrath distance of each onthology pair, the onthology_score_set of
+     * calc_jiang_conrath_onthology_dist.</p>
+     * @param   onthologySet   gene_id -> pair of terms.
+     * @return   gene_id -> distance.
+     */
+    public Map<String, Double> jiangConrath(Map<String, List<String>> onthologySet) {
+        Map<String, Double> scores = newScores(onthologySet);
+        for (Map.Entry<String, List<String>> pair : onthologySet.entrySet()) {
+            scores.put(pair.getKey(),
+                jiangConrath(pair.getValue().get(0), pair.getValue().get(1)));
+        }
+        return scores;
+    }
+
+    private static Map<String, Double> newScores(Map<String, List<String>> onthologySet) {
+        return new LinkedHashMap<String, Double>(onthologySet.size() * 4 / 3 + 1);
+    }
+
+    private static int indexOf(Map<String, Integer> termIndexes, String term) {
+        Integer index = termIndexes.get(term);
+        if (index == null) {
+            index = termIndexes.size();
+            termIndexes.put(term, index);
+        }
+        return index;
+    }
+
+    /**
+     * Ancestors of every term, the term included. Depth first, a term's ancestors are
+     * merged once all its parents are done; a parent still in progress closes an is_a
+     * cycle and is skipped.
+     */
+    private static int[][] ancestors(int[][] parents) {
+        int n = parents.length;
+        int[][] ancestors = new int[n][];
+        boolean[] inProgress = new boolean[n];
+        // marks[t] == stamp while t is collected for the current term
+        int[] marks = new int[n];
+        int stamp = 0;
+        int[] buffer = new int[16];
+        int[] stack = new int[16];
+        for (int start = 0; start < n; start++) {
+            int top = 0;
+            stack[top++] = start;
+            while (top > 0) {
+                int term = stack[top - 1];
+                if (ancestors[term] != null) {
+                    top--;
+                    continue;
+                }
+                inProgress[term] = true;
+                boolean pending = false;
+                for (int parent : parents[term]) {
+                    if (ancestors[parent] == null && !inProgress[parent]) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = parent;
+                        pending = true;
+                    }
+                }
+                if (pending) {
+                    continue;
+                }
+                top--;
+                stamp++;
+                int count = 0;
+                marks[term] = stamp;
+                buffer[count++] = term;
+                for (int parent : parents[term]) {
+                    if (ancestors[parent] == null) {
+                        continue;
+                    }
+                    for (int ancestor : ancestors[parent]) {
+                        if (marks[ancestor] != stamp) {
+                            marks[ancestor] = stamp;
+                            if (count == buffer.length) {
+                                buffer = Arrays.copyOf(buffer, count * 2);
+                            }
+                            buffer[count++] = ancestor;
+                        }
+                    }
+                }
+                ancestors[term] = Arrays.copyOf(buffer, count);
+                inProgress[term] = false;
+            }
+        }
+        return ancestors;
+    }
+
+    private static double[] intrinsicInformationContent(int[][] ancestors) {
+        int n = ancestors.length;
+        int[] descendantCounts = new int[n];
+        for (int[] termAncestors : ancestors) {
+            for (int ancestor : termAncestors) {
+                descendantCounts[ancestor]++;
+            }
+        }
+        double[] informationContent = new double[n];
+        for (int i = 0; i < n; i++) {
+            informationContent[i] = Math.log((double) n / Math.max(descendantCounts[i], 1));
+        }
+        return informationContent;
+    }
+
+    private static double[] annotationInformationContent(int[][] ancestors,
+            Map<String, Integer> termIndexes, Map<String, ? extends Collection<String>> entityTermSet) {
+        int n = ancestors.length;
+        int[] counts = new int[n];
+        // marks[t] == stamp once t is counted for the current entity
+        int[] marks = new int[n];
+        int stamp = 0;
+        int entityCount = 0;
+        for (Collection<String> entityTerms : entityTermSet.values()) {
+            stamp++;
+            boolean annotated = false;
+            for (String term : entityTerms) {
+                Integer index = termIndexes.get(term);
+                if (index == null) {
+                    continue;
+                }
+                annotated = true;
+                for (int ancestor : ancestors[index]) {
+                    if (marks[ancestor] != stamp) {
+                        marks[ancestor] = stamp;
+                        counts[ancestor]++;
+                    }
+                }
+            }
+            if (annotated) {
+                entityCount++;
+            }
+        }
+        double[] informationContent = new double[n];
+        for (int i = 0; i < n; i++) {
+            informationContent[i] = Math.log((entityCount + 1.0) / (counts[i] + 1.0));
+        }
+        return informationContent;
+    }
+
+}
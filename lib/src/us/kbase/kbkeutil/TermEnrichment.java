@@ -1,11 +1,13 @@
 
 package us.kbase.kbkeutil;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Generated;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -34,7 +36,7 @@ public class TermEnrichment {
     private Long expectedCount;
     @JsonProperty("p_value")
     private Double pValue;
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("sample_count")
     public Long getSampleCount() {
@@ -96,19 +98,27 @@ public class TermEnrichment {
         return this;
     }
 
-    @JsonAnyGetter
+    @JsonIgnore
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperties(String name, Object value) {
-        this.additionalProperties.put(name, value);
+        getAdditionalProperties().put(name, value);
+    }
+
+    @JsonAnyGetter
+    private Map<String, Object> additionalPropertiesOrEmpty() {
+        return this.additionalProperties == null ? Collections.<String, Object>emptyMap() : this.additionalProperties;
     }
 
     @Override
     public String toString() {
-        return ((((((((((("TermEnrichment"+" [sampleCount=")+ sampleCount)+", totalCount=")+ totalCount)+", expectedCount=")+ expectedCount)+", pValue=")+ pValue)+", additionalProperties=")+ additionalProperties)+"]");
+        return ((((((((((("TermEnrichment"+" [sampleCount=")+ sampleCount)+", totalCount=")+ totalCount)+", expectedCount=")+ expectedCount)+", pValue=")+ pValue)+", additionalProperties=")+ additionalPropertiesOrEmpty())+"]");
     }
 
 }
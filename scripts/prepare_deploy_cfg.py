@@ -31,6 +31,8 @@ if __name__ == "__main__":
             props += "auth_service_url = " + os.environ.get("AUTH_SERVICE_URL") + "\n"
         props += "auth_service_url_allow_insecure = " + \
                  os.environ.get("AUTH_SERVICE_URL_ALLOW_INSECURE", "false") + "\n"
+        # deployed service: load the ontology before the first request (off for tests)
+        props += "preload_ontology = " + os.environ.get("PRELOAD_ONTOLOGY", "true") + "\n"
         for key in os.environ:
             if key.startswith('KBASE_SECURE_CONFIG_PARAM_'):
                 param_name = key[len('KBASE_SECURE_CONFIG_PARAM_'):]
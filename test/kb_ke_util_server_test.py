@@ -5,7 +5,15 @@ import json  # noqa: F401
 import time
 import requests  # noqa: F401
 import inspect
+import threading
+import io
+import zlib
 import pandas as pd
+import numpy as np
+import scipy.spatial.distance as dist
+import scipy.cluster.hierarchy as hier
+from scipy import sparse
+import cbor2
 
 
 from os import environ
@@ -19,9 +27,13 @@ from pprint import pprint  # noqa: F401
 from biokbase.workspace.client import Workspace as workspaceService
 from kb_ke_util.kb_ke_utilImpl import kb_ke_util
 from kb_ke_util.kb_ke_utilServer import MethodContext
+from kb_ke_util.wsgi import application
 from kb_ke_util.authclient import KBaseAuth as _KBaseAuth
 from DataFileUtil.DataFileUtilClient import DataFileUtil
 from kb_ke_util.Utils.KnowledgeEngineUtil import KnowledgeEngineUtil
+from kb_ke_util.Utils.ResultCache import ResultCache
+from kb_ke_util.Utils.TermBitmapCache import TermBitmapCache
+from kb_ke_util.Utils import RpcTransport
 
 
 class kb_ke_utilTest(unittest.TestCase):
@@ -176,9 +188,17 @@ class kb_ke_utilTest(unittest.TestCase):
         else:
             self.assertEqual(error, str(context.exception.message))
 
+    def fail_run_fcluster_sweep(self, params, error, exception=ValueError, contains=False):
+        with self.assertRaises(exception) as context:
+            self.getImpl().run_fcluster_sweep(self.ctx, params)
+        if contains:
+            self.assertIn(error, str(context.exception.message))
+        else:
+            self.assertEqual(error, str(context.exception.message))
+
     def fail_run_dendrogram(self, params, error, exception=ValueError, contains=False):
         with self.assertRaises(exception) as context:
-            self.getImpl().run_fcluster(self.ctx, params)
+            self.getImpl().run_dendrogram(self.ctx, params)
         if contains:
             self.assertIn(error, str(context.exception.message))
         else:
@@ -222,6 +242,10 @@ class kb_ke_utilTest(unittest.TestCase):
     def check_run_fcluster_output(self, ret):
         self.assertTrue('flat_cluster' in ret)
 
+    def check_run_fcluster_sweep_output(self, ret, expect_size):
+        self.assertTrue('flat_clusters' in ret)
+        self.assertEqual(len(ret['flat_clusters']), expect_size)
+
     def check_run_dendrogram_output(self, ret):
         self.assertTrue('result_plots' in ret)
 
@@ -247,6 +271,145 @@ class kb_ke_utilTest(unittest.TestCase):
         onthology_dist_set = ret['onthology_dist_set']
         self.assertItemsEqual(onthology_dist_set, expect_steps)
 
+    def call_application(self, body, content_type, accept, **headers):
+        environ = {'REQUEST_METHOD': 'POST',
+                   'CONTENT_LENGTH': str(len(body)),
+                   'CONTENT_TYPE': content_type,
+                   'HTTP_ACCEPT': accept,
+                   'REMOTE_ADDR': '127.0.0.1',
+                   'wsgi.input': io.BytesIO(body)}
+        environ.update(headers)
+        response = {}
+
+        def start_response(status, headers):
+            response['status'] = status
+            response['headers'] = dict(headers)
+
+        response['body'] = ''.join(application(environ, start_response))
+        return response
+
+    def test_cbor_request(self):
+        self.start_test()
+        request = {'version': '1.1',
+                   'id': '1',
+                   'method': 'kb_ke_util.status',
+                   'params': []}
+
+        response = self.call_application(cbor2.dumps(request), 'application/cbor',
+                                         'application/cbor, application/json')
+        self.assertEqual(response['status'], '200 OK')
+        self.assertEqual(response['headers']['content-type'], 'application/cbor')
+        cbor_result = cbor2.loads(response['body'])['result']
+        self.assertEqual(cbor_result[0]['state'], 'OK')
+
+        # a client that only reads JSON gets JSON back
+        response = self.call_application(cbor2.dumps(request), 'application/cbor',
+                                         'application/json')
+        self.assertEqual(response['headers']['content-type'], 'application/json')
+        self.assertEqual(json.loads(response['body'])['result'], cbor_result)
+
+        # undecodable requests are JSON parse errors, the client's cue to fall back to JSON
+        response = self.call_application('\xff\xff', 'application/cbor', 'application/cbor')
+        self.assertEqual(response['headers']['content-type'], 'application/json')
+        self.assertEqual(json.loads(response['body'])['error']['code'], -32700)
+
+    def test_gzip_request(self):
+        self.start_test()
+        request = json.dumps({'version': '1.1',
+                              'id': '1',
+                              'method': 'kb_ke_util.status',
+                              'params': []})
+        compressor = zlib.compressobj(6, zlib.DEFLATED, 16 + zlib.MAX_WBITS)
+        body = compressor.compress(request) + compressor.flush()
+
+        response = self.call_application(body, 'application/json', 'application/json',
+                                         HTTP_CONTENT_ENCODING='gzip',
+                                         HTTP_ACCEPT_ENCODING='gzip')
+        self.assertEqual(response['status'], '200 OK')
+        # status is far below the compression threshold
+        self.assertFalse('content-encoding' in response['headers'])
+        self.assertEqual(json.loads(response['body'])['result'][0]['state'], 'OK')
+
+        response = self.call_application(body[:-8], 'application/json', 'application/json',
+                                         HTTP_CONTENT_ENCODING='gzip')
+        self.assertEqual(json.loads(response['body'])['error']['code'], -32700)
+
+        # the request is decompressed up to GZIP_MAX_REQUEST_BYTES only
+        max_request_bytes = RpcTransport.GZIP_MAX_REQUEST_BYTES
+        RpcTransport.GZIP_MAX_REQUEST_BYTES = len(request) - 1
+        try:
+            response = self.call_application(body, 'application/json', 'application/json',
+                                             HTTP_CONTENT_ENCODING='gzip')
+        finally:
+            RpcTransport.GZIP_MAX_REQUEST_BYTES = max_request_bytes
+        error = json.loads(response['body'])['error']
+        self.assertEqual(error['code'], -32700)
+        self.assertIn('decompresses to more than', error['message'])
+
+        # chunked request, read to the end if the server marks the input as terminated
+        response = self.call_application(request, 'application/json', 'application/json',
+                                         CONTENT_LENGTH='')
+        self.assertEqual(json.loads(response['body'])['error']['code'], -32700)
+        response = self.call_application(request, 'application/json', 'application/json',
+                                         CONTENT_LENGTH='', **{'wsgi.input_terminated': True})
+        self.assertEqual(json.loads(response['body'])['result'][0]['state'], 'OK')
+
+        data_matrix = pd.DataFrame(np.random.RandomState(0).rand(300, 10)).to_json()
+        request = json.dumps({'version': '1.1',
+                              'id': '1',
+                              'method': 'kb_ke_util.run_pdist',
+                              'params': [{'data_matrix': data_matrix}]})
+        response = self.call_application(request, 'application/json', 'application/json',
+                                         HTTP_AUTHORIZATION=self.token,
+                                         HTTP_ACCEPT_ENCODING='gzip')
+        self.assertEqual(response['status'], '200 OK')
+        self.assertEqual(response['headers']['content-encoding'], 'gzip')
+        self.assertEqual(response['headers']['content-length'], str(len(response['body'])))
+        result = json.loads(zlib.decompress(response['body'], 16 + zlib.MAX_WBITS))['result']
+        self.assertEqual(len(result[0]['dist_matrix']), 300 * 299 / 2)
+
+    def test_profile_response(self):
+        self.start_test()
+        # unseeded data, so that the profiled call is not a result cache hit
+        data_matrix = pd.DataFrame(np.random.RandomState().rand(50, 10)).to_json()
+        request = {'version': '1.1',
+                   'id': '1',
+                   'method': 'kb_ke_util.run_pdist',
+                   'params': [{'data_matrix': data_matrix, 'metric': 'cosine'}]}
+
+        # no profile unless the context asks for one
+        response = self.call_application(json.dumps(request), 'application/json',
+                                         'application/json', HTTP_AUTHORIZATION=self.token)
+        self.assertFalse('profile' in json.loads(response['body']))
+
+        request['params'][0]['metric'] = 'cityblock'
+        request['context'] = {'profile': 1}
+        response = self.call_application(json.dumps(request), 'application/json',
+                                         'application/json', HTTP_AUTHORIZATION=self.token)
+        body = json.loads(response['body'])
+        self.assertEqual(len(body['result'][0]['dist_matrix']), 50 * 49 / 2)
+        profile = body['profile']
+        stages = [item['name'] for item in profile['stages']]
+        self.assertEqual(stages[0], 'request_decode')
+        # the profile is encoded with the response, encoding and response size are only logged
+        self.assertFalse('result_encoding' in stages)
+        self.assertFalse('response_bytes' in profile['sizes'])
+        self.assertTrue('json_parse' in stages and 'pdist' in stages)
+        # list conversion is timed on its own, after the distance computation
+        self.assertGreater(stages.index('to_wire'), stages.index('pdist'))
+        self.assertEqual(profile['sizes']['rows'], 50)
+        self.assertEqual(profile['sizes']['request_bytes'], len(json.dumps(request)))
+        self.assertGreater(profile['peak_rss_bytes'], 0)
+        self.assertGreaterEqual(profile['total_seconds'],
+                                sum(item['seconds'] for item in profile['stages'][:2]))
+
+        response = self.call_application(cbor2.dumps(request), 'application/cbor',
+                                         'application/cbor', HTTP_AUTHORIZATION=self.token)
+        body = cbor2.loads(response['body'])
+        self.assertEqual(body['id'], '1')
+        self.assertEqual(len(body['result'][0]['dist_matrix']), 50 * 49 / 2)
+        self.assertEqual(body['profile']['sizes']['request_bytes'], len(cbor2.dumps(request)))
+
     def test_run_pca(self):
         self.start_test()
 
@@ -337,6 +500,253 @@ class kb_ke_utilTest(unittest.TestCase):
         ret = self.getImpl().run_pdist(self.ctx, params)[0]
         self.check_run_pdist_output(ret)
 
+    def test_result_cache(self):
+        self.start_test()
+
+        data_matrix = """
+            {"condition_1":{"gene_1":0.1,"gene_2":0.3,"gene_3":0.5},
+             "condition_2":{"gene_1":0.2,"gene_2":0.4,"gene_3":0.6}}
+        """
+        params = {'data_matrix': data_matrix, 'metric': 'cityblock'}
+        ret = self.getImpl().run_pdist(self.ctx, params)[0]
+
+        stats = self.getImpl().status(self.ctx)[0]['result_cache']
+        cached_ret = self.getImpl().run_pdist(self.ctx, {'metric': 'cityblock',
+                                                         'data_matrix': data_matrix})[0]
+        self.assertEqual(cached_ret, ret)
+        cached_stats = self.getImpl().status(self.ctx)[0]['result_cache']
+        self.assertEqual(cached_stats['memory_hits'], stats['memory_hits'] + 1)
+        self.assertEqual(cached_stats['misses'], stats['misses'])
+
+        # disk tier survives a new cache over the same directory and evicts by byte budget
+        cache_directory = os.path.join(self.scratch, 'test_result_cache_' + str(time.time()))
+        result_cache = ResultCache(0, 1024, cache_directory)
+        key = result_cache.key('run_pdist', params)
+        self.assertEqual(key, result_cache.key('run_pdist', dict(params)))
+        self.assertNotEqual(key, result_cache.key('run_linkage', params))
+        self.assertNotEqual(key, ResultCache(0, 0, cache_directory, '1.0.4').key('run_pdist',
+                                                                              params))
+        result_cache.put(key, ret)
+
+        result_cache = ResultCache(0, 1024, cache_directory)
+        self.assertEqual(result_cache.get(key), ret)
+        self.assertIsNone(result_cache.get(result_cache.key('run_linkage', params)))
+        stats = result_cache.stats()
+        self.assertEqual(stats['disk_hits'], 1)
+        self.assertEqual(stats['memory_entries'], 0)
+        self.assertEqual(stats['hit_rate'], 0.5)
+
+        for i in range(20):
+            result_cache.put(result_cache.key('run_pdist', {'i': i}), {'dist_matrix': [i] * 20})
+        stats = result_cache.stats()
+        self.assertLessEqual(stats['disk_bytes'], 1024)
+        self.assertGreater(stats['evictions'], 0)
+        self.assertEqual(len(os.listdir(cache_directory)), stats['disk_entries'])
+        self.assertIsNone(result_cache.get(key))
+
+        # a failed disk write keeps the result in memory and leaves no file behind
+        cache_directory = os.path.join(self.scratch, 'test_gone_result_cache_' + str(time.time()))
+        result_cache = ResultCache(1024 * 1024, 1024, cache_directory)
+        os.rmdir(cache_directory)
+        self.assertEqual(result_cache.put(key, ret), ret)
+        self.assertFalse(os.path.exists(cache_directory))
+        self.assertEqual(result_cache.get(key), ret)
+        self.assertEqual(result_cache.stats()['disk_entries'], 0)
+
+        # a disabled cache stores nothing
+        cache_directory = os.path.join(self.scratch, 'test_no_result_cache_' + str(time.time()))
+        result_cache = ResultCache(0, 0, cache_directory)
+        self.assertEqual(result_cache.put(key, ret), ret)
+        self.assertIsNone(result_cache.get(key))
+        self.assertEqual(result_cache.stats()['disk_entries'], 0)
+
+    def test_tiled_pdist(self):
+        self.start_test()
+
+        data = np.random.RandomState(0).rand(50, 7)
+        data[3] = 0.5  # constant row
+
+        for metric in ['euclidean', 'cosine', 'correlation']:
+            expected_dist = dist.pdist(data, metric=metric)
+            for tile_size in [1, 7, 64]:
+                dist_matrix = self.ke_util._tiled_pdist(data, metric, tile_size=tile_size)
+                self.assertEqual(dist_matrix.shape, expected_dist.shape)
+                np.testing.assert_allclose(dist_matrix, expected_dist, rtol=1e-7, atol=1e-7)
+
+        # large inputs take the tiled path, duplicate rows must still be exactly 0 apart
+        random_state = np.random.RandomState(0)
+        data = 1000 + random_state.rand(self.ke_util.TILED_PDIST_MIN_ROWS, 20)
+        data[1::2] = data[::2]
+        data[2] = data[0] + 1e-3
+
+        for metric in ['euclidean', 'cosine', 'correlation']:
+            expected_dist = dist.pdist(data, metric=metric)
+            dist_matrix = self.ke_util._compute_pdist(data, metric)
+            np.testing.assert_allclose(dist_matrix, expected_dist, rtol=1e-6, atol=1e-12)
+            self.assertEqual(dist_matrix[self.ke_util._condensed_offset(0, len(data))], 0)
+
+        expected_dist = dist.pdist(data)
+        dist_matrix = self.ke_util._compute_pdist(data, 'euclidean')
+        for method in ['single', 'average']:
+            linkage_matrix = hier.linkage(dist_matrix, method=method)
+            expected_linkage = hier.linkage(expected_dist, method=method)
+            np.testing.assert_array_equal(hier.fcluster(linkage_matrix, 0, 'distance'),
+                                          hier.fcluster(expected_linkage, 0, 'distance'))
+
+    def test_run_pdist_out_of_core(self):
+        self.start_test()
+
+        data_matrix = """
+            {"condition_1":{"gene_1":0.1,"gene_2":0.3,"gene_3":0.7,"gene_4":0.2},
+             "condition_2":{"gene_1":0.2,"gene_2":0.4,"gene_3":0.1,"gene_4":0.9},
+             "condition_3":{"gene_1":0.3,"gene_2":0.5,"gene_3":0.6,"gene_4":0.4},
+             "condition_4":{"gene_1":0.4,"gene_2":0.6,"gene_3":0.3,"gene_4":0.8}}
+        """
+
+        for metric in ['euclidean', 'cityblock']:
+            params = {'data_matrix': data_matrix,
+                      'metric': metric}
+            expected_ret = self.getImpl().run_pdist(self.ctx, params)[0]
+
+            params['out_of_core'] = 1
+            ret = self.getImpl().run_pdist(self.ctx, params)[0]
+            self.check_run_pdist_output(ret)
+            self.assertEqual(ret['dist_matrix'], [])
+            self.assertEqual(ret['labels'], expected_ret['labels'])
+
+            dist_matrix_file = ret['dist_matrix_file']
+            self.assertTrue(dist_matrix_file.startswith(self.scratch))
+            np.testing.assert_allclose(np.load(dist_matrix_file), expected_ret['dist_matrix'])
+
+            expected_linkage = self.getImpl().run_linkage(
+                                    self.ctx, {'dist_matrix': expected_ret['dist_matrix']})[0]
+            linkage_ret = self.getImpl().run_linkage(
+                                    self.ctx, {'dist_matrix_file': dist_matrix_file})[0]
+            np.testing.assert_allclose(linkage_ret['linkage_matrix'],
+                                       expected_linkage['linkage_matrix'])
+
+            invalidate_params = {'dist_matrix': [], 'dist_matrix_file': dist_matrix_file,
+                                 'k_num': 2}
+            error_msg = 'INPUT ERROR:\nrun_kmeans2 does not support dist_matrix_file, '
+            error_msg += 'k-means needs the full square distance matrix in memory.\n'
+            self.fail_run_kmeans2(invalidate_params, error_msg)
+
+        invalidate_params = {'dist_matrix_file': '/etc/passwd'}
+        error_msg = 'INPUT ERROR:\nInput dist_matrix_file [/etc/passwd] is not valid.\n'
+        self.fail_run_linkage(invalidate_params, error_msg)
+
+    def test_sparse_pdist(self):
+        self.start_test()
+
+        random_state = np.random.RandomState(0)
+        data = random_state.rand(30, 20)
+        data[data < 0.8] = 0
+        data[4] = 0  # all zero row
+        csr = sparse.csr_matrix(data)
+        sparse_matrix = {'row_ids': ['gene_{}'.format(i) for i in range(30)],
+                         'col_ids': ['condition_{}'.format(i) for i in range(20)],
+                         'indptr': csr.indptr.tolist(),
+                         'indices': csr.indices.tolist(),
+                         'values': csr.data.tolist()}
+
+        for metric in ['euclidean', 'cosine', 'cityblock', 'braycurtis']:
+            params = {'sparse_matrix': sparse_matrix,
+                      'metric': metric}
+            ret = self.getImpl().run_pdist(self.ctx, params)[0]
+            self.check_run_pdist_output(ret)
+            self.assertEqual(ret['labels'], sparse_matrix['row_ids'])
+
+            expected_dist = dist.pdist(data, metric=metric)
+            np.testing.assert_allclose(ret['dist_matrix'], expected_dist, rtol=1e-7, atol=1e-7)
+
+        # jaccard runs on presence/absence data only, where it matches scipy on the dense matrix
+        binary_data = (data != 0).astype(float)
+        params = {'sparse_matrix': dict(sparse_matrix, values=[1.0] * csr.nnz),
+                  'metric': 'jaccard'}
+        ret = self.getImpl().run_pdist(self.ctx, params)[0]
+        expected_dist = dist.pdist(binary_data, metric='jaccard')
+        np.testing.assert_allclose(ret['dist_matrix'], expected_dist, rtol=1e-7, atol=1e-7)
+
+        invalidate_params = {'sparse_matrix': sparse_matrix, 'metric': 'jaccard'}
+        error_msg = 'INVALID sparse_matrix:\njaccard needs presence/absence data'
+        self.fail_run_pdist(invalidate_params, error_msg, contains=True)
+
+        params = {'sparse_matrix': sparse_matrix,
+                  'n_components': 3}
+        ret = self.getImpl().run_PCA(self.ctx, params)[0]
+        PCA_matrix = pd.read_json(ret.get('PCA_matrix'))
+        self.assertItemsEqual(PCA_matrix.index.tolist(), sparse_matrix['row_ids'])
+        self.assertItemsEqual(PCA_matrix.columns.tolist(), ['principal_component_1',
+                                                            'principal_component_2',
+                                                            'principal_component_3'])
+
+        invalidate_params = {'sparse_matrix': dict(sparse_matrix, indptr=[0, 1])}
+        error_msg = 'INVALID sparse_matrix:\ncannot build CSR matrix:'
+        self.fail_run_pdist(invalidate_params, error_msg, contains=True)
+
+    def test_float32_precision(self):
+        self.start_test()
+
+        data = np.random.RandomState(0).rand(50, 7)
+        for metric in ['euclidean', 'cosine', 'correlation']:
+            expected_dist = self.ke_util._tiled_pdist(data, metric)
+            dist_matrix = self.ke_util._tiled_pdist(data, metric, dtype=np.float32)
+            self.assertEqual(dist_matrix.dtype, np.float32)
+            np.testing.assert_allclose(dist_matrix, expected_dist, rtol=1e-6, atol=1e-6)
+
+        # near-duplicate rows of large norm on the tiled path keep the relative tolerance
+        random_state = np.random.RandomState(0)
+        large_data = 1e4 + random_state.rand(self.ke_util.TILED_PDIST_MIN_ROWS, 20)
+        large_data[1::2] = large_data[::2] + 1e-3 * random_state.rand(
+                                                self.ke_util.TILED_PDIST_MIN_ROWS // 2, 20)
+        for metric in ['euclidean', 'cosine', 'correlation']:
+            expected_dist = self.ke_util._compute_pdist(large_data, metric)
+            dist_matrix = self.ke_util._compute_pdist(large_data, metric, dtype=np.float32)
+            self.assertEqual(dist_matrix.dtype, np.float32)
+            np.testing.assert_allclose(dist_matrix, expected_dist, rtol=1e-6)
+        np.testing.assert_allclose(self.ke_util._compute_pdist(large_data, 'euclidean',
+                                                               dtype=np.float32),
+                                   dist.pdist(large_data), rtol=1e-6)
+
+        data_matrix = pd.DataFrame(data).to_json()
+        params = {'data_matrix': data_matrix}
+        expected_ret = self.getImpl().run_pdist(self.ctx, params)[0]
+        params['precision'] = 'float32'
+        ret = self.getImpl().run_pdist(self.ctx, params)[0]
+        np.testing.assert_allclose(ret['dist_matrix'], expected_ret['dist_matrix'], rtol=1e-6)
+
+        params = {'dist_matrix': expected_ret['dist_matrix'],
+                  'method': 'average'}
+        expected_linkage = self.getImpl().run_linkage(self.ctx, params)[0]['linkage_matrix']
+        params.update({'dist_matrix': ret['dist_matrix'],
+                       'precision': 'float32'})
+        linkage_matrix = self.getImpl().run_linkage(self.ctx, params)[0]['linkage_matrix']
+        np.testing.assert_allclose(linkage_matrix, expected_linkage, rtol=1e-6)
+
+        # chunked conversion gives the same values and shape as converting at once
+        self.ke_util.TO_WIRE_CHUNK_VALUES = 10
+        try:
+            self.assertEqual(self.ke_util._to_wire(linkage_matrix, 'float32'), linkage_matrix)
+            self.assertEqual(self.ke_util._to_wire(ret['dist_matrix'], 'float32'),
+                             ret['dist_matrix'])
+        finally:
+            del self.ke_util.TO_WIRE_CHUNK_VALUES
+
+        # threshold between two merges, away from float32 rounding of either height
+        dist_threshold = (expected_linkage[25][2] + expected_linkage[26][2]) / 2
+        params = {'linkage_matrix': expected_linkage,
+                  'dist_threshold': dist_threshold}
+        expected_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+        params.update({'linkage_matrix': linkage_matrix,
+                       'precision': 'float32'})
+        flat_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+        self.assertItemsEqual(flat_cluster.values(), expected_cluster.values())
+
+        invalidate_params = {'data_matrix': data_matrix,
+                             'precision': 'float16'}
+        error_msg = 'INPUT ERROR:\nInput precision [float16] is not valid.\n'
+        self.fail_run_pdist(invalidate_params, error_msg, contains=True)
+
     def test_bad_run_linkage_params(self):
         self.start_test()
         invalidate_params = {'missing_dist_matrix': 'dist_matrix'}
@@ -370,6 +780,71 @@ class kb_ke_utilTest(unittest.TestCase):
         expected_newick = '((gene_3:0.60,gene_2:0.60):0.27,gene_1:0.87);'
         self.assertEqual(newick, expected_newick)
 
+        params['write_to_file'] = 1
+        ret = self.getImpl().linkage_2_newick(self.ctx, params)[0]
+        with open(ret.get('newick_file')) as newick_file:
+            self.assertEqual(newick_file.read(), expected_newick)
+
+        # files are written as utf-8
+        params['labels'] = [u'gène_1', u'gène_2', u'gène_3']
+        ret = self.getImpl().linkage_2_newick(self.ctx, params)[0]
+        with io.open(ret.get('newick_file'), encoding='utf-8') as newick_file:
+            self.assertEqual(newick_file.read(), expected_newick.replace('gene', u'gène'))
+
+        # caterpillar tree: depth equals number of leaves
+        leaf_size = 50000
+        linkage_matrix = [[0.0, 1.0, 1.0, 2.0]]
+        for i in range(1, leaf_size - 1):
+            linkage_matrix.append([float(leaf_size + i - 1), float(i + 1), float(i + 1), i + 2.0])
+        params = {'linkage_matrix': linkage_matrix}
+        newick = self.getImpl().linkage_2_newick(self.ctx, params)[0].get('newick')
+        self.assertEqual(newick.count('('), leaf_size - 1)
+        self.assertTrue(newick.startswith('(49999:49999.00,(49998:49998.00,'))
+        self.assertTrue(newick.endswith('(1:1.00,0:1.00):1.00' + '):1.00' * (leaf_size - 3) + ');'))
+
+    def test_packed_linkage_matrix(self):
+        self.start_test()
+        dist_matrix = dist.pdist(np.random.RandomState(0).rand(30, 4)).tolist()
+        params = {'dist_matrix': dist_matrix,
+                  'method': 'average'}
+        linkage_matrix = self.getImpl().run_linkage(self.ctx, params)[0]['linkage_matrix']
+        params['packed_output'] = 1
+        ret = self.getImpl().run_linkage(self.ctx, params)[0]
+        self.assertFalse('linkage_matrix' in ret)
+        packed_linkage_matrix = ret['packed_linkage_matrix']
+        np.testing.assert_array_equal(self.ke_util._unpack_linkage_matrix(packed_linkage_matrix),
+                                      linkage_matrix)
+
+        # known encoding shared with the Java LinkageCodec
+        packed = self.ke_util._pack_linkage_matrix([[1.0, 2.0, 0.6, 2.0],
+                                                    [0.0, 3.0, 0.87177978, 3.0]])
+        self.assertEqual(packed, 'AAAAAAAA8D8AAAAAAAAAQDMzMzMzM+M/AAAAAAAAAEAAAAAAAAAAAAAAAAAAAAhA'
+                                 'GkCNtZ7l6z8AAAAAAAAIQA==')
+
+        params = {'linkage_matrix': linkage_matrix,
+                  'dist_threshold': 0.5}
+        expected_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+        params = {'packed_linkage_matrix': packed_linkage_matrix,
+                  'dist_threshold': 0.5}
+        flat_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+        self.assertEqual(flat_cluster, expected_cluster)
+
+        expected_newick = self.getImpl().linkage_2_newick(
+                                self.ctx, {'linkage_matrix': linkage_matrix})[0]['newick']
+        newick = self.getImpl().linkage_2_newick(
+                        self.ctx, {'packed_linkage_matrix': packed_linkage_matrix})[0]['newick']
+        self.assertEqual(newick, expected_newick)
+
+        params = {'packed_linkage_matrix': packed_linkage_matrix,
+                  'output_format': 'json'}
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        self.check_run_dendrogram_output(ret)
+
+        invalidate_params = {'packed_linkage_matrix': 'AAAAAAAA8D8=',
+                             'dist_threshold': 0.5}
+        error_msg = 'INPUT ERROR:\nInput packed_linkage_matrix is not valid.\n'
+        self.fail_run_fcluster(invalidate_params, error_msg, contains=True)
+
     def test_bad_run_fcluster_params(self):
         self.start_test()
         invalidate_params = {'missing_linkage_matrix': 'linkage_matrix',
@@ -398,12 +873,93 @@ class kb_ke_utilTest(unittest.TestCase):
         ret = self.getImpl().run_fcluster(self.ctx, params)[0]
         self.check_run_fcluster_output(ret)
 
+        params['compact_output'] = 1
+        compact_ret = self.getImpl().run_fcluster(self.ctx, params)[0]
+        self.assertFalse('flat_cluster' in compact_ret)
+        cluster_assignment = compact_ret['cluster_assignment']
+        cluster_offsets = compact_ret['cluster_offsets']
+        cluster_members = compact_ret['cluster_members']
+        self.assertEqual(len(cluster_assignment), 3)
+        self.assertEqual(cluster_offsets[0], 0)
+        self.assertEqual(cluster_offsets[-1], 3)
+        for cluster_id, labels in ret['flat_cluster'].items():
+            cluster_id = int(cluster_id)
+            members = cluster_members[cluster_offsets[cluster_id - 1]:cluster_offsets[cluster_id]]
+            self.assertEqual([params['labels'][pos] for pos in members], labels)
+            self.assertTrue(all(cluster_assignment[pos] == cluster_id for pos in members))
+
+    def test_bad_run_fcluster_sweep_params(self):
+        self.start_test()
+        invalidate_params = {'missing_linkage_matrix': 'linkage_matrix',
+                             'dist_thresholds': [0.5]}
+        error_msg = '"linkage_matrix" parameter is required, but missing'
+        self.fail_run_fcluster_sweep(invalidate_params, error_msg)
+
+        invalidate_params = {'linkage_matrix': 'linkage_matrix'}
+        error_msg = '"dist_thresholds" or "maxclust_values" parameter is required, but missing'
+        self.fail_run_fcluster_sweep(invalidate_params, error_msg)
+
+        invalidate_params = {'linkage_matrix': 'linkage_matrix',
+                             'dist_thresholds': [0.5],
+                             'maxclust_values': [2]}
+        error_msg = 'INPUT ERROR:\nInput dist_thresholds and maxclust_values are not valid.\n'
+        self.fail_run_fcluster_sweep(invalidate_params, error_msg, contains=True)
+
+    def test_run_fcluster_sweep(self):
+        self.start_test()
+        linkage_matrix = [[1.0, 2.0, 0.6, 2.0],
+                          [0.0, 3.0, 0.87177978, 3.0]]
+        params = {'linkage_matrix': linkage_matrix,
+                  'dist_thresholds': [0.7, 0.5, 1.0],
+                  'labels': ['gene_1', 'gene_2', 'gene_3']}
+        ret = self.getImpl().run_fcluster_sweep(self.ctx, params)[0]
+        self.check_run_fcluster_sweep_output(ret, 3)
+        self.assertItemsEqual(ret['flat_clusters'][0].values(),
+                              [['gene_1'], ['gene_2', 'gene_3']])
+        self.assertEqual(len(ret['flat_clusters'][1]), 3)
+        self.assertEqual(len(ret['flat_clusters'][2]), 1)
+
+        # every cut must match run_fcluster on the same threshold, including ties
+        data = np.random.RandomState(0).randint(0, 5, size=(60, 3))
+        dist_matrix = dist.pdist(data, metric='cityblock').tolist()
+        params = {'dist_matrix': dist_matrix,
+                  'method': 'average'}
+        linkage_matrix = self.getImpl().run_linkage(self.ctx, params)[0]['linkage_matrix']
+        heights = sorted(set(row[2] for row in linkage_matrix))
+        dist_thresholds = heights[::3] + [0.0, heights[-1] + 1]
+        params = {'linkage_matrix': linkage_matrix,
+                  'dist_thresholds': dist_thresholds}
+        ret = self.getImpl().run_fcluster_sweep(self.ctx, params)[0]
+        self.check_run_fcluster_sweep_output(ret, len(dist_thresholds))
+        for dist_threshold, flat_cluster in zip(dist_thresholds, ret['flat_clusters']):
+            params = {'linkage_matrix': linkage_matrix,
+                      'dist_threshold': dist_threshold}
+            expected_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+            self.assertItemsEqual(flat_cluster.values(), expected_cluster.values())
+
+        maxclust_values = [1, 4, 10, 2, 60, 100]
+        params = {'linkage_matrix': linkage_matrix,
+                  'maxclust_values': maxclust_values}
+        ret = self.getImpl().run_fcluster_sweep(self.ctx, params)[0]
+        self.check_run_fcluster_sweep_output(ret, len(maxclust_values))
+        for maxclust, flat_cluster in zip(maxclust_values, ret['flat_clusters']):
+            params = {'linkage_matrix': linkage_matrix,
+                      'dist_threshold': maxclust,
+                      'criterion': 'maxclust'}
+            expected_cluster = self.getImpl().run_fcluster(self.ctx, params)[0]['flat_cluster']
+            self.assertItemsEqual(flat_cluster.values(), expected_cluster.values())
+
     def test_bad_run_dendrogram_params(self):
         self.start_test()
         invalidate_params = {'missing_linkage_matrix': 'linkage_matrix'}
         error_msg = '"linkage_matrix" parameter is required, but missing'
         self.fail_run_dendrogram(invalidate_params, error_msg)
 
+        invalidate_params = {'linkage_matrix': 'linkage_matrix',
+                             'output_format': 'invalidate_format'}
+        error_msg = "INPUT ERROR:\nInput output_format [invalidate_format] is not valid.\n"
+        self.fail_run_dendrogram(invalidate_params, error_msg, contains=True)
+
     def test_run_dendrogram(self):
         self.start_test()
         linkage_matrix = [[1.0, 2.0, 0.6, 2.0],
@@ -415,6 +971,67 @@ class kb_ke_utilTest(unittest.TestCase):
         ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
         self.check_run_dendrogram_output(ret)
 
+        params['output_format'] = 'svg'
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        self.check_run_dendrogram_output(ret)
+        self.assertTrue(ret['result_plots'][0].endswith('dendrogram.svg'))
+        with open(ret['result_plots'][0]) as svg_file:
+            svg = svg_file.read()
+        self.assertTrue(svg.startswith('<svg'))
+        self.assertTrue(svg.endswith('</svg>\n'))
+        self.assertIn('gene_1', svg)
+        self.assertIn('(2)', svg)
+
+        params['labels'] = [u'gène_1', u'gène_2', u'gène_3']
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        with io.open(ret['result_plots'][0], encoding='utf-8') as svg_file:
+            self.assertIn(u'gène_1', svg_file.read())
+
+    def test_run_dendrogram_json(self):
+        self.start_test()
+        data = np.random.RandomState(0).rand(5000, 3)
+        linkage_matrix = hier.linkage(data, method='average')
+        leaf_size = data.shape[0]
+
+        def read_nodes(plot_file):
+            with open(plot_file) as json_file:
+                header = json.loads(json_file.readline())
+                nodes = [json.loads(line) for line in json_file]
+            return header, nodes
+
+        # full detail: every merge and leaf is placed, children before their parent
+        params = {'linkage_matrix': linkage_matrix.tolist(),
+                  'output_format': 'json',
+                  'min_pixels': 0}
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        self.check_run_dendrogram_output(ret)
+        header, nodes = read_nodes(ret['result_plots'][0])
+        self.assertEqual(header['width'], 2500)
+        self.assertEqual(len(nodes), 2 * leaf_size - 1)
+        seen = set()
+        for node in nodes:
+            for child in node.get('children', []):
+                self.assertIn(child, seen)
+            seen.add(node['id'])
+        self.assertEqual(nodes[-1]['id'], 2 * leaf_size - 2)
+        leaves = [node['id'] for node in nodes if 'children' not in node]
+        self.assertEqual(leaves, hier.leaves_list(linkage_matrix).tolist())
+
+        # level of detail: far fewer nodes than leaves, all leaves still accounted for
+        params['min_pixels'] = 5.0
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        header, nodes = read_nodes(ret['result_plots'][0])
+        self.assertLess(len(nodes), leaf_size)
+        terminals = [node for node in nodes if 'children' not in node]
+        self.assertEqual(sum(node['count'] for node in terminals), leaf_size)
+        self.assertTrue(any(node['collapsed'] for node in terminals))
+
+        # last_merges: only the top merges are placed
+        params['last_merges'] = 10
+        ret = self.getImpl().run_dendrogram(self.ctx, params)[0]
+        header, nodes = read_nodes(ret['result_plots'][0])
+        self.assertEqual(len(nodes), 2 * 10 - 1)
+
     def test_bad_build_biclusters_params(self):
         self.start_test()
         invalidate_params = {'missing_ndarray_ref': 'ndarray_ref',
@@ -473,6 +1090,14 @@ class kb_ke_utilTest(unittest.TestCase):
         error_msg = '"entity_term_set" parameter is required, but missing'
         self.fail_enrich_onthology(invalidate_params, error_msg)
 
+        invalidate_params = {'sample_set': ['gene_id_1'],
+                             'encoded_entity_term_set': {'entity_ids': ['gene_id_1'],
+                                                         'terms': ['GO:0008150'],
+                                                         'indptr': [0, 1],
+                                                         'indices': [1]}}
+        error_msg = 'INVALID encoded_entity_term_set:\ncannot build CSR matrix:'
+        self.fail_enrich_onthology(invalidate_params, error_msg, contains=True)
+
     def test_enrich_onthology(self):
         self.start_test()
 
@@ -494,6 +1119,93 @@ class kb_ke_utilTest(unittest.TestCase):
         enrichment_profile = ret['enrichment_profile']
         print enrichment_profile
 
+    def test_enrich_onthology_encoded(self):
+        self.start_test()
+
+        sample_set = ['gene_id_1', 'gene_id_2', 'gene_id_5']
+        entity_term_set = {'gene_id_1': ['GO:0008150'],
+                           'gene_id_2': ['GO:0065007', 'GO:0050789'],
+                           'gene_id_3': ['GO:2001141', 'GO:0050789'],
+                           'gene_id_4': ['GO:0006355']}
+        encoded_entity_term_set = {'entity_ids': ['gene_id_1', 'gene_id_2',
+                                                  'gene_id_3', 'gene_id_4'],
+                                   'terms': ['GO:0008150', 'GO:0065007', 'GO:0050789',
+                                             'GO:2001141', 'GO:0006355'],
+                                   'indptr': [0, 1, 3, 5, 6],
+                                   'indices': [0, 1, 2, 3, 2, 4]}
+
+        for propagation in [0, 1]:
+            params = {'sample_set': sample_set,
+                      'entity_term_set': entity_term_set,
+                      'propagation': propagation}
+            expect_profile = self.getImpl().enrich_onthology(
+                                                self.ctx, params)[0]['enrichment_profile']
+
+            params = {'sample_set': sample_set,
+                      'encoded_entity_term_set': encoded_entity_term_set,
+                      'propagation': propagation}
+            ret = self.getImpl().enrich_onthology(self.ctx, params)[0]
+            self.assertEqual(ret['enrichment_profile'], expect_profile)
+
+    def test_register_entity_term_set(self):
+        self.start_test()
+
+        sample_set = ['gene_id_1', 'gene_id_2', 'gene_id_2', 'gene_id_5']
+        entity_term_set = {'gene_id_1': ['GO:0008150'],
+                           'gene_id_2': ['GO:0065007', 'GO:0050789'],
+                           'gene_id_3': ['GO:2001141', 'GO:0050789'],
+                           'gene_id_4': ['GO:0006355']}
+
+        ret = self.getImpl().register_entity_term_set(
+                                    self.ctx, {'entity_term_set': entity_term_set})[0]
+        self.assertEqual(ret['entity_count'], 4)
+        self.assertEqual(ret['term_count'], 5)
+        entity_term_set_handle = ret['entity_term_set_handle']
+
+        # the same entity_term_set gets the same handle
+        ret = self.getImpl().register_entity_term_set(
+                                    self.ctx, {'entity_term_set': entity_term_set})[0]
+        self.assertEqual(ret['entity_term_set_handle'], entity_term_set_handle)
+
+        for propagation in [0, 1]:
+            params = {'sample_set': sample_set,
+                      'entity_term_set': entity_term_set,
+                      'propagation': propagation}
+            expect_profile = self.getImpl().enrich_onthology(
+                                                self.ctx, params)[0]['enrichment_profile']
+
+            params = {'sample_set': sample_set,
+                      'entity_term_set_handle': entity_term_set_handle,
+                      'propagation': propagation}
+            ret = self.getImpl().enrich_onthology(self.ctx, params)[0]
+            self.assertEqual(ret['enrichment_profile'], expect_profile)
+
+        invalidate_params = {'sample_set': sample_set,
+                             'entity_term_set_handle': '0' * 64}
+        error_msg = 'entity_term_set_handle [{}] is not registered'.format('0' * 64)
+        self.fail_enrich_onthology(invalidate_params, error_msg, contains=True)
+
+        # a handle registered by one server process is found by another one on the same scratch
+        cache_directory = os.path.join(self.scratch, 'test_term_bitmap_cache_' + str(time.time()))
+        worker_a = TermBitmapCache(0, 1024 * 1024, cache_directory)
+        worker_b = TermBitmapCache(0, 1024 * 1024, cache_directory)
+        entry = {'entity_ids': np.array(['gene_id_1', 'gene_id_2']),
+                 'terms': np.array(['GO:0008150']),
+                 'bitmaps': np.packbits(np.array([[1, 1]], dtype=bool), axis=1),
+                 'total_counts': np.array([2])}
+        handle = worker_a.key('register_entity_term_set', entity_term_set)
+        worker_a.put(handle, entry)
+        registered = worker_b.get(handle)
+        self.assertIsNotNone(registered)
+        for name in entry:
+            np.testing.assert_array_equal(registered[name], entry[name])
+        self.assertEqual(worker_b.stats()['disk_entries'], 1)
+
+        # an entry evicted by one process is a miss for the other one
+        worker_b = TermBitmapCache(0, 1, cache_directory)
+        self.assertFalse(os.listdir(cache_directory))
+        self.assertIsNone(worker_a.get(handle))
+
     def test_bad_calc_onthology_dist_params(self):
         self.start_test()
         invalidate_params = {'missing_onthology_set': 'onthology_set'}
@@ -531,6 +1243,47 @@ class kb_ke_utilTest(unittest.TestCase):
                         'gene_id_6': 0}
         self.check_calc_onthology_dist_output(ret, expect_steps)
 
+    def test_single_flight_ontology_loading(self):
+        self.start_test()
+
+        class CountingKnowledgeEngineUtil(KnowledgeEngineUtil):
+            ONTOLOGY_HASH = None
+            WEIGHTED_EDGES = None
+            ONTOLOGY_LOCK = threading.Lock()
+            WEIGHTED_EDGES_LOCK = threading.Lock()
+            loads = list()
+
+            def _get_ontology_hash(self):
+                self.loads.append('ontology_hash')
+                time.sleep(0.5)
+                return {'GO:0000001': {'id': 'GO:0000001'}}
+
+            def _compute_weighted_edges(self):
+                self.loads.append('weighted_edges')
+                self._get_cached_ontology_hash()
+                return {'GO:0000001': {}}
+
+        ke_util = CountingKnowledgeEngineUtil(self.cfg)
+        results = list()
+
+        def load():
+            results.append((ke_util._get_cached_ontology_hash(),
+                            ke_util._get_cached_weighted_edges()))
+
+        threads = [threading.Thread(target=load) for _ in range(8)]
+        for thread in threads:
+            thread.start()
+        for thread in threads:
+            thread.join()
+
+        self.assertEqual(sorted(CountingKnowledgeEngineUtil.loads),
+                         ['ontology_hash', 'weighted_edges'])
+        self.assertEqual(len(results), 8)
+        for ontology_hash, weighted_edges in results:
+            self.assertIs(ontology_hash, CountingKnowledgeEngineUtil.ONTOLOGY_HASH)
+            self.assertIs(weighted_edges, CountingKnowledgeEngineUtil.WEIGHTED_EDGES)
+        self.assertIsNot(KnowledgeEngineUtil.ONTOLOGY_HASH, CountingKnowledgeEngineUtil.ONTOLOGY_HASH)
+
     def test_compute_weighted_edges(self):
         # root: [u'GO:0003674', u'GO:0008150', u'GO:0005575']
         # leave: GO:0000432
@@ -571,3 +1324,107 @@ class kb_ke_utilTest(unittest.TestCase):
 
         onthology_dist_set = ret['onthology_dist_set']
         self.assertItemsEqual(onthology_dist_set, expected_dist)
+
+    def test_calc_information_content_onthology_scores(self):
+        self.start_test()
+        # graph structure:
+        # GO:0008150 <-- GO:0065007 <-- GO:0050789 <-- GO:0050794 <-- GO:0031323
+        #                                          <-- GO:0019222 <-- GO:0031323
+        params = {'onthology_set': {'gene_id_1': ['GO:0050794', 'GO:0019222'],
+                                    'gene_id_2': ['GO:0065007', 'GO:0031323'],
+                                    'gene_id_3': ['GO:0031323', 'GO:0031323'],
+                                    'gene_id_4': ['GO:0031323', 'GO:not_existing']}}
+
+        resnik = self.getImpl().calc_resnik_onthology_sim(
+                                                self.ctx, params)[0]['onthology_score_set']
+        lin = self.getImpl().calc_lin_onthology_sim(self.ctx, params)[0]['onthology_score_set']
+        jiang_conrath = self.getImpl().calc_jiang_conrath_onthology_dist(
+                                                self.ctx, params)[0]['onthology_score_set']
+
+        # GO:0050789 is more specific than its parent GO:0065007
+        self.assertGreater(resnik['gene_id_1'], resnik['gene_id_2'])
+        self.assertGreater(resnik['gene_id_2'], 0)
+        self.assertTrue(0 < lin['gene_id_1'] < 1)
+        self.assertGreater(jiang_conrath['gene_id_1'], 0)
+
+        # identical terms
+        self.assertGreater(resnik['gene_id_3'], resnik['gene_id_1'])
+        self.assertAlmostEqual(lin['gene_id_3'], 1.0)
+        self.assertAlmostEqual(jiang_conrath['gene_id_3'], 0)
+
+        self.assertEqual(resnik['gene_id_4'], 0)
+        self.assertEqual(lin['gene_id_4'], 0)
+        self.assertEqual(jiang_conrath['gene_id_4'], float('inf'))
+
+        # information content from an annotation corpus
+        entity_term_set = {'gene_id_1': ['GO:0008150'],
+                           'gene_id_2': ['GO:0065007', 'GO:0050789'],
+                           'gene_id_3': ['GO:0050794'],
+                           'gene_id_4': ['GO:0019222']}
+        entity_term_set_handle = self.getImpl().register_entity_term_set(
+                    self.ctx, {'entity_term_set': entity_term_set})[0]['entity_term_set_handle']
+
+        params = {'onthology_set': {'gene_id_1': ['GO:0050794', 'GO:0019222'],
+                                    'gene_id_2': ['GO:0008150', 'GO:0050789']},
+                  'entity_term_set_handle': entity_term_set_handle}
+        resnik = self.getImpl().calc_resnik_onthology_sim(
+                                                self.ctx, params)[0]['onthology_score_set']
+        # 3 of 4 entities are annotated with GO:0050789 or a descendant
+        self.assertAlmostEqual(resnik['gene_id_1'], np.log(5.0 / 4.0))
+        # every entity is annotated with the root
+        self.assertAlmostEqual(resnik['gene_id_2'], 0)
+
+        invalidate_params = {'onthology_set': {'gene_id_1': ['GO:0050794', 'GO:0019222']},
+                             'entity_term_set_handle': '0' * 64}
+        error_msg = 'entity_term_set_handle [{}] is not registered'.format('0' * 64)
+        with self.assertRaises(ValueError) as context:
+            self.getImpl().calc_resnik_onthology_sim(self.ctx, invalidate_params)
+        self.assertIn(error_msg, str(context.exception.message))
+
+    def test_information_content_scores_of_fixed_dag(self):
+        self.start_test()
+
+        # graph structure (is_a):
+        # A <-- B <-- C
+        #         <-- D
+        #   <-- E
+        class FixedDagKnowledgeEngineUtil(KnowledgeEngineUtil):
+            ONTOLOGY_HASH = None
+            WEIGHTED_EDGES = None
+            ANCESTOR_INDEX = None
+            ONTOLOGY_LOCK = threading.Lock()
+            WEIGHTED_EDGES_LOCK = threading.Lock()
+            ANCESTOR_INDEX_LOCK = threading.Lock()
+
+            def _get_ontology_hash(self):
+                parents = {'A': [], 'B': ['A'], 'C': ['B'], 'D': ['B'], 'E': ['A']}
+                return {go_id: {'id': go_id,
+                                'is_a': ['{} ! term {}'.format(parent, parent)
+                                         for parent in is_a]}
+                        for go_id, is_a in parents.items()}
+
+        ke_util = FixedDagKnowledgeEngineUtil(self.cfg)
+        params = {'onthology_set': {'siblings': ['C', 'D'],
+                                    'root_only': ['C', 'E']}}
+        resnik = ke_util.calc_resnik_onthology_sim(params)['onthology_score_set']
+        lin = ke_util.calc_lin_onthology_sim(params)['onthology_score_set']
+        jiang_conrath = ke_util.calc_jiang_conrath_onthology_dist(params)['onthology_score_set']
+
+        # 5 terms: IC(C) = IC(D) = log(5 / 1), common ancestor B has 3 of 5: IC(B) = log(5 / 3)
+        self.assertAlmostEqual(resnik['siblings'], 0.511, places=3)
+        self.assertAlmostEqual(lin['siblings'], 0.317, places=3)
+        self.assertAlmostEqual(jiang_conrath['siblings'], 2.197, places=3)
+
+        # only the root in common: IC(A) = 0
+        self.assertAlmostEqual(resnik['root_only'], 0)
+        self.assertAlmostEqual(lin['root_only'], 0)
+        self.assertAlmostEqual(jiang_conrath['root_only'], 2 * np.log(5), places=6)
+
+        # ancestors are walked most informative first
+        ancestor_index = ke_util._get_cached_ancestor_index()
+        ancestor_ptr = ancestor_index['ancestor_ptr']
+        position = ancestor_index['positions']['C']
+        ancestor_terms = [ancestor_index['terms'][ancestor_index['rank_positions'][rank]]
+                          for rank in ancestor_index['ancestor_ranks'][ancestor_ptr[position]:
+                                                                       ancestor_ptr[position + 1]]]
+        self.assertEqual(ancestor_terms, ['C', 'B', 'A'])